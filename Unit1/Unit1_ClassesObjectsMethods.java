@@ -19,6 +19,9 @@
  */
 
 
+import java.util.stream.IntStream;
+
+
 // ============================================
 // EXAMPLE 1: Basic Class and Object Creation
 // ============================================
@@ -100,6 +103,11 @@ class Calculator {
     // Static variable - belongs to class, not object
     static int calculationCount = 0;
     
+    // Arrays this long are summed in parallel (fork/join) without printing each number.
+    // .parallel() is not free: splitting, waking workers and joining cost more than a
+    // plain loop over a few thousand ints, so shorter arrays stay sequential.
+    static final int PARALLEL_THRESHOLD = 100_000;
+    
     
     // Instance method - addition (two parameters)
     int add(int a, int b) {
@@ -170,6 +178,14 @@ class Calculator {
     
     // Method with varargs (variable arguments)
     int sum(int... numbers) {
+        // Large arrays: skip printing every number, let fork/join add in parallel.
+        // Added as longs, so the total is exact; toIntExact throws if it does not fit an int
+        if (numbers.length >= PARALLEL_THRESHOLD) {
+            long total = IntStream.of(numbers).parallel().asLongStream().sum();
+            System.out.println("Summing " + numbers.length + " numbers in parallel = " + total);
+            return Math.toIntExact(total);
+        }
+        
         int total = 0;
         System.out.print("Summing: ");
         for (int num : numbers) {
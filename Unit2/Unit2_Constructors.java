@@ -26,6 +26,9 @@
  */
 
 
+import java.util.stream.IntStream;
+
+
 // ============================================
 // EXAMPLE 1: Different Types of Constructors
 // ============================================
@@ -153,6 +156,10 @@ class Student {
 
 class MathOperations {
     
+    // Arrays this long are summed in parallel (fork/join) without printing each number.
+    // Below it a simple loop wins - parallel streams pay for splitting and joining first.
+    static final int PARALLEL_THRESHOLD = 100_000;
+    
     // Overloaded method 1 - Add two integers
     int add(int a, int b) {
         System.out.println("Method: add(int, int)");
@@ -183,6 +190,16 @@ class MathOperations {
     // Overloaded method 4 - Add array of integers
     int add(int[] numbers) {
         System.out.println("Method: add(int[])");
+        
+        // Large arrays: parallel stream = fork/join split over all cores.
+        // Summed as longs so nothing wraps; toIntExact throws if the result is too big for int
+        if (numbers.length >= PARALLEL_THRESHOLD) {
+            long sum = IntStream.of(numbers).parallel().asLongStream().sum();
+            System.out.println("Adding " + numbers.length + " numbers in parallel");
+            System.out.println("Sum = " + sum);
+            return Math.toIntExact(sum);
+        }
+        
         int sum = 0;
         System.out.print("Adding array: ");
         for (int num : numbers) {
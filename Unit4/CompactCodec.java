@@ -0,0 +1,353 @@
+/*
+ * UNIT 4 (EXTRA): COMPACT CODEC
+ *
+ * The hand-written Student/Course format from Unit4_CompactCodec. Record
+ * files (Unit4_RecordFile) store their records in it too, so the codec
+ * has a file of its own.
+ */
+
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+
+class CompactCodec {
+    static final int TAG_STUDENT = 1;
+    static final int TAG_COURSE = 2;
+    static final int MAGIC = 0x43534331;  // "CSC1"
+    static final int BUFFER_SIZE = 64 * 1024;
+
+
+    // Growable output buffer
+    static final class Sink {
+        byte[] buf;
+        int pos;
+
+        Sink(int capacity) {
+            this.buf = new byte[capacity];
+        }
+
+        void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeInt(int v) {
+            ensure(4);
+            buf[pos++] = (byte) (v >>> 24);
+            buf[pos++] = (byte) (v >>> 16);
+            buf[pos++] = (byte) (v >>> 8);
+            buf[pos++] = (byte) v;
+        }
+
+        void writeVarUInt(int v) {
+            ensure(5);
+            while ((v & ~0x7F) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void writeVarInt(int v) {
+            writeVarUInt((v << 1) ^ (v >> 31));  // ZigZag
+        }
+
+        void writeDouble(double d) {
+            long bits = Double.doubleToLongBits(d);
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[pos++] = (byte) (bits >>> shift);
+            }
+        }
+
+        void writeString(String s) {
+            if (s == null) {
+                writeVarUInt(0);
+                return;
+            }
+            int length = s.length();
+            boolean ascii = true;
+            for (int i = 0; i < length && ascii; i++) {
+                ascii = s.charAt(i) < 0x80;
+            }
+            if (ascii) {
+                // Fast path: 1 char = 1 byte, no temporary byte[]
+                writeVarUInt(length + 1);
+                ensure(length);
+                for (int i = 0; i < length; i++) {
+                    buf[pos++] = (byte) s.charAt(i);
+                }
+            } else {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                writeVarUInt(bytes.length + 1);
+                ensure(bytes.length);
+                System.arraycopy(bytes, 0, buf, pos, bytes.length);
+                pos += bytes.length;
+            }
+        }
+    }
+
+
+    // Input over a byte[] or a refillable buffer in front of an InputStream
+    static final class Source {
+        private final InputStream in;
+        private byte[] buf;
+        private int pos;
+        private int limit;
+
+        Source(byte[] data, int offset, int length) {
+            this.in = null;
+            this.buf = data;
+            this.pos = offset;
+            this.limit = offset + length;
+        }
+
+        Source(InputStream in) {
+            this.in = in;
+            this.buf = new byte[BUFFER_SIZE];
+        }
+
+        // true if `n` bytes are buffered (refilling if needed), false on end of input
+        boolean require(int n) throws IOException {
+            if (limit - pos >= n) {
+                return true;
+            }
+            if (in == null) {
+                return false;
+            }
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+            if (n > buf.length) {
+                buf = Arrays.copyOf(buf, n);
+            }
+            while (limit < n) {
+                int read = in.read(buf, limit, buf.length - limit);
+                if (read < 0) {
+                    return false;
+                }
+                limit += read;
+            }
+            return true;
+        }
+
+        boolean atEnd() throws IOException {
+            return !require(1);
+        }
+
+        private void need(int n) throws IOException {
+            if (!require(n)) {
+                throw new EOFException("Record truncated");
+            }
+        }
+
+        int readByte() throws IOException {
+            need(1);
+            return buf[pos++] & 0xFF;
+        }
+
+        int readInt() throws IOException {
+            need(4);
+            int v = (buf[pos] & 0xFF) << 24 | (buf[pos + 1] & 0xFF) << 16 | (buf[pos + 2] & 0xFF) << 8 | (buf[pos + 3] & 0xFF);
+            pos += 4;
+            return v;
+        }
+
+        int readVarUInt() throws IOException {
+            int result = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new StreamCorruptedException("Varint longer than 5 bytes");
+        }
+
+        int readVarInt() throws IOException {
+            int raw = readVarUInt();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        double readDouble() throws IOException {
+            need(8);
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = bits << 8 | (buf[pos++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String readString() throws IOException {
+            int length = readVarUInt();
+            if (length == 0) {
+                return null;
+            }
+            length--;
+            need(length);
+            String s = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return s;
+        }
+    }
+
+
+    // topics == null -> every topic written in full (self-contained record)
+    static void encode(Sink out, Object obj, Map<String, Integer> topics) {
+        if (obj instanceof Student) {
+            Student student = (Student) obj;
+            out.writeByte(TAG_STUDENT);
+            out.writeString(student.getName());
+            out.writeVarInt(student.getRollNumber());
+            out.writeDouble(student.getMarks());
+            // password is transient: never written, exactly like Java serialization
+
+        } else if (obj instanceof Course) {
+            Course course = (Course) obj;
+            out.writeByte(TAG_COURSE);
+            out.writeString(course.getCourseName());
+            out.writeString(course.getCourseCode());
+            out.writeVarInt(course.getCredits());
+            List<String> list = course.getTopics();
+            out.writeVarUInt(list.size());
+            for (String topic : list) {
+                Integer id = topics == null ? null : topics.get(topic);
+                if (id != null) {
+                    out.writeVarUInt(id + 1);  // Seen before: just its number
+                } else {
+                    out.writeVarUInt(0);       // New topic: full string follows
+                    out.writeString(topic);
+                    if (topics != null) {
+                        topics.put(topic, topics.size());
+                    }
+                }
+            }
+
+        } else {
+            throw new IllegalArgumentException("CompactCodec supports Student and Course, not "
+                + (obj == null ? "null" : obj.getClass().getName()));
+        }
+    }
+
+
+    static Object decode(Source in, List<String> topics) throws IOException {
+        int tag = in.readByte();
+        switch (tag) {
+            case TAG_STUDENT:
+                String name = in.readString();
+                int rollNumber = in.readVarInt();
+                double marks = in.readDouble();
+                return new Student(name, rollNumber, marks, null);  // transient -> null
+
+            case TAG_COURSE:
+                Course course = new Course(in.readString(), in.readString(), in.readVarInt());
+                int count = in.readVarUInt();
+                for (int i = 0; i < count; i++) {
+                    int ref = in.readVarUInt();
+                    String topic;
+                    if (ref == 0) {
+                        topic = in.readString();
+                        if (topics != null) {
+                            topics.add(topic);
+                        }
+                    } else if (topics != null && ref <= topics.size()) {
+                        topic = topics.get(ref - 1);
+                    } else {
+                        throw new StreamCorruptedException("Unknown topic reference " + ref);
+                    }
+                    course.addTopic(topic);
+                }
+                return course;
+
+            default:
+                throw new StreamCorruptedException("Unknown record tag " + tag);
+        }
+    }
+
+
+    // One self-contained record
+    public static byte[] encode(Object obj) {
+        Sink sink = new Sink(64);
+        encode(sink, obj, null);
+        return Arrays.copyOf(sink.buf, sink.pos);
+    }
+
+    public static Object decode(byte[] data) throws IOException {
+        return decode(data, 0, data.length);
+    }
+
+    public static Object decode(byte[] data, int offset, int length) throws IOException {
+        return decode(new Source(data, offset, length), null);
+    }
+
+
+    // Stream of records sharing one topic dictionary
+    static final class Writer implements Closeable, Flushable {
+        private final OutputStream out;
+        private final Sink sink = new Sink(BUFFER_SIZE);
+        private final Map<String, Integer> topics = new HashMap<>();
+
+        Writer(OutputStream out) {
+            this.out = out;
+            sink.writeInt(MAGIC);
+        }
+
+        public void write(Object obj) throws IOException {
+            encode(sink, obj, topics);
+            if (sink.pos >= BUFFER_SIZE) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            out.write(sink.buf, 0, sink.pos);
+            sink.pos = 0;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            out.close();
+        }
+    }
+
+
+    static final class Reader implements Closeable {
+        private final InputStream in;
+        private final Source source;
+        private final List<String> topics = new ArrayList<>();
+
+        Reader(InputStream in) throws IOException {
+            this.in = in;
+            this.source = new Source(in);
+            if (source.atEnd() || source.readInt() != MAGIC) {
+                throw new StreamCorruptedException("Not a CompactCodec stream");
+            }
+        }
+
+        // Next record, or null at the end of the stream
+        public Object read() throws IOException {
+            return source.atEnd() ? null : decode(source, topics);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
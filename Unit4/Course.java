@@ -0,0 +1,63 @@
+/*
+ * UNIT 4: FILE I/O - Course
+ *
+ * Example 3's course with a nested topic list. It is shared with the
+ * codec, record file and compression extras, hence its own file.
+ */
+
+
+import java.io.*;
+import java.util.*;
+
+
+// Serializable class 2: Complex object with nested objects
+class Course implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private String courseName;
+    private String courseCode;
+    private int credits;
+    private List<String> topics;
+    
+    
+    public Course(String courseName, String courseCode, int credits) {
+        this.courseName = courseName;
+        this.courseCode = courseCode;
+        this.credits = credits;
+        this.topics = new ArrayList<>();
+    }
+    
+    
+    public void addTopic(String topic) {
+        topics.add(topic);
+    }
+    
+    
+    // Getters (used by CompactCodec)
+    public String getCourseName() {
+        return courseName;
+    }
+    
+    public String getCourseCode() {
+        return courseCode;
+    }
+    
+    public int getCredits() {
+        return credits;
+    }
+    
+    public List<String> getTopics() {
+        return Collections.unmodifiableList(topics);
+    }
+    
+    
+    @Override
+    public String toString() {
+        return "Course{" +
+               "courseName='" + courseName + '\'' +
+               ", courseCode='" + courseCode + '\'' +
+               ", credits=" + credits +
+               ", topics=" + topics +
+               '}';
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * UNIT 4 (EXTRA): SAMPLE DATA
+ *
+ * Inputs the Unit 4 extras generate for their demos and benchmarks. They
+ * live here, not on one unit's benchmark class, because several units
+ * build the same files.
+ */
+
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+
+class SampleData {
+    private static final String[] TOPICS = {
+        "Inheritance", "Polymorphism", "Exception Handling", "File I/O", "Generics",
+        "Collections", "Multithreading", "Streams", "Lambdas", "Recursion"
+    };
+
+
+    // Log-like lines with some multi-byte UTF-8 (é, →, emoji) to exercise decoding
+    static void createLog(Path path, long size) throws IOException {
+        String[] levels = { "INFO", "WARN", "ERROR", "DEBUG" };
+        String[] messages = { "user logged in", "café order → kitchen", "payment failed 💳", "cache miss" };
+        Random random = new Random(3);
+        long written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int i = 0; written < size; i++) {
+                String line = "2024-01-01T00:00:" + (i % 60) + " " + levels[random.nextInt(4)]
+                    + " [worker-" + random.nextInt(16) + "] " + messages[random.nextInt(4)] + " id=" + i;
+                writer.write(line);
+                writer.newLine();
+                written += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            }
+        }
+    }
+
+
+    // 9 Students for every Course, Course has 4 topics
+    static List<Object> records(int count) {
+        Random random = new Random(5);
+        List<Object> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (i % 10 == 9) {
+                Course course = new Course("Course " + i, "CS" + (100 + i % 900), 1 + random.nextInt(5));
+                for (int t = 0; t < 4; t++) {
+                    course.addTopic(TOPICS[random.nextInt(TOPICS.length)]);
+                }
+                list.add(course);
+            } else {
+                list.add(new Student("Student " + i, i, Math.round(random.nextDouble() * 1000) / 10.0, "pw" + i));
+            }
+        }
+        return list;
+    }
+
+
+    // Deletes a generated tree, files before their directories
+    static void deleteTree(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * UNIT 4: FILE I/O - Student
+ *
+ * Example 3's serializable student. The Unit 4 extras (compact codec,
+ * record file, mapped student table) read and write the same objects,
+ * so the class is declared in a file of its own.
+ */
+
+
+import java.io.*;
+
+
+// Serializable class 1: Simple student data
+class Student implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private String name;
+    private int rollNumber;
+    private double marks;
+    private transient String password;  // transient = not serialized
+    
+    
+    public Student(String name, int rollNumber, double marks, String password) {
+        this.name = name;
+        this.rollNumber = rollNumber;
+        this.marks = marks;
+        this.password = password;
+    }
+    
+    
+    // Getters (used by CompactCodec - no getter for password)
+    public String getName() {
+        return name;
+    }
+    
+    public int getRollNumber() {
+        return rollNumber;
+    }
+    
+    public double getMarks() {
+        return marks;
+    }
+    
+    
+    @Override
+    public String toString() {
+        return "Student{" +
+               "name='" + name + '\'' +
+               ", rollNumber=" + rollNumber +
+               ", marks=" + marks +
+               ", password='" + password + '\'' +
+               '}';
+    }
+}
@@ -0,0 +1,604 @@
+/*
+ * UNIT 4 (EXTRA): ASYNCHRONOUS FILE I/O
+ *
+ * writeToFile(), readFromFile(), copyFile() and appendToFile() all make the
+ * caller wait until the bytes are on their way. 500 files = 500 waits, one after
+ * another, while the disk could have been busy with all of them. ⏳
+ *
+ * THEORY:
+ *
+ * AsynchronousFileChannel:
+ *   - read()/write() return at once; a CompletionHandler runs when the I/O is done
+ *   - Wrapped in CompletableFuture -> thenCompose / thenApply / allOf
+ *   - Positional only: there is no "current position" and no APPEND mode
+ *     -> appends reserve their position from a per-file counter, which starts from
+ *        the file's real size whenever no append to it is running
+ *   - On Linux the JDK runs the actual I/O on a thread pool (the one we pass in)
+ *
+ * IN-FLIGHT WINDOW: At most N operations run at once
+ *   - The submitting thread never blocks: extra operations wait in a queue
+ *   - Each completion starts the next waiting operation
+ *   - Without a bound: 100,000 submits = 100,000 open files -> "Too many open files"
+ *
+ * WHEN IT HELPS: When each operation WAITS (fsync, cold disk, network file system).
+ * Writes that only land in the page cache are already fast; there the
+ * bookkeeping costs about as much as it saves.
+ */
+
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+
+// ============================================
+// EXAMPLE 1: THE ASYNC FACADE
+// ============================================
+
+class AsyncFileIO implements Closeable {
+    static final int CHUNK_SIZE = 1024 * 1024;
+
+    private static final Set<OpenOption> READ = Set.of(StandardOpenOption.READ);
+    private static final Set<OpenOption> WRITE = Set.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    private static final Set<OpenOption> APPEND = Set.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+
+    private final ExecutorService ioPool;
+    private final int maxInFlight;
+    private final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+    private final ConcurrentHashMap<Path, AppendCursor> appendCursors = new ConcurrentHashMap<>();
+    private int inFlight;
+    private int peakInFlight;
+    private long completed;
+    private boolean closed;
+
+
+    // Next free offset of a file while appends to it overlap; dropped once the last one finishes
+    private static final class AppendCursor {
+        long next;
+        int inFlight;
+
+        AppendCursor(long next) {
+            this.next = next;
+        }
+    }
+
+
+    public AsyncFileIO(int maxInFlight, int ioThreads) {
+        this.maxInFlight = maxInFlight;
+        this.ioPool = Executors.newFixedThreadPool(ioThreads, runnable -> {
+            Thread thread = new Thread(runnable, "async-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    // ========== WINDOW ==========
+
+    // Starts the operation now if the window has room, otherwise queues it - never blocks
+    private <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            CompletableFuture<T> running;
+            try {
+                running = operation.get();
+            } catch (RuntimeException e) {
+                running = CompletableFuture.failedFuture(e);
+            }
+            running.whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+                release();  // After completing, so close() returns with every future done
+            });
+        };
+
+        boolean startNow;
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IOException("AsyncFileIO is closed"));
+            }
+            startNow = inFlight < maxInFlight;
+            if (startNow) {
+                inFlight++;
+                peakInFlight = Math.max(peakInFlight, inFlight);
+            } else {
+                waiting.add(start);
+            }
+        }
+        if (startNow) {
+            start.run();
+        }
+        return result;
+    }
+
+
+    // The slot passes straight to the next waiting operation
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            completed++;
+            next = waiting.poll();
+            if (next == null && --inFlight == 0) {
+                notifyAll();  // close() waits for this
+            }
+        }
+        if (next != null) {
+            ioPool.execute(next);  // Not inline: no deep recursion when operations fail fast
+        }
+    }
+
+
+    // ========== OPERATIONS ==========
+
+    public CompletableFuture<Integer> write(Path path, String content) {
+        return write(path, content.getBytes(Charset.defaultCharset()), false);  // Same charset as FileWriter
+    }
+
+
+    // force = fsync before completing, so the data survives a crash
+    public CompletableFuture<Integer> write(Path path, byte[] data, boolean force) {
+        return submit(() -> withChannel(path, WRITE, channel ->
+            writeFully(channel, ByteBuffer.wrap(data), 0).thenApply(written -> {
+                if (force) {
+                    forceQuietly(channel);
+                }
+                return written;
+            })));
+    }
+
+
+    public CompletableFuture<byte[]> read(Path path) {
+        return submit(() -> withChannel(path, READ, channel -> {
+            long size = size(channel);
+            if (size > Integer.MAX_VALUE) {
+                return CompletableFuture.failedFuture(new IOException("File too large: " + path));
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            return readFully(channel, buffer, 0).thenApply(read -> Arrays.copyOf(buffer.array(), read));
+        }));
+    }
+
+
+    public CompletableFuture<String> readString(Path path) {
+        return read(path).thenApply(bytes -> new String(bytes, Charset.defaultCharset()));
+    }
+
+
+    // Chunk by chunk; the file pair counts as ONE operation in the window
+    public CompletableFuture<Long> copy(Path source, Path target) {
+        return submit(() -> withChannel(source, READ, in -> withChannel(target, WRITE, out -> {
+            long size = size(in);
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(1, Math.min(size, CHUNK_SIZE)));
+            return copyFrom(in, out, buffer, 0);
+        })));
+    }
+
+
+    private static CompletableFuture<Long> copyFrom(AsynchronousFileChannel in, AsynchronousFileChannel out,
+                                                    ByteBuffer buffer, long position) {
+        buffer.clear();
+        return readFully(in, buffer, position).thenCompose(read -> {
+            if (read == 0) {
+                return CompletableFuture.completedFuture(position);
+            }
+            buffer.flip();
+            return writeFully(out, buffer, position).thenCompose(written -> copyFrom(in, out, buffer, position + written));
+        });
+    }
+
+
+    // Same "\n" + content as appendToFile(); concurrent appends get disjoint positions.
+    // Only appends through this object are coordinated.
+    public CompletableFuture<Integer> append(Path path, String content) {
+        byte[] data = ("\n" + content).getBytes(Charset.defaultCharset());
+        Path key = path.toAbsolutePath().normalize();
+        return submit(() -> withChannel(path, APPEND, channel -> {
+            long position = reserveAppend(key, channel, data.length);
+            return writeFully(channel, ByteBuffer.wrap(data), position)
+                .whenComplete((written, error) -> releaseAppend(key));
+        }));
+    }
+
+
+    // The first append of an overlapping run reads the real size, so a write() in between,
+    // an outside change or a failed append never leaves a stale offset for the next run
+    private long reserveAppend(Path key, AsynchronousFileChannel channel, int length) {
+        long[] position = new long[1];
+        appendCursors.compute(key, (path, cursor) -> {
+            if (cursor == null) {
+                cursor = new AppendCursor(size(channel));
+            }
+            position[0] = cursor.next;
+            cursor.next += length;
+            cursor.inFlight++;
+            return cursor;
+        });
+        return position[0];
+    }
+
+
+    private void releaseAppend(Path key) {
+        appendCursors.computeIfPresent(key, (path, cursor) -> --cursor.inFlight == 0 ? null : cursor);
+    }
+
+
+    // ========== CALLBACK PLUMBING ==========
+
+    interface ChannelOperation<T> {
+        CompletableFuture<T> apply(AsynchronousFileChannel channel);
+    }
+
+
+    // Opens, runs, and closes the channel however the operation ends
+    private <T> CompletableFuture<T> withChannel(Path path, Set<OpenOption> options, ChannelOperation<T> operation) {
+        AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(path, options, ioPool);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> running;
+        try {
+            running = operation.apply(channel);
+        } catch (RuntimeException e) {
+            running = CompletableFuture.failedFuture(e);
+        }
+        return running.whenComplete((value, error) -> closeQuietly(channel));
+    }
+
+
+    // A write may be partial: continue from where it stopped
+    static CompletableFuture<Integer> writeFully(AsynchronousFileChannel channel, ByteBuffer buffer, long position) {
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        int total = buffer.remaining();
+        channel.write(buffer, position, null, new CompletionHandler<Integer, Void>() {
+            private long next = position;
+
+            @Override
+            public void completed(Integer written, Void attachment) {
+                next += written;
+                if (buffer.hasRemaining()) {
+                    channel.write(buffer, next, null, this);
+                } else {
+                    done.complete(total);
+                }
+            }
+
+            @Override
+            public void failed(Throwable error, Void attachment) {
+                done.completeExceptionally(error);
+            }
+        });
+        return done;
+    }
+
+
+    // Fills the buffer or stops at end of file; completes with the bytes read
+    static CompletableFuture<Integer> readFully(AsynchronousFileChannel channel, ByteBuffer buffer, long position) {
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        int start = buffer.position();
+        channel.read(buffer, position, null, new CompletionHandler<Integer, Void>() {
+            private long next = position;
+
+            @Override
+            public void completed(Integer read, Void attachment) {
+                if (read < 0 || !buffer.hasRemaining()) {
+                    done.complete(buffer.position() - start);
+                    return;
+                }
+                next += read;
+                channel.read(buffer, next, null, this);
+            }
+
+            @Override
+            public void failed(Throwable error, Void attachment) {
+                done.completeExceptionally(error);
+            }
+        });
+        return done;
+    }
+
+
+    private static long size(AsynchronousFileChannel channel) {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    private static void forceQuietly(AsynchronousFileChannel channel) {
+        try {
+            channel.force(false);  // Blocking call, but on an I/O pool thread - never the submitter
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    private static void closeQuietly(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to flush on a closed async channel
+        }
+    }
+
+
+    // ========== STATS ==========
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int peakInFlight() {
+        return peakInFlight;
+    }
+
+    public synchronized long completedCount() {
+        return completed;
+    }
+
+
+    // Refuses new operations, lets the running and queued ones finish, then stops the pool.
+    // Queued operations start from release() on the pool, so it must outlive them.
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            boolean interrupted = false;
+            while (inFlight > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        ioPool.shutdown();
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: BLOCKING VS ASYNC
+// ============================================
+
+class AsyncFileIOBenchmark {
+
+    interface FileTask {
+        void run(int i) throws IOException;
+    }
+
+
+    // The blocking methods' I/O, minus the printing
+    private static void blocking(String label, int count, long bytesPerOp, FileTask task) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            task.run(i);
+        }
+        print(label, count, bytesPerOp, System.nanoTime() - start);
+    }
+
+
+    private static void async(String label, int count, long bytesPerOp, int window,
+                              java.util.function.BiFunction<AsyncFileIO, Integer, CompletableFuture<?>> task) {
+        try (AsyncFileIO io = new AsyncFileIO(window, Math.min(window, 64))) {
+            long start = System.nanoTime();
+            CompletableFuture<?>[] all = new CompletableFuture<?>[count];
+            for (int i = 0; i < count; i++) {
+                all[i] = task.apply(io, i);  // One thread submits everything
+            }
+            CompletableFuture.allOf(all).join();
+            print(label + " (window " + window + ", peak " + io.peakInFlight() + ")", count, bytesPerOp, System.nanoTime() - start);
+        }
+    }
+
+
+    private static void print(String label, int count, long bytesPerOp, long nanos) {
+        System.out.printf("%-42s %10.1f ms %10.0f ops/s %8.1f MB/s%n", label, nanos / 1e6,
+            count * 1e9 / nanos, count * bytesPerOp / 1e6 / (nanos / 1e9));
+    }
+
+
+    public void run(Path dir, int count, int size) throws IOException {
+        byte[] data = new byte[size];
+        new Random(1).nextBytes(data);
+        Path[] files = new Path[count];
+        Path[] copies = new Path[count];
+        for (int i = 0; i < count; i++) {
+            files[i] = dir.resolve("file" + i + ".bin");
+            copies[i] = dir.resolve("copy" + i + ".bin");
+        }
+        int[] windows = {1, 16, 256};
+
+        System.out.printf("%n=== %,d files x %,d bytes ===%n", count, size);
+
+        System.out.println("\n--- write ---");
+        blocking("Blocking FileOutputStream", count, size, i -> {
+            try (FileOutputStream out = new FileOutputStream(files[i].toFile())) {
+                out.write(data);
+            }
+        });
+        for (int window : windows) {
+            async("Async write", count, size, window, (io, i) -> io.write(files[i], data, false));
+        }
+
+        System.out.println("\n--- write + fsync ---");
+        blocking("Blocking FileOutputStream + sync", count, size, i -> {
+            try (FileOutputStream out = new FileOutputStream(files[i].toFile())) {
+                out.write(data);
+                out.getFD().sync();
+            }
+        });
+        for (int window : windows) {
+            async("Async write + force", count, size, window, (io, i) -> io.write(files[i], data, true));
+        }
+
+        System.out.println("\n--- read ---");
+        blocking("Blocking FileInputStream", count, size, i -> {
+            try (FileInputStream in = new FileInputStream(files[i].toFile())) {
+                in.readAllBytes();
+            }
+        });
+        for (int window : windows) {
+            async("Async read", count, size, window, (io, i) -> io.read(files[i]));
+        }
+
+        System.out.println("\n--- copy ---");
+        blocking("Blocking buffered streams (8 KB)", count, size, i -> {
+            try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(files[i].toFile()));
+                 BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(copies[i].toFile()))) {
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, n);
+                }
+            }
+        });
+        for (int window : windows) {
+            async("Async copy", count, size, window, (io, i) -> io.copy(files[i], copies[i]));
+        }
+
+        System.out.println("\n--- append (16 files, 64-byte lines) ---");
+        String line = "x".repeat(63);
+        int appends = count * 20;
+        blocking("Blocking FileWriter(append)", appends, 64, i -> {
+            try (FileWriter writer = new FileWriter(files[i % 16].toFile(), true)) {
+                writer.write("\n" + line);
+            }
+        });
+        for (int window : windows) {
+            async("Async append", appends, 64, window, (io, i) -> io.append(files[i % 16], line));
+        }
+
+        for (int i = 0; i < count; i++) {
+            Files.deleteIfExists(files[i]);
+            Files.deleteIfExists(copies[i]);
+        }
+    }
+
+
+    // Every byte must land exactly once, even with 256 appends racing
+    static void verify(Path dir) throws IOException {
+        Path file = dir.resolve("verify.txt");
+        try (AsyncFileIO io = new AsyncFileIO(256, 16)) {
+            io.write(file, "header").join();
+            CompletableFuture<?>[] all = new CompletableFuture<?>[1000];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = io.append(file, "line " + i);
+            }
+            CompletableFuture.allOf(all).join();
+            Set<String> lines = new HashSet<>(Arrays.asList(io.readString(file).join().split("\n")));
+            Path copy = dir.resolve("verify-copy.txt");
+            io.copy(file, copy).join();
+            boolean same = Arrays.equals(Files.readAllBytes(file), Files.readAllBytes(copy));
+            System.out.println("Concurrent appends: " + (lines.size() - 1) + " of 1000 distinct lines, copy identical: " + same);
+            Files.delete(copy);
+        }
+        Files.delete(file);
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit4_AsyncFileIO {
+
+    public static void main(String[] args) throws Exception {
+
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 64 * 1024;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 4 (EXTRA): ASYNCHRONOUS FILE I/O");
+        System.out.println("=".repeat(70));
+
+        Path dir = Files.createTempDirectory("asyncio");
+
+
+        // ========== EXAMPLE 1: ASYNC COUNTERPARTS ==========
+        System.out.println("\nEXAMPLE 1: writeToFileAsync() / copyFileAsync()");
+        System.out.println("-".repeat(70));
+
+        try (AsyncFileIO io = new AsyncFileIO(16, 4)) {
+            String source = dir.resolve("async_test.txt").toString();
+            String target = dir.resolve("async_copy.txt").toString();
+            CompletableFuture<Void> written = writeToFileAsync(io, source, "Hello from AsynchronousFileChannel!");
+            System.out.println("Returned before the write finished: " + !written.isDone());
+            written.join();
+            copyFileAsync(io, source, target).join();
+            System.out.println("Copied content: " + io.readString(Paths.get(target)).join());
+
+            AsyncFileIOBenchmark.verify(dir);
+        }
+
+
+        // ========== EXAMPLE 2: BENCHMARK ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Blocking vs Async, One Submitting Thread");
+        System.out.println("-".repeat(70));
+
+        new AsyncFileIOBenchmark().run(dir, count, size);
+        SampleData.deleteTree(dir);
+        System.out.println();
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("ASYNC FILE I/O SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  AsynchronousFileChannel : Returns at once, completes a future later");
+        System.out.println("  In-flight window        : Bounded concurrency, submitter never blocks");
+        System.out.println("  Appends                 : Positions reserved per file (no APPEND mode)");
+        System.out.println("  Pays off                : When operations wait (fsync, slow disks)");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // CharacterStreamExample Method 1b: writeToFile() that returns at once; the message is printed when the write completes
+    static CompletableFuture<Void> writeToFileAsync(AsyncFileIO io, String filename, String content) {
+        System.out.println("\n=== Writing to File (Async) ===");
+        System.out.println("File: " + filename);
+
+        return io.write(Paths.get(filename), content)
+            .thenAccept(bytes -> System.out.println("Content written asynchronously! Bytes: " + bytes))
+            .exceptionally(e -> {
+                System.out.println("Error writing to file: " + e.getMessage());
+                return null;
+            });
+    }
+
+
+    // ByteStreamExample Method 1b: Copy without blocking the caller
+    static CompletableFuture<Long> copyFileAsync(AsyncFileIO io, String sourceFile, String destFile) {
+        System.out.println("\n=== Copying File (Async) ===");
+        System.out.println("Source: " + sourceFile);
+        System.out.println("Destination: " + destFile);
+
+        return io.copy(Paths.get(sourceFile), Paths.get(destFile))
+            .whenComplete((bytes, e) -> {
+                if (e != null) {
+                    System.out.println("Error: " + e.getMessage());
+                } else {
+                    System.out.println("Total bytes copied: " + bytes);
+                }
+            });
+    }
+}
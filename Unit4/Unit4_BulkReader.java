@@ -0,0 +1,303 @@
+/*
+ * UNIT 4 (EXTRA): BULK TEXT READING
+ *
+ * readFromFile() used to call reader.read() once per character and append it.
+ * One method call, one lock, one bounds check... per letter. For a 100 MB log
+ * that's a hundred million trips to the vending machine for one chip each. 🍟
+ *
+ * THEORY:
+ *
+ * DECODING: A file is bytes; a String is chars. A CharsetDecoder turns one into
+ * the other. UTF-8 uses 1-4 bytes per char, so a file of N bytes has AT MOST N chars.
+ *
+ * STRATEGIES:
+ * - Chunked   : Reader.read(char[]) fills thousands of chars per call
+ * - Mapped    : Map the file (no read() calls) and decode straight from it
+ * - Presizing : Output array sized from file length * maxCharsPerByte,
+ *               so it never grows and copies itself
+ * - Streaming : Decode into ONE reusable char[] and hand each chunk to a handler;
+ *               memory stays constant no matter how big the file is
+ *
+ * A String can hold at most ~2 billion chars. Bigger files must be streamed.
+ */
+
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+
+// ============================================
+// EXAMPLE 1: BULK READER
+// ============================================
+
+// Receives decoded text a chunk at a time; the array is reused after the call returns
+interface CharChunkHandler {
+    void onChunk(char[] chars, int length) throws IOException;
+}
+
+
+class BulkTextReader {
+    static final int CHUNK_CHARS = 64 * 1024;
+    private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+
+
+    private static CharsetDecoder decoder(Charset charset) {
+        return charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+
+    // Upper bound on chars for a file of `bytes` bytes (= bytes for UTF-8)
+    static int presize(long bytes, Charset charset) throws IOException {
+        long chars = (long) Math.ceil(bytes * (double) charset.newDecoder().maxCharsPerByte());
+        if (chars > MAX_ARRAY) {
+            throw new IOException("File too large for one String (" + bytes + " bytes) - use stream()");
+        }
+        return (int) chars;
+    }
+
+
+    // Reader.read(char[]) into one presized array
+    public static String readChunked(Path path, Charset charset) throws IOException {
+        char[] chars = new char[presize(Files.size(path), charset)];
+        int length = 0;
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path), decoder(charset))) {
+            int count;
+            while (length < chars.length && (count = reader.read(chars, length, chars.length - length)) != -1) {
+                length += count;
+            }
+        }
+        return new String(chars, 0, length);
+    }
+
+
+    // Decodes straight out of the mapped file into a presized CharBuffer
+    public static String readMapped(Path path, Charset charset) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            CharBuffer chars = CharBuffer.allocate(presize(size, charset));
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CharsetDecoder decoder = decoder(charset);
+            decoder.decode(bytes, chars, true);
+            decoder.flush(chars);
+            chars.flip();
+            return chars.toString();
+        }
+    }
+
+
+    // Constant memory: one direct byte buffer + one char[] of chunkChars, whatever the file size
+    public static long stream(Path path, Charset charset, int chunkChars, CharChunkHandler handler) throws IOException {
+        CharsetDecoder decoder = decoder(charset);
+        ByteBuffer in = ByteBuffer.allocateDirect(chunkChars);
+        CharBuffer out = CharBuffer.allocate(chunkChars);
+        long total = 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(in) == -1;
+                in.flip();
+                // A multi-byte char split across reads stays in `in` until the next round
+                while (decoder.decode(in, out, eof).isOverflow()) {
+                    total += emit(out, handler);
+                }
+                in.compact();
+                total += emit(out, handler);
+            }
+            while (decoder.flush(out).isOverflow()) {
+                total += emit(out, handler);
+            }
+            total += emit(out, handler);
+        }
+        return total;
+    }
+
+
+    private static int emit(CharBuffer out, CharChunkHandler handler) throws IOException {
+        int length = out.position();
+        if (length > 0) {
+            handler.onChunk(out.array(), length);
+            out.clear();
+        }
+        return length;
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: BENCHMARK AND CONSTANT-MEMORY STREAMING
+// ============================================
+
+class BulkReaderBenchmark {
+
+    // The old readFromFile() loop, minus the printing
+    static String charAtATime(Path path) throws IOException {
+        StringBuilder content = new StringBuilder();
+        try (FileReader reader = new FileReader(path.toFile(), StandardCharsets.UTF_8)) {
+            int character;
+            while ((character = reader.read()) != -1) {
+                content.append((char) character);
+            }
+        }
+        return content.toString();
+    }
+
+
+    interface Reading {
+        String read(Path path) throws IOException;
+    }
+
+
+    private static double bestMillis(int runs, Path path, String expected, Reading reading) throws IOException {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            String text = reading.read(path);
+            best = Math.min(best, System.nanoTime() - start);
+            if (!text.equals(expected)) {
+                throw new IllegalStateException("Decoded text differs from Files.readString");
+            }
+        }
+        return best / 1e6;
+    }
+
+
+    public void compare(Path dir, long size) throws IOException {
+        Path log = dir.resolve("bench.log");
+        SampleData.createLog(log, size);
+        String expected = Files.readString(log);
+        double mb = Files.size(log) / (1024.0 * 1024);
+
+        System.out.printf("%n=== Loading %.0f MB of UTF-8 text (best of 3) ===%n%n", mb);
+        System.out.printf("%-28s %10s %10s%n", "Method", "ms", "MB/s");
+
+        Map<String, Reading> readers = new LinkedHashMap<>();
+        readers.put("read() char-at-a-time", BulkReaderBenchmark::charAtATime);
+        readers.put("Files.readString", Files::readString);
+        readers.put("chunked char[] (presized)", p -> BulkTextReader.readChunked(p, StandardCharsets.UTF_8));
+        readers.put("memory-mapped decode", p -> BulkTextReader.readMapped(p, StandardCharsets.UTF_8));
+        readers.put("stream (64K chunks)", p -> {
+            StringBuilder sb = new StringBuilder(expected.length());
+            BulkTextReader.stream(p, StandardCharsets.UTF_8, BulkTextReader.CHUNK_CHARS, (c, n) -> sb.append(c, 0, n));
+            return sb.toString();
+        });
+
+        for (Map.Entry<String, Reading> entry : readers.entrySet()) {
+            double ms = bestMillis(3, log, expected, entry.getValue());
+            System.out.printf("%-28s %10.1f %10.1f%n", entry.getKey(), ms, mb / (ms / 1000));
+        }
+        Files.delete(log);
+        System.out.println();
+    }
+
+
+    // Counts lines and ERRORs without ever holding the file in memory
+    public void streamLargeFile(Path dir, long size) throws IOException {
+        Path log = dir.resolve("big.log");
+        SampleData.createLog(log, size);
+
+        System.out.printf("%n=== Streaming a %,d MB log in constant memory ===%n%n", Files.size(log) >> 20);
+
+        long[] lines = new long[1];
+        long[] errors = new long[1];
+        int[] carried = new int[1];  // Partial "ERROR" match, so a word split across chunks still counts
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+
+        long chars = BulkTextReader.stream(log, StandardCharsets.UTF_8, BulkTextReader.CHUNK_CHARS, (c, n) -> {
+            int matched = carried[0];
+            for (int i = 0; i < n; i++) {
+                char ch = c[i];
+                if (ch == '\n') {
+                    lines[0]++;
+                }
+                matched = ch == "ERROR".charAt(matched) ? matched + 1 : (ch == 'E' ? 1 : 0);
+                if (matched == 5) {
+                    errors[0]++;
+                    matched = 0;
+                }
+            }
+            carried[0] = matched;
+        });
+
+        long elapsed = System.nanoTime() - start;
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("Chars: %,d  Lines: %,d  ERROR lines: %,d%n", chars, lines[0], errors[0]);
+        System.out.printf("Time: %.1f ms (%.1f MB/s)%n", elapsed / 1e6, Files.size(log) / (1024.0 * 1024) / (elapsed / 1e9));
+        System.out.printf("Heap growth during the scan: ~%,d KB (buffers are %d KB)%n",
+            Math.max(0, heapAfter - heapBefore) >> 10, BulkTextReader.CHUNK_CHARS * 3 >> 10);
+        Files.delete(log);
+        System.out.println();
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit4_BulkReader {
+
+    public static void main(String[] args) throws Exception {
+
+        long compareSize = args.length > 0 ? Long.parseLong(args[0]) : 64L * 1024 * 1024;
+        long streamSize = args.length > 1 ? Long.parseLong(args[1]) : 512L * 1024 * 1024;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 4 (EXTRA): BULK TEXT READING");
+        System.out.println("=".repeat(70));
+
+        Path dir = Files.createTempDirectory("bulkreader");
+
+
+        // ========== EXAMPLE 1: readFromFile()'s LOOP, IN CHUNKS ==========
+        System.out.println("\nEXAMPLE 1: Chunked and mapped reads (readFromFile() now uses chunks)");
+        System.out.println("-".repeat(70));
+
+        Path sample = dir.resolve("sample.txt");
+        Files.writeString(sample, "Hello, File I/O!\nCafé → 3 € 😀\nJava Streams are powerful!");
+        String chunked = BulkTextReader.readChunked(sample, StandardCharsets.UTF_8);
+        System.out.println("Content:\n" + chunked);
+
+        String mapped = BulkTextReader.readMapped(sample, StandardCharsets.UTF_8);
+        System.out.println("\nChunked decode matches Files.readString: " + chunked.equals(Files.readString(sample)));
+        System.out.println("Mapped decode matches Files.readString: " + mapped.equals(Files.readString(sample)));
+
+
+        // ========== EXAMPLE 2: BENCHMARK ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Benchmark");
+        System.out.println("-".repeat(70));
+
+        BulkReaderBenchmark benchmark = new BulkReaderBenchmark();
+        benchmark.compare(dir, compareSize);
+        benchmark.streamLargeFile(dir, streamSize);
+
+        Files.delete(sample);
+        Files.delete(dir);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("BULK READING SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  read() per char : One call per character - slowest by far");
+        System.out.println("  char[] chunks   : Thousands of chars per call");
+        System.out.println("  Presizing       : bytes * maxCharsPerByte -> no array regrowth");
+        System.out.println("  Memory-mapped   : Decode directly from the file's pages");
+        System.out.println("  stream()        : Constant memory, any file size");
+        System.out.println("=".repeat(70));
+    }
+}
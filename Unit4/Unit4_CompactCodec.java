@@ -0,0 +1,234 @@
+/*
+ * UNIT 4 (EXTRA): COMPACT BINARY CODEC FOR Student AND Course
+ *
+ * ObjectOutputStream writes the class name, serialVersionUID and every field name
+ * before it writes a single value. One Student costs ~100 bytes on its own
+ * when the actual data is ~20. It's like mailing a letter inside a filing cabinet. 🗄️
+ *
+ * THEORY:
+ *
+ * HAND-ROLLED CODEC: We know the schema, so we write ONLY the values, in a fixed order.
+ *   Student : tag, name, rollNumber, marks           (password is transient -> skipped)
+ *   Course  : tag, courseName, courseCode, credits, topics
+ *
+ * VARINT (LEB128): 7 bits per byte, high bit = "more bytes follow"
+ *   5 -> 1 byte, 300 -> 2 bytes, 2 billion -> 5 bytes (instead of always 4)
+ * ZIGZAG: maps -1, 1, -2, 2 ... to 1, 2, 3, 4 so small negatives stay small
+ *
+ * STRINGS: varint (UTF-8 length + 1), then the bytes. 0 means null.
+ *
+ * TOPICS: Courses share topics ("Inheritance", "File I/O"...). Within one stream
+ * each topic is written once; later uses write its number in a dictionary.
+ *
+ * encode()/decode() handle one self-contained record; Writer/Reader handle a stream.
+ */
+
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+
+// ============================================
+// EXAMPLE 1: THE CODEC
+// ============================================
+
+// The codec itself: CompactCodec.java
+
+
+// ============================================
+// EXAMPLE 2: BENCHMARK VS JAVA SERIALIZATION
+// ============================================
+
+class CompactCodecBenchmark {
+    interface Encoder {
+        byte[] encode(List<Object> records) throws IOException;
+    }
+
+    interface Decoder {
+        List<Object> decode(byte[] data) throws IOException, ClassNotFoundException;
+    }
+
+
+    static byte[] javaEncode(List<Object> records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(bytes))) {
+            for (Object obj : records) {
+                oos.writeObject(obj);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<Object> javaDecode(byte[] data, int count) throws IOException, ClassNotFoundException {
+        List<Object> list = new ArrayList<>(count);
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new ByteArrayInputStream(data)))) {
+            for (int i = 0; i < count; i++) {
+                list.add(ois.readObject());
+            }
+        }
+        return list;
+    }
+
+
+    static byte[] compactEncode(List<Object> records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CompactCodec.Writer writer = new CompactCodec.Writer(bytes)) {
+            for (Object obj : records) {
+                writer.write(obj);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<Object> compactDecode(byte[] data) throws IOException {
+        List<Object> list = new ArrayList<>();
+        try (CompactCodec.Reader reader = new CompactCodec.Reader(new ByteArrayInputStream(data))) {
+            Object obj;
+            while ((obj = reader.read()) != null) {
+                list.add(obj);
+            }
+        }
+        return list;
+    }
+
+
+    private static void row(String name, List<Object> records, Encoder encoder, Decoder decoder) throws Exception {
+        byte[] data = null;
+        long encodeBest = Long.MAX_VALUE;
+        long decodeBest = Long.MAX_VALUE;
+        List<Object> decoded = null;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            data = encoder.encode(records);
+            encodeBest = Math.min(encodeBest, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            decoded = decoder.decode(data);
+            decodeBest = Math.min(decodeBest, System.nanoTime() - start);
+        }
+
+        boolean same = decoded.size() == records.size();
+        for (int i = 0; same && i < records.size(); i += 997) {
+            // toString() of the original shows the password; the decoded copy must show null
+            same = decoded.get(i).toString().equals(records.get(i).toString().replaceAll("password='[^']*'", "password='null'"));
+        }
+        System.out.printf("%-22s %,14d %10.1f %12.1f %12.1f   %s%n", name, data.length,
+            (double) data.length / records.size(), encodeBest / 1e6, decodeBest / 1e6, same ? "ok" : "MISMATCH");
+    }
+
+
+    public void compare(int count) throws Exception {
+        List<Object> records = SampleData.records(count);
+        System.out.println("\n=== " + String.format("%,d", count) + " records (90% Student, 10% Course) ===");
+        System.out.println();
+        System.out.printf("%-22s %14s %10s %12s %12s%n", "Format", "bytes", "bytes/rec", "encode ms", "decode ms");
+
+        row("Java serialization", records, CompactCodecBenchmark::javaEncode, data -> javaDecode(data, count));
+        row("CompactCodec", records, CompactCodecBenchmark::compactEncode, CompactCodecBenchmark::compactDecode);
+        System.out.println("(best of 3 runs, in memory - no disk involved)");
+        System.out.println();
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit4_CompactCodec {
+
+    public static void main(String[] args) throws Exception {
+
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 4 (EXTRA): COMPACT BINARY CODEC");
+        System.out.println("=".repeat(70));
+
+
+        // ========== EXAMPLE 1: serializeObject() VS serializeCompact() ==========
+        System.out.println("\nEXAMPLE 1: One Student, two formats");
+        System.out.println("-".repeat(70));
+
+        File dir = java.nio.file.Files.createTempDirectory("codec").toFile();
+        File javaFile = new File(dir, "student.ser");
+        File compactFile = new File(dir, "student.bin");
+
+        Student student = new Student("Alice Johnson", 101, 92.5, "secret123");
+        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(javaFile))) {
+            oos.writeObject(student);  // What serializeObject() writes
+        }
+        serializeCompact(student, compactFile.getPath());
+        deserializeCompact(compactFile.getPath());
+
+        System.out.println("Java serialization: " + javaFile.length() + " bytes");
+        System.out.println("CompactCodec:       " + compactFile.length() + " bytes (incl. 4-byte header)");
+        javaFile.delete();
+        compactFile.delete();
+        dir.delete();
+
+
+        // ========== EXAMPLE 2: BENCHMARK ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Benchmark");
+        System.out.println("-".repeat(70));
+
+        new CompactCodecBenchmark().compare(count);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("COMPACT CODEC SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  Schema in code : No class descriptors or field names in the data");
+        System.out.println("  Varint/ZigZag  : Small numbers take 1-2 bytes");
+        System.out.println("  Strings        : Length-prefixed UTF-8, ASCII fast path");
+        System.out.println("  Topics         : Written once per stream, then referenced by number");
+        System.out.println("  transient      : password is never written, decodes as null");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // SerializationExample Method 2b: Serialize with the compact binary codec
+    static void serializeCompact(Object obj, String filename) {
+        System.out.println("\n=== Serializing Object (CompactCodec) ===");
+        System.out.println("File: " + filename);
+        System.out.println("Object: " + obj);
+
+        try (CompactCodec.Writer writer = new CompactCodec.Writer(new FileOutputStream(filename))) {
+
+            writer.write(obj);
+            System.out.println("Object serialized successfully!");
+
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Serialization error: " + e.getMessage());
+        }
+        System.out.println();
+    }
+
+
+    // SerializationExample Method 2c: Deserialize a CompactCodec file (first record)
+    static Object deserializeCompact(String filename) {
+        System.out.println("\n=== Deserializing Object (CompactCodec) ===");
+        System.out.println("File: " + filename);
+
+        Object obj = null;
+
+        try (CompactCodec.Reader reader = new CompactCodec.Reader(new FileInputStream(filename))) {
+
+            obj = reader.read();
+            System.out.println("Object deserialized successfully!");
+            System.out.println("Object: " + obj);
+
+        } catch (FileNotFoundException e) {
+            System.out.println("File not found: " + filename);
+
+        } catch (IOException e) {
+            System.out.println("IO error: " + e.getMessage());
+        }
+        System.out.println();
+
+        return obj;
+    }
+}
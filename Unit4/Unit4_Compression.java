@@ -0,0 +1,830 @@
+/*
+ * UNIT 4 (EXTRA): COMPRESSION CODECS
+ *
+ * writeWithBufferedWriter(), copyFileBuffered() and serializeObject() write
+ * every byte exactly as it is. Log lines that repeat "INFO [worker-" a million
+ * times take a million times the space. The disk is not amused. 🗜️
+ *
+ * THEORY:
+ *
+ * THE TRADE-OFF: Throughput vs ratio
+ *   - GZIP / Deflater level 1 : Fast, decent ratio
+ *   - GZIP / Deflater level 9 : Slow, best ratio
+ *   - LZ (LZ4-style)          : Much faster, lower ratio - no entropy coding, only
+ *                               "copy N bytes from M bytes back"
+ *
+ * PLUGGABLE: A CompressionCodec just wraps streams
+ *   - compress(OutputStream) / decompress(InputStream)
+ *   - Any code that writes to an OutputStream can use any codec
+ *
+ * BLOCKS: Block codecs cut the stream into 256 KB blocks
+ *   - Every block is compressed on its own -> blocks can be compressed IN PARALLEL
+ *   - Frame: [raw length][stored length][bytes]; a block that does not shrink is stored raw
+ *   - The output order is kept: a queue of Futures is written head first
+ *   - Cost: matches cannot reach across blocks (slightly worse ratio)
+ */
+
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.UnaryOperator;
+import java.util.zip.*;
+
+
+// ============================================
+// EXAMPLE 1: THE CODEC INTERFACES
+// ============================================
+
+interface CompressionCodec {
+    String name();
+
+    OutputStream compress(OutputStream out) throws IOException;
+
+    InputStream decompress(InputStream in) throws IOException;
+
+
+    // As stream wrappers for Unit4_FileIO's writeWithBufferedWriter / copyFileBuffered /
+    // serializeObject / deserializeObject (UnaryOperator cannot throw IOException)
+    default UnaryOperator<OutputStream> compressing() {
+        return out -> {
+            try {
+                return compress(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    default UnaryOperator<InputStream> decompressing() {
+        return in -> {
+            try {
+                return decompress(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+
+    // Pass-through: the file is byte-for-byte what it was without a codec
+    static CompressionCodec none() {
+        return new CompressionCodec() {
+            public String name() {
+                return "none";
+            }
+
+            public OutputStream compress(OutputStream out) {
+                return out;
+            }
+
+            public InputStream decompress(InputStream in) {
+                return in;
+            }
+        };
+    }
+
+
+    // Standard .gz files, single-threaded
+    static CompressionCodec gzip(int level) {
+        return new CompressionCodec() {
+            public String name() {
+                return "gzip-" + level;
+            }
+
+            public OutputStream compress(OutputStream out) throws IOException {
+                return new GZIPOutputStream(out, 64 * 1024) {
+                    {
+                        def.setLevel(level);  // GZIPOutputStream has no level parameter
+                    }
+                };
+            }
+
+            public InputStream decompress(InputStream in) throws IOException {
+                return new GZIPInputStream(in, 64 * 1024);
+            }
+        };
+    }
+
+
+    static BlockCodec deflate(int level) {
+        return new DeflateBlockCodec(level);
+    }
+
+
+    static BlockCodec lz() {
+        return LzBlockCodec.INSTANCE;
+    }
+}
+
+
+// Compresses independent blocks - the unit of parallelism
+interface BlockCodec extends CompressionCodec {
+    int BLOCK_SIZE = 256 * 1024;
+
+    byte id();
+
+    int maxCompressedLength(int length);
+
+    // Returns the compressed length
+    int compressBlock(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset);
+
+    void decompressBlock(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, int rawLength)
+        throws IOException;
+
+
+    default OutputStream compress(OutputStream out) throws IOException {
+        return new BlockOutputStream(out, this, null, 0);
+    }
+
+    default InputStream decompress(InputStream in) throws IOException {
+        return new BlockInputStream(in, this, null, 0);
+    }
+
+
+    // Same format, blocks spread over the pool; at most inFlight blocks are buffered
+    default CompressionCodec parallel(ExecutorService pool, int inFlight) {
+        BlockCodec codec = this;
+        return new CompressionCodec() {
+            public String name() {
+                return codec.name() + " parallel";
+            }
+
+            public OutputStream compress(OutputStream out) throws IOException {
+                return new BlockOutputStream(out, codec, pool, inFlight);
+            }
+
+            public InputStream decompress(InputStream in) throws IOException {
+                return new BlockInputStream(in, codec, pool, inFlight);
+            }
+        };
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: DEFLATE AND LZ BLOCK CODECS
+// ============================================
+
+class DeflateBlockCodec implements BlockCodec {
+    private final int level;
+
+    // Deflater/Inflater hold native memory and are slow to create: one per thread
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(() -> new Inflater(true));
+
+
+    DeflateBlockCodec(int level) {
+        this.level = level;
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level, true));  // true = raw, no zlib header
+    }
+
+
+    public String name() {
+        return "deflate-" + level;
+    }
+
+    public byte id() {
+        return 1;
+    }
+
+    public int maxCompressedLength(int length) {
+        return length + (length >> 3) + 64;
+    }
+
+
+    public int compressBlock(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+        Deflater deflater = deflaters.get();
+        deflater.reset();
+        deflater.setInput(src, srcOffset, length);
+        deflater.finish();
+        int written = 0;
+        while (!deflater.finished()) {
+            if (dstOffset + written == dst.length) {
+                return length;  // Did not fit: the caller stores the block raw
+            }
+            written += deflater.deflate(dst, dstOffset + written, dst.length - dstOffset - written);
+        }
+        return written;
+    }
+
+
+    public void decompressBlock(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, int rawLength)
+            throws IOException {
+        Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(src, srcOffset, length);
+        try {
+            int read = 0;
+            while (read < rawLength) {
+                int n = inflater.inflate(dst, dstOffset + read, rawLength - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != rawLength) {
+                throw new StreamCorruptedException("Deflate block too short: " + read + " of " + rawLength);
+            }
+        } catch (DataFormatException e) {
+            throw new StreamCorruptedException(e.getMessage());
+        }
+    }
+}
+
+
+/*
+ * LZ77 in the LZ4 style:
+ *   sequence = [token][literal length+][literals][offset 2 B][match length+]
+ *   token    = high 4 bits literal length, low 4 bits (match length - 4); 15 = "more bytes follow"
+ * A hash of the next 4 bytes finds an earlier position that may start the same bytes.
+ */
+class LzBlockCodec implements BlockCodec {
+    static final LzBlockCodec INSTANCE = new LzBlockCodec();
+
+    private static final int MIN_MATCH = 4;
+    private static final int HASH_LOG = 14;
+    private static final int MAX_OFFSET = 65535;
+    private static final int LAST_LITERALS = 5;
+    private static final int MIN_LENGTH = 12;
+
+    private final ThreadLocal<int[]> tables = ThreadLocal.withInitial(() -> new int[1 << HASH_LOG]);
+
+
+    public String name() {
+        return "lz";
+    }
+
+    public byte id() {
+        return 2;
+    }
+
+    public int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+
+    private static int readInt(byte[] b, int i) {
+        return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16 | (b[i + 3] & 0xFF) << 24;
+    }
+
+
+    public int compressBlock(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+        int[] table = tables.get();
+        Arrays.fill(table, -1);
+        int end = srcOffset + length;
+        int matchLimit = end - LAST_LITERALS;
+        int inputLimit = end - MIN_LENGTH;
+        int anchor = srcOffset;
+        int ip = srcOffset;
+        int op = dstOffset;
+
+        if (length >= MIN_LENGTH) {
+            int misses = 0;
+            while (ip < inputLimit) {
+                int sequence = readInt(src, ip);
+                int hash = (sequence * -1640531535) >>> (32 - HASH_LOG);
+                int ref = table[hash];
+                table[hash] = ip;
+
+                if (ref < srcOffset || ip - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+                    ip += 1 + (misses++ >> 6);  // Skip faster through data that does not compress
+                    continue;
+                }
+                misses = 0;
+
+                while (ip > anchor && ref > srcOffset && src[ip - 1] == src[ref - 1]) {
+                    ip--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchLimit && src[ip + matchLength] == src[ref + matchLength]) {
+                    matchLength++;
+                }
+
+                op = writeSequence(dst, op, src, anchor, ip - anchor, ip - ref, matchLength);
+                ip += matchLength;
+                anchor = ip;
+            }
+        }
+        return writeSequence(dst, op, src, anchor, end - anchor, 0, 0) - dstOffset;
+    }
+
+
+    // matchLength 0 = last sequence: literals only, no offset
+    private static int writeSequence(byte[] dst, int op, byte[] src, int literalStart, int literals,
+                                     int offset, int matchLength) {
+        int tokenPosition = op++;
+        int token = Math.min(literals, 15) << 4;
+        if (literals >= 15) {
+            op = writeLength(dst, op, literals - 15);
+        }
+        System.arraycopy(src, literalStart, dst, op, literals);
+        op += literals;
+
+        if (matchLength > 0) {
+            dst[op++] = (byte) offset;
+            dst[op++] = (byte) (offset >>> 8);
+            int extra = matchLength - MIN_MATCH;
+            token |= Math.min(extra, 15);
+            if (extra >= 15) {
+                op = writeLength(dst, op, extra - 15);
+            }
+        }
+        dst[tokenPosition] = (byte) token;
+        return op;
+    }
+
+
+    private static int writeLength(byte[] dst, int op, int length) {
+        while (length >= 255) {
+            dst[op++] = (byte) 255;
+            length -= 255;
+        }
+        dst[op++] = (byte) length;
+        return op;
+    }
+
+
+    public void decompressBlock(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset, int rawLength)
+            throws IOException {
+        int ip = srcOffset;
+        int end = srcOffset + length;
+        int op = dstOffset;
+        int outEnd = dstOffset + rawLength;
+        try {
+            while (true) {
+                int token = src[ip++] & 0xFF;
+                int literals = token >>> 4;
+                if (literals == 15) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        literals += b;
+                    } while (b == 255);
+                }
+                if (ip + literals > end || op + literals > outEnd) {
+                    throw new StreamCorruptedException("LZ literals overrun");
+                }
+                System.arraycopy(src, ip, dst, op, literals);
+                ip += literals;
+                op += literals;
+                if (ip == end) {
+                    break;  // Last sequence
+                }
+
+                int offset = (src[ip] & 0xFF) | (src[ip + 1] & 0xFF) << 8;
+                ip += 2;
+                int matchLength = token & 15;
+                if (matchLength == 15) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        matchLength += b;
+                    } while (b == 255);
+                }
+                matchLength += MIN_MATCH;
+                int ref = op - offset;
+                if (offset == 0 || ref < dstOffset || op + matchLength > outEnd) {
+                    throw new StreamCorruptedException("LZ match out of range");
+                }
+                if (offset >= matchLength) {
+                    System.arraycopy(dst, ref, dst, op, matchLength);
+                    op += matchLength;
+                } else {
+                    for (int i = 0; i < matchLength; i++) {
+                        dst[op++] = dst[ref++];  // Overlapping copy repeats a short pattern
+                    }
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new StreamCorruptedException("LZ block truncated");
+        }
+        if (op != outEnd) {
+            throw new StreamCorruptedException("LZ block too short: " + (op - dstOffset) + " of " + rawLength);
+        }
+    }
+}
+
+
+// ============================================
+// EXAMPLE 3: BLOCK STREAMS (SEQUENTIAL OR PARALLEL)
+// ============================================
+
+class BlockOutputStream extends OutputStream {
+    static final int MAGIC = 0x43424C4B;  // "CBLK"
+
+    private final DataOutputStream out;
+    private final BlockCodec codec;
+    private final ExecutorService pool;  // null = compress on the caller's thread
+    private final int inFlight;
+    private final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+    private byte[] block = new byte[BlockCodec.BLOCK_SIZE];
+    private int filled;
+    private boolean closed;
+
+
+    BlockOutputStream(OutputStream out, BlockCodec codec, ExecutorService pool, int inFlight) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.codec = codec;
+        this.pool = pool;
+        this.inFlight = Math.max(1, inFlight);
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(codec.id());
+    }
+
+
+    @Override
+    public void write(int b) throws IOException {
+        if (filled == block.length) {
+            submit();
+        }
+        block[filled++] = (byte) b;
+    }
+
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (filled == block.length) {
+                submit();
+            }
+            int n = Math.min(len, block.length - filled);
+            System.arraycopy(b, off, block, filled, n);
+            filled += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+
+    private void submit() throws IOException {
+        if (filled == 0) {
+            return;
+        }
+        byte[] raw = block;
+        int length = filled;
+        if (pool == null) {
+            out.write(frame(codec, raw, length));
+        } else {
+            pending.add(pool.submit(() -> frame(codec, raw, length)));
+            block = new byte[BlockCodec.BLOCK_SIZE];  // The pool still owns the old one
+            while (pending.size() > inFlight) {
+                writeHead();
+            }
+        }
+        filled = 0;
+    }
+
+
+    // [raw length][stored length][bytes] - stored length == raw length means "not compressed"
+    private static byte[] frame(BlockCodec codec, byte[] raw, int length) {
+        byte[] frame = new byte[8 + codec.maxCompressedLength(length)];
+        int compressed = codec.compressBlock(raw, 0, length, frame, 8);
+        if (compressed >= length) {
+            System.arraycopy(raw, 0, frame, 8, length);
+            compressed = length;
+        }
+        writeInt(frame, 0, length);
+        writeInt(frame, 4, compressed);
+        return Arrays.copyOf(frame, 8 + compressed);
+    }
+
+
+    private static void writeInt(byte[] b, int i, int v) {
+        b[i] = (byte) (v >>> 24);
+        b[i + 1] = (byte) (v >>> 16);
+        b[i + 2] = (byte) (v >>> 8);
+        b[i + 3] = (byte) v;
+    }
+
+
+    private void writeHead() throws IOException {
+        try {
+            out.write(pending.poll().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            throw new IOException("Block compression failed", e.getCause());
+        }
+    }
+
+
+    // Ends the current block early so everything written so far reaches the file
+    @Override
+    public void flush() throws IOException {
+        submit();
+        while (!pending.isEmpty()) {
+            writeHead();
+        }
+        out.flush();
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            out.writeInt(0);  // End marker
+        } finally {
+            out.close();
+        }
+    }
+}
+
+
+class BlockInputStream extends InputStream {
+    private final DataInputStream in;
+    private final BlockCodec codec;
+    private final ExecutorService pool;
+    private final int inFlight;
+    private final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+    private byte[] block = new byte[0];
+    private int position;
+    private boolean endOfFrames;
+
+
+    BlockInputStream(InputStream in, BlockCodec codec, ExecutorService pool, int inFlight) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+        this.codec = codec;
+        this.pool = pool;
+        this.inFlight = Math.max(1, inFlight);
+        if (this.in.readInt() != BlockOutputStream.MAGIC) {
+            throw new StreamCorruptedException("Not a block-compressed stream");
+        }
+        byte id = this.in.readByte();
+        if (id != codec.id()) {
+            throw new StreamCorruptedException("Written with codec " + id + ", reading with " + codec.name());
+        }
+    }
+
+
+    @Override
+    public int read() throws IOException {
+        if (position == block.length && !nextBlock()) {
+            return -1;
+        }
+        return block[position++] & 0xFF;
+    }
+
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (position == block.length && !nextBlock()) {
+            return -1;
+        }
+        int n = Math.min(len, block.length - position);
+        System.arraycopy(block, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+
+    // Reads ahead up to inFlight frames so the pool decompresses them meanwhile
+    private boolean nextBlock() throws IOException {
+        while (!endOfFrames && (pending.isEmpty() || (pool != null && pending.size() < inFlight))) {
+            int rawLength = in.readInt();
+            if (rawLength == 0) {
+                endOfFrames = true;
+                break;
+            }
+            int storedLength = in.readInt();
+            if (rawLength < 0 || storedLength < 0 || storedLength > rawLength) {
+                throw new StreamCorruptedException("Bad block frame");
+            }
+            byte[] stored = new byte[storedLength];
+            in.readFully(stored);
+            if (pool == null) {
+                pending.add(CompletableFuture.completedFuture(unframe(codec, stored, rawLength)));
+            } else {
+                pending.add(pool.submit(() -> unframe(codec, stored, rawLength)));
+            }
+        }
+        if (pending.isEmpty()) {
+            return false;
+        }
+        try {
+            block = pending.poll().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+        position = 0;
+        return true;
+    }
+
+
+    private static byte[] unframe(BlockCodec codec, byte[] stored, int rawLength) throws IOException {
+        if (stored.length == rawLength) {
+            return stored;
+        }
+        byte[] raw = new byte[rawLength];
+        codec.decompressBlock(stored, 0, stored.length, raw, 0, rawLength);
+        return raw;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        pending.clear();
+        in.close();
+    }
+}
+
+
+// ============================================
+// EXAMPLE 4: THROUGHPUT VS RATIO
+// ============================================
+
+class CompressionBenchmark {
+
+    static byte[] serializedRecords(int count) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            for (Object record : SampleData.records(count)) {
+                oos.writeObject(record);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+
+    public void run(String label, byte[] data, List<CompressionCodec> codecs) throws IOException {
+        System.out.printf("%n=== %s (%,d bytes) ===%n%n", label, data.length);
+        System.out.printf("%-22s %8s %14s %14s%n", "Codec", "Ratio", "Compress MB/s", "Expand MB/s");
+        System.out.println("-".repeat(62));
+
+        for (CompressionCodec codec : codecs) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 2);
+            long best = Long.MAX_VALUE;
+            for (int run = 0; run < 3; run++) {
+                compressed.reset();
+                long start = System.nanoTime();
+                try (OutputStream out = codec.compress(compressed)) {
+                    out.write(data);
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            byte[] packed = compressed.toByteArray();
+
+            long bestExpand = Long.MAX_VALUE;
+            byte[] buffer = new byte[64 * 1024];
+            for (int run = 0; run < 3; run++) {
+                long start = System.nanoTime();
+                long total = 0;
+                try (InputStream in = codec.decompress(new ByteArrayInputStream(packed))) {
+                    int n;
+                    while ((n = in.read(buffer)) != -1) {
+                        total += n;
+                    }
+                }
+                bestExpand = Math.min(bestExpand, System.nanoTime() - start);
+                if (total != data.length) {
+                    throw new IllegalStateException(codec.name() + " round trip lost bytes");
+                }
+            }
+
+            System.out.printf("%-22s %7.2fx %14.0f %14.0f%n", codec.name(), data.length / (double) packed.length,
+                data.length / 1e6 / (best / 1e9), data.length / 1e6 / (bestExpand / 1e9));
+        }
+    }
+
+
+    // Byte-for-byte round trip of every codec on awkward inputs
+    static void verify(List<CompressionCodec> codecs) throws IOException {
+        Random random = new Random(9);
+        List<byte[]> inputs = new ArrayList<>();
+        inputs.add(new byte[0]);
+        inputs.add("a".getBytes());
+        inputs.add(new byte[BlockCodec.BLOCK_SIZE * 3 + 17]);     // Zeros: long overlapping matches
+        byte[] noise = new byte[BlockCodec.BLOCK_SIZE + 5];
+        random.nextBytes(noise);                                   // Incompressible: stored blocks
+        inputs.add(noise);
+        byte[] mixed = new byte[1_000_000];
+        for (int i = 0; i < mixed.length; i++) {
+            mixed[i] = (byte) (random.nextInt(8) == 0 ? random.nextInt() : "abcabcabd".charAt(i % 9));
+        }
+        inputs.add(mixed);
+
+        for (CompressionCodec codec : codecs) {
+            for (byte[] input : inputs) {
+                ByteArrayOutputStream packed = new ByteArrayOutputStream();
+                try (OutputStream out = codec.compress(packed)) {
+                    out.write(input, 0, input.length / 2);
+                    out.flush();
+                    out.write(input, input.length / 2, input.length - input.length / 2);
+                }
+                try (InputStream in = codec.decompress(new ByteArrayInputStream(packed.toByteArray()))) {
+                    if (!Arrays.equals(input, in.readAllBytes())) {
+                        throw new IllegalStateException(codec.name() + " corrupted " + input.length + " bytes");
+                    }
+                }
+            }
+        }
+        System.out.println("Round trip OK: " + codecs.size() + " codecs x " + inputs.size() + " inputs");
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit4_Compression {
+
+    public static void main(String[] args) throws Exception {
+
+        long logSize = args.length > 0 ? Long.parseLong(args[0]) : 64L * 1024 * 1024;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 4 (EXTRA): COMPRESSION CODECS");
+        System.out.println("=".repeat(70));
+
+        Path dir = Files.createTempDirectory("compression");
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+
+        // ========== EXAMPLE 1: THE EXISTING PATHS, COMPRESSED ==========
+        System.out.println("\nEXAMPLE 1: writeWithBufferedWriter / copyFileBuffered / serializeObject + codec");
+        System.out.println("-".repeat(70));
+
+        CompressionCodec codec = CompressionCodec.gzip(6);
+        String textFile = dir.resolve("lines.txt.gz").toString();
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            lines.add("Line " + i + ": the same words again and again");
+        }
+        String plainFile = dir.resolve("lines.txt").toString();
+        Unit4_FileIO.writeWithBufferedWriter(plainFile, lines, CompressionCodec.none().compressing());
+        Unit4_FileIO.writeWithBufferedWriter(textFile, lines, codec.compressing());
+
+        String copyFile = dir.resolve("lines.txt.lz").toString();
+        Unit4_FileIO.copyFileBuffered(plainFile, copyFile, CompressionCodec.lz().compressing());
+        System.out.printf("Sizes: plain %,d / gzip-6 %,d / lz %,d bytes%n", Files.size(Paths.get(plainFile)),
+            Files.size(Paths.get(textFile)), Files.size(Paths.get(copyFile)));
+
+        String objectFile = dir.resolve("course.ser.gz").toString();
+        Course course = new Course("Data Structures", "CS202", 4);
+        course.addTopic("Trees");
+        course.addTopic("Graphs");
+        Unit4_FileIO.serializeObject(course, objectFile, codec.compressing());
+        Unit4_FileIO.deserializeObject(objectFile, codec.decompressing());
+
+
+        // ========== EXAMPLE 2: CORRECTNESS ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Round Trips");
+        System.out.println("-".repeat(70));
+
+        List<CompressionCodec> codecs = Arrays.asList(
+            CompressionCodec.none(),
+            CompressionCodec.gzip(1),
+            CompressionCodec.gzip(6),
+            CompressionCodec.gzip(9),
+            CompressionCodec.deflate(1),
+            CompressionCodec.deflate(6),
+            CompressionCodec.lz(),
+            CompressionCodec.deflate(6).parallel(pool, threads * 2),
+            CompressionCodec.lz().parallel(pool, threads * 2));
+        CompressionBenchmark.verify(codecs);
+
+
+        // ========== EXAMPLE 3: THROUGHPUT VS RATIO ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 3: Throughput vs Ratio (" + threads + " core(s))");
+        System.out.println("-".repeat(70));
+
+        Path log = dir.resolve("app.log");
+        SampleData.createLog(log, logSize);
+        CompressionBenchmark benchmark = new CompressionBenchmark();
+        benchmark.run("Log text", Files.readAllBytes(log), codecs);
+        benchmark.run("Serialized objects", CompressionBenchmark.serializedRecords(200_000), codecs);
+
+        pool.shutdown();
+        SampleData.deleteTree(dir);
+        System.out.println();
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("COMPRESSION SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  gzip / deflate level : Higher level = better ratio, slower");
+        System.out.println("  lz                   : Matches only, no entropy coding -> fastest");
+        System.out.println("  Blocks               : Independent 256 KB blocks -> parallel");
+        System.out.println("  Pluggable            : Any OutputStream path takes any codec");
+        System.out.println("=".repeat(70));
+    }
+}
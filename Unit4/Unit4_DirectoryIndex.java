@@ -0,0 +1,597 @@
+/*
+ * UNIT 4 (EXTRA): PARALLEL DIRECTORY INDEXING
+ *
+ * directoryOperations() lists ONE directory with File.listFiles(), and
+ * fileOperations() asks the file system a separate question for every attribute:
+ * exists? isFile? length? lastModified? Four system calls to learn one file. 📂
+ *
+ * THEORY:
+ *
+ * ONE STAT PER ENTRY:
+ *   - Files.readAttributes(path, BasicFileAttributes.class) returns size, mtime,
+ *     type, ... from a single stat() call
+ *   - File.length() + File.lastModified() + File.isDirectory() = three stat() calls
+ *
+ * FORK/JOIN PER SUBTREE:
+ *   - Each directory is a task; its subdirectories are forked as subtasks
+ *   - Idle workers steal whole subtrees, so deep and wide trees both balance
+ *   - Listing is I/O-bound: on a cold cache or network disk, more threads = more
+ *     requests in flight, even on few cores
+ *
+ * INCREMENTAL RESCAN (mtime):
+ *   - A directory's mtime changes when an entry is added, removed or renamed
+ *     -> unchanged directory: no need to list it again, just re-stat the files we know
+ *     -> changed directory  : list it and diff against the index
+ *   - A file's mtime (or size) changes when its content is written
+ */
+
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+
+// ============================================
+// EXAMPLE 1: INDEX ENTRIES AND SCAN STATISTICS
+// ============================================
+
+class FileEntry {
+    final Path path;
+    final long size;
+    final long lastModified;  // Millis
+
+    FileEntry(Path path, long size, long lastModified) {
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    public String extension() {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot <= 0 ? "" : name.substring(dot + 1).toLowerCase();
+    }
+
+    @Override
+    public String toString() {
+        return path + " (" + size + " bytes)";
+    }
+}
+
+
+class ScanStats {
+    final long files;
+    final long directories;
+    final long directoriesListed;
+    final long added;
+    final long modified;
+    final long removed;
+    final long errors;
+    final long nanos;
+
+    ScanStats(long files, long directories, long directoriesListed, long added, long modified,
+              long removed, long errors, long nanos) {
+        this.files = files;
+        this.directories = directories;
+        this.directoriesListed = directoriesListed;
+        this.added = added;
+        this.modified = modified;
+        this.removed = removed;
+        this.errors = errors;
+        this.nanos = nanos;
+    }
+
+    public double filesPerSecond() {
+        return files * 1e9 / Math.max(1, nanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d files in %,d dirs (%,d listed), +%,d ~%,d -%,d, %.0f ms, %,.0f files/s",
+            files, directories, directoriesListed, added, modified, removed, nanos / 1e6, filesPerSecond());
+    }
+}
+
+
+class ExtensionStats {
+    final String extension;
+    long count;
+    long bytes;
+
+    ExtensionStats(String extension) {
+        this.extension = extension;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-6s %,10d files %,14d bytes", extension.isEmpty() ? "(none)" : extension, count, bytes);
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: THE INDEX
+// ============================================
+
+class DirectoryIndex {
+
+    // What we know about one directory: its mtime and its direct children
+    private static final class DirectoryEntry {
+        final FileTime lastModified;  // Full precision - millis can miss a change in the same tick; null forces a re-list
+        final List<Path> files;
+        final List<Path> subdirectories;
+
+        DirectoryEntry(FileTime lastModified, List<Path> files, List<Path> subdirectories) {
+            this.lastModified = lastModified;
+            this.files = files;
+            this.subdirectories = subdirectories;
+        }
+    }
+
+
+    private final Path root;
+    private final ConcurrentHashMap<Path, FileEntry> files = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Path, DirectoryEntry> directories = new ConcurrentHashMap<>();
+
+    // Per-scan counters (LongAdder: many workers, rare reads)
+    private final LongAdder filesSeen = new LongAdder();
+    private final LongAdder listed = new LongAdder();
+    private final LongAdder added = new LongAdder();
+    private final LongAdder modified = new LongAdder();
+    private final LongAdder removed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+
+    public DirectoryIndex(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+
+    // First scan: every directory is unknown, so every directory is listed
+    public ScanStats build(int parallelism) {
+        files.clear();
+        directories.clear();
+        return scan(parallelism);
+    }
+
+
+    // Later scans: unchanged directories are not listed again
+    public ScanStats rescan(int parallelism) {
+        return scan(parallelism);
+    }
+
+
+    private ScanStats scan(int parallelism) {
+        for (LongAdder counter : new LongAdder[] {filesSeen, listed, added, modified, removed, errors}) {
+            counter.reset();
+        }
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new ScanTask(root));
+        } finally {
+            pool.shutdown();
+        }
+        return new ScanStats(filesSeen.sum(), directories.size(), listed.sum(), added.sum(), modified.sum(),
+            removed.sum(), errors.sum(), System.nanoTime() - start);
+    }
+
+
+    private final class ScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Path directory;
+
+        ScanTask(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected void compute() {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(directory, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (IOException e) {
+                forgetDirectory(directory);  // Deleted since the last scan
+                return;
+            }
+            if (!attributes.isDirectory()) {
+                forgetDirectory(directory);
+                return;
+            }
+
+            FileTime lastModified = attributes.lastModifiedTime();
+            DirectoryEntry known = directories.get(directory);
+            List<Path> subdirectories;
+
+            if (known != null && lastModified.equals(known.lastModified)) {
+                // Same entries as last time: re-stat the files we know, skip the listing
+                for (Path file : known.files) {
+                    restat(file);
+                }
+                subdirectories = known.subdirectories;
+            } else {
+                subdirectories = list(directory, lastModified, known);
+            }
+
+            List<ScanTask> tasks = new ArrayList<>(subdirectories.size());
+            for (Path subdirectory : subdirectories) {
+                tasks.add(new ScanTask(subdirectory));
+            }
+            invokeAll(tasks);
+        }
+    }
+
+
+    // Lists one directory with one stat per entry, diffing against what the index knew
+    private List<Path> list(Path directory, FileTime lastModified, DirectoryEntry known) {
+        listed.increment();
+        List<Path> dirFiles = new ArrayList<>();
+        List<Path> subdirectories = new ArrayList<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path child : stream) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (IOException e) {
+                    continue;  // Vanished between listing and stat
+                }
+                if (attributes.isDirectory()) {
+                    subdirectories.add(child);
+                } else if (attributes.isRegularFile()) {
+                    dirFiles.add(child);
+                    record(child, attributes);
+                }
+            }
+        } catch (IOException e) {
+            // Partial listing: removing what it missed would lose live entries, so merge with what
+            // the index knew and leave the mtime uncached so the next scan lists this directory again
+            errors.increment();
+            if (known != null) {
+                Set<Path> seenFiles = new HashSet<>(dirFiles);
+                for (Path file : known.files) {
+                    if (seenFiles.add(file)) {
+                        dirFiles.add(file);
+                    }
+                }
+                Set<Path> seenSubdirectories = new HashSet<>(subdirectories);
+                for (Path subdirectory : known.subdirectories) {
+                    if (seenSubdirectories.add(subdirectory)) {
+                        subdirectories.add(subdirectory);
+                    }
+                }
+            }
+            directories.put(directory, new DirectoryEntry(null, dirFiles, subdirectories));
+            return subdirectories;
+        }
+
+        if (known != null) {
+            Set<Path> stillThere = new HashSet<>(dirFiles);
+            for (Path file : known.files) {
+                if (!stillThere.contains(file) && files.remove(file) != null) {
+                    removed.increment();
+                }
+            }
+            Set<Path> subdirectoriesNow = new HashSet<>(subdirectories);
+            for (Path subdirectory : known.subdirectories) {
+                if (!subdirectoriesNow.contains(subdirectory)) {
+                    forgetDirectory(subdirectory);
+                }
+            }
+        }
+        directories.put(directory, new DirectoryEntry(lastModified, dirFiles, subdirectories));
+        return subdirectories;
+    }
+
+
+    private void restat(Path file) {
+        try {
+            record(file, Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS));
+        } catch (IOException e) {
+            errors.increment();  // Only possible if the directory changed mid-scan
+        }
+    }
+
+
+    private void record(Path file, BasicFileAttributes attributes) {
+        filesSeen.increment();
+        FileEntry entry = new FileEntry(file, attributes.size(), attributes.lastModifiedTime().toMillis());
+        FileEntry previous = files.put(file, entry);
+        if (previous == null) {
+            added.increment();
+        } else if (previous.size != entry.size || previous.lastModified != entry.lastModified) {
+            modified.increment();
+        }
+    }
+
+
+    // Drops a whole subtree that no longer exists
+    private void forgetDirectory(Path directory) {
+        DirectoryEntry entry = directories.remove(directory);
+        if (entry == null) {
+            return;
+        }
+        for (Path file : entry.files) {
+            if (files.remove(file) != null) {
+                removed.increment();
+            }
+        }
+        for (Path subdirectory : entry.subdirectories) {
+            forgetDirectory(subdirectory);
+        }
+    }
+
+
+    // ========== QUERIES ==========
+
+    public int fileCount() {
+        return files.size();
+    }
+
+
+    public long totalBytes() {
+        long total = 0;
+        for (FileEntry entry : files.values()) {
+            total += entry.size;
+        }
+        return total;
+    }
+
+
+    public Collection<FileEntry> entries() {
+        return Collections.unmodifiableCollection(files.values());
+    }
+
+
+    public FileEntry get(Path path) {
+        return files.get(path.toAbsolutePath().normalize());
+    }
+
+
+    // Min-heap of size n: O(files * log n), no full sort
+    public List<FileEntry> largest(int n) {
+        if (n <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<FileEntry> top = new PriorityQueue<>(n + 1, Comparator.comparingLong(e -> e.size));
+        for (FileEntry entry : files.values()) {
+            if (top.size() < n) {
+                top.add(entry);
+            } else if (entry.size > top.peek().size) {
+                top.poll();
+                top.add(entry);
+            }
+        }
+        List<FileEntry> result = new ArrayList<>(top);
+        result.sort(Comparator.comparingLong((FileEntry e) -> e.size).reversed());
+        return result;
+    }
+
+
+    // Count and bytes per extension, biggest total first
+    public List<ExtensionStats> extensions() {
+        Map<String, ExtensionStats> byExtension = new HashMap<>();
+        for (FileEntry entry : files.values()) {
+            ExtensionStats stats = byExtension.computeIfAbsent(entry.extension(), ExtensionStats::new);
+            stats.count++;
+            stats.bytes += entry.size;
+        }
+        List<ExtensionStats> result = new ArrayList<>(byExtension.values());
+        result.sort(Comparator.comparingLong((ExtensionStats s) -> s.bytes).reversed());
+        return result;
+    }
+
+
+    public List<FileEntry> modifiedSince(long millis) {
+        List<FileEntry> result = new ArrayList<>();
+        for (FileEntry entry : files.values()) {
+            if (entry.lastModified > millis) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+}
+
+
+// ============================================
+// EXAMPLE 3: MILLIONS OF ENTRIES
+// ============================================
+
+class DirectoryIndexBenchmark {
+    private static final String[] EXTENSIONS = {"txt", "log", "java", "class", "png", "json"};
+
+
+    // files spread over a 3-level tree, ~100 files per directory
+    static void createTree(Path root, int fileCount) throws IOException {
+        Random random = new Random(11);
+        int directories = Math.max(1, fileCount / 100);
+        int fanout = Math.max(2, (int) Math.ceil(Math.cbrt(directories)));
+        byte[] content = new byte[4096];
+        for (int i = 0; i < fileCount; i++) {
+            int d = i % directories;
+            Path dir = root.resolve("a" + d / (fanout * fanout)).resolve("b" + d / fanout % fanout).resolve("c" + d % fanout);
+            if (i < directories) {
+                Files.createDirectories(dir);
+            }
+            Path file = dir.resolve("f" + i + "." + EXTENSIONS[i % EXTENSIONS.length]);
+            Files.write(file, Arrays.copyOf(content, random.nextInt(i % 1000 == 0 ? content.length : 64)));
+        }
+    }
+
+
+    // The directoryOperations() / fileOperations() way, recursively
+    static long legacyWalk(File directory, long[] totalBytes) {
+        long count = 0;
+        File[] children = directory.listFiles();
+        if (children == null) {
+            return 0;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                count += legacyWalk(child, totalBytes);
+            } else if (child.isFile()) {
+                totalBytes[0] += child.length();
+                child.lastModified();
+                count++;
+            }
+        }
+        return count;
+    }
+
+
+    static long walkFileTree(Path root) throws IOException {
+        long[] count = new long[1];
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile()) {
+                    count[0]++;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return count[0];
+    }
+
+
+    public void run(Path root, int fileCount) throws IOException, InterruptedException {
+        System.out.printf("%nCreating %,d files...%n", fileCount);
+        createTree(root, fileCount);
+
+        System.out.printf("%n%-28s %12s %10s %14s%n", "Approach", "Files", "Time (ms)", "Files/sec");
+        System.out.println("-".repeat(68));
+
+        long start = System.nanoTime();
+        long count = legacyWalk(root.toFile(), new long[1]);
+        print("File.listFiles + getters", count, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        count = walkFileTree(root);
+        print("Files.walkFileTree", count, System.nanoTime() - start);
+
+        DirectoryIndex index = new DirectoryIndex(root);
+        for (int threads : new int[] {1, 4, 16}) {
+            ScanStats stats = index.build(threads);
+            print("Fork/join build, " + threads + " threads", stats.files, stats.nanos);
+        }
+
+        ScanStats unchanged = index.rescan(4);
+        print("Rescan, nothing changed", unchanged.files, unchanged.nanos);
+
+        // Touch 1% of the files, add a directory, delete one
+        List<FileEntry> all = new ArrayList<>(index.entries());
+        Thread.sleep(10);  // Make sure new mtimes differ
+        for (int i = 0; i < all.size(); i += 100) {
+            Files.write(all.get(i).path, "changed\n".getBytes(), StandardOpenOption.APPEND);
+        }
+        Path extra = root.resolve("a0").resolve("new");
+        Files.createDirectories(extra);
+        for (int i = 0; i < 50; i++) {
+            Files.write(extra.resolve("new" + i + ".txt"), new byte[10]);
+        }
+        Files.delete(all.get(1).path);
+
+        ScanStats changed = index.rescan(4);
+        print("Rescan, 1% changed", changed.files, changed.nanos);
+        System.out.println("\n  " + changed);
+
+        System.out.println("\nLargest files:");
+        for (FileEntry entry : index.largest(3)) {
+            System.out.println("  " + root.relativize(entry.path) + "  " + entry.size + " bytes");
+        }
+        System.out.println("\nBy extension:");
+        for (ExtensionStats stats : index.extensions()) {
+            System.out.println("  " + stats);
+        }
+    }
+
+
+    private static void print(String label, long files, long nanos) {
+        System.out.printf("%-28s %,12d %10.1f %,14.0f%n", label, files, nanos / 1e6, files * 1e9 / nanos);
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit4_DirectoryIndex {
+
+    public static void main(String[] args) throws Exception {
+
+        int fileCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 4 (EXTRA): PARALLEL DIRECTORY INDEXING");
+        System.out.println("=".repeat(70));
+
+        Path root = Files.createTempDirectory("dirindex");
+
+
+        // ========== EXAMPLE 1: INDEX A SMALL TREE ==========
+        System.out.println("\nEXAMPLE 1: indexDirectory() on a Small Tree");
+        System.out.println("-".repeat(70));
+
+        Path small = root.resolve("small");
+        DirectoryIndexBenchmark.createTree(small, 500);
+        File[] topLevel = small.toFile().listFiles();
+        System.out.println("directoryOperations() would list " + (topLevel == null ? 0 : topLevel.length)
+            + " entries - only the top level");
+        indexDirectory(small.toString());
+        SampleData.deleteTree(small);
+
+
+        // ========== EXAMPLE 2: SCALE ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Files Indexed per Second");
+        System.out.println("-".repeat(70));
+
+        new DirectoryIndexBenchmark().run(root.resolve("big"), fileCount);
+        SampleData.deleteTree(root);
+        System.out.println();
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("DIRECTORY INDEX SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  BasicFileAttributes : One stat() per entry, not one per getter");
+        System.out.println("  Fork/join           : One task per directory, subtrees stolen");
+        System.out.println("  Directory mtime     : Unchanged directory -> no re-listing");
+        System.out.println("  Queries             : largest(n) with a min-heap, extensions()");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // ByteStreamExample Method 4b: Recursive index - one stat per entry, subtrees in parallel (run by Unit4_FileIO too)
+    static DirectoryIndex indexDirectory(String dirPath) {
+        System.out.println("\n=== Directory Index ===");
+        System.out.println("Root: " + dirPath);
+
+        DirectoryIndex index = new DirectoryIndex(Paths.get(dirPath));
+        ScanStats stats = index.build(Runtime.getRuntime().availableProcessors() * 4);
+
+        System.out.println("Indexed: " + stats);
+        System.out.println("Total size: " + index.totalBytes() + " bytes");
+
+        System.out.println("\nLargest files:");
+        for (FileEntry entry : index.largest(3)) {
+            System.out.println("[FILE] " + entry);
+        }
+
+        System.out.println("\nBy extension:");
+        for (ExtensionStats extension : index.extensions()) {
+            System.out.println(extension);
+        }
+        System.out.println();
+
+        return index;
+    }
+}
@@ -0,0 +1,392 @@
+/*
+ * UNIT 4 (EXTRA): ZERO-COPY FILE COPY ENGINE
+ *
+ * copyFile() moves every byte disk -> kernel -> byte[1024] -> kernel -> disk.
+ * For a 1 GB file that's a million read() + write() pairs. Your CPU is a courier. 🚚
+ *
+ * THEORY:
+ *
+ * STREAM COPY (copyFile / copyFileBuffered):
+ * - Bytes are copied into a Java byte[] and back out again
+ * - 2 copies through user space + 2 system calls per buffer
+ *
+ * FileChannel.transferTo (zero-copy):
+ * - Asks the OS to move bytes between files directly (sendfile / copy_file_range)
+ * - Data never enters the JVM heap
+ *
+ * MEMORY-MAPPED (FileChannel.map):
+ * - The file's pages ARE the buffer, no read() calls
+ * - Mapped in chunks (a single mapping is limited to 2 GB)
+ * - Setup cost per mapping; unmapping happens when the buffer is GC'd
+ *
+ * DIRECT ByteBuffer loop:
+ * - Off-heap buffer the OS can read into without an extra copy
+ * - Lowest setup cost, so it's the best pick for small files
+ *
+ * SELECTION BY SIZE (see FileCopyEngine.choose):
+ *   < 64 KB   -> DIRECT_BUFFER  (one read, one write, nothing to set up)
+ *   otherwise -> TRANSFER_TO    (kernel does the work)
+ *   MAPPED    -> available explicitly, and measured in the benchmark
+ */
+
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+
+// ============================================
+// EXAMPLE 1: COPY ENGINE
+// ============================================
+
+enum CopyStrategy {
+    TRANSFER_TO, MAPPED, DIRECT_BUFFER
+}
+
+
+class CopyResult {
+    final Path source;
+    final CopyStrategy strategy;
+    final long bytes;
+    final long nanos;
+
+    CopyResult(Path source, CopyStrategy strategy, long bytes, long nanos) {
+        this.source = source;
+        this.strategy = strategy;
+        this.bytes = bytes;
+        this.nanos = nanos;
+    }
+
+    public double bytesPerSecond() {
+        return nanos == 0 ? 0 : bytes * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %,d bytes via %s in %.3f ms (%.1f MB/s)",
+            source.getFileName(), bytes, strategy, nanos / 1e6, bytesPerSecond() / (1024 * 1024));
+    }
+}
+
+
+class FileCopyEngine {
+    static final long SMALL_FILE = 64 * 1024;
+    static final long MAP_CHUNK = 64L * 1024 * 1024;
+    static final int DIRECT_BUFFER_SIZE = 256 * 1024;
+
+    // One direct buffer per thread: allocating off-heap memory per copy is expensive
+    private static final ThreadLocal<ByteBuffer> DIRECT =
+        ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(DIRECT_BUFFER_SIZE));
+
+
+    public static CopyStrategy choose(long size) {
+        return size < SMALL_FILE ? CopyStrategy.DIRECT_BUFFER : CopyStrategy.TRANSFER_TO;
+    }
+
+
+    public CopyResult copy(Path source, Path dest) throws IOException {
+        return copy(source, dest, choose(Files.size(source)));
+    }
+
+
+    // Replaces dest if it exists
+    public CopyResult copy(Path source, Path dest, CopyStrategy strategy) throws IOException {
+        long start = System.nanoTime();
+        long bytes;
+        try (
+            FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+            FileChannel out = FileChannel.open(dest, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+        ) {
+            switch (strategy) {
+                case TRANSFER_TO:
+                    bytes = transferTo(in, out);
+                    break;
+                case MAPPED:
+                    bytes = mapped(in, out);
+                    break;
+                default:
+                    bytes = directBuffer(in, out);
+            }
+        }
+        return new CopyResult(source, strategy, bytes, System.nanoTime() - start);
+    }
+
+
+    // transferTo may move fewer bytes than asked (e.g. 2 GB cap), so loop
+    static long transferTo(FileChannel in, FileChannel out) throws IOException {
+        long size = in.size();
+        long position = 0;
+        while (position < size) {
+            long moved = in.transferTo(position, size - position, out);
+            if (moved <= 0) {
+                break;  // Source shrank under us
+            }
+            position += moved;
+        }
+        return position;
+    }
+
+
+    static long mapped(FileChannel in, FileChannel out) throws IOException {
+        long size = in.size();
+        long position = 0;
+        while (position < size) {
+            long length = Math.min(MAP_CHUNK, size - position);
+            MappedByteBuffer chunk = in.map(FileChannel.MapMode.READ_ONLY, position, length);
+            while (chunk.hasRemaining()) {
+                out.write(chunk);
+            }
+            position += length;
+        }
+        return position;
+    }
+
+
+    static long directBuffer(FileChannel in, FileChannel out) throws IOException {
+        ByteBuffer buffer = DIRECT.get();
+        buffer.clear();
+        long total = 0;
+        while (in.read(buffer) != -1 || buffer.position() > 0) {
+            buffer.flip();
+            total += out.write(buffer);
+            buffer.compact();  // Keeps any bytes a short write left behind
+        }
+        return total;
+    }
+
+
+    // Copies every source -> dest pair on `threads` threads; results in input order
+    public List<CopyResult> copyAll(Map<Path, Path> pairs, int threads) throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<CopyResult>> futures = new ArrayList<>(pairs.size());
+            for (Map.Entry<Path, Path> pair : pairs.entrySet()) {
+                futures.add(pool.submit(() -> copy(pair.getKey(), pair.getValue())));
+            }
+            List<CopyResult> results = new ArrayList<>(futures.size());
+            for (Future<CopyResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: BENCHMARK 1 KB .. 10 GB
+// ============================================
+
+class FileCopyBenchmark {
+    private final FileCopyEngine engine = new FileCopyEngine();
+
+
+    // Fills a file with non-zero bytes (sparse/zero files can flatter some strategies)
+    static void createFile(Path path, long size) throws IOException {
+        byte[] pattern = new byte[1024 * 1024];
+        new Random(size).nextBytes(pattern);
+        ByteBuffer buffer = ByteBuffer.wrap(pattern);
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long written = 0;
+            while (written < size) {
+                buffer.clear().limit((int) Math.min(pattern.length, size - written));
+                written += out.write(buffer);
+            }
+        }
+    }
+
+
+    // Same loops as copyFile (1 KB) and copyFileBuffered (8 KB), minus the printing
+    static long streamCopy(Path source, Path dest, int bufferSize, boolean buffered) throws IOException {
+        try (
+            InputStream in = buffered ? new BufferedInputStream(new FileInputStream(source.toFile()))
+                                      : new FileInputStream(source.toFile());
+            OutputStream out = buffered ? new BufferedOutputStream(new FileOutputStream(dest.toFile()))
+                                        : new FileOutputStream(dest.toFile())
+        ) {
+            byte[] buffer = new byte[bufferSize];
+            long total = 0;
+            int bytesRead;
+            while ((bytesRead = in.read(buffer)) != -1) {
+                out.write(buffer, 0, bytesRead);
+                total += bytesRead;
+            }
+            return total;
+        }
+    }
+
+
+    static String label(long size) {
+        if (size >= 1L << 30) return (size >> 30) + " GB";
+        if (size >= 1L << 20) return (size >> 20) + " MB";
+        return (size >> 10) + " KB";
+    }
+
+
+    // Best MB/s of `runs`; very large files get a single run
+    private double best(int runs, long size, Callable<Long> copy) throws Exception {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            long copied = copy.call();
+            best = Math.min(best, System.nanoTime() - start);
+            if (copied != size) {
+                throw new IOException("Copied " + copied + " of " + size + " bytes");
+            }
+        }
+        return size * 1e9 / best / (1024 * 1024);
+    }
+
+
+    public void sizes(Path dir, long maxSize) throws Exception {
+        System.out.println("\n=== Copy Throughput by File Size (MB/s, best of runs) ===");
+        System.out.println("Note: files are hot in the page cache - this measures copy cost, not the disk");
+        System.out.println();
+        System.out.printf("%-8s %12s %12s %12s %12s %12s   %s%n",
+            "Size", "stream 1KB", "buffered 8KB", "TRANSFER_TO", "MAPPED", "DIRECT", "auto picks");
+
+        for (long size = 1024; size <= maxSize; size *= size < (1L << 30) ? 32 : 10) {
+            Path source = dir.resolve("src-" + size + ".bin");
+            Path dest = dir.resolve("dst-" + size + ".bin");
+            createFile(source, size);
+            int runs = size <= (16L << 20) ? 10 : size <= (1L << 30) ? 3 : 1;
+
+            System.out.printf("%-8s %12.1f %12.1f", label(size),
+                best(runs, size, () -> streamCopy(source, dest, 1024, false)),
+                best(runs, size, () -> streamCopy(source, dest, 8192, true)));
+            for (CopyStrategy strategy : CopyStrategy.values()) {
+                System.out.printf(" %12.1f", best(runs, size, () -> engine.copy(source, dest, strategy).bytes));
+            }
+            System.out.println("   " + FileCopyEngine.choose(size));
+
+            Files.delete(source);
+            Files.delete(dest);
+        }
+        System.out.println();
+    }
+
+
+    public void concurrent(Path dir, int files, long size, int maxThreads) throws Exception {
+        System.out.println("\n=== Concurrent Multi-File Copy: " + files + " x " + label(size) + " ===");
+        System.out.println();
+
+        Map<Path, Path> pairs = new LinkedHashMap<>();
+        for (int i = 0; i < files; i++) {
+            Path source = dir.resolve("multi-" + i + ".bin");
+            createFile(source, size);
+            pairs.put(source, dir.resolve("multi-" + i + ".copy"));
+        }
+
+        System.out.printf("%-8s %12s %12s%n", "Threads", "total ms", "MB/s");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            long start = System.nanoTime();
+            List<CopyResult> results = engine.copyAll(pairs, threads);
+            long elapsed = System.nanoTime() - start;
+            long bytes = 0;
+            for (CopyResult result : results) {
+                bytes += result.bytes;
+            }
+            System.out.printf("%-8d %12.1f %12.1f%n", threads, elapsed / 1e6, bytes * 1e9 / elapsed / (1024 * 1024));
+        }
+
+        for (Map.Entry<Path, Path> pair : pairs.entrySet()) {
+            Files.delete(pair.getKey());
+            Files.deleteIfExists(pair.getValue());
+        }
+        System.out.println();
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit4_FastCopy {
+
+    public static void main(String[] args) throws Exception {
+
+        // Up to 10 GB if you have the disk space: java Unit4_FastCopy 10737418240
+        long maxSize = args.length > 0 ? Long.parseLong(args[0]) : 256L * 1024 * 1024;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 4 (EXTRA): ZERO-COPY FILE COPY ENGINE");
+        System.out.println("=".repeat(70));
+
+        Path dir = Files.createTempDirectory("fastcopy");
+
+
+        // ========== EXAMPLE 1: copyFile() WITHOUT THE BYTE[] ==========
+        System.out.println("\nEXAMPLE 1: copyFileZeroCopy()");
+        System.out.println("-".repeat(70));
+
+        Path small = dir.resolve("small.txt");
+        Files.writeString(small, "Hello, File I/O!\nThis is line 2.\nThis is line 3.\nJava Streams are powerful!");
+        Path large = dir.resolve("large.bin");
+        FileCopyBenchmark.createFile(large, 8L * 1024 * 1024);
+
+        copyFileZeroCopy(small.toString(), dir.resolve("small-copy.txt").toString());
+        copyFileZeroCopy(large.toString(), dir.resolve("large-copy.bin").toString());
+
+
+        // ========== EXAMPLE 2: BENCHMARK ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Benchmark");
+        System.out.println("-".repeat(70));
+
+        FileCopyBenchmark benchmark = new FileCopyBenchmark();
+        benchmark.sizes(dir, maxSize);
+        benchmark.concurrent(dir, 16, 16L * 1024 * 1024, threads);
+
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(dir)) {
+            for (Path path : leftovers) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(dir);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("FILE COPY SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  Stream copy   : Every byte passes through a Java byte[]");
+        System.out.println("  transferTo    : Kernel-to-kernel copy, best for medium and large files");
+        System.out.println("  Memory-mapped : No read() calls, but mapping setup per chunk");
+        System.out.println("  Direct buffer : Cheapest setup, best for small files");
+        System.out.println("  Many files    : Copies run in parallel until the disk is the limit");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // ByteStreamExample Method 2b: Channel copy, strategy picked by file size (run by Unit4_FileIO too)
+    static void copyFileZeroCopy(String sourceFile, String destFile) {
+        System.out.println("\n=== Copying File (Zero-Copy Channels) ===");
+
+        try {
+            CopyResult result = new FileCopyEngine().copy(Paths.get(sourceFile), Paths.get(destFile));
+
+            System.out.println("Strategy: " + result.strategy);
+            System.out.println("Bytes copied: " + result.bytes);
+            System.out.printf("Throughput: %.1f MB/s%n", result.bytesPerSecond() / (1024 * 1024));
+
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+        System.out.println();
+    }
+}
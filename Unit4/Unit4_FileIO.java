@@ -38,6 +38,7 @@
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 
 // ============================================
@@ -81,16 +82,18 @@ class CharacterStreamExample {
         System.out.println("\n=== Reading from File (FileReader) ===");
         System.out.println("File: " + filename);
         
-        StringBuilder content = new StringBuilder();
+        // Presized: a file of N bytes has at most N chars in UTF-8/ASCII
+        StringBuilder content = new StringBuilder((int) Math.min(new File(filename).length(), Integer.MAX_VALUE - 8));
         FileReader reader = null;
         
         try {
             reader = new FileReader(filename);
-            int character;
+            char[] buffer = new char[8192];
+            int count;
             
-            // Read character by character
-            while ((character = reader.read()) != -1) {
-                content.append((char) character);
+            // Read in chunks, not character by character (see Unit4_BulkReader)
+            while ((count = reader.read(buffer)) != -1) {
+                content.append(buffer, 0, count);
             }
             
             System.out.println("Content read successfully!");
@@ -124,10 +127,16 @@ class CharacterStreamExample {
     
     // Method 3: Buffered operations (more efficient)
     public void writeWithBufferedWriter(String filename, List<String> lines) {
+        writeWithBufferedWriter(filename, lines, UnaryOperator.identity());
+    }
+    
+    
+    // Method 3b: Same, with the file's bytes passed through `wrap` (e.g. a compressor, see Unit4_Compression)
+    public void writeWithBufferedWriter(String filename, List<String> lines, UnaryOperator<OutputStream> wrap) {
         System.out.println("\n=== Writing with BufferedWriter ===");
         System.out.println("File: " + filename);
         
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(wrap.apply(new FileOutputStream(filename))))) {
             
             for (int i = 0; i < lines.size(); i++) {
                 writer.write(lines.get(i));
@@ -137,7 +146,7 @@ class CharacterStreamExample {
             System.out.println("Lines written: " + lines.size());
             System.out.println("Content written with BufferedWriter");
             
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {  // Unchecked: thrown by a wrapper
             System.out.println("Error: " + e.getMessage());
         }
         System.out.println();
@@ -248,11 +257,17 @@ class ByteStreamExample {
     
     // Method 2: Buffered byte streams (more efficient)
     public void copyFileBuffered(String sourceFile, String destFile) {
+        copyFileBuffered(sourceFile, destFile, UnaryOperator.identity());
+    }
+    
+    
+    // Method 2b: Same, with the destination written through `wrap`
+    public void copyFileBuffered(String sourceFile, String destFile, UnaryOperator<OutputStream> wrap) {
         System.out.println("\n=== Copying File (Buffered Byte Streams) ===");
         
         try (
             BufferedInputStream bis = new BufferedInputStream(new FileInputStream(sourceFile));
-            BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(destFile))
+            BufferedOutputStream bos = new BufferedOutputStream(wrap.apply(new FileOutputStream(destFile)))
         ) {
             byte[] buffer = new byte[8192];  // 8KB buffer
             int bytesRead;
@@ -266,7 +281,7 @@ class ByteStreamExample {
             System.out.println("Buffered copy completed!");
             System.out.println("Bytes copied: " + totalBytes);
             
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             System.out.println("Error: " + e.getMessage());
         }
         System.out.println();
@@ -329,85 +344,32 @@ class ByteStreamExample {
 // EXAMPLE 3: Serialization and Deserialization
 // ============================================
 
-// Serializable class 1: Simple student data
-class Student implements Serializable {
-    private static final long serialVersionUID = 1L;
-    
-    private String name;
-    private int rollNumber;
-    private double marks;
-    private transient String password;  // transient = not serialized
-    
-    
-    public Student(String name, int rollNumber, double marks, String password) {
-        this.name = name;
-        this.rollNumber = rollNumber;
-        this.marks = marks;
-        this.password = password;
-    }
-    
-    
-    @Override
-    public String toString() {
-        return "Student{" +
-               "name='" + name + '\'' +
-               ", rollNumber=" + rollNumber +
-               ", marks=" + marks +
-               ", password='" + password + '\'' +
-               '}';
-    }
-}
+// Serializable class 1: Simple student data: Student.java
 
 
-// Serializable class 2: Complex object with nested objects
-class Course implements Serializable {
-    private static final long serialVersionUID = 1L;
-    
-    private String courseName;
-    private String courseCode;
-    private int credits;
-    private List<String> topics;
-    
-    
-    public Course(String courseName, String courseCode, int credits) {
-        this.courseName = courseName;
-        this.courseCode = courseCode;
-        this.credits = credits;
-        this.topics = new ArrayList<>();
-    }
-    
-    
-    public void addTopic(String topic) {
-        topics.add(topic);
-    }
-    
-    
-    @Override
-    public String toString() {
-        return "Course{" +
-               "courseName='" + courseName + '\'' +
-               ", courseCode='" + courseCode + '\'' +
-               ", credits=" + credits +
-               ", topics=" + topics +
-               '}';
-    }
-}
+// Serializable class 2: Complex object with nested objects: Course.java
 
 
 class SerializationExample {
     
     // Method 1: Serialize object to file
     public void serializeObject(Object obj, String filename) {
+        serializeObject(obj, filename, UnaryOperator.identity());
+    }
+    
+    
+    // Method 1b: Same, with the object's bytes passed through `wrap`
+    public void serializeObject(Object obj, String filename, UnaryOperator<OutputStream> wrap) {
         System.out.println("\n=== Serializing Object ===");
         System.out.println("File: " + filename);
         System.out.println("Object: " + obj);
         
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filename))) {
+        try (ObjectOutputStream oos = new ObjectOutputStream(wrap.apply(new FileOutputStream(filename)))) {
             
             oos.writeObject(obj);
             System.out.println("Object serialized successfully!");
             
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             System.out.println("Serialization error: " + e.getMessage());
         }
         System.out.println();
@@ -416,12 +378,18 @@ class SerializationExample {
     
     // Method 2: Deserialize object from file
     public Object deserializeObject(String filename) {
+        return deserializeObject(filename, UnaryOperator.identity());
+    }
+    
+    
+    // Method 2b: Same, reading through `unwrap` - the inverse of what serializeObject() used
+    public Object deserializeObject(String filename, UnaryOperator<InputStream> unwrap) {
         System.out.println("\n=== Deserializing Object ===");
         System.out.println("File: " + filename);
         
         Object obj = null;
         
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filename))) {
+        try (ObjectInputStream ois = new ObjectInputStream(unwrap.apply(new FileInputStream(filename)))) {
             
             obj = ois.readObject();
             System.out.println("Object deserialized successfully!");
@@ -430,7 +398,7 @@ class SerializationExample {
         } catch (FileNotFoundException e) {
             System.out.println("File not found: " + filename);
             
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             System.out.println("IO error: " + e.getMessage());
             
         } catch (ClassNotFoundException e) {
@@ -531,6 +499,9 @@ public class Unit4_FileIO {
         // BufferedReader
         charExample.readWithBufferedReader("buffered_file.txt");
         
+        // Streaming pipeline (no List in memory)
+        Unit4_LinePipeline.countMatchingLines("buffered_file.txt", "Programming");
+        
         // Appending to file
         charExample.appendToFile("buffered_file.txt", "Line 6: Appended content!");
         charExample.readWithBufferedReader("buffered_file.txt");
@@ -549,12 +520,16 @@ public class Unit4_FileIO {
         // Buffered copy
         byteExample.copyFileBuffered("buffered_file.txt", "buffered_copy.txt");
         
+        // Zero-copy channels
+        Unit4_FastCopy.copyFileZeroCopy("buffered_file.txt", "zero_copy.txt");
+        
         // File operations
         byteExample.fileOperations("test_file.txt");
         byteExample.fileOperations("nonexistent_file.txt");
         
         // Directory operations
         byteExample.directoryOperations("test_directory");
+        Unit4_DirectoryIndex.indexDirectory("test_directory");
         
         
         // ========== EXAMPLE 3: SERIALIZATION ==========
@@ -622,9 +597,11 @@ public class Unit4_FileIO {
         System.out.println("   - BufferedInputStream / BufferedOutputStream (efficient)");
         System.out.println("   - Copying files using byte streams");
         System.out.println("   - Better for binary files");
+        System.out.println("   - FileChannel.transferTo for zero-copy (see Unit4_FastCopy)");
         System.out.println("\n3. FILE OPERATIONS:");
         System.out.println("   - File class for file/directory manipulation");
         System.out.println("   - Check existence, size, permissions");
+        System.out.println("   - Recursive parallel index, one stat per entry (see Unit4_DirectoryIndex)");
         System.out.println("   - Create, delete, rename operations");
         System.out.println("   - Directory listing and creation");
         System.out.println("\n4. SERIALIZATION:");
@@ -640,4 +617,25 @@ public class Unit4_FileIO {
         System.out.println("   - Use character streams for text, byte streams for binary");
         System.out.println("=".repeat(70));
     }
+    
+    
+    // The buffered and serialization paths with a stream wrapper, for Unit4_Compression
+    static void writeWithBufferedWriter(String filename, List<String> lines, UnaryOperator<OutputStream> wrap) {
+        new CharacterStreamExample().writeWithBufferedWriter(filename, lines, wrap);
+    }
+    
+    
+    static void copyFileBuffered(String sourceFile, String destFile, UnaryOperator<OutputStream> wrap) {
+        new ByteStreamExample().copyFileBuffered(sourceFile, destFile, wrap);
+    }
+    
+    
+    static void serializeObject(Object obj, String filename, UnaryOperator<OutputStream> wrap) {
+        new SerializationExample().serializeObject(obj, filename, wrap);
+    }
+    
+    
+    static Object deserializeObject(String filename, UnaryOperator<InputStream> unwrap) {
+        return new SerializationExample().deserializeObject(filename, unwrap);
+    }
 }
@@ -0,0 +1,664 @@
+/*
+ * UNIT 4 (EXTRA): TAILING FILES WITH WatchService
+ *
+ * readWithBufferedReader() reads the WHOLE file, every time. A log that grows
+ * by one line gets re-read from line 1 - a 1 GB log, one line at a time, forever. 🔁
+ *
+ * THEORY:
+ *
+ * OFFSETS: Remember how far each file has been read
+ *   - New data = bytes from [offset, size) -> read only those
+ *   - A line is emitted when its '\n' arrives; the rest waits in a partial buffer
+ *
+ * WatchService: The OS tells us which files changed (inotify on Linux)
+ *   - Register each DIRECTORY once, not each file -> thousands of files, few watches
+ *   - Events are hints: several writes may arrive as one MODIFY, so always read up to
+ *     the current size, never "one event = one line"
+ *   - OVERFLOW = events were dropped -> check every file in that directory
+ *
+ * ROTATION: app.log is renamed to app.log.1 and a new app.log is created
+ *   - Detected by the file key (inode) changing under the same name
+ *   - The old file is drained through its still-open channel, then we start at 0
+ *
+ * TRUNCATION: size < offset -> the file was cut, start again at 0
+ *   (a truncate followed by a bigger rewrite between two checks cannot be told
+ *    apart from an append - the classic copytruncate race)
+ *
+ * ONE THREAD: poll() waits for events and reads all changed files itself.
+ * Channels stay open so a rotated file can still be drained, but only for the
+ * most recently active files (LRU, 4096 by default) - file descriptors are bounded.
+ */
+
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+// ============================================
+// EXAMPLE 1: CALLBACKS
+// ============================================
+
+interface LineListener {
+    void onLine(Path file, String line);
+
+    // Rotation or truncation: the next lines come from offset 0
+    default void onReset(Path file, String reason) {
+    }
+
+    // A read failed; the file is retried on its next event, the others keep tailing
+    default void onError(Path file, IOException e) {
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: THE TAILER
+// ============================================
+
+class FileTailer implements Closeable {
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    // Everything we remember about one watched file
+    private static final class TailState {
+        final Path path;
+        Object fileKey;       // Inode on Unix; identifies the file behind the name
+        long offset;
+        byte[] partial = new byte[256];
+        int partialLength;
+        FileChannel channel;  // Open only while the file is in the LRU
+
+        TailState(Path path) {
+            this.path = path;
+        }
+    }
+
+    // One WatchKey per directory, cancelled when its last file is unwatched
+    private static final class DirectoryWatch {
+        final WatchKey key;
+        int files;
+
+        DirectoryWatch(WatchKey key) {
+            this.key = key;
+        }
+    }
+
+
+    private final WatchService watchService;
+    private final LineListener listener;
+    private final Map<Path, TailState> files = new HashMap<>();
+    private final Map<Path, DirectoryWatch> directories = new HashMap<>();
+    private final LinkedHashMap<Path, TailState> openChannels;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private volatile boolean closed;
+
+    private long lines;
+    private long bytesRead;
+    private long resets;
+    private long errors;
+
+
+    public FileTailer(LineListener listener, int maxOpenFiles) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.listener = listener;
+        this.openChannels = new LinkedHashMap<Path, TailState>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, TailState> eldest) {
+                if (size() <= maxOpenFiles) {
+                    return false;
+                }
+                closeChannel(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public FileTailer(LineListener listener) throws IOException {
+        this(listener, 4096);
+    }
+
+
+    // fromStart = false: only lines appended from now on; the file may not exist yet
+    public synchronized void watch(Path file, boolean fromStart) throws IOException {
+        Path path = file.toAbsolutePath().normalize();
+        if (files.containsKey(path)) {
+            return;
+        }
+        Path directory = path.getParent();
+        DirectoryWatch watch = directories.get(directory);
+        if (watch == null) {
+            watch = new DirectoryWatch(directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE));
+            directories.put(directory, watch);
+        }
+        watch.files++;
+
+        TailState state = new TailState(path);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            state.fileKey = fileKey(attributes);
+            state.offset = fromStart ? 0 : attributes.size();
+            channel(state);  // Held open so a rotation can still be drained
+        } catch (NoSuchFileException e) {
+            // Picked up by ENTRY_CREATE
+        }
+        files.put(path, state);
+        if (fromStart) {
+            update(state);
+        }
+    }
+
+
+    public synchronized void unwatch(Path file) {
+        TailState state = files.remove(file.toAbsolutePath().normalize());
+        if (state != null) {
+            openChannels.remove(state.path);
+            closeChannel(state);
+            Path directory = state.path.getParent();
+            DirectoryWatch watch = directories.get(directory);
+            if (--watch.files == 0) {
+                directories.remove(directory);
+                watch.key.cancel();
+            }
+        }
+    }
+
+
+    private static Object fileKey(BasicFileAttributes attributes) {
+        Object key = attributes.fileKey();
+        return key != null ? key : attributes.creationTime();  // No inodes (Windows)
+    }
+
+
+    // ========== EVENT LOOP ==========
+
+    // Waits up to timeoutMillis for changes and handles every ready directory; returns lines emitted
+    public long poll(long timeoutMillis) throws IOException, InterruptedException {
+        WatchKey key = watchService.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        long before;
+        synchronized (this) {
+            before = lines;
+            while (key != null) {
+                handle(key);
+                key = watchService.poll();
+            }
+            return lines - before;
+        }
+    }
+
+
+    // The single tailing thread: loops until close()
+    public void run() throws IOException {
+        try {
+            while (!closed) {
+                poll(100);
+            }
+        } catch (ClosedWatchServiceException e) {
+            // close() while waiting
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private void handle(WatchKey key) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                for (TailState state : files.values()) {
+                    if (state.path.getParent().equals(directory)) {
+                        tryUpdate(state);
+                    }
+                }
+                continue;
+            }
+            TailState state = files.get(directory.resolve((Path) event.context()));
+            if (state != null) {
+                tryUpdate(state);
+            }
+        }
+        key.reset();
+    }
+
+
+    // One unreadable file must not stop the loop for all the others
+    private void tryUpdate(TailState state) {
+        try {
+            update(state);
+        } catch (IOException e) {
+            errors++;
+            openChannels.remove(state.path);
+            closeChannel(state);  // Reopened on the next event
+            listener.onError(state.path, e);
+        }
+    }
+
+
+    // Without waiting for an event (e.g. a pull-style caller); returns lines emitted
+    public synchronized long check(Path file) throws IOException {
+        TailState state = files.get(file.toAbsolutePath().normalize());
+        long before = lines;
+        if (state != null) {
+            update(state);
+        }
+        return lines - before;
+    }
+
+
+    // ========== READING ==========
+
+    private void update(TailState state) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(state.path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            if (state.fileKey != null) {
+                drainOld(state);  // Deleted or renamed away: keep whatever was written before
+                reset(state, "deleted");
+                state.fileKey = null;
+            }
+            return;
+        }
+
+        Object key = fileKey(attributes);
+        if (state.fileKey != null && !state.fileKey.equals(key)) {
+            drainOld(state);
+            reset(state, "rotated");
+        } else if (attributes.size() < state.offset) {
+            reset(state, "truncated");
+        }
+        state.fileKey = key;
+
+        if (attributes.size() > state.offset) {
+            FileChannel channel = channel(state);
+            if (channel != null) {
+                drain(state, channel, attributes.size());
+            }
+        }
+    }
+
+
+    // Reads what is left through the channel we already had open - the tail of a rotated log.
+    // A file that had dropped out of the LRU loses whatever was not read before the rename.
+    private void drainOld(TailState state) throws IOException {
+        if (state.channel != null) {
+            drain(state, state.channel, state.channel.size());
+            flushPartial(state);
+        }
+    }
+
+
+    private void reset(TailState state, String reason) {
+        openChannels.remove(state.path);
+        closeChannel(state);
+        state.offset = 0;
+        state.partialLength = 0;
+        resets++;
+        listener.onReset(state.path, reason);
+    }
+
+
+    private FileChannel channel(TailState state) throws IOException {
+        if (state.channel == null) {
+            try {
+                state.channel = FileChannel.open(state.path, StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+        }
+        openChannels.put(state.path, state);  // Marks it most recently used
+        return state.channel;
+    }
+
+
+    private void closeChannel(TailState state) {
+        if (state.channel != null) {
+            try {
+                state.channel.close();
+            } catch (IOException e) {
+                // Read-only channel, nothing to lose
+            }
+            state.channel = null;
+        }
+    }
+
+
+    // Reads [offset, end) in 64 KB steps and splits it into lines
+    private void drain(TailState state, FileChannel channel, long end) throws IOException {
+        while (state.offset < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - state.offset));
+            int read = channel.read(buffer, state.offset);
+            if (read <= 0) {
+                break;
+            }
+            state.offset += read;
+            bytesRead += read;
+            split(state, buffer.array(), read);
+        }
+    }
+
+
+    private void split(TailState state, byte[] data, int length) {
+        int lineStart = 0;
+        for (int i = 0; i < length; i++) {
+            if (data[i] != '\n') {
+                continue;
+            }
+            if (state.partialLength > 0) {
+                appendPartial(state, data, lineStart, i - lineStart);
+                emit(state, state.partial, 0, state.partialLength);
+                state.partialLength = 0;
+            } else {
+                emit(state, data, lineStart, i - lineStart);
+            }
+            lineStart = i + 1;
+        }
+        appendPartial(state, data, lineStart, length - lineStart);
+    }
+
+
+    private static void appendPartial(TailState state, byte[] data, int start, int length) {
+        if (state.partialLength + length > state.partial.length) {
+            state.partial = Arrays.copyOf(state.partial, Math.max(state.partial.length * 2, state.partialLength + length));
+        }
+        System.arraycopy(data, start, state.partial, state.partialLength, length);
+        state.partialLength += length;
+    }
+
+
+    private void emit(TailState state, byte[] data, int start, int length) {
+        if (length > 0 && data[start + length - 1] == '\r') {
+            length--;
+        }
+        lines++;
+        listener.onLine(state.path, new String(data, start, length, StandardCharsets.UTF_8));
+    }
+
+
+    private void flushPartial(TailState state) {
+        if (state.partialLength > 0) {
+            emit(state, state.partial, 0, state.partialLength);
+            state.partialLength = 0;
+        }
+    }
+
+
+    // Emits lines still waiting for their '\n' (e.g. the last appendToFile() line)
+    public synchronized void flush() {
+        for (TailState state : files.values()) {
+            flushPartial(state);
+        }
+    }
+
+
+    // ========== STATS ==========
+
+    public synchronized int watchedFiles() {
+        return files.size();
+    }
+
+    public synchronized int watchedDirectories() {
+        return directories.size();
+    }
+
+    public synchronized long lineCount() {
+        return lines;
+    }
+
+    public synchronized long bytesRead() {
+        return bytesRead;
+    }
+
+    public synchronized long resetCount() {
+        return resets;
+    }
+
+    public synchronized long errorCount() {
+        return errors;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        watchService.close();
+        synchronized (this) {
+            for (TailState state : files.values()) {
+                closeChannel(state);
+            }
+            openChannels.clear();
+        }
+    }
+}
+
+
+// ============================================
+// EXAMPLE 3: THOUSANDS OF FILES, ONE THREAD
+// ============================================
+
+class FileTailerBenchmark {
+
+    public void run(Path dir, int fileCount) throws Exception {
+        int directoryCount = Math.max(1, fileCount / 500);
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < fileCount; i++) {
+            Path directory = dir.resolve("logs" + i % directoryCount);
+            Files.createDirectories(directory);
+            Path path = directory.resolve("app" + i + ".log");
+            StringBuilder history = new StringBuilder();
+            for (int line = 0; line < 100; line++) {
+                history.append("old line ").append(line).append('\n');
+            }
+            Files.write(path, history.toString().getBytes(StandardCharsets.UTF_8));
+            paths.add(path);
+        }
+
+        AtomicLong received = new AtomicLong();
+        AtomicLong resets = new AtomicLong();
+        LineListener listener = new LineListener() {
+            @Override
+            public void onLine(Path file, String line) {
+                received.incrementAndGet();
+            }
+
+            @Override
+            public void onReset(Path file, String reason) {
+                resets.incrementAndGet();
+            }
+        };
+
+        FileTailer tailer = new FileTailer(listener);
+        Thread tailThread = new Thread(() -> {
+            try {
+                tailer.run();
+            } catch (IOException e) {
+                System.out.println("Tailer error: " + e.getMessage());
+            }
+        }, "tailer");
+        try {
+            long start = System.nanoTime();
+            for (Path path : paths) {
+                tailer.watch(path, false);
+            }
+            System.out.printf("%nWatching %,d files in %,d directories (%.1f ms to register)%n",
+                tailer.watchedFiles(), tailer.watchedDirectories(), (System.nanoTime() - start) / 1e6);
+
+            tailThread.start();
+
+            // Appends: 20 rounds, 5 lines to a quarter of the files each
+            Random random = new Random(3);
+            long written = 0;
+            long existingBytes = 0;
+            start = System.nanoTime();
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < fileCount / 4; i++) {
+                    Path path = paths.get(random.nextInt(fileCount));
+                    try (Writer writer = Files.newBufferedWriter(path, StandardOpenOption.APPEND)) {
+                        for (int line = 0; line < 5; line++) {
+                            writer.write("round " + round + " line " + line + "\n");
+                        }
+                    }
+                    written += 5;
+                    existingBytes += Files.size(path);
+                }
+            }
+            waitFor(received, written);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Appended lines:  %,d written, %,d received in %.2f s (%,.0f lines/s)%n",
+                written, received.get(), seconds, received.get() / seconds);
+            System.out.printf("Bytes read:      %,d by the tailer vs %,d re-reading whole files%n",
+                tailer.bytesRead(), existingBytes);
+
+            // Rotation: rename away, a late write to the old file, then a fresh file
+            int rotated = Math.min(100, fileCount);
+            for (int i = 0; i < rotated; i++) {
+                Path path = paths.get(i);
+                Files.write(path, "last line before rotation\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+                Files.move(path, path.resolveSibling(path.getFileName() + ".1"));
+                Files.write(path, "first line after rotation\nsecond line\n".getBytes(StandardCharsets.UTF_8));
+                written += 3;
+            }
+            waitFor(received, written);
+            System.out.printf("Rotated %d files:    %,d of %,d lines received, %d resets%n",
+                rotated, received.get(), written, resets.get());
+
+            // Truncation: cut to zero, then write a little
+            for (int i = rotated; i < 2 * rotated && i < fileCount; i++) {
+                Files.write(paths.get(i), "after truncation\n".getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                written += 1;
+            }
+            waitFor(received, written);
+            System.out.printf("Truncated %d files:  %,d of %,d lines received, %d resets%n",
+                rotated, received.get(), written, resets.get());
+
+            // Unwatching every file of a directory cancels its watch
+            int directoriesBefore = tailer.watchedDirectories();
+            Path firstDirectory = paths.get(0).getParent();
+            for (Path path : paths) {
+                if (path.getParent().equals(firstDirectory)) {
+                    tailer.unwatch(path);
+                }
+            }
+            System.out.printf("Unwatched %s:    %d -> %d watched directories, %d read errors%n",
+                firstDirectory.getFileName(), directoriesBefore, tailer.watchedDirectories(), tailer.errorCount());
+        } finally {
+            tailer.close();  // Also ends run()
+        }
+        tailThread.join();
+    }
+
+
+    private static void waitFor(AtomicLong received, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (received.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit4_FileTailer {
+
+    public static void main(String[] args) throws Exception {
+
+        int fileCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 4 (EXTRA): TAILING FILES WITH WatchService");
+        System.out.println("=".repeat(70));
+
+        Path dir = Files.createTempDirectory("tailer");
+
+
+        // ========== EXAMPLE 1: FOLLOW ONE FILE ==========
+        System.out.println("\nEXAMPLE 1: followFile() while another thread appends");
+        System.out.println("-".repeat(70));
+
+        String filename = dir.resolve("followed.txt").toString();
+        Files.write(Paths.get(filename), Arrays.asList("Line 1: existing", "Line 2: existing"));
+
+        Thread appender = new Thread(() -> {
+            try {
+                for (int i = 3; i <= 5; i++) {
+                    Thread.sleep(200);
+                    try (FileWriter writer = new FileWriter(filename, true)) {
+                        writer.write("Line " + i + ": appended\n");
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                System.out.println("Appender error: " + e.getMessage());
+            }
+        });
+        appender.start();
+        followFile(filename, 1000);
+        appender.join();
+
+
+        // ========== EXAMPLE 2: SCALE ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Thousands of Files, Rotation, Truncation");
+        System.out.println("-".repeat(70));
+
+        new FileTailerBenchmark().run(dir, fileCount);
+        SampleData.deleteTree(dir);
+        System.out.println();
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("FILE TAILER SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  Per-file offset : Only [offset, size) is read");
+        System.out.println("  WatchService    : One watch per directory, events are hints");
+        System.out.println("  Rotation        : New inode -> drain the old file, restart at 0");
+        System.out.println("  Truncation      : size < offset -> restart at 0");
+        System.out.println("  One thread      : LRU of open channels bounds file descriptors");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // CharacterStreamExample Method 4c: Follow a file - only lines appended from now on are read
+    static List<String> followFile(String filename, long millis) {
+        System.out.println("\n=== Following File ===");
+        System.out.println("File: " + filename);
+
+        List<String> lines = new ArrayList<>();
+
+        try (FileTailer tailer = new FileTailer((file, line) -> {
+            lines.add(line);
+            System.out.println("New line: " + line);
+        })) {
+
+            tailer.watch(Paths.get(filename), false);
+            long deadline = System.currentTimeMillis() + millis;
+            while (System.currentTimeMillis() < deadline) {
+                tailer.poll(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+            tailer.flush();  // appendToFile() puts "\n" first, so its last line has no newline yet
+
+            System.out.println("\nNew lines read: " + lines.size() + " (" + tailer.bytesRead() + " bytes)");
+
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println();
+
+        return lines;
+    }
+}
@@ -0,0 +1,449 @@
+/*
+ * UNIT 4 (EXTRA): GROUP-COMMIT APPEND LOG
+ *
+ * appendToFile() opens the file, writes "\n" + content, and closes it. Every. Single. Time.
+ * Logging 100k events = 100k opens and closes. The file system is not amused. 😤
+ *
+ * THEORY:
+ *
+ * LONG-LIVED WRITER: Open the file once, keep one FileChannel in APPEND mode.
+ *
+ * GROUP COMMIT:
+ * - Many threads call append(); each record goes into a queue
+ * - ONE writer thread takes everything that is waiting (a batch),
+ *   writes it with a single write() and (maybe) a single fsync
+ * - Then tells every waiting caller "done"
+ * - The busier it gets, the bigger the batches -> cost per record drops
+ *
+ * FSYNC (force): write() only reaches the OS page cache. force() pushes it to disk.
+ * - NONE      : Never fsync (fast, last records lost on power failure)
+ * - PER_BATCH : fsync every batch before reporting "done" (durable)
+ * - INTERVAL  : fsync at most every N ms (bounded loss window)
+ *
+ * FAILED WRITE: The whole batch fails, and the file is truncated back to where the
+ * previous batch ended - no half-written record is left behind. (If even the truncate
+ * fails, the error says so and the last line may be partial.)
+ *
+ * METRICS: appends/sec, batch size, commit latency (append() -> done).
+ */
+
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+
+// ============================================
+// EXAMPLE 1: GROUP-COMMIT LOG
+// ============================================
+
+enum FsyncPolicy {
+    NONE, PER_BATCH, INTERVAL
+}
+
+
+class GroupCommitLog implements Closeable {
+    static final int MAX_BATCH_RECORDS = 4096;
+    private static final int LATENCY_SAMPLES = 1 << 16;
+
+    private static final class Pending {
+        final byte[] bytes;
+        final long createdAt = System.nanoTime();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Pending(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    private static final Pending POISON = new Pending(new byte[0]);
+
+
+    private final Path path;
+    private final FileChannel channel;
+    private final FsyncPolicy policy;
+    private final long intervalNanos;
+    private final Charset charset = Charset.defaultCharset();  // Same as FileWriter
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final Object stateLock = new Object();  // Orders appends against close()
+    private boolean closed;          // close() was called
+    private boolean writerStopped;   // Writer thread exited; nothing more will be written
+
+    private ByteBuffer batchBuffer = ByteBuffer.allocateDirect(256 * 1024);
+    private long lastForce = System.nanoTime();
+    private boolean dirty;  // Written but not forced yet
+
+    // Stats (written by the writer thread only)
+    private final AtomicLong appends = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong forces = new AtomicLong();
+    private final long[] latencySamples = new long[LATENCY_SAMPLES];
+    private long latencyCount;
+
+
+    public GroupCommitLog(Path path, FsyncPolicy policy, long intervalMillis) throws IOException {
+        this.path = path;
+        this.policy = policy;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.writer = new Thread(this::writeLoop, "group-commit-" + path.getFileName());
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public GroupCommitLog(Path path) throws IOException {
+        this(path, FsyncPolicy.NONE, 0);
+    }
+
+
+    // Same bytes as appendToFile(): "\n" + content. Completes once written (and forced for PER_BATCH)
+    public CompletableFuture<Void> appendAsync(String content) {
+        Pending pending = new Pending(("\n" + content).getBytes(charset));
+        // Checked and queued under the lock close() takes: nothing can land behind POISON
+        synchronized (stateLock) {
+            if (closed || writerStopped) {
+                throw new IllegalStateException("Log is closed: " + path);
+            }
+            queue.add(pending);
+        }
+        return pending.done;
+    }
+
+
+    public void append(String content) throws IOException {
+        await(appendAsync(content));
+    }
+
+
+    // Waits for one appendAsync() result; a failed commit comes back as the IOException behind it
+    public static void await(CompletableFuture<Void> done) throws IOException {
+        try {
+            done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for commit");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH_RECORDS);
+        try {
+            writeBatches(batch);
+        } finally {
+            // However the writer ends, nobody may wait forever for a commit
+            synchronized (stateLock) {
+                writerStopped = true;
+            }
+            queue.drainTo(batch);
+            IOException stopped = new IOException("Log writer stopped: " + path);
+            for (Pending pending : batch) {
+                pending.done.completeExceptionally(stopped);  // No-op for those already committed
+            }
+        }
+    }
+
+
+    private void writeBatches(List<Pending> batch) {
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                long wait = policy == FsyncPolicy.INTERVAL && dirty ? intervalNanos : TimeUnit.SECONDS.toNanos(1);
+                Pending first = queue.poll(wait, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH_RECORDS - 1);  // Everyone who queued meanwhile
+                }
+                int poison = batch.indexOf(POISON);
+                if (poison >= 0) {
+                    stopping = true;
+                    batch.remove(poison);  // Last record: appends after close() are refused
+                }
+                commit(batch, stopping);
+            } catch (InterruptedException e) {
+                stopping = true;
+            } catch (IOException | RuntimeException e) {
+                // Fail this batch only; the writer keeps serving later appends
+                for (Pending pending : batch) {
+                    pending.done.completeExceptionally(e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+
+    private void commit(List<Pending> batch, boolean last) throws IOException {
+        if (!batch.isEmpty()) {
+            int bytes = 0;
+            for (Pending pending : batch) {
+                bytes += pending.bytes.length;
+            }
+            if (bytes > batchBuffer.capacity()) {
+                batchBuffer = ByteBuffer.allocateDirect(Integer.highestOneBit(bytes) << 1);
+            }
+            batchBuffer.clear();
+            for (Pending pending : batch) {
+                batchBuffer.put(pending.bytes);
+            }
+            batchBuffer.flip();
+            long goodSize = channel.size();  // Where the last complete batch ends
+            try {
+                while (batchBuffer.hasRemaining()) {
+                    channel.write(batchBuffer);  // One system call for the whole batch
+                }
+            } catch (IOException e) {
+                // Cut the half-written batch off again so the log never ends in a torn record
+                try {
+                    channel.truncate(goodSize);
+                } catch (IOException truncateFailed) {
+                    e.addSuppressed(truncateFailed);
+                }
+                throw e;
+            }
+            dirty = true;
+            batches.incrementAndGet();
+        }
+
+        long now = System.nanoTime();
+        boolean force = dirty && (last || policy == FsyncPolicy.PER_BATCH
+            || (policy == FsyncPolicy.INTERVAL && now - lastForce >= intervalNanos));
+        if (force) {
+            channel.force(false);
+            forces.incrementAndGet();
+            lastForce = System.nanoTime();
+            dirty = false;
+        }
+
+        long completedAt = System.nanoTime();
+        for (Pending pending : batch) {
+            latencySamples[(int) (latencyCount++ & (LATENCY_SAMPLES - 1))] = completedAt - pending.createdAt;
+            pending.done.complete(null);
+        }
+        appends.addAndGet(batch.size());
+    }
+
+
+    public long appendCount() {
+        return appends.get();
+    }
+
+    public long batchCount() {
+        return batches.get();
+    }
+
+    public long forceCount() {
+        return forces.get();
+    }
+
+
+    // Percentiles (0..100) over the most recent commits; call after close() for a stable view
+    public long[] commitLatencyPercentiles(double... p) {
+        long[] sorted = Arrays.copyOf(latencySamples, (int) Math.min(latencyCount, LATENCY_SAMPLES));
+        Arrays.sort(sorted);
+        long[] result = new long[p.length];
+        for (int i = 0; i < p.length && sorted.length > 0; i++) {
+            int index = (int) Math.ceil(p[i] / 100.0 * sorted.length) - 1;
+            result[i] = sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+        return result;
+    }
+
+
+    // Commits everything queued so far (always forced), then closes the file
+    @Override
+    public void close() throws IOException {
+        synchronized (stateLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(POISON);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: BENCHMARK
+// ============================================
+
+class GroupCommitBenchmark {
+
+    // appendToFile() without the printing: open, write, close per record
+    static void openAppendClose(Path path, String content) throws IOException {
+        try (FileWriter writer = new FileWriter(path.toFile(), true)) {
+            writer.write("\n" + content);
+        }
+    }
+
+
+    public void run(Path dir, int appendsPerThread, int maxThreads) throws Exception {
+        System.out.println("\n=== Appends/sec and Commit Latency ===");
+        System.out.println(appendsPerThread + " appends per thread, each caller waits for its commit");
+        System.out.println();
+        System.out.printf("%-22s %7s %12s %10s %10s %10s %10s%n",
+            "Writer", "threads", "appends/s", "avg batch", "fsyncs", "p50 us", "p99 us");
+
+        // Baseline (single thread: FileWriter appends from many threads may interleave)
+        Path baseline = dir.resolve("baseline.log");
+        int baselineCount = Math.min(appendsPerThread, 20_000);
+        long[] latency = new long[baselineCount];
+        long start = System.nanoTime();
+        for (int i = 0; i < baselineCount; i++) {
+            long callStart = System.nanoTime();
+            openAppendClose(baseline, "event " + i);
+            latency[i] = System.nanoTime() - callStart;
+        }
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latency);
+        System.out.printf("%-22s %7d %,12.0f %10s %10s %10.1f %10.1f%n", "open/write/close", 1,
+            baselineCount * 1e9 / elapsed, "1", "0", latency[baselineCount / 2] / 1e3, latency[baselineCount * 99 / 100] / 1e3);
+        Files.delete(baseline);
+
+        for (FsyncPolicy policy : FsyncPolicy.values()) {
+            for (int threads = 1; threads <= maxThreads; threads *= 4) {
+                // PER_BATCH with one thread is an fsync per record - keep that run short
+                int perThread = policy == FsyncPolicy.PER_BATCH ? Math.max(1, appendsPerThread / 10) : appendsPerThread;
+                run(dir, policy, threads, perThread);
+            }
+        }
+        System.out.println();
+    }
+
+
+    private void run(Path dir, FsyncPolicy policy, int threads, int perThread) throws Exception {
+        Path path = dir.resolve("group-" + policy + "-" + threads + ".log");
+        GroupCommitLog log = new GroupCommitLog(path, policy, 10);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            futures.add(pool.submit(() -> {
+                ready.countDown();
+                go.await();
+                for (int i = 0; i < perThread; i++) {
+                    log.append("thread " + id + " event " + i);
+                }
+                return null;
+            }));
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        log.close();
+        pool.shutdown();
+
+        long total = (long) threads * perThread;
+        if (log.appendCount() != total) {
+            System.out.println("  LOST APPENDS: " + log.appendCount() + " of " + total);
+        }
+        long[] p = log.commitLatencyPercentiles(50, 99);
+        System.out.printf("%-22s %7d %,12.0f %10.1f %10d %10.1f %10.1f%n", "group commit " + policy, threads,
+            total * 1e9 / elapsed, (double) total / log.batchCount(), log.forceCount(), p[0] / 1e3, p[1] / 1e3);
+        Files.delete(path);
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit4_GroupCommit {
+
+    public static void main(String[] args) throws Exception {
+
+        int appendsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 4 (EXTRA): GROUP-COMMIT APPEND LOG");
+        System.out.println("=".repeat(70));
+
+        Path dir = Files.createTempDirectory("groupcommit");
+
+
+        // ========== EXAMPLE 1: appendToFile() WITHOUT REOPENING ==========
+        System.out.println("\nEXAMPLE 1: Batched appends, same file format");
+        System.out.println("-".repeat(70));
+
+        Path file = dir.resolve("buffered_file.txt");
+        Files.writeString(file, "Line 1: Java Programming");
+        try (FileWriter writer = new FileWriter(file.toFile(), true)) {
+            writer.write("\nLine 2: appendToFile()");  // What appendToFile() does: open, write, close
+        }
+        appendBatched(file.toString(), Arrays.asList("Line 3: batched", "Line 4: batched"));
+        for (String line : Files.readAllLines(file)) {
+            System.out.println(line);
+        }
+
+
+        // ========== EXAMPLE 2: BENCHMARK ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Benchmark");
+        System.out.println("-".repeat(70));
+
+        new GroupCommitBenchmark().run(dir, appendsPerThread, maxThreads);
+
+        Files.delete(file);
+        Files.delete(dir);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("GROUP COMMIT SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  Open once     : No open/close per record");
+        System.out.println("  Group commit  : One write (+ one fsync) per batch of waiting callers");
+        System.out.println("  More threads  : Bigger batches, more appends/sec");
+        System.out.println("  PER_BATCH     : Durable when append() returns");
+        System.out.println("  INTERVAL/NONE : Faster, but recent appends can be lost on a crash");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // CharacterStreamExample Method 5b: Many appends, file opened once
+    static void appendBatched(String filename, List<String> contents) {
+        System.out.println("\n=== Appending to File (Group Commit) ===");
+        System.out.println("File: " + filename);
+
+        try (GroupCommitLog log = new GroupCommitLog(Paths.get(filename))) {
+
+            List<CompletableFuture<Void>> pending = new ArrayList<>();
+            for (String content : contents) {
+                pending.add(log.appendAsync(content));  // Same "\n" + content as appendToFile()
+            }
+            for (CompletableFuture<Void> done : pending) {
+                GroupCommitLog.await(done);
+            }
+            System.out.println("Records appended: " + contents.size() + " in " + log.batchCount() + " batch(es)");
+
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+        System.out.println();
+    }
+}
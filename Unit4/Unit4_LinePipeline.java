@@ -0,0 +1,423 @@
+/*
+ * UNIT 4 (EXTRA): STREAMING LINE PIPELINE
+ *
+ * readWithBufferedReader() puts every line in an ArrayList and prints it.
+ * Fine for 6 lines. For a 1 GB log that's ~3 GB of heap and a console
+ * scrolling until next semester. 📜
+ *
+ * THEORY:
+ *
+ * PULL-BASED PIPELINE: The last stage asks for a line, which asks the stage
+ * before it, ... down to readLine(). Only ONE line is in flight at a time.
+ *   lines(file) -> filter(...) -> map(...) -> aggregate(...)
+ *
+ * BOUNDED MEMORY: Memory = reader buffer + current line + the aggregate
+ * (e.g. a count per key), NOT the file size.
+ *
+ * PARALLEL SPLITTING:
+ * - Cut the file into N byte ranges, then move each cut forward to just after
+ *   the next '\n' so no line is split in two
+ * - Safe for UTF-8: byte 0x0A never appears inside a multi-byte character
+ * - Each range runs its own pipeline; partial aggregates are combined at the end
+ */
+
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+
+// ============================================
+// EXAMPLE 1: PULL-BASED PIPELINE
+// ============================================
+
+interface LinePuller<T> {
+    // Next item, or null at the end of input
+    T next() throws IOException;
+}
+
+
+// Reads at most `remaining` bytes, so a reader can stop at the end of its range
+class RangeInputStream extends FilterInputStream {
+    private long remaining;
+
+    RangeInputStream(InputStream in, long length) {
+        super(in);
+        this.remaining = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (remaining <= 0) {
+            return -1;
+        }
+        int b = super.read();
+        if (b != -1) {
+            remaining--;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (remaining <= 0) {
+            return -1;
+        }
+        int count = super.read(buffer, offset, (int) Math.min(length, remaining));
+        if (count > 0) {
+            remaining -= count;
+        }
+        return count;
+    }
+}
+
+
+class LinePipeline<T> implements Closeable {
+    static final int READER_BUFFER = 64 * 1024;
+
+    private final LinePuller<T> puller;
+    private final Closeable resource;
+
+
+    private LinePipeline(LinePuller<T> puller, Closeable resource) {
+        this.puller = puller;
+        this.resource = resource;
+    }
+
+
+    public static LinePipeline<String> lines(Path path) throws IOException {
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), READER_BUFFER);
+        return new LinePipeline<>(reader::readLine, reader);
+    }
+
+
+    // Lines of bytes [start, end); start must be 0 or just after a '\n'
+    public static LinePipeline<String> lines(Path path, long start, long end) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        channel.position(start);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new RangeInputStream(Channels.newInputStream(channel), end - start), StandardCharsets.UTF_8), READER_BUFFER);
+        return new LinePipeline<>(reader::readLine, reader);  // Closing the reader closes the channel
+    }
+
+
+    // `mapper` must not return null (null means "end of input" between stages)
+    public <R> LinePipeline<R> map(Function<? super T, ? extends R> mapper) {
+        return new LinePipeline<>(() -> {
+            T item = puller.next();
+            return item == null ? null : mapper.apply(item);
+        }, resource);
+    }
+
+
+    public LinePipeline<T> filter(Predicate<? super T> predicate) {
+        return new LinePipeline<>(() -> {
+            T item;
+            while ((item = puller.next()) != null) {
+                if (predicate.test(item)) {
+                    return item;
+                }
+            }
+            return null;
+        }, resource);
+    }
+
+
+    // Terminal: pulls everything through the stages, then closes the file
+    public <A> A aggregate(Supplier<A> identity, BiConsumer<A, ? super T> accumulator) throws IOException {
+        A result = identity.get();
+        try {
+            T item;
+            while ((item = puller.next()) != null) {
+                accumulator.accept(result, item);
+            }
+        } finally {
+            close();
+        }
+        return result;
+    }
+
+
+    public long count() throws IOException {
+        return aggregate(() -> new long[1], (c, item) -> c[0]++)[0];
+    }
+
+
+    public void forEach(Consumer<? super T> action) throws IOException {
+        aggregate(() -> null, (unused, item) -> action.accept(item));
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        resource.close();
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: PARALLEL SPLITTING
+// ============================================
+
+class ParallelLineProcessor {
+
+    // parts + 1 offsets; every inner offset sits just after a '\n' (or at EOF)
+    static long[] splitPoints(Path path, int parts) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] points = new long[parts + 1];
+            points[parts] = size;
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+            for (int i = 1; i < parts; i++) {
+                long position = Math.max(points[i - 1], size / parts * i);
+                points[i] = size;
+                scan:
+                while (position < size) {
+                    buffer.clear();
+                    int read = channel.read(buffer, position);
+                    if (read <= 0) {
+                        break;
+                    }
+                    for (int j = 0; j < read; j++) {
+                        if (buffer.get(j) == '\n') {
+                            points[i] = position + j + 1;
+                            break scan;
+                        }
+                    }
+                    position += read;
+                }
+            }
+            return points;
+        }
+    }
+
+
+    // Runs stages(lines of range) on every range and combines the partial results
+    public static <T, A> A process(Path path, int parts,
+                                   Function<LinePipeline<String>, LinePipeline<T>> stages,
+                                   Supplier<A> identity, BiConsumer<A, ? super T> accumulator,
+                                   BinaryOperator<A> combiner) throws IOException, InterruptedException {
+        long[] points = splitPoints(path, parts);
+        ExecutorService pool = Executors.newFixedThreadPool(parts);
+        try {
+            List<Future<A>> partials = new ArrayList<>(parts);
+            for (int i = 0; i < parts; i++) {
+                long start = points[i];
+                long end = points[i + 1];
+                partials.add(pool.submit(() -> stages.apply(LinePipeline.lines(path, start, end))
+                    .aggregate(identity, accumulator)));
+            }
+
+            A result = identity.get();
+            for (Future<A> partial : partials) {
+                try {
+                    result = combiner.apply(result, partial.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                }
+            }
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
+
+
+// ============================================
+// EXAMPLE 3: THROUGHPUT BENCHMARK
+// ============================================
+
+class LinePipelineBenchmark {
+
+    // Log line: "... ERROR [worker-7] ..." -> "worker-7"
+    static String worker(String line) {
+        int open = line.indexOf('[');
+        int close = line.indexOf(']', open);
+        return line.substring(open + 1, close);
+    }
+
+
+    static Map<String, Long> merge(Map<String, Long> a, Map<String, Long> b) {
+        b.forEach((key, count) -> a.merge(key, count, Long::sum));
+        return a;
+    }
+
+
+    // The question every approach answers: ERROR lines per worker
+    static Map<String, Long> viaList(Path path) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);  // What readWithBufferedReader() does
+            }
+        }
+        Map<String, Long> counts = new HashMap<>();
+        for (String line : lines) {
+            if (line.contains(" ERROR ")) {
+                counts.merge(worker(line), 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+
+    static Map<String, Long> viaPipeline(Path path) throws IOException {
+        return LinePipeline.lines(path)
+            .filter(line -> line.contains(" ERROR "))
+            .map(LinePipelineBenchmark::worker)
+            .aggregate(HashMap::new, (counts, w) -> counts.merge(w, 1L, Long::sum));
+    }
+
+
+    static Map<String, Long> viaParallel(Path path, int parts) throws IOException, InterruptedException {
+        return ParallelLineProcessor.process(path, parts,
+            lines -> lines.filter(line -> line.contains(" ERROR ")).map(LinePipelineBenchmark::worker),
+            HashMap::new, (counts, w) -> counts.merge(w, 1L, Long::sum), LinePipelineBenchmark::merge);
+    }
+
+
+    interface Run {
+        Map<String, Long> run() throws Exception;
+    }
+
+
+    private static void report(String name, long bytes, Map<String, Long> expected, Run run) throws Exception {
+        System.gc();
+        long start = System.nanoTime();
+        Map<String, Long> result = run.run();
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-26s %10.1f %10.1f   %s%n", name, elapsed / 1e6,
+            bytes / (1024.0 * 1024) / (elapsed / 1e9), expected == null || expected.equals(result) ? "ok" : "MISMATCH");
+    }
+
+
+    public void run(Path dir, long size) throws Exception {
+        Path log = dir.resolve("pipeline.log");
+        System.out.printf("%nGenerating %,d MB log...%n", size >> 20);
+        SampleData.createLog(log, size);
+        long bytes = Files.size(log);
+        int cpus = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("\n=== ERROR lines per worker ===");
+        System.out.println();
+        System.out.printf("%-26s %10s %10s%n", "Approach", "ms", "MB/s");
+
+        Map<String, Long> expected = viaPipeline(log);
+        // A List<String> costs ~3x the file size in heap
+        if (bytes * 3 < Runtime.getRuntime().maxMemory()) {
+            report("ArrayList of all lines", bytes, expected, () -> viaList(log));
+        } else {
+            System.out.printf("%-26s   skipped: needs ~%,d MB heap, have %,d MB%n", "ArrayList of all lines",
+                bytes * 3 >> 20, Runtime.getRuntime().maxMemory() >> 20);
+        }
+        report("Pipeline (1 thread)", bytes, expected, () -> viaPipeline(log));
+        for (int parts = 2; parts <= Math.max(2, cpus * 2); parts *= 2) {
+            int p = parts;
+            report("Pipeline (" + parts + " ranges)", bytes, expected, () -> viaParallel(log, p));
+        }
+
+        System.out.println("\nERROR lines per worker (first 4): "
+            + new TreeMap<>(expected).entrySet().stream().limit(4).collect(java.util.stream.Collectors.toList()));
+        Files.delete(log);
+        System.out.println();
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit4_LinePipeline {
+
+    public static void main(String[] args) throws Exception {
+
+        long size = args.length > 0 ? Long.parseLong(args[0]) : 1024L * 1024 * 1024;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 4 (EXTRA): STREAMING LINE PIPELINE");
+        System.out.println("=".repeat(70));
+
+        Path dir = Files.createTempDirectory("pipeline");
+
+
+        // ========== EXAMPLE 1: readWithBufferedReader() AS A PIPELINE ==========
+        System.out.println("\nEXAMPLE 1: Lines processed without an ArrayList");
+        System.out.println("-".repeat(70));
+
+        Path sample = dir.resolve("buffered_file.txt");
+        Files.write(sample, Arrays.asList(
+            "Line 1: Java Programming",
+            "Line 2: Object-Oriented Programming",
+            "Line 3: File Input/Output",
+            "Line 4: Streams and Buffers",
+            "Line 5: Exception Handling"));
+        countMatchingLines(sample.toString(), "Programming");
+
+        long[] split = ParallelLineProcessor.splitPoints(sample, 3);
+        System.out.println("3 newline-aligned ranges: " + Arrays.toString(split));
+        for (int i = 0; i < 3; i++) {
+            System.out.println("  Range " + i + " lines: " + LinePipeline.lines(sample, split[i], split[i + 1]).count());
+        }
+
+
+        // ========== EXAMPLE 2: BENCHMARK ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Throughput Benchmark");
+        System.out.println("-".repeat(70));
+
+        new LinePipelineBenchmark().run(dir, size);
+
+        Files.delete(sample);
+        Files.delete(dir);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("LINE PIPELINE SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  Pull-based    : One line in flight, memory independent of file size");
+        System.out.println("  filter/map    : Stages wrap the previous stage's next()");
+        System.out.println("  aggregate     : Only the result (e.g. counts per key) stays in memory");
+        System.out.println("  Byte ranges   : Cuts moved to the next newline, one pipeline per range");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // CharacterStreamExample Method 4b: Same file, streamed - no List, nothing printed per line (run by Unit4_FileIO too)
+    static long countMatchingLines(String filename, String keyword) {
+        System.out.println("\n=== Counting Lines with a Pipeline ===");
+        System.out.println("File: " + filename);
+        System.out.println("Keyword: " + keyword);
+
+        long matches = 0;
+
+        try {
+            matches = LinePipeline.lines(Paths.get(filename))
+                .filter(line -> line.contains(keyword))
+                .count();
+
+            System.out.println("Matching lines: " + matches);
+
+        } catch (NoSuchFileException e) {
+            System.out.println("File not found: " + filename);
+
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+        System.out.println();
+
+        return matches;
+    }
+}
@@ -0,0 +1,602 @@
+/*
+ * UNIT 4 (EXTRA): FRAMED RECORD FILES
+ *
+ * deserializeMultipleObjects(filename, count) only works if you already KNOW
+ * how many objects are in the file. Guess too high -> exception. Too low -> data left behind.
+ * And it loads them all into a List whether you wanted them or not. 🎲
+ *
+ * THEORY:
+ *
+ * FILE LAYOUT:
+ *   [header 16 B: magic "RECF", version, reserved]
+ *   [len][record bytes] [len][record bytes] ...          <- frames
+ *   [-1][count][offset 0][offset 1]...[offset n-1]       <- index block
+ *   [index position][magic "RIDX"]                       <- footer (last 12 bytes)
+ *
+ * - Length prefix : A reader knows where each record ends without parsing it
+ * - Trailing index: The footer points at the index, the index knows every record's offset
+ *     count        = read 12 bytes at the end of the file
+ *     record #i    = index[i] -> one seek
+ * - Open is O(1) : The index is memory-mapped, not loaded
+ *
+ * APPENDS: New frames + a NEW index go after the old footer. The old index
+ * becomes dead space, but no existing byte is rewritten, so a crash mid-append
+ * still leaves the old footer (and all old records) valid.
+ *
+ * RECOVERY: If the footer is missing (crash before close), scan the frames
+ * from the header and rebuild the index.
+ */
+
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+
+// ============================================
+// EXAMPLE 1: RECORD CODECS
+// ============================================
+
+interface RecordCodec<T> {
+    byte[] encode(T record) throws IOException;
+
+    T decode(byte[] data, int offset, int length) throws IOException;
+
+
+    // Student / Course via Unit4_CompactCodec (self-contained records)
+    static RecordCodec<Object> compact() {
+        return new RecordCodec<Object>() {
+            public byte[] encode(Object record) {
+                return CompactCodec.encode(record);
+            }
+
+            public Object decode(byte[] data, int offset, int length) throws IOException {
+                return CompactCodec.decode(data, offset, length);
+            }
+        };
+    }
+
+
+    // Any Serializable object; every record carries its own stream header and class descriptor
+    static RecordCodec<Object> javaSerialization() {
+        return new RecordCodec<Object>() {
+            public byte[] encode(Object record) throws IOException {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                    oos.writeObject(record);
+                }
+                return bytes.toByteArray();
+            }
+
+            public Object decode(byte[] data, int offset, int length) throws IOException {
+                try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data, offset, length))) {
+                    return ois.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new InvalidClassException(e.getMessage());
+                }
+            }
+        };
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: WRITER (CREATE / APPEND)
+// ============================================
+
+class RecordFileWriter<T> implements Closeable {
+    static final int FILE_MAGIC = 0x52454346;   // "RECF"
+    static final int INDEX_MAGIC = 0x52494458;  // "RIDX"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int FOOTER_SIZE = 12;
+    static final int INDEX_MARKER = -1;
+
+    private final RecordCodec<T> codec;
+    private final FileChannel channel;
+    private final DataOutputStream out;
+    private final LongBuffer oldIndex;   // Offsets already in the file (appends only)
+    private long[] newOffsets = new long[1024];
+    private int newCount;
+    private long position;
+    private boolean closed;
+
+
+    private RecordFileWriter(Path path, RecordCodec<T> codec, boolean append) throws IOException {
+        this.codec = codec;
+        boolean existing = append && Files.exists(path);
+        if (existing) {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } else {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        try {
+            oldIndex = existing ? RecordFile.readIndex(channel) : LongBuffer.allocate(0);
+            position = existing ? channel.size() : 0;
+            channel.position(position);
+            out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+
+            if (position == 0) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(0);  // Reserved
+                position = HEADER_SIZE;
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();  // Not a record file, or no index: do not leak the channel
+            throw e;
+        }
+    }
+
+
+    public static <T> RecordFileWriter<T> create(Path path, RecordCodec<T> codec) throws IOException {
+        return new RecordFileWriter<>(path, codec, false);
+    }
+
+    // Creates the file if it does not exist yet
+    public static <T> RecordFileWriter<T> append(Path path, RecordCodec<T> codec) throws IOException {
+        return new RecordFileWriter<>(path, codec, true);
+    }
+
+
+    // Returns the record number
+    public long write(T record) throws IOException {
+        byte[] data = codec.encode(record);
+        if (newCount == newOffsets.length) {
+            newOffsets = Arrays.copyOf(newOffsets, newCount * 2);
+        }
+        newOffsets[newCount++] = position;
+        out.writeInt(data.length);
+        out.write(data);
+        position += 4 + data.length;
+        return oldIndex.limit() + newCount - 1;
+    }
+
+
+    // Index + footer are written here; until then, readers still see the previous index
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            long indexStart = position;
+            out.writeInt(INDEX_MARKER);
+            out.writeLong((long) oldIndex.limit() + newCount);
+            for (int i = 0; i < oldIndex.limit(); i++) {
+                out.writeLong(oldIndex.get(i));
+            }
+            for (int i = 0; i < newCount; i++) {
+                out.writeLong(newOffsets[i]);
+            }
+            out.writeLong(indexStart);
+            out.writeInt(INDEX_MAGIC);
+            out.flush();
+        } finally {
+            out.close();  // Also closes the channel
+        }
+    }
+}
+
+
+// ============================================
+// EXAMPLE 3: READER (LAZY, RANDOM ACCESS)
+// ============================================
+
+class RecordFile<T> implements Closeable, Iterable<T> {
+    static final int WINDOW_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final RecordCodec<T> codec;
+    private final FileChannel channel;
+    private final LongBuffer index;
+    private final long fileSize;  // At open: every indexed record lies below it
+
+
+    private RecordFile(Path path, RecordCodec<T> codec) throws IOException {
+        this.path = path;
+        this.codec = codec;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.fileSize = channel.size();
+            this.index = readIndex(channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+
+    // O(1): reads the header and footer and maps the index - no records are touched
+    public static <T> RecordFile<T> open(Path path, RecordCodec<T> codec) throws IOException {
+        return new RecordFile<>(path, codec);
+    }
+
+
+    // Offsets of every record, mapped straight from the file
+    static LongBuffer readIndex(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(RecordFileWriter.HEADER_SIZE);
+        if (size < RecordFileWriter.HEADER_SIZE + RecordFileWriter.FOOTER_SIZE
+                || readFully(channel, header, 0) < header.capacity()
+                || header.getInt(0) != RecordFileWriter.FILE_MAGIC) {
+            throw new StreamCorruptedException("Not a record file");
+        }
+
+        ByteBuffer footer = ByteBuffer.allocate(RecordFileWriter.FOOTER_SIZE);
+        readFully(channel, footer, size - RecordFileWriter.FOOTER_SIZE);
+        long indexStart = footer.getLong(0);
+        if (footer.getInt(8) != RecordFileWriter.INDEX_MAGIC || indexStart < RecordFileWriter.HEADER_SIZE
+                || indexStart > size - RecordFileWriter.FOOTER_SIZE - 12) {
+            throw new StreamCorruptedException("Missing index footer (unclean shutdown?) - use RecordFile.recover()");
+        }
+
+        ByteBuffer indexHeader = ByteBuffer.allocate(12);
+        readFully(channel, indexHeader, indexStart);
+        long count = indexHeader.getLong(4);
+        if (indexHeader.getInt(0) != RecordFileWriter.INDEX_MARKER || count < 0
+                || indexStart + 12 + count * 8 != size - RecordFileWriter.FOOTER_SIZE) {
+            throw new StreamCorruptedException("Corrupt index block");
+        }
+        if (count == 0) {
+            return LongBuffer.allocate(0);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, indexStart + 12, count * 8).asLongBuffer();
+    }
+
+
+    static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+
+    public long size() {
+        return index.limit();
+    }
+
+
+    // A corrupt length must not turn into a huge (or negative) allocation
+    private int checkLength(long offset, int length) throws IOException {
+        if (length < 0 || offset + 4 + length > fileSize) {
+            throw new StreamCorruptedException("Bad record length " + length + " at offset " + offset);
+        }
+        return length;
+    }
+
+
+    // Random access by record number: one index lookup, one positional read
+    public T get(long recordNumber) throws IOException {
+        Objects.checkIndex(recordNumber, size());
+        long offset = index.get((int) recordNumber);
+        ByteBuffer length = ByteBuffer.allocate(4);
+        if (readFully(channel, length, offset) < 4) {
+            throw new EOFException("Record " + recordNumber + " truncated");
+        }
+        byte[] data = new byte[checkLength(offset, length.getInt(0))];
+        if (readFully(channel, ByteBuffer.wrap(data), offset + 4) < data.length) {
+            throw new EOFException("Record " + recordNumber + " truncated");
+        }
+        return codec.decode(data, 0, data.length);
+    }
+
+
+    // Lazy, in record order; memory = one 64 KB window, however many records there are
+    @Override
+    public Iterator<T> iterator() {
+        return iterator(0);
+    }
+
+    public Iterator<T> iterator(long fromRecord) {
+        return new Iterator<T>() {
+            private final ByteBuffer window = ByteBuffer.allocate(WINDOW_SIZE);
+            private long windowStart = -1;
+            private int windowLength;
+            private long next = fromRecord;
+
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    long offset = index.get((int) next++);
+                    ensure(offset, 4);
+                    int length = checkLength(offset, window.getInt((int) (offset - windowStart)));
+                    if (4 + length > WINDOW_SIZE) {
+                        return get(next - 1);  // Bigger than the window: read it directly
+                    }
+                    ensure(offset, 4 + length);
+                    return codec.decode(window.array(), (int) (offset - windowStart) + 4, length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            // Slides the window so [offset, offset + n) is buffered
+            private void ensure(long offset, int n) throws IOException {
+                if (offset >= windowStart && offset + n <= windowStart + windowLength) {
+                    return;
+                }
+                window.clear();
+                windowLength = readFully(channel, window, offset);
+                windowStart = offset;
+                if (windowLength < n) {
+                    throw new EOFException("Record at offset " + offset + " truncated");
+                }
+            }
+        };
+    }
+
+
+    // Rebuilds the index after a crash: keeps every complete frame, drops the torn tail
+    public static long recover(Path path) throws IOException {
+        long recordCount = 0;
+        long[] offsets = new long[1024];
+        long good;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            ByteBuffer fileHeader = ByteBuffer.allocate(RecordFileWriter.HEADER_SIZE);
+            if (readFully(channel, fileHeader, 0) < fileHeader.capacity()
+                    || fileHeader.getInt(0) != RecordFileWriter.FILE_MAGIC) {
+                throw new StreamCorruptedException("Not a record file: " + path);  // Never truncate a stranger
+            }
+            ByteBuffer header = ByteBuffer.allocate(12);
+            long position = RecordFileWriter.HEADER_SIZE;
+            good = position;
+            while (position + 4 <= size) {
+                header.clear();
+                readFully(channel, header, position);
+                int length = header.getInt(0);
+                long end;
+                if (length >= 0) {
+                    end = position + 4 + length;
+                    if (end > size) {
+                        break;
+                    }
+                    if (recordCount == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                    }
+                    offsets[(int) recordCount++] = position;
+                } else if (length == RecordFileWriter.INDEX_MARKER && position + 12 <= size) {
+                    // Old index: skip it, if its count is sane (count * 8 must not overflow or overshoot)
+                    long count = header.getLong(4);
+                    long room = (size - position - 12 - RecordFileWriter.FOOTER_SIZE) / 8;
+                    if (count < 0 || count > room) {
+                        break;
+                    }
+                    end = position + 12 + count * 8 + RecordFileWriter.FOOTER_SIZE;
+                } else {
+                    break;
+                }
+                position = end;
+                good = end;
+            }
+            channel.truncate(good);
+        }
+
+        // Fresh index + footer after the last complete frame
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(path, StandardOpenOption.APPEND)))) {
+            out.writeInt(RecordFileWriter.INDEX_MARKER);
+            out.writeLong(recordCount);
+            for (int i = 0; i < recordCount; i++) {
+                out.writeLong(offsets[i]);
+            }
+            out.writeLong(good);
+            out.writeInt(RecordFileWriter.INDEX_MAGIC);
+        }
+        return recordCount;
+    }
+
+
+    public Path path() {
+        return path;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
+
+
+// ============================================
+// EXAMPLE 4: MILLION-RECORD DEMO
+// ============================================
+
+class RecordFileBenchmark {
+
+    public void run(Path dir, int count) throws Exception {
+        Path file = dir.resolve("students.rec");
+        RecordCodec<Object> codec = RecordCodec.compact();
+        List<Object> sample = SampleData.records(1000);
+
+        System.out.printf("%n=== %,d records ===%n%n", count);
+
+        long start = System.nanoTime();
+        try (RecordFileWriter<Object> writer = RecordFileWriter.create(file, codec)) {
+            for (int i = 0; i < count; i++) {
+                writer.write(sample.get(i % sample.size()));
+            }
+        }
+        System.out.printf("Write:            %10.1f ms  (%,d bytes)%n", (System.nanoTime() - start) / 1e6, Files.size(file));
+
+        start = System.nanoTime();
+        try (RecordFile<Object> records = RecordFile.open(file, codec)) {
+            System.out.printf("Open:             %10.3f ms  (%,d records, nothing read yet)%n",
+                (System.nanoTime() - start) / 1e6, records.size());
+
+            Random random = new Random(1);
+            int lookups = 100_000;
+            start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                long n = random.nextInt((int) records.size());
+                if (!records.get(n).getClass().equals(sample.get((int) (n % sample.size())).getClass())) {
+                    throw new IllegalStateException("Wrong record " + n);
+                }
+            }
+            System.out.printf("Random get():     %10.3f us per record (%,d lookups)%n",
+                (System.nanoTime() - start) / 1e3 / lookups, lookups);
+
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+            long seen = 0;
+            start = System.nanoTime();
+            for (Object record : records) {
+                seen++;
+            }
+            double millis = (System.nanoTime() - start) / 1e6;
+            System.gc();
+            long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+            System.out.printf("Iterate all:      %10.1f ms  (%,d records, heap retained ~%,d KB)%n",
+                millis, seen, Math.max(0, heapAfter - heapBefore) >> 10);
+        }
+
+        // Append without rewriting: the first byte of the file that changes is after the old footer
+        long sizeBefore = Files.size(file);
+        start = System.nanoTime();
+        try (RecordFileWriter<Object> writer = RecordFileWriter.append(file, codec)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.write(new Student("Late " + i, count + i, 50, "pw"));
+            }
+        }
+        try (RecordFile<Object> records = RecordFile.open(file, codec)) {
+            System.out.printf("Append 1,000:     %10.1f ms  (now %,d records, last = %s)%n",
+                (System.nanoTime() - start) / 1e6, records.size(), records.get(records.size() - 1));
+        }
+        System.out.printf("Bytes before the append point unchanged: %,d%n", sizeBefore);
+
+        // Simulate a crash: chop off the footer, then recover
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+        try {
+            RecordFile.open(file, codec).close();
+        } catch (StreamCorruptedException e) {
+            System.out.println("After a torn write: " + e.getMessage());
+        }
+        System.out.printf("Recovered %,d records%n", RecordFile.recover(file));
+
+        Files.delete(file);
+        System.out.println();
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit4_RecordFile {
+
+    public static void main(String[] args) throws Exception {
+
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 4 (EXTRA): FRAMED RECORD FILES");
+        System.out.println("=".repeat(70));
+
+        Path dir = Files.createTempDirectory("recordfile");
+
+
+        // ========== EXAMPLE 1: NO COUNT NEEDED ==========
+        System.out.println("\nEXAMPLE 1: serializeMultipleObjects() without a count");
+        System.out.println("-".repeat(70));
+
+        String filename = dir.resolve("multiple_objects.rec").toString();
+        serializeToRecordFile(filename, Arrays.asList(
+            new Student("Bob", 102, 88.0, "pass456"),
+            new Student("Carol", 103, 95.5, "pwd789"),
+            new Course("Data Structures", "CS202", 4)));
+        deserializeRecordFile(filename);
+        Files.delete(Paths.get(filename));
+
+
+        // ========== EXAMPLE 2: A MILLION RECORDS ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Open, Random Access, Stream, Append, Recover");
+        System.out.println("-".repeat(70));
+
+        new RecordFileBenchmark().run(dir, count);
+        Files.delete(dir);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("RECORD FILE SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  Length prefix  : Records can be skipped without decoding");
+        System.out.println("  Trailing index : Count and offsets live at the end of the file");
+        System.out.println("  Open           : Reads 40 bytes + maps the index -> instant");
+        System.out.println("  Iterate        : Lazy, one 64 KB window -> constant memory");
+        System.out.println("  Append         : New frames + new index after the old footer");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // SerializationExample Method 3b: Serialize multiple objects as a framed record file
+    static void serializeToRecordFile(String filename, List<Object> objects) {
+        System.out.println("\n=== Serializing Multiple Objects (Record File) ===");
+        System.out.println("File: " + filename);
+
+        try (RecordFileWriter<Object> writer = RecordFileWriter.create(Paths.get(filename), RecordCodec.javaSerialization())) {
+
+            for (Object obj : objects) {
+                long recordNumber = writer.write(obj);
+                System.out.println("Record " + recordNumber + ": " + obj.getClass().getSimpleName());
+            }
+
+            System.out.println("All objects serialized! (count is stored in the file)");
+
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+        System.out.println();
+    }
+
+
+    // SerializationExample Method 4b: Deserialize a record file - no count needed, records are read lazily
+    static List<Object> deserializeRecordFile(String filename) {
+        System.out.println("\n=== Deserializing Multiple Objects (Record File) ===");
+        System.out.println("File: " + filename);
+
+        List<Object> objects = new ArrayList<>();
+
+        try (RecordFile<Object> records = RecordFile.open(Paths.get(filename), RecordCodec.javaSerialization())) {
+
+            System.out.println("Objects in file: " + records.size());
+            for (Object obj : records) {
+                objects.add(obj);
+                System.out.println("Deserialized: " + obj);
+            }
+
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+        System.out.println();
+
+        return objects;
+    }
+}
@@ -0,0 +1,641 @@
+/*
+ * UNIT 4 (EXTRA): MEMORY-MAPPED STUDENT TABLE
+ *
+ * serializeObject() writes the whole object. To change ONE student's marks
+ * you read every student back, change one double, and write them all out again.
+ * Ten million students later, the garbage collector files a complaint. 🗄️
+ *
+ * THEORY:
+ *
+ * FIXED LAYOUT: Every student takes exactly 32 bytes in the table file
+ *   [rollNumber 4][used 4][marks 8][name offset 8][name length 4][pad 4]
+ *   - Slot #i lives at  HEADER + i * 32   -> no parsing, just arithmetic
+ *   - Slots are an open-addressing hash table keyed by rollNumber
+ *
+ * STRING AREA: Names are variable length, so they live in a second file
+ *   - The slot stores (offset, length) into that file
+ *   - A name is only decoded when someone asks for it
+ *
+ * MEMORY MAPPING: Both files are mapped with FileChannel.map()
+ *   - Reads and writes are plain memory accesses into the page cache
+ *   - Nothing is on the Java heap -> no GC pressure at any size
+ *   - The OS writes dirty pages back; force() makes it durable
+ *   - One mapping is limited to 2 GB, so big files are mapped in 1 GB segments
+ *
+ * RESTARTS: The header (capacity, size, end of the string area) is in the
+ * file too. Re-opening maps the files and reads 32 bytes - no loading.
+ */
+
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+
+// ============================================
+// EXAMPLE 1: A FILE MAPPED IN 1 GB SEGMENTS
+// ============================================
+
+class MappedRegion implements Closeable {
+    static final int SEGMENT_SHIFT = 30;
+    static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final FileChannel channel;
+    private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private long length;
+
+
+    // Maps the whole file, growing it to minLength first (new bytes are zero)
+    public MappedRegion(Path path, long minLength) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        length = Math.max(channel.size(), minLength);
+        map();
+    }
+
+
+    private void map() throws IOException {
+        int count = (int) ((length + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+        MappedByteBuffer[] mapped = Arrays.copyOf(segments, count);
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << SEGMENT_SHIFT;
+            long size = Math.min(SEGMENT_SIZE, length - start);
+            if (mapped[i] == null || mapped[i].capacity() != size) {
+                mapped[i] = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+            }
+        }
+        segments = mapped;
+    }
+
+
+    // Doubles up to one segment, then grows a segment at a time
+    public void ensureLength(long needed) throws IOException {
+        if (needed <= length) {
+            return;
+        }
+        long newLength = Math.max(length, 4096);
+        while (newLength < needed) {
+            newLength = newLength < SEGMENT_SIZE ? newLength * 2 : newLength + SEGMENT_SIZE;
+        }
+        length = newLength;
+        map();
+    }
+
+
+    public long length() {
+        return length;
+    }
+
+
+    // Callers keep every field inside one segment (all offsets are aligned)
+    public int getInt(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].getInt((int) (position & SEGMENT_MASK));
+    }
+
+    public void putInt(long position, int value) {
+        segments[(int) (position >>> SEGMENT_SHIFT)].putInt((int) (position & SEGMENT_MASK), value);
+    }
+
+    public long getLong(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].getLong((int) (position & SEGMENT_MASK));
+    }
+
+    public void putLong(long position, long value) {
+        segments[(int) (position >>> SEGMENT_SHIFT)].putLong((int) (position & SEGMENT_MASK), value);
+    }
+
+    public double getDouble(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].getDouble((int) (position & SEGMENT_MASK));
+    }
+
+    public void putDouble(long position, double value) {
+        segments[(int) (position >>> SEGMENT_SHIFT)].putDouble((int) (position & SEGMENT_MASK), value);
+    }
+
+    public void get(long position, byte[] dst, int length) {
+        segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & SEGMENT_MASK), dst, 0, length);
+    }
+
+    public void put(long position, byte[] src) {
+        segments[(int) (position >>> SEGMENT_SHIFT)].put((int) (position & SEGMENT_MASK), src);
+    }
+
+
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: THE STUDENT TABLE
+// ============================================
+
+interface StudentVisitor {
+    void visit(int rollNumber, double marks);
+}
+
+
+class StudentTable implements Closeable {
+    static final int MAGIC = 0x53545442;  // "STTB"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int SLOT_SIZE = 32;
+    static final double MAX_LOAD = 0.75;
+
+    // Header fields
+    private static final int H_CAPACITY = 8;
+    private static final int H_SIZE = 16;
+    private static final int H_STRING_END = 24;
+
+    // Slot fields
+    private static final int S_ROLL = 0;
+    private static final int S_USED = 4;
+    private static final int S_MARKS = 8;
+    private static final int S_NAME_OFFSET = 16;
+    private static final int S_NAME_LENGTH = 24;
+
+    private final Path tablePath;
+    private final MappedRegion strings;
+    private MappedRegion table;
+    private long capacity;
+    private long size;
+    private long stringEnd;
+
+
+    private StudentTable(Path base, long expectedStudents) throws IOException {
+        tablePath = base.resolveSibling(base.getFileName() + ".tbl");
+        Path stringPath = base.resolveSibling(base.getFileName() + ".str");
+
+        if (Files.exists(tablePath)) {
+            table = new MappedRegion(tablePath, HEADER_SIZE);
+            if (table.getInt(0) != MAGIC || table.getInt(4) != VERSION) {
+                table.close();
+                throw new StreamCorruptedException("Not a student table: " + tablePath);
+            }
+            capacity = table.getLong(H_CAPACITY);
+            size = table.getLong(H_SIZE);
+            stringEnd = table.getLong(H_STRING_END);
+        } else {
+            capacity = capacityFor(expectedStudents);
+            table = createTable(tablePath, capacity);
+        }
+        strings = new MappedRegion(stringPath, Math.max(stringEnd, 4096));
+    }
+
+
+    // Creates <base>.tbl and <base>.str, or re-opens them after a restart
+    public static StudentTable open(Path base, long expectedStudents) throws IOException {
+        return new StudentTable(base, expectedStudents);
+    }
+
+
+    private static long capacityFor(long students) {
+        long needed = (long) (Math.max(students, 16) / MAX_LOAD) + 1;
+        return Long.highestOneBit(needed - 1) << 1;
+    }
+
+
+    private static MappedRegion createTable(Path path, long capacity) throws IOException {
+        MappedRegion region = new MappedRegion(path, HEADER_SIZE + capacity * SLOT_SIZE);
+        region.putInt(0, MAGIC);
+        region.putInt(4, VERSION);
+        region.putLong(H_CAPACITY, capacity);
+        return region;
+    }
+
+
+    // Murmur3 finalizer - sequential roll numbers must not cluster
+    private static int hash(int rollNumber) {
+        int h = rollNumber;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+
+    private static long slotPosition(long slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+
+    // Position of the student's slot, or -(first empty slot position) - 1
+    private long find(int rollNumber) {
+        long mask = capacity - 1;
+        long slot = hash(rollNumber) & mask;
+        while (true) {
+            long position = slotPosition(slot);
+            if (table.getInt(position + S_USED) == 0) {
+                return -position - 1;
+            }
+            if (table.getInt(position + S_ROLL) == rollNumber) {
+                return position;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+
+    public long size() {
+        return size;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+
+    // ========== WRITES ==========
+
+    public boolean put(Student student) throws IOException {
+        return put(student.getRollNumber(), student.getName(), student.getMarks());
+    }
+
+
+    // Inserts or updates; returns true if the roll number was new
+    public boolean put(int rollNumber, String name, double marks) throws IOException {
+        long position = find(rollNumber);
+        if (position >= 0) {
+            table.putDouble(position + S_MARKS, marks);
+            writeName(position, name, true);
+            return false;
+        }
+
+        if (size + 1 > capacity * MAX_LOAD) {
+            rehash(capacity * 2);
+            position = find(rollNumber);
+        }
+        position = -position - 1;
+        table.putInt(position + S_ROLL, rollNumber);
+        table.putDouble(position + S_MARKS, marks);
+        writeName(position, name, false);
+        table.putInt(position + S_USED, 1);
+        table.putLong(H_SIZE, ++size);
+        return true;
+    }
+
+
+    // Touches 8 bytes in the mapping - nothing is read, decoded or allocated
+    public boolean updateMarks(int rollNumber, double marks) {
+        long position = find(rollNumber);
+        if (position < 0) {
+            return false;
+        }
+        table.putDouble(position + S_MARKS, marks);
+        return true;
+    }
+
+
+    // A name that fits is overwritten in place; a longer one is appended (old bytes become garbage)
+    private void writeName(long position, String name, boolean existing) throws IOException {
+        if (name == null) {
+            table.putInt(position + S_NAME_LENGTH, -1);
+            return;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (existing && bytes.length <= table.getInt(position + S_NAME_LENGTH)) {
+            strings.put(table.getLong(position + S_NAME_OFFSET), bytes);
+        } else {
+            long offset = stringEnd;
+            if ((offset >>> MappedRegion.SEGMENT_SHIFT) != ((offset + bytes.length) >>> MappedRegion.SEGMENT_SHIFT)) {
+                offset = ((offset >>> MappedRegion.SEGMENT_SHIFT) + 1) << MappedRegion.SEGMENT_SHIFT;  // Never straddle segments
+            }
+            strings.ensureLength(offset + bytes.length);
+            strings.put(offset, bytes);
+            stringEnd = offset + bytes.length;
+            table.putLong(H_STRING_END, stringEnd);
+            table.putLong(position + S_NAME_OFFSET, offset);
+        }
+        table.putInt(position + S_NAME_LENGTH, bytes.length);
+    }
+
+
+    // Backward-shift deletion: later slots in the probe chain move up, so no tombstones are needed
+    public boolean remove(int rollNumber) {
+        long position = find(rollNumber);
+        if (position < 0) {
+            return false;
+        }
+        long mask = capacity - 1;
+        long hole = (position - HEADER_SIZE) / SLOT_SIZE;
+        long slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long next = slotPosition(slot);
+            if (table.getInt(next + S_USED) == 0) {
+                break;
+            }
+            long home = hash(table.getInt(next + S_ROLL)) & mask;
+            boolean stays = hole <= slot ? (hole < home && home <= slot) : (hole < home || home <= slot);
+            if (!stays) {
+                copySlot(table, next, table, slotPosition(hole));
+                hole = slot;
+            }
+        }
+        table.putInt(slotPosition(hole) + S_USED, 0);
+        table.putLong(H_SIZE, --size);
+        return true;
+    }
+
+
+    private static void copySlot(MappedRegion from, long fromPosition, MappedRegion to, long toPosition) {
+        for (int i = 0; i < SLOT_SIZE; i += 8) {
+            to.putLong(toPosition + i, from.getLong(fromPosition + i));
+        }
+    }
+
+
+    // Builds a bigger table next to the old one, then renames it over; the string area is untouched
+    private void rehash(long newCapacity) throws IOException {
+        Path tmp = tablePath.resolveSibling(tablePath.getFileName() + ".rehash");
+        Files.deleteIfExists(tmp);
+        MappedRegion next = createTable(tmp, newCapacity);
+        long mask = newCapacity - 1;
+
+        for (long slot = 0; slot < capacity; slot++) {
+            long position = slotPosition(slot);
+            if (table.getInt(position + S_USED) == 0) {
+                continue;
+            }
+            long target = hash(table.getInt(position + S_ROLL)) & mask;
+            while (next.getInt(slotPosition(target) + S_USED) != 0) {
+                target = (target + 1) & mask;
+            }
+            copySlot(table, position, next, slotPosition(target));
+        }
+        next.putLong(H_SIZE, size);
+        next.putLong(H_STRING_END, stringEnd);
+        next.force();
+
+        table.close();
+        Files.move(tmp, tablePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        table = next;
+        capacity = newCapacity;
+    }
+
+
+    // ========== READS ==========
+
+    public boolean contains(int rollNumber) {
+        return find(rollNumber) >= 0;
+    }
+
+
+    // NaN if there is no such student
+    public double getMarks(int rollNumber) {
+        long position = find(rollNumber);
+        return position < 0 ? Double.NaN : table.getDouble(position + S_MARKS);
+    }
+
+
+    // The only read that creates an object: the name is decoded on request
+    public String getName(int rollNumber) {
+        long position = find(rollNumber);
+        if (position < 0) {
+            return null;
+        }
+        int length = table.getInt(position + S_NAME_LENGTH);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        strings.get(table.getLong(position + S_NAME_OFFSET), bytes, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    // Materializes a Student (password is not stored, as with serialization)
+    public Student get(int rollNumber) {
+        long position = find(rollNumber);
+        return position < 0 ? null : new Student(getName(rollNumber), rollNumber, table.getDouble(position + S_MARKS), null);
+    }
+
+
+    // Sequential sweep over the mapped slots - reads two fields per slot, decodes nothing
+    public long scanMarks(double minMarks, double maxMarks, StudentVisitor visitor) {
+        long matches = 0;
+        for (long slot = 0; slot < capacity; slot++) {
+            long position = slotPosition(slot);
+            if (table.getInt(position + S_USED) == 0) {
+                continue;
+            }
+            double marks = table.getDouble(position + S_MARKS);
+            if (marks >= minMarks && marks <= maxMarks) {
+                matches++;
+                visitor.visit(table.getInt(position + S_ROLL), marks);
+            }
+        }
+        return matches;
+    }
+
+
+    // Dirty pages are written back by the OS anyway; this makes it happen now
+    public void flush() {
+        strings.force();
+        table.force();
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        try {
+            table.close();
+        } finally {
+            strings.close();
+        }
+    }
+}
+
+
+// ============================================
+// EXAMPLE 3: TENS OF MILLIONS OF STUDENTS
+// ============================================
+
+class StudentTableBenchmark {
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+
+    public void run(Path dir, int count) throws IOException {
+        Path base = dir.resolve("students");
+        Random random = new Random(7);
+        int operations = 1_000_000;
+
+        System.out.printf("%n=== %,d students ===%n%n", count);
+        long heapBefore = usedHeap();
+
+        long start = System.nanoTime();
+        try (StudentTable table = StudentTable.open(base, count)) {
+            for (int i = 0; i < count; i++) {
+                table.put(i, "Student " + i, Math.round(random.nextDouble() * 1000) / 10.0);
+            }
+            System.out.printf("Insert:         %10.1f ms  (capacity %,d slots)%n", (System.nanoTime() - start) / 1e6, table.capacity());
+
+            double sum = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                sum += table.getMarks(random.nextInt(count));
+            }
+            System.out.printf("Lookup marks:   %10.1f ns/op  (avg %.1f)%n", (System.nanoTime() - start) / (double) operations, sum / operations);
+
+            start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                table.updateMarks(random.nextInt(count), 100.0);
+            }
+            System.out.printf("Update marks:   %10.1f ns/op%n", (System.nanoTime() - start) / (double) operations);
+
+            double[] total = new double[1];
+            start = System.nanoTime();
+            long matches = table.scanMarks(95.0, 99.9, (rollNumber, marks) -> total[0] += marks);
+            System.out.printf("Scan 95-99.9:   %10.1f ms  (%,d students, avg %.2f)%n",
+                (System.nanoTime() - start) / 1e6, matches, total[0] / Math.max(1, matches));
+
+            System.out.printf("Heap in use:    %10d MB  (table lives in the page cache)%n", Math.max(0, usedHeap() - heapBefore) >> 20);
+        }
+        System.out.printf("On disk:        %10d MB%n",
+            (Files.size(dir.resolve("students.tbl")) + Files.size(dir.resolve("students.str"))) >> 20);
+
+        // Restart: nothing is loaded, the header says how big the table is
+        start = System.nanoTime();
+        try (StudentTable table = StudentTable.open(base, 0)) {
+            int rollNumber = count / 2;
+            System.out.printf("Re-open:        %10.3f ms  (%,d students, #%d = %s)%n",
+                (System.nanoTime() - start) / 1e6, table.size(), rollNumber, table.get(rollNumber));
+            table.remove(rollNumber);
+            System.out.printf("After remove:   %,d students, contains(%d) = %b%n", table.size(), rollNumber, table.contains(rollNumber));
+        }
+
+        // The same data as objects, extrapolated from a sample
+        int sample = Math.min(count, 1_000_000);
+        heapBefore = usedHeap();
+        Map<Integer, Student> map = new HashMap<>();
+        for (int i = 0; i < sample; i++) {
+            map.put(i, new Student("Student " + i, i, 50.0, null));
+        }
+        long perEntry = (usedHeap() - heapBefore) / sample;
+        System.out.printf("HashMap<Integer, Student> would need ~%,d MB of heap (%d bytes/student, %,d entries)%n",
+            perEntry * count >> 20, perEntry, count);
+        map.clear();
+
+        Files.delete(dir.resolve("students.tbl"));
+        Files.delete(dir.resolve("students.str"));
+        System.out.println();
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit4_StudentTable {
+
+    public static void main(String[] args) throws Exception {
+
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 4 (EXTRA): MEMORY-MAPPED STUDENT TABLE");
+        System.out.println("=".repeat(70));
+
+        Path dir = Files.createTempDirectory("studenttable");
+
+
+        // ========== EXAMPLE 1: SURVIVING A RESTART ==========
+        System.out.println("\nEXAMPLE 1: Save, Restart, Look Up");
+        System.out.println("-".repeat(70));
+
+        String baseName = dir.resolve("class_of_2024").toString();
+        saveToStudentTable(baseName, Arrays.asList(
+            new Student("Alice Johnson", 101, 92.5, "secret123"),
+            new Student("Bob", 102, 88.0, "pass456"),
+            new Student("Carol", 103, 95.5, "pwd789")));
+        lookUpInStudentTable(baseName, 103);
+        Files.delete(Paths.get(baseName + ".tbl"));
+        Files.delete(Paths.get(baseName + ".str"));
+
+
+        // ========== EXAMPLE 2: SCALE ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Lookups, Updates and Scans Without Deserializing");
+        System.out.println("-".repeat(70));
+
+        new StudentTableBenchmark().run(dir, count);
+        Files.delete(dir);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("STUDENT TABLE SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  Fixed 32-byte slots : Field access is arithmetic, not parsing");
+        System.out.println("  String area         : Names decoded only when asked for");
+        System.out.println("  Memory mapping      : Data lives off-heap -> no GC pressure");
+        System.out.println("  Header in the file  : Re-open is instant after a restart");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // SerializationExample Method 5: Save students into a memory-mapped table
+    static void saveToStudentTable(String baseName, List<Student> students) {
+        System.out.println("\n=== Saving Students (Mapped Table) ===");
+        System.out.println("Files: " + baseName + ".tbl / .str");
+
+        try (StudentTable table = StudentTable.open(Paths.get(baseName), students.size())) {
+
+            for (Student student : students) {
+                table.put(student);
+                System.out.println("Stored: " + student.getRollNumber() + " -> " + student.getName());
+            }
+
+            System.out.println("Students in table: " + table.size());
+
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+        System.out.println();
+    }
+
+
+    // SerializationExample Method 6: Look up one student by roll number - the rest of the table is never read
+    static Student lookUpInStudentTable(String baseName, int rollNumber) {
+        System.out.println("\n=== Looking Up Student (Mapped Table) ===");
+        System.out.println("Roll number: " + rollNumber);
+
+        Student student = null;
+
+        try (StudentTable table = StudentTable.open(Paths.get(baseName), 0)) {
+
+            System.out.println("Marks only: " + table.getMarks(rollNumber));
+            student = table.get(rollNumber);
+            System.out.println("Student: " + student);
+
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+        System.out.println();
+
+        return student;
+    }
+}
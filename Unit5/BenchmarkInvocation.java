@@ -0,0 +1,15 @@
+/*
+ * UNIT 5 (EXTRA): SHARED BENCHMARK HARNESS - BenchmarkInvocation
+ *
+ * What BenchmarkRunner times, from Unit5_ListBenchmark.
+ */
+
+
+// One timed call. setup() runs before every run() but is not timed.
+abstract class BenchmarkInvocation {
+    void setup() {
+    }
+
+    // Returns how many operations it performed
+    abstract long run();
+}
@@ -0,0 +1,67 @@
+/*
+ * UNIT 5 (EXTRA): SHARED BENCHMARK HARNESS - BenchmarkRunner
+ *
+ * Warmup + time-boxed measurement of a BenchmarkInvocation inside this JVM, and a
+ * heap-delta estimate of memory per element. ListBenchmarkRunner adds forked JVMs
+ * on top.
+ */
+
+
+import java.util.function.Supplier;
+
+
+class BenchmarkRunner {
+    final int warmupIterations;
+    final int measurementIterations;
+    final long iterationMillis;
+
+    BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationMillis = iterationMillis;
+    }
+
+    // Warmup + measurement in this JVM; returns ns/op per measurement iteration
+    double[] measure(BenchmarkInvocation invocation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(invocation);
+        }
+        double[] scores = new double[measurementIterations];
+        for (int i = 0; i < measurementIterations; i++) {
+            scores[i] = iteration(invocation);
+        }
+        return scores;
+    }
+
+    // Calls run() until iterationMillis of timed work has passed (at least once)
+    private double iteration(BenchmarkInvocation invocation) {
+        long budget = iterationMillis * 1_000_000L;
+        long timed = 0;
+        long operations = 0;
+        while (timed < budget) {
+            invocation.setup();
+            long start = System.nanoTime();
+            operations += invocation.run();
+            timed += System.nanoTime() - start;
+        }
+        Blackhole.flush();
+        return (double) timed / operations;
+    }
+
+    // Heap still in use after building the collection, divided by its size
+    static double bytesPerElement(int n, Supplier<Object> build) {
+        long before = usedHeap();
+        Object collection = build.get();
+        long after = usedHeap();
+        Blackhole.consume(collection);
+        return (double) (after - before) / n;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
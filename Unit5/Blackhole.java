@@ -0,0 +1,28 @@
+/*
+ * UNIT 5 (EXTRA): SHARED BENCHMARK HARNESS - Blackhole
+ *
+ * The result sink from Unit5_ListBenchmark, shared by the other Unit 5 benchmarks.
+ */
+
+
+// Keeps results "used" so the JIT cannot remove the code that produced them
+final class Blackhole {
+    private static volatile long sink;
+    private static long accumulator;
+
+    private Blackhole() {
+    }
+
+    static void consume(long value) {
+        accumulator += value;
+    }
+
+    static void consume(Object value) {
+        accumulator += System.identityHashCode(value);
+    }
+
+    // Called once per iteration: one volatile write instead of one per operation
+    static void flush() {
+        sink = accumulator;
+    }
+}
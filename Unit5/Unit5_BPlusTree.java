@@ -0,0 +1,1174 @@
+/*
+ * UNIT 5 (EXTRA): B+TREE FOR TreeMap NAVIGATION WORKLOADS
+ *
+ * A TreeMap is a very tidy family tree: every entry knows its parent, its left child,
+ * its right child and its colour. With ten million students that is thirty million
+ * references whose only job is to point at other references. 🌳
+ *
+ * THEORY:
+ *
+ * TreeMap<Integer, String> per entry (64-bit JVM, compressed references):
+ *   - TreeMap.Entry : 40 bytes (header, key, value, left, right, parent, colour)
+ *   - Integer key   : 16 bytes (only -128..127 are cached)
+ *   -> ~56 bytes before counting the value itself, one cache miss per level
+ *
+ * IntBPlusTreeMap (B+tree, 64 slots per node):
+ *   - Leaf  : int[64] keys + Object[64] values, linked to its neighbours
+ *   - Inner : int[63] separator keys + 64 children; holds no values
+ *   - ~9 bytes per entry when leaves are full, ~13 at the 2/3 fill random inserts settle at
+ *   - Height log64(n): 10 million entries are 4 levels, each a binary search in one array
+ *
+ * INSERT / REMOVE:
+ *   - A full leaf splits in two; the middle key moves up (and may split the parent)
+ *   - Appending past the last key starts a new leaf instead, so ascending input stays full
+ *   - A leaf below half full borrows from a neighbour, or merges with it
+ *
+ * NAVIGATION:
+ *   floorKey / ceilingKey / lowerKey / higherKey -> one descent, then at most one step sideways
+ *   headMap / tailMap / subMap                   -> copies built by bulkLoad (like IntTreeSet)
+ *   cursor(from, to) / descendingCursor()        -> walk the leaf chain, no Map.Entry objects
+ *
+ * BULK LOAD: sorted input fills leaves left to right, then builds each inner level
+ * from the one below: O(n), no splits, every node full.
+ *
+ * OFF-HEAP? The values are object references, and the GC has to see them, so the tree
+ * stays on the heap. Only the keys are primitive.
+ */
+
+
+import java.util.*;
+
+
+// ============================================
+// EXAMPLE 1: THE B+TREE
+// ============================================
+
+@FunctionalInterface
+interface IntObjConsumer<V> {
+    void accept(int key, V value);
+}
+
+
+// Sorted int -> V map. Not thread-safe.
+class IntBPlusTreeMap<V> {
+    static final int LEAF_CAPACITY = 64;
+    static final int INNER_CAPACITY = 64;  // Children per inner node
+    private static final int MIN_LEAF = LEAF_CAPACITY / 2;
+    private static final int MIN_CHILDREN = INNER_CAPACITY / 2;
+    private static final int MAX_HEIGHT = 32;
+
+    private abstract static class Node {
+        int size;  // Keys in a leaf, children in an inner node
+    }
+
+    private static final class Leaf extends Node {
+        final int[] keys = new int[LEAF_CAPACITY];
+        final Object[] values = new Object[LEAF_CAPACITY];
+        Leaf prev;
+        Leaf next;
+    }
+
+    // keys[i] is the smallest key under children[i + 1]
+    private static final class Inner extends Node {
+        final int[] keys = new int[INNER_CAPACITY - 1];
+        final Node[] children = new Node[INNER_CAPACITY];
+    }
+
+    private Node root;
+    private Leaf head;
+    private Leaf tail;
+    private int size;
+    private int modCount;
+
+    // Descent path for put/remove: parents and the child slot taken in each
+    private final Inner[] path = new Inner[MAX_HEIGHT];
+    private final int[] pathSlots = new int[MAX_HEIGHT];
+
+    IntBPlusTreeMap() {
+        clear();
+    }
+
+    // Sorted, distinct keys: every leaf and inner node comes out full
+    static <V> IntBPlusTreeMap<V> bulkLoad(int[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys.length != values.length");
+        }
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i - 1] >= keys[i]) {
+                throw new IllegalArgumentException("Keys not strictly ascending at index " + i);
+            }
+        }
+        return load(keys, values, keys.length);
+    }
+
+    private static <V> IntBPlusTreeMap<V> load(int[] keys, Object[] values, int n) {
+        IntBPlusTreeMap<V> map = new IntBPlusTreeMap<>();
+        if (n == 0) {
+            return map;
+        }
+        // Spread evenly, so no node ends up below half full
+        int leafCount = (n + LEAF_CAPACITY - 1) / LEAF_CAPACITY;
+        Node[] level = new Node[leafCount];
+        int[] firstKeys = new int[leafCount];
+        Leaf previous = null;
+        for (int l = 0; l < leafCount; l++) {
+            int from = (int) ((long) n * l / leafCount);
+            int to = (int) ((long) n * (l + 1) / leafCount);
+            Leaf leaf = new Leaf();
+            System.arraycopy(keys, from, leaf.keys, 0, to - from);
+            System.arraycopy(values, from, leaf.values, 0, to - from);
+            leaf.size = to - from;
+            leaf.prev = previous;
+            if (previous != null) {
+                previous.next = leaf;
+            }
+            previous = leaf;
+            level[l] = leaf;
+            firstKeys[l] = keys[from];
+        }
+        map.head = (Leaf) level[0];
+        map.tail = previous;
+
+        while (level.length > 1) {
+            int parentCount = (level.length + INNER_CAPACITY - 1) / INNER_CAPACITY;
+            Node[] parents = new Node[parentCount];
+            int[] parentFirstKeys = new int[parentCount];
+            for (int p = 0; p < parentCount; p++) {
+                int from = (int) ((long) level.length * p / parentCount);
+                int to = (int) ((long) level.length * (p + 1) / parentCount);
+                Inner inner = new Inner();
+                System.arraycopy(level, from, inner.children, 0, to - from);
+                System.arraycopy(firstKeys, from + 1, inner.keys, 0, to - from - 1);
+                inner.size = to - from;
+                parents[p] = inner;
+                parentFirstKeys[p] = firstKeys[from];
+            }
+            level = parents;
+            firstKeys = parentFirstKeys;
+        }
+        map.root = level[0];
+        map.size = n;
+        return map;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        Leaf leaf = new Leaf();
+        root = leaf;
+        head = leaf;
+        tail = leaf;
+        size = 0;
+        modCount++;
+    }
+
+    // Child to follow: the number of separators <= key
+    private static int childIndex(Inner inner, int key) {
+        int low = 0;
+        int high = inner.size - 2;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (inner.keys[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private Leaf leafFor(int key) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            node = inner.children[childIndex(inner, key)];
+        }
+        return (Leaf) node;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        Leaf leaf = leafFor(key);
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        return index >= 0 ? (V) leaf.values[index] : null;
+    }
+
+    boolean containsKey(int key) {
+        Leaf leaf = leafFor(key);
+        return Arrays.binarySearch(leaf.keys, 0, leaf.size, key) >= 0;
+    }
+
+    // Returns the previous value, or null
+    @SuppressWarnings("unchecked")
+    V put(int key, V value) {
+        Node node = root;
+        int depth = 0;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            int slot = childIndex(inner, key);
+            path[depth] = inner;
+            pathSlots[depth++] = slot;
+            node = inner.children[slot];
+        }
+        Leaf leaf = (Leaf) node;
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        if (index >= 0) {
+            V old = (V) leaf.values[index];
+            leaf.values[index] = value;  // Not a structural change
+            return old;
+        }
+        index = -index - 1;
+        size++;
+        modCount++;
+        if (leaf.size < LEAF_CAPACITY) {
+            insertAt(leaf, index, key, value);
+            return null;
+        }
+
+        Leaf right = splitLeaf(leaf, index);
+        if (index <= leaf.size && leaf.size < LEAF_CAPACITY) {
+            insertAt(leaf, index, key, value);
+        } else {
+            insertAt(right, index - leaf.size, key, value);
+        }
+
+        // Hand the new right node up until a parent has room
+        Node child = right;
+        int separator = right.keys[0];
+        while (depth > 0) {
+            Inner parent = path[--depth];
+            int slot = pathSlots[depth] + 1;
+            if (parent.size < INNER_CAPACITY) {
+                insertChild(parent, slot, separator, child);
+                return null;
+            }
+            Inner sibling = new Inner();
+            separator = splitInner(parent, sibling, slot, separator, child);
+            child = sibling;
+        }
+        Inner newRoot = new Inner();
+        newRoot.children[0] = root;
+        newRoot.children[1] = child;
+        newRoot.keys[0] = separator;
+        newRoot.size = 2;
+        root = newRoot;
+        return null;
+    }
+
+    private static void insertAt(Leaf leaf, int index, int key, Object value) {
+        System.arraycopy(leaf.keys, index, leaf.keys, index + 1, leaf.size - index);
+        System.arraycopy(leaf.values, index, leaf.values, index + 1, leaf.size - index);
+        leaf.keys[index] = key;
+        leaf.values[index] = value;
+        leaf.size++;
+    }
+
+    // Upper half moves to a new right leaf; appending at the tail moves nothing
+    private Leaf splitLeaf(Leaf leaf, int insertIndex) {
+        Leaf right = new Leaf();
+        int keep = leaf == tail && insertIndex == leaf.size ? leaf.size : leaf.size / 2;
+        int moved = leaf.size - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, moved);
+        System.arraycopy(leaf.values, keep, right.values, 0, moved);
+        Arrays.fill(leaf.values, keep, leaf.size, null);
+        right.size = moved;
+        leaf.size = keep;
+
+        right.prev = leaf;
+        right.next = leaf.next;
+        if (leaf.next != null) {
+            leaf.next.prev = right;
+        } else {
+            tail = right;
+        }
+        leaf.next = right;
+        return right;
+    }
+
+    // children[slot] = child, with separator in front of it
+    private static void insertChild(Inner inner, int slot, int separator, Node child) {
+        System.arraycopy(inner.children, slot, inner.children, slot + 1, inner.size - slot);
+        System.arraycopy(inner.keys, slot - 1, inner.keys, slot, inner.size - slot);
+        inner.children[slot] = child;
+        inner.keys[slot - 1] = separator;
+        inner.size++;
+    }
+
+    // Inserts into a full node, moves the upper half to sibling, returns the key that goes up
+    private static int splitInner(Inner inner, Inner sibling, int slot, int separator, Node child) {
+        Node[] children = Arrays.copyOf(inner.children, INNER_CAPACITY + 1);
+        int[] keys = Arrays.copyOf(inner.keys, INNER_CAPACITY);
+        System.arraycopy(children, slot, children, slot + 1, INNER_CAPACITY - slot);
+        System.arraycopy(keys, slot - 1, keys, slot, INNER_CAPACITY - slot);
+        children[slot] = child;
+        keys[slot - 1] = separator;
+
+        int keep = (INNER_CAPACITY + 1 + 1) / 2;
+        int moved = INNER_CAPACITY + 1 - keep;
+        System.arraycopy(children, 0, inner.children, 0, keep);
+        System.arraycopy(keys, 0, inner.keys, 0, keep - 1);
+        Arrays.fill(inner.children, keep, INNER_CAPACITY, null);
+        inner.size = keep;
+        System.arraycopy(children, keep, sibling.children, 0, moved);
+        System.arraycopy(keys, keep, sibling.keys, 0, moved - 1);
+        sibling.size = moved;
+        return keys[keep - 1];
+    }
+
+    // Returns the removed value, or null
+    @SuppressWarnings("unchecked")
+    V remove(int key) {
+        Node node = root;
+        int depth = 0;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            int slot = childIndex(inner, key);
+            path[depth] = inner;
+            pathSlots[depth++] = slot;
+            node = inner.children[slot];
+        }
+        Leaf leaf = (Leaf) node;
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        if (index < 0) {
+            return null;
+        }
+        V old = (V) leaf.values[index];
+        System.arraycopy(leaf.keys, index + 1, leaf.keys, index, leaf.size - index - 1);
+        System.arraycopy(leaf.values, index + 1, leaf.values, index, leaf.size - index - 1);
+        leaf.values[--leaf.size] = null;
+        size--;
+        modCount++;
+
+        // Refill underfull nodes bottom-up; a merge can leave the parent underfull in turn
+        node = leaf;
+        while (depth > 0 && node.size < (node instanceof Leaf ? MIN_LEAF : MIN_CHILDREN)) {
+            Inner parent = path[--depth];
+            int slot = pathSlots[depth];
+            int left = slot > 0 ? slot - 1 : slot;  // Pair with the left neighbour when there is one
+            if (node instanceof Leaf) {
+                rebalanceLeaves(parent, left);
+            } else {
+                rebalanceInners(parent, left);
+            }
+            node = parent;
+        }
+        while (root instanceof Inner && root.size == 1) {
+            root = ((Inner) root).children[0];
+        }
+        return old;
+    }
+
+    // Merges children[left] and children[left + 1], or moves one key across
+    private void rebalanceLeaves(Inner parent, int left) {
+        Leaf a = (Leaf) parent.children[left];
+        Leaf b = (Leaf) parent.children[left + 1];
+        if (a.size + b.size <= LEAF_CAPACITY) {
+            System.arraycopy(b.keys, 0, a.keys, a.size, b.size);
+            System.arraycopy(b.values, 0, a.values, a.size, b.size);
+            a.size += b.size;
+            a.next = b.next;
+            if (b.next != null) {
+                b.next.prev = a;
+            } else {
+                tail = a;
+            }
+            removeChild(parent, left + 1);
+        } else if (a.size < b.size) {
+            insertAt(a, a.size, b.keys[0], b.values[0]);
+            System.arraycopy(b.keys, 1, b.keys, 0, b.size - 1);
+            System.arraycopy(b.values, 1, b.values, 0, b.size - 1);
+            b.values[--b.size] = null;
+            parent.keys[left] = b.keys[0];
+        } else {
+            insertAt(b, 0, a.keys[a.size - 1], a.values[a.size - 1]);
+            a.values[--a.size] = null;
+            parent.keys[left] = b.keys[0];
+        }
+    }
+
+    // Same for inner nodes: the parent's separator rotates through
+    private static void rebalanceInners(Inner parent, int left) {
+        Inner a = (Inner) parent.children[left];
+        Inner b = (Inner) parent.children[left + 1];
+        if (a.size + b.size <= INNER_CAPACITY) {
+            a.keys[a.size - 1] = parent.keys[left];
+            System.arraycopy(b.keys, 0, a.keys, a.size, b.size - 1);
+            System.arraycopy(b.children, 0, a.children, a.size, b.size);
+            a.size += b.size;
+            removeChild(parent, left + 1);
+        } else if (a.size < b.size) {
+            a.keys[a.size - 1] = parent.keys[left];
+            a.children[a.size++] = b.children[0];
+            parent.keys[left] = b.keys[0];
+            System.arraycopy(b.keys, 1, b.keys, 0, b.size - 2);
+            System.arraycopy(b.children, 1, b.children, 0, b.size - 1);
+            b.children[--b.size] = null;
+        } else {
+            System.arraycopy(b.keys, 0, b.keys, 1, b.size - 1);
+            System.arraycopy(b.children, 0, b.children, 1, b.size);
+            b.keys[0] = parent.keys[left];
+            b.children[0] = a.children[a.size - 1];
+            b.size++;
+            parent.keys[left] = a.keys[a.size - 2];
+            a.children[--a.size] = null;
+        }
+    }
+
+    private static void removeChild(Inner inner, int slot) {
+        System.arraycopy(inner.children, slot + 1, inner.children, slot, inner.size - slot - 1);
+        System.arraycopy(inner.keys, slot, inner.keys, slot - 1, inner.size - slot - 1);
+        inner.children[--inner.size] = null;
+    }
+
+    int firstKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return head.keys[0];
+    }
+
+    int lastKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return tail.keys[tail.size - 1];
+    }
+
+    // Smallest key >= key
+    int ceilingKey(int key, int ifNone) {
+        Leaf leaf = leafFor(key);
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        if (index >= 0) {
+            return key;
+        }
+        index = -index - 1;
+        if (index < leaf.size) {
+            return leaf.keys[index];
+        }
+        return leaf.next != null ? leaf.next.keys[0] : ifNone;
+    }
+
+    // Largest key <= key
+    int floorKey(int key, int ifNone) {
+        Leaf leaf = leafFor(key);
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        if (index >= 0) {
+            return key;
+        }
+        index = -index - 1;
+        if (index > 0) {
+            return leaf.keys[index - 1];
+        }
+        return leaf.prev != null ? leaf.prev.keys[leaf.prev.size - 1] : ifNone;
+    }
+
+    int higherKey(int key, int ifNone) {
+        return key == Integer.MAX_VALUE ? ifNone : ceilingKey(key + 1, ifNone);
+    }
+
+    int lowerKey(int key, int ifNone) {
+        return key == Integer.MIN_VALUE ? ifNone : floorKey(key - 1, ifNone);
+    }
+
+    // Copies, not views: [from, to)
+    IntBPlusTreeMap<V> subMap(int from, int to) {
+        return copyRange(from, to);
+    }
+
+    IntBPlusTreeMap<V> headMap(int to) {
+        return copyRange(Integer.MIN_VALUE, to);
+    }
+
+    IntBPlusTreeMap<V> tailMap(int from) {
+        return copyRange(from, Integer.MAX_VALUE + 1L);
+    }
+
+    // The range is already sorted, so the copy is a bulk load
+    private IntBPlusTreeMap<V> copyRange(int from, long to) {
+        int[] keys = new int[16];
+        Object[] values = new Object[16];
+        int n = 0;
+        Cursor cursor = new Cursor(from, to, false);
+        while (cursor.next()) {
+            if (n == keys.length) {
+                keys = Arrays.copyOf(keys, n * 2);
+                values = Arrays.copyOf(values, n * 2);
+            }
+            keys[n] = cursor.key();
+            values[n++] = cursor.value();
+        }
+        return load(keys, values, n);
+    }
+
+    void forEach(IntObjConsumer<? super V> action) {
+        forEachInRange(Integer.MIN_VALUE, Integer.MAX_VALUE + 1L, action);
+    }
+
+    // Entries with keys in [from, to), ascending
+    void forEachInRange(int from, int to, IntObjConsumer<? super V> action) {
+        forEachInRange(from, (long) to, action);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void forEachInRange(int from, long to, IntObjConsumer<? super V> action) {
+        if (from >= to) {
+            return;
+        }
+        Leaf leaf = leafFor(from);
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.size, from);
+        index = index >= 0 ? index : -index - 1;
+        for (; leaf != null; leaf = leaf.next, index = 0) {
+            for (; index < leaf.size; index++) {
+                if (leaf.keys[index] >= to) {
+                    return;
+                }
+                action.accept(leaf.keys[index], (V) leaf.values[index]);
+            }
+        }
+    }
+
+    Cursor cursor() {
+        return new Cursor(Integer.MIN_VALUE, Integer.MAX_VALUE + 1L, false);
+    }
+
+    // Keys in [from, to), ascending
+    Cursor cursor(int from, int to) {
+        return new Cursor(from, to, false);
+    }
+
+    Cursor descendingCursor() {
+        return new Cursor(Integer.MIN_VALUE, Integer.MAX_VALUE + 1L, true);
+    }
+
+    // Walks the leaf chain: next() moves, key()/value() read, setValue() writes in place
+    final class Cursor {
+        private final boolean descending;
+        private final long low;   // Inclusive
+        private final long high;  // Exclusive
+        private final int expectedModCount = modCount;
+        private Leaf leaf;
+        private int index;
+
+        private Cursor(int from, long to, boolean descending) {
+            this.descending = descending;
+            low = from;
+            high = to;
+            if (from >= to) {
+                return;  // Empty range: leaf stays null
+            }
+            if (descending) {
+                leaf = tail;
+                index = tail.size;
+            } else {
+                leaf = leafFor(from);
+                int position = Arrays.binarySearch(leaf.keys, 0, leaf.size, from);
+                index = (position >= 0 ? position : -position - 1) - 1;  // Just before the first match
+            }
+        }
+
+        boolean next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (leaf == null) {
+                return false;
+            }
+            if (descending) {
+                if (--index < 0) {
+                    leaf = leaf.prev;
+                    if (leaf == null) {
+                        return false;
+                    }
+                    index = leaf.size - 1;
+                }
+            } else if (++index == leaf.size) {
+                leaf = leaf.next;
+                if (leaf == null) {
+                    return false;
+                }
+                index = 0;
+            }
+            int key = leaf.keys[index];
+            if (key < low || key >= high) {
+                leaf = null;
+                return false;
+            }
+            return true;
+        }
+
+        int key() {
+            return leaf.keys[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        V value() {
+            return (V) leaf.values[index];
+        }
+
+        // Not a structural change: allowed while walking
+        void setValue(V value) {
+            leaf.values[index] = value;
+        }
+    }
+
+    // ========== MEMORY ==========
+
+    // Shallow heap layout with compressed oops: 12-byte object header, 16-byte array header,
+    // 4-byte references, 8-byte alignment. Counts the nodes and their arrays, not the values.
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+
+    static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static final long LEAF_BYTES = align(OBJECT_HEADER + Integer.BYTES + 4 * REFERENCE)
+        + align(ARRAY_HEADER + (long) LEAF_CAPACITY * Integer.BYTES)
+        + align(ARRAY_HEADER + (long) LEAF_CAPACITY * REFERENCE);
+    private static final long INNER_BYTES = align(OBJECT_HEADER + Integer.BYTES + 2 * REFERENCE)
+        + align(ARRAY_HEADER + (long) (INNER_CAPACITY - 1) * Integer.BYTES)
+        + align(ARRAY_HEADER + (long) INNER_CAPACITY * REFERENCE);
+    private static final long MAP_BYTES = align(OBJECT_HEADER + 5 * REFERENCE + 2 * Integer.BYTES)
+        + align(ARRAY_HEADER + (long) MAX_HEIGHT * REFERENCE)
+        + align(ARRAY_HEADER + (long) MAX_HEIGHT * Integer.BYTES);
+
+    // Deterministic: leaves and inner nodes times their size, no GC involved
+    long memoryUsage() {
+        long leaves = 0;
+        for (Leaf leaf = head; leaf != null; leaf = leaf.next) {
+            leaves++;
+        }
+        return MAP_BYTES + leaves * LEAF_BYTES + innerNodes(root) * INNER_BYTES;
+    }
+
+    double bytesPerEntry() {
+        return size == 0 ? 0 : (double) memoryUsage() / size;
+    }
+
+    private static long innerNodes(Node node) {
+        if (!(node instanceof Inner)) {
+            return 0;
+        }
+        Inner inner = (Inner) node;
+        long count = 1;
+        for (int c = 0; c < inner.size; c++) {
+            count += innerNodes(inner.children[c]);
+        }
+        return count;
+    }
+
+    // Throws if the tree is malformed; returns its height. Used by verify().
+    int checkInvariants() {
+        int height = checkNode(root, Long.MIN_VALUE, Long.MAX_VALUE, true);
+        int counted = 0;
+        Leaf previous = null;
+        for (Leaf leaf = head; leaf != null; previous = leaf, leaf = leaf.next) {
+            if (leaf.prev != previous || (leaf.size == 0 && leaf != root)) {
+                throw new IllegalStateException("Broken leaf chain");
+            }
+            counted += leaf.size;
+        }
+        if (previous != tail || counted != size) {
+            throw new IllegalStateException("Leaf chain holds " + counted + " keys, size is " + size);
+        }
+        return height;
+    }
+
+    // Keys under node must lie in [low, high)
+    private static int checkNode(Node node, long low, long high, boolean isRoot) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            for (int i = 0; i < leaf.size; i++) {
+                if (leaf.keys[i] < low || leaf.keys[i] >= high || (i > 0 && leaf.keys[i - 1] >= leaf.keys[i])) {
+                    throw new IllegalStateException("Leaf key out of order: " + leaf.keys[i]);
+                }
+            }
+            return 1;
+        }
+        Inner inner = (Inner) node;
+        if (inner.size < (isRoot ? 2 : 1)) {
+            throw new IllegalStateException("Inner node with " + inner.size + " children");
+        }
+        int height = -1;
+        for (int c = 0; c < inner.size; c++) {
+            long from = c == 0 ? low : inner.keys[c - 1];
+            long to = c == inner.size - 1 ? high : inner.keys[c];
+            int childHeight = checkNode(inner.children[c], from, to, false);
+            if (height != -1 && childHeight != height) {
+                throw new IllegalStateException("Leaves at different depths");
+            }
+            height = childHeight;
+        }
+        return height + 1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((key, value) -> sb.append(sb.length() == 1 ? "" : ", ").append(key).append('=').append(value));
+        return sb.append('}').toString();
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: TreeMap<Integer, String> vs IntBPlusTreeMap<String>
+// ============================================
+
+class IntBPlusTreeMapBenchmark {
+    private static final int SCAN_WIDTH = 300;  // Key span per range scan: ~100 entries
+
+    private static double mean(double[] scores) {
+        double sum = 0;
+        for (double score : scores) {
+            sum += score;
+        }
+        return sum / scores.length;
+    }
+
+    private static void row(String label, double treeMap, double bTree, String format) {
+        System.out.printf("%-30s " + format + " " + format + " %8.1fx%n", label, treeMap, bTree, treeMap / bTree);
+    }
+
+    void run(int n, int queries) {
+        // Sorted, distinct keys with gaps (so floor/ceiling have work to do); 1,024 shared values
+        Random random = new Random(42);
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = i * 3 + random.nextInt(3);
+        }
+        String[] names = new String[1024];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "student-" + i;
+        }
+        String[] values = new String[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = names[i & 1023];
+        }
+        int[] shuffled = keys.clone();
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = swap;
+        }
+        int[] probes = random.ints(queries, 0, n * 3).toArray();
+
+        System.out.println("\nMemory (" + String.format("%,d", n) + " entries, heap layout, value Strings shared and not counted)");
+        System.out.printf("%-30s %12s %12s%n", "", "bytes/entry", "vs TreeMap");
+        double treeMapBytes = treeMapBytesPerEntry(keys);
+        IntBPlusTreeMap<String> randomMap = new IntBPlusTreeMap<>();
+        for (int key : shuffled) {
+            randomMap.put(key, names[key & 1023]);
+        }
+        double randomBytes = randomMap.bytesPerEntry();
+        randomMap = null;
+        IntBPlusTreeMap<String> ascendingMap = new IntBPlusTreeMap<>();
+        for (int i = 0; i < n; i++) {
+            ascendingMap.put(keys[i], values[i]);
+        }
+        double ascendingBytes = ascendingMap.bytesPerEntry();
+        ascendingMap = null;
+        double bulkBytes = IntBPlusTreeMap.bulkLoad(keys, values).bytesPerEntry();
+        System.out.printf("%-30s %12.1f %12s%n", "TreeMap<Integer, String>", treeMapBytes, "1.0x");
+        System.out.printf("%-30s %12.1f %11.1fx%n", "B+tree, put in random order", randomBytes, treeMapBytes / randomBytes);
+        System.out.printf("%-30s %12.1f %11.1fx%n", "B+tree, put in ascending order", ascendingBytes, treeMapBytes / ascendingBytes);
+        System.out.printf("%-30s %12.1f %11.1fx%n", "B+tree, bulkLoad", bulkBytes, treeMapBytes / bulkBytes);
+
+        // One map at a time: a 10M-entry TreeMap alone is most of a default heap
+        BenchmarkRunner runner = new BenchmarkRunner(1, 3, 100);
+        double[] treeMap = treeMapScores(runner, keys, values, shuffled, probes);
+        double[] bTree = bTreeScores(runner, keys, values, shuffled, probes);
+
+        System.out.println("\nThroughput (ns per operation, " + String.format("%,d", queries) + " random probes)");
+        System.out.printf("%-30s %12s %12s %9s%n", "", "TreeMap", "B+tree", "speedup");
+        row("put, random order", treeMap[0], bTree[0], "%12.1f");
+        row("get", treeMap[1], bTree[1], "%12.1f");
+        row("floorKey", treeMap[2], bTree[2], "%12.1f");
+        row("ceilingKey", treeMap[3], bTree[3], "%12.1f");
+        row("subMap scan, per entry", treeMap[4], bTree[4], "%12.2f");
+        row("descending walk, per entry", treeMap[5], bTree[5], "%12.2f");
+        System.out.printf("%-30s %12s %12.1f%n", "bulkLoad, per entry", "-", bTree[6]);
+    }
+
+    // Same layout rules: one Entry (header, key, value, left, right, parent, colour) per key, plus
+    // an Integer for every key outside the -128..127 cache
+    private static double treeMapBytesPerEntry(int[] keys) {
+        long entry = IntBPlusTreeMap.align(IntBPlusTreeMap.OBJECT_HEADER + 5 * IntBPlusTreeMap.REFERENCE + 1);
+        long integer = IntBPlusTreeMap.align(IntBPlusTreeMap.OBJECT_HEADER + Integer.BYTES);
+        long total = IntBPlusTreeMap.align(IntBPlusTreeMap.OBJECT_HEADER + 7 * IntBPlusTreeMap.REFERENCE
+            + 2 * Integer.BYTES);
+        for (int key : keys) {
+            total += entry + (key >= -128 && key <= 127 ? 0 : integer);
+        }
+        return keys.length == 0 ? 0 : (double) total / keys.length;
+    }
+
+    // {put, get, floor, ceiling, scan per entry, descending per entry}
+    private static double[] treeMapScores(BenchmarkRunner runner, int[] keys, String[] values, int[] shuffled,
+                                          int[] probes) {
+        double put = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                TreeMap<Integer, String> map = new TreeMap<>();
+                for (int key : shuffled) {
+                    map.put(key, values[0]);
+                }
+                Blackhole.consume(map);
+                return shuffled.length;
+            }
+        }));
+        TreeMap<Integer, String> map = new TreeMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        double get = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                long found = 0;
+                for (int probe : probes) {
+                    found += map.get(probe) != null ? 1 : 0;
+                }
+                Blackhole.consume(found);
+                return probes.length;
+            }
+        }));
+        double floor = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                for (int probe : probes) {
+                    Integer key = map.floorKey(probe);
+                    sum += key == null ? 0 : key;
+                }
+                Blackhole.consume(sum);
+                return probes.length;
+            }
+        }));
+        double ceiling = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                for (int probe : probes) {
+                    Integer key = map.ceilingKey(probe);
+                    sum += key == null ? 0 : key;
+                }
+                Blackhole.consume(sum);
+                return probes.length;
+            }
+        }));
+        double scan = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                long entries = 0;
+                for (int i = 0; i < probes.length; i += 100) {
+                    for (Map.Entry<Integer, String> entry : map.subMap(probes[i], probes[i] + SCAN_WIDTH).entrySet()) {
+                        entries += entry.getKey() + entry.getValue().length();
+                    }
+                }
+                Blackhole.consume(entries);
+                return (long) (probes.length / 100 + 1) * SCAN_WIDTH / 3;
+            }
+        }));
+        double descending = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                for (Map.Entry<Integer, String> entry : map.descendingMap().entrySet()) {
+                    sum += entry.getKey() + entry.getValue().length();
+                }
+                Blackhole.consume(sum);
+                return keys.length;
+            }
+        }));
+        return new double[] {put, get, floor, ceiling, scan, descending};
+    }
+
+    // Same, plus bulkLoad per entry
+    private static double[] bTreeScores(BenchmarkRunner runner, int[] keys, String[] values, int[] shuffled,
+                                        int[] probes) {
+        double put = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                IntBPlusTreeMap<String> map = new IntBPlusTreeMap<>();
+                for (int key : shuffled) {
+                    map.put(key, values[0]);
+                }
+                Blackhole.consume(map);
+                return shuffled.length;
+            }
+        }));
+        double bulk = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                Blackhole.consume(IntBPlusTreeMap.bulkLoad(keys, values));
+                return keys.length;
+            }
+        }));
+        IntBPlusTreeMap<String> map = IntBPlusTreeMap.bulkLoad(keys, values);
+        double get = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                long found = 0;
+                for (int probe : probes) {
+                    found += map.get(probe) != null ? 1 : 0;
+                }
+                Blackhole.consume(found);
+                return probes.length;
+            }
+        }));
+        double floor = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                for (int probe : probes) {
+                    sum += map.floorKey(probe, 0);
+                }
+                Blackhole.consume(sum);
+                return probes.length;
+            }
+        }));
+        double ceiling = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                for (int probe : probes) {
+                    sum += map.ceilingKey(probe, 0);
+                }
+                Blackhole.consume(sum);
+                return probes.length;
+            }
+        }));
+        double scan = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                long entries = 0;
+                for (int i = 0; i < probes.length; i += 100) {
+                    IntBPlusTreeMap<String>.Cursor cursor = map.cursor(probes[i], probes[i] + SCAN_WIDTH);
+                    while (cursor.next()) {
+                        entries += cursor.key() + cursor.value().length();
+                    }
+                }
+                Blackhole.consume(entries);
+                return (long) (probes.length / 100 + 1) * SCAN_WIDTH / 3;
+            }
+        }));
+        double descending = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                IntBPlusTreeMap<String>.Cursor cursor = map.descendingCursor();
+                while (cursor.next()) {
+                    sum += cursor.key() + cursor.value().length();
+                }
+                Blackhole.consume(sum);
+                return keys.length;
+            }
+        }));
+        return new double[] {put, get, floor, ceiling, scan, descending, bulk};
+    }
+
+    // Random operations against TreeMap, small key range so nodes split, borrow and merge; returns checks
+    static int verify(int operations, long seed) {
+        Random random = new Random(seed);
+        IntBPlusTreeMap<Integer> map = new IntBPlusTreeMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        int range = operations / 8 + 1;
+        int checks = 0;
+        for (int i = 0; i < operations; i++) {
+            // Phases of mostly-insert and mostly-remove, so the tree grows and shrinks
+            boolean growing = (i / (operations / 10 + 1)) % 2 == 0;
+            int key = random.nextInt(range) - range / 2;
+            Integer value = random.nextInt(1000);
+            Object result;
+            Object wanted;
+            int op = random.nextInt(10);
+            if (op < 4) {
+                if (growing) {
+                    result = map.put(key, value);
+                    wanted = expected.put(key, value);
+                } else {
+                    result = map.remove(key);
+                    wanted = expected.remove(key);
+                }
+            } else if (op < 5) {
+                result = map.remove(key);
+                wanted = expected.remove(key);
+            } else if (op < 6) {
+                result = map.get(key);
+                wanted = expected.get(key);
+            } else if (op < 7) {
+                result = map.floorKey(key, Integer.MIN_VALUE);
+                wanted = Objects.requireNonNullElse(expected.floorKey(key), Integer.MIN_VALUE);
+            } else if (op < 8) {
+                result = map.ceilingKey(key, Integer.MIN_VALUE);
+                wanted = Objects.requireNonNullElse(expected.ceilingKey(key), Integer.MIN_VALUE);
+            } else if (op < 9) {
+                result = map.higherKey(key, Integer.MIN_VALUE);
+                wanted = Objects.requireNonNullElse(expected.higherKey(key), Integer.MIN_VALUE);
+            } else {
+                result = map.lowerKey(key, Integer.MIN_VALUE);
+                wanted = Objects.requireNonNullElse(expected.lowerKey(key), Integer.MIN_VALUE);
+            }
+            if (!Objects.equals(result, wanted) || map.size() != expected.size()) {
+                throw new IllegalStateException("Mismatch at operation " + i + " on " + key);
+            }
+            checks++;
+            if (i % 1000 == 0) {
+                map.checkInvariants();
+                int from = key;
+                int to = key + random.nextInt(range / 4 + 1);
+                checkSame(map.subMap(from, to), expected.subMap(from, to));
+                checks += 2;
+            }
+        }
+        map.checkInvariants();
+        checkSame(map, expected);
+        checkSame(map.headMap(0), expected.headMap(0));
+        checkSame(map.tailMap(0), expected.tailMap(0));
+        IntBPlusTreeMap<Integer>.Cursor cursor = map.descendingCursor();
+        for (Map.Entry<Integer, Integer> entry : expected.descendingMap().entrySet()) {
+            if (!cursor.next() || cursor.key() != entry.getKey() || !cursor.value().equals(entry.getValue())) {
+                throw new IllegalStateException("Descending mismatch at " + entry.getKey());
+            }
+        }
+        if (cursor.next()) {
+            throw new IllegalStateException("Descending cursor walked too far");
+        }
+
+        // Bulk load, then remove everything in random order
+        int[] keys = expected.keySet().stream().mapToInt(Integer::intValue).toArray();
+        Integer[] values = expected.values().toArray(new Integer[0]);
+        IntBPlusTreeMap<Integer> loaded = IntBPlusTreeMap.bulkLoad(keys, values);
+        loaded.checkInvariants();
+        checkSame(loaded, expected);
+        List<Integer> order = new ArrayList<>(expected.keySet());
+        Collections.shuffle(order, random);
+        for (int key : order) {
+            if (!expected.remove(key).equals(loaded.remove(key))) {
+                throw new IllegalStateException("Remove mismatch on " + key);
+            }
+            if (expected.size() % 500 == 0) {
+                loaded.checkInvariants();
+                checkSame(loaded, expected);
+            }
+        }
+        return checks + 6 + order.size();
+    }
+
+    private static void checkSame(IntBPlusTreeMap<Integer> map, SortedMap<Integer, Integer> expected) {
+        IntBPlusTreeMap<Integer>.Cursor cursor = map.cursor();
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            if (!cursor.next() || cursor.key() != entry.getKey() || !cursor.value().equals(entry.getValue())) {
+                throw new IllegalStateException("Content mismatch at " + entry.getKey());
+            }
+        }
+        if (cursor.next() || map.size() != expected.size()) {
+            throw new IllegalStateException("Size mismatch: " + map.size() + " vs " + expected.size());
+        }
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit5_BPlusTree {
+
+    public static void main(String[] args) {
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 5 (EXTRA): B+TREE FOR TreeMap NAVIGATION WORKLOADS");
+        System.out.println("=".repeat(70));
+
+
+        // ========== EXAMPLE 1: NAVIGATION ==========
+        System.out.println("\nEXAMPLE 1: treeMapOperations() with an IntBPlusTreeMap");
+        System.out.println("-".repeat(70));
+
+        bPlusTreeOperations();
+
+        int checks = IntBPlusTreeMapBenchmark.verify(400_000, 1);
+        System.out.println("Checked against TreeMap: " + String.format("%,d", checks) + " operations and walks, all equal");
+
+
+        // ========== EXAMPLE 2: BENCHMARK ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: TreeMap<Integer, String> vs IntBPlusTreeMap<String>");
+        System.out.println("-".repeat(70));
+
+        new IntBPlusTreeMapBenchmark().run(n, queries);
+        System.out.println();
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("B+TREE SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  Nodes          : int[] keys + Object[] values, 64 per node, no Entry objects");
+        System.out.println("  Leaf chain     : floor/ceiling step sideways, scans walk arrays in order");
+        System.out.println("  Split / merge  : Nodes stay at least half full; appends keep leaves full");
+        System.out.println("  bulkLoad       : Sorted input -> full nodes in O(n)");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // MapExample Method 3b: The same navigation on a B+tree of int keys (run by Unit5_Collections too)
+    static void bPlusTreeOperations() {
+        System.out.println("\n=== IntBPlusTreeMap Operations ===");
+        System.out.println("Implementation: B+tree (int[] keys, Object[] values, 64 per node)");
+        System.out.println("Order: Sorted by keys");
+        System.out.println("Null: Keys are ints; a missing key returns null or the ifNone value");
+        System.out.println("Performance: O(log n) for get/put, no object per entry");
+        System.out.println();
+
+        IntBPlusTreeMap<String> students = new IntBPlusTreeMap<>();
+
+        // Adding entries
+        students.put(103, "Carol");
+        students.put(101, "Alice");
+        students.put(105, "Eve");
+        students.put(102, "Bob");
+        students.put(104, "David");
+
+        System.out.println("IntBPlusTreeMap (sorted by keys):");
+        students.forEach((roll, name) -> System.out.println("  Roll " + roll + ": " + name));
+
+        // Navigation methods (-1 = no such key)
+        System.out.println("\nNavigation:");
+        System.out.println("First entry: " + students.firstKey() + "=" + students.get(students.firstKey()));
+        System.out.println("Last entry: " + students.lastKey() + "=" + students.get(students.lastKey()));
+        System.out.println("Lower key than 103: " + students.lowerKey(103, -1));
+        System.out.println("Higher key than 103: " + students.higherKey(103, -1));
+        System.out.println("Floor key of 103: " + students.floorKey(103, -1));
+        System.out.println("Ceiling key of 103: " + students.ceilingKey(103, -1));
+        System.out.println("Floor key of 100: " + students.floorKey(100, -1) + " (nothing below 101)");
+
+        // Submap operations (copies)
+        System.out.println("\nSubmaps:");
+        System.out.println("HeadMap (< 103): " + students.headMap(103));
+        System.out.println("TailMap (>= 103): " + students.tailMap(103));
+        System.out.println("SubMap [102, 105): " + students.subMap(102, 105));
+
+        // Descending order
+        System.out.println("\nDescending:");
+        StringBuilder descending = new StringBuilder();
+        IntBPlusTreeMap<String>.Cursor cursor = students.descendingCursor();
+        while (cursor.next()) {
+            descending.append(descending.length() == 0 ? "" : ", ").append(cursor.key()).append('=').append(cursor.value());
+        }
+        System.out.println("Descending cursor: {" + descending + "}");
+
+        // Bulk load: sorted input straight into full leaves
+        System.out.println("\n--- Bulk Load (sorted input) ---");
+        int[] rolls = new int[200];
+        String[] names = new String[rolls.length];
+        for (int i = 0; i < rolls.length; i++) {
+            rolls[i] = 1000 + 2 * i;  // Even roll numbers only
+            names[i] = "Student" + i;
+        }
+        IntBPlusTreeMap<String> roster = IntBPlusTreeMap.bulkLoad(rolls, names);
+        System.out.println("Loaded " + roster.size() + " students, rolls " + roster.firstKey() + ".." + roster.lastKey());
+        System.out.println("Ceiling key of 1101: " + roster.ceilingKey(1101, -1));
+        System.out.println("SubMap [1196, 1204): " + roster.subMap(1196, 1204));
+        System.out.println();
+    }
+}
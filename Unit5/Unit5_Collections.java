@@ -546,7 +546,9 @@ public class Unit5_Collections {
         ListExample listExample = new ListExample();
         listExample.arrayListOperations();
         listExample.linkedListOperations();
+        Unit5_PrimitiveCollections.intDequeOperations();
         listExample.compareListPerformance();
+        Unit5_ListBenchmark.compareListPerformanceMeasured();
         
         
         // ========== EXAMPLE 2: SET INTERFACE ==========
@@ -558,6 +560,7 @@ public class Unit5_Collections {
         setExample.hashSetOperations();
         setExample.linkedHashSetOperations();
         setExample.treeSetOperations();
+        Unit5_PrimitiveCollections.intTreeSetOperations();
         
         
         // ========== EXAMPLE 3: MAP INTERFACE ==========
@@ -567,8 +570,11 @@ public class Unit5_Collections {
         
         MapExample mapExample = new MapExample();
         mapExample.hashMapOperations();
+        Unit5_Object2IntMap.scoreTableOperations();
         mapExample.linkedHashMapOperations();
+        Unit5_ConcurrentCache.concurrentCacheOperations();
         mapExample.treeMapOperations();
+        Unit5_BPlusTree.bPlusTreeOperations();
         
         
         // ========== SUMMARY ==========
@@ -590,6 +596,12 @@ public class Unit5_Collections {
         System.out.println("\nQUEUE:");
         System.out.println("  PriorityQueue: Priority-based ordering");
         System.out.println("  ArrayDeque   : Double-ended queue, fast operations");
+        System.out.println("\nPRIMITIVE (int, no boxing):");
+        System.out.println("  IntArrayList / IntHashSet / IntTreeSet / IntArrayDeque");
+        System.out.println("  Object2IntMap: Key -> int without Integer or Node objects");
+        System.out.println("  IntBPlusTreeMap: Sorted int keys, B+tree nodes instead of Entry objects");
+        System.out.println("\nCACHE:");
+        System.out.println("  ConcurrentCache: Bounded, thread-safe, W-TinyLFU, TTL, loading");
         System.out.println("=".repeat(70));
     }
 }
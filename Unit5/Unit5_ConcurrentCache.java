@@ -0,0 +1,1192 @@
+/*
+ * UNIT 5 (EXTRA): A CONCURRENT CACHE (W-TinyLFU)
+ *
+ * new LinkedHashMap<>(16, 0.75f, true) is a great way to EXPLAIN an LRU cache.
+ * As a real cache it has no size limit, no thread safety, and every get() rewires a
+ * linked list - so two threads reading at once can corrupt it. An LRU that forgets
+ * to evict is just a map with ambitions. 🧠
+ *
+ * THEORY:
+ *
+ * DATA: ConcurrentHashMap<K, Node> - get() never takes a lock
+ *
+ * POLICY (W-TinyLFU), guarded by ONE lock but only touched in batches:
+ *   - WINDOW LRU (1%)     : New entries land here, so bursts of new keys get a chance
+ *   - PROBATION LRU (20%) : Entries that left the window / were demoted
+ *   - PROTECTED LRU (80%) : Entries read again while in probation
+ *   - ADMISSION           : When the cache is full, an entry leaving the window fights the
+ *                           oldest probation entry; the one the FREQUENCY SKETCH has seen
+ *                           more often stays. One-hit wonders cannot flush popular keys.
+ *   - FREQUENCY SKETCH    : Count-min sketch, 4-bit counters, 4 per key; all counters
+ *                           are halved periodically so old popularity fades
+ *
+ * BUFFERS (why reads do not lock):
+ *   - Read  -> recorded in a STRIPED, LOSSY ring buffer (stripe chosen by thread);
+ *              a full buffer just drops the event - hit rate barely notices
+ *   - Write -> queued in a write buffer (never dropped)
+ *   - Whoever wins tryLock() replays both buffers into the policy ("maintenance")
+ *
+ * BOUNDS: maximumSize (every entry weighs 1) or maximumWeight + Weigher
+ * TTL: expireAfterWrite - expired entries are invisible at once, removed in maintenance
+ * LOADING: get(key, loader) - one load per key, concurrent callers wait for it
+ * STATS: hits, misses, loads, load time, evictions
+ */
+
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+
+// ============================================
+// EXAMPLE 1: THE BUILDING BLOCKS
+// ============================================
+
+interface Weigher<K, V> {
+    int weigh(K key, V value);
+}
+
+
+interface Ticker {
+    long read();  // nanoseconds
+
+    static Ticker system() {
+        return System::nanoTime;
+    }
+}
+
+
+class CacheNode<K, V> {
+    static final byte NONE = 0;
+    static final byte WINDOW = 1;
+    static final byte PROBATION = 2;
+    static final byte PROTECTED = 3;
+
+    final K key;
+    volatile V value;
+    volatile int weight;
+    volatile long writeTime;
+    volatile boolean retired;  // Removed from the map; set under synchronized(this)
+
+    // Guarded by the cache's eviction lock
+    byte queue = NONE;
+    int policyWeight;
+    CacheNode<K, V> previous;
+    CacheNode<K, V> next;
+    CacheNode<K, V> writePrevious;
+    CacheNode<K, V> writeNext;
+
+    CacheNode(K key, V value, int weight, long writeTime) {
+        this.key = key;
+        this.value = value;
+        this.weight = weight;
+        this.writeTime = writeTime;
+    }
+}
+
+
+// Doubly linked list through the nodes themselves: access order or write order
+class NodeDeque<K, V> {
+    private final boolean writeOrder;
+    private CacheNode<K, V> first;
+    private CacheNode<K, V> last;
+
+    NodeDeque(boolean writeOrder) {
+        this.writeOrder = writeOrder;
+    }
+
+    CacheNode<K, V> first() {
+        return first;
+    }
+
+    CacheNode<K, V> next(CacheNode<K, V> node) {
+        return writeOrder ? node.writeNext : node.next;
+    }
+
+    private CacheNode<K, V> previous(CacheNode<K, V> node) {
+        return writeOrder ? node.writePrevious : node.previous;
+    }
+
+    private void setNext(CacheNode<K, V> node, CacheNode<K, V> next) {
+        if (writeOrder) {
+            node.writeNext = next;
+        } else {
+            node.next = next;
+        }
+    }
+
+    private void setPrevious(CacheNode<K, V> node, CacheNode<K, V> previous) {
+        if (writeOrder) {
+            node.writePrevious = previous;
+        } else {
+            node.previous = previous;
+        }
+    }
+
+    void linkLast(CacheNode<K, V> node) {
+        setPrevious(node, last);
+        setNext(node, null);
+        if (last == null) {
+            first = node;
+        } else {
+            setNext(last, node);
+        }
+        last = node;
+    }
+
+    void unlink(CacheNode<K, V> node) {
+        CacheNode<K, V> previous = previous(node);
+        CacheNode<K, V> next = next(node);
+        if (previous == null) {
+            first = next;
+        } else {
+            setNext(previous, next);
+        }
+        if (next == null) {
+            last = previous;
+        } else {
+            setPrevious(next, previous);
+        }
+        setPrevious(node, null);
+        setNext(node, null);
+    }
+
+    void moveToBack(CacheNode<K, V> node) {
+        if (node != last) {
+            unlink(node);
+            linkLast(node);
+        }
+    }
+}
+
+
+// Count-min sketch: 16 four-bit counters per long, 4 counters per key, halved every 10 x size additions.
+// A key's 4 counters all sit in one 64-byte block (8 longs), so a lookup costs one cache miss, not four.
+class FrequencySketch {
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private long[] table = new long[0];
+    private int blockMask;
+    private int sampleSize;
+    private int additions;
+
+    void ensureCapacity(long expectedSize) {
+        int capacity = (int) Math.min(Math.max(expectedSize, 16), 1 << 26);
+        if (table.length >= capacity) {
+            return;
+        }
+        table = new long[Integer.highestOneBit(capacity - 1) << 1];
+        blockMask = (table.length >>> 3) - 1;
+        sampleSize = 10 * capacity;
+        additions = 0;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+
+    private static int rehash(int hash) {
+        hash *= 0x31848bab;
+        return hash ^ (hash >>> 14);
+    }
+
+    int frequency(Object key) {
+        int blockHash = spread(key.hashCode());
+        int counterHash = rehash(blockHash);
+        int block = (blockHash & blockMask) << 3;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int h = counterHash >>> (i << 3);
+            int nibble = (h >>> 1) & 15;
+            int slot = block + (h & 1) + (i << 1);
+            frequency = Math.min(frequency, (int) ((table[slot] >>> (nibble << 2)) & 0xfL));
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        int blockHash = spread(key.hashCode());
+        int counterHash = rehash(blockHash);
+        int block = (blockHash & blockMask) << 3;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            int h = counterHash >>> (i << 3);
+            int offset = ((h >>> 1) & 15) << 2;
+            int slot = block + (h & 1) + (i << 1);
+            long mask = 0xfL << offset;
+            if ((table[slot] & mask) != mask) {  // Saturates at 15
+                table[slot] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    // Ageing: halve every counter so yesterday's hits weigh half as much
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions = (additions - (odd >>> 2)) >>> 1;
+    }
+}
+
+
+// One small ring buffer per stripe; a thread always uses the same stripe, so threads rarely collide
+class StripedReadBuffer<E> {
+    static final int SUCCESS = 0;
+    static final int FULL = 1;
+    static final int FAILED = 2;
+    private static final int BUFFER_SIZE = 16;
+
+    private final Stripe<E>[] stripes;
+    private final int stripeMask;
+
+    @SuppressWarnings("unchecked")
+    StripedReadBuffer(int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(stripeCount, 1) - 1) << 1;
+        count = Math.max(count, 1);
+        stripes = (Stripe<E>[]) new Stripe<?>[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        stripeMask = count - 1;
+    }
+
+    int offer(E element) {
+        long id = Thread.currentThread().getId();
+        int probe = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32);
+        return stripes[probe & stripeMask].offer(element);
+    }
+
+    // Only called under the eviction lock (single consumer)
+    void drainTo(Consumer<E> consumer) {
+        for (Stripe<E> stripe : stripes) {
+            stripe.drainTo(consumer);
+        }
+    }
+
+    private static final class Stripe<E> {
+        private final AtomicLong writeCounter = new AtomicLong();
+        private volatile long readCounter;
+        private final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(BUFFER_SIZE);
+
+        int offer(E element) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            if (tail - head >= BUFFER_SIZE) {
+                return FULL;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) tail & (BUFFER_SIZE - 1), element);
+                return SUCCESS;
+            }
+            return FAILED;  // Another thread won the slot: drop this event (lossy)
+        }
+
+        void drainTo(Consumer<E> consumer) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            while (head < tail) {
+                int index = (int) head & (BUFFER_SIZE - 1);
+                E element = buffer.get(index);
+                if (element == null) {
+                    break;  // Slot claimed but not written yet: next time
+                }
+                buffer.lazySet(index, null);
+                consumer.accept(element);
+                head++;
+            }
+            readCounter = head;
+        }
+    }
+}
+
+
+class CacheStats {
+    final long hitCount;
+    final long missCount;
+    final long loadSuccessCount;
+    final long loadFailureCount;
+    final long totalLoadTime;
+    final long evictionCount;
+    final long evictionWeight;
+
+    CacheStats(long hitCount, long missCount, long loadSuccessCount, long loadFailureCount, long totalLoadTime,
+               long evictionCount, long evictionWeight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTime = totalLoadTime;
+        this.evictionCount = evictionCount;
+        this.evictionWeight = evictionWeight;
+    }
+
+    long requestCount() {
+        return hitCount + missCount;
+    }
+
+    double hitRate() {
+        return requestCount() == 0 ? 1.0 : (double) hitCount / requestCount();
+    }
+
+    double averageLoadPenaltyNanos() {
+        long loads = loadSuccessCount + loadFailureCount;
+        return loads == 0 ? 0.0 : (double) totalLoadTime / loads;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, hitRate=%.1f%%, loads=%d (failed %d, avg %.0f ns), evictions=%d (weight %d)",
+            hitCount, missCount, hitRate() * 100, loadSuccessCount, loadFailureCount, averageLoadPenaltyNanos(),
+            evictionCount, evictionWeight);
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: THE CACHE
+// ============================================
+
+class ConcurrentCache<K, V> {
+    private static final int IDLE = 0;
+    private static final int REQUIRED = 1;
+    private static final int WRITE_BUFFER_LIMIT = 1024;  // Writers help drain beyond this
+
+    private final ConcurrentHashMap<K, CacheNode<K, V>> data = new ConcurrentHashMap<>();
+    private final Weigher<? super K, ? super V> weigher;
+    private final long expireAfterWriteNanos;  // 0 = never
+    private final Ticker ticker;
+    private final StripedReadBuffer<CacheNode<K, V>> readBuffer =
+        new StripedReadBuffer<>(4 * Runtime.getRuntime().availableProcessors());
+    private final ConcurrentLinkedQueue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private final AtomicInteger drainStatus = new AtomicInteger(IDLE);
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final Consumer<CacheNode<K, V>> onAccess = this::onAccess;
+
+    // Guarded by evictionLock
+    private final long maximum;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private long weightedSize;
+    private long windowWeight;
+    private long protectedWeight;
+    private final NodeDeque<K, V> window = new NodeDeque<>(false);
+    private final NodeDeque<K, V> probation = new NodeDeque<>(false);
+    private final NodeDeque<K, V> protectedQueue = new NodeDeque<>(false);
+    private final NodeDeque<K, V> writeOrder = new NodeDeque<>(true);
+    private final FrequencySketch sketch = new FrequencySketch();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadTime = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder evictedWeight = new LongAdder();
+
+    ConcurrentCache(Builder<? super K, ? super V> builder) {
+        if (builder.maximum < 0) {
+            throw new IllegalStateException("maximumSize or maximumWeight is required");
+        }
+        maximum = builder.maximum;
+        weigher = builder.weigher;
+        expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        ticker = builder.ticker;
+        windowMaximum = maximum - (long) (maximum * 0.99);
+        protectedMaximum = (long) ((maximum - windowMaximum) * 0.8);
+        sketch.ensureCapacity(Math.min(maximum, 1 << 16));
+    }
+
+    static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    static final class Builder<K, V> {
+        private long maximum = -1;
+        private Weigher<? super K, ? super V> weigher = (key, value) -> 1;
+        private long expireAfterWriteNanos;
+        private Ticker ticker = Ticker.system();
+
+        Builder<K, V> maximumSize(long size) {
+            maximum = size;
+            weigher = (key, value) -> 1;
+            return this;
+        }
+
+        Builder<K, V> maximumWeight(long weight, Weigher<? super K, ? super V> weigher) {
+            maximum = weight;
+            this.weigher = weigher;
+            return this;
+        }
+
+        Builder<K, V> expireAfterWrite(Duration ttl) {
+            expireAfterWriteNanos = ttl.toNanos();
+            return this;
+        }
+
+        Builder<K, V> ticker(Ticker ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        <K1 extends K, V1 extends V> ConcurrentCache<K1, V1> build() {
+            return new ConcurrentCache<>(this);
+        }
+
+        <K1 extends K, V1 extends V> LoadingConcurrentCache<K1, V1> build(Function<? super K1, ? extends V1> loader) {
+            return new LoadingConcurrentCache<>(this, loader);
+        }
+    }
+
+    private boolean isExpired(CacheNode<K, V> node, long now) {
+        return expireAfterWriteNanos > 0 && now - node.writeTime >= expireAfterWriteNanos;
+    }
+
+    // No TTL, no clock: System.nanoTime() is not free on every read
+    private long now() {
+        return expireAfterWriteNanos > 0 ? ticker.read() : 0L;
+    }
+
+    // ---- Reads: no lock ----
+
+    V getIfPresent(K key) {
+        CacheNode<K, V> node = data.get(key);
+        if (node == null || isExpired(node, now())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        afterRead(node);
+        return node.value;
+    }
+
+    // Loads on a miss; other threads asking for the same key wait for this load
+    V get(K key, Function<? super K, ? extends V> loader) {
+        CacheNode<K, V> node = data.get(key);
+        if (node != null && !isExpired(node, now())) {
+            hits.increment();
+            afterRead(node);
+            return node.value;
+        }
+        List<CacheNode<K, V>> replaced = new ArrayList<>(1);
+        boolean[] loaded = new boolean[1];
+        CacheNode<K, V> result;
+        try {
+            result = data.compute(key, (k, existing) -> {
+                long now = now();
+                if (existing != null && !isExpired(existing, now)) {
+                    return existing;  // Another thread loaded it meanwhile
+                }
+                long start = System.nanoTime();
+                V value;
+                try {
+                    value = loader.apply(k);
+                } finally {
+                    loadTime.add(System.nanoTime() - start);
+                }
+                if (existing != null) {
+                    // Same as evict(): retire before the map lets go, unless a put() refreshed it
+                    synchronized (existing) {
+                        if (!isExpired(existing, now())) {
+                            return existing;  // The put's value is newer than what we loaded
+                        }
+                        existing.retired = true;
+                    }
+                    replaced.add(existing);
+                }
+                loaded[0] = true;
+                return value == null ? null : new CacheNode<>(k, value, weigher.weigh(k, value), now);
+            });
+        } catch (RuntimeException | Error e) {
+            misses.increment();
+            loadFailures.increment();
+            throw e;
+        }
+        for (CacheNode<K, V> old : replaced) {
+            afterWrite(() -> onRemove(old));
+        }
+        if (!loaded[0]) {
+            hits.increment();
+            afterRead(result);
+            return result.value;
+        }
+        misses.increment();
+        if (result == null) {
+            loadFailures.increment();  // Loader returned null: nothing cached
+            return null;
+        }
+        loadSuccesses.increment();
+        CacheNode<K, V> added = result;
+        afterWrite(() -> onAdd(added));
+        return result.value;
+    }
+
+    // ---- Writes: map first, policy later (through the write buffer) ----
+
+    void put(K key, V value) {
+        int weight = weigher.weigh(key, value);
+        long now = now();
+        CacheNode<K, V> node = null;
+        while (true) {
+            CacheNode<K, V> current = data.get(key);  // Usually present: no node allocated for an update
+            if (current == null) {
+                if (node == null) {
+                    node = new CacheNode<>(key, value, weight, now);
+                }
+                current = data.putIfAbsent(key, node);
+                if (current == null) {
+                    CacheNode<K, V> added = node;
+                    afterWrite(() -> onAdd(added));
+                    return;
+                }
+            }
+            CacheNode<K, V> prior = current;
+            int oldWeight;
+            synchronized (prior) {
+                if (prior.retired) {
+                    oldWeight = -1;
+                } else {
+                    oldWeight = prior.weight;
+                    prior.value = value;
+                    prior.weight = weight;
+                    prior.writeTime = now;
+                }
+            }
+            if (oldWeight >= 0) {
+                // Same weight and no TTL: the policy only needs to know it was used
+                if (oldWeight == weight && expireAfterWriteNanos == 0) {
+                    afterRead(prior);
+                } else {
+                    afterWrite(() -> onUpdate(prior));
+                }
+                return;
+            }
+            // prior is being removed; try again once it is gone
+            Thread.onSpinWait();
+        }
+    }
+
+    void invalidate(K key) {
+        CacheNode<K, V> node = data.remove(key);
+        if (node != null) {
+            retire(node);
+            afterWrite(() -> onRemove(node));
+        }
+    }
+
+    void invalidateAll() {
+        for (K key : data.keySet()) {
+            invalidate(key);
+        }
+    }
+
+    long estimatedSize() {
+        return data.mappingCount();
+    }
+
+    // Runs pending maintenance now (normally it runs as a side effect of reads and writes)
+    void cleanUp() {
+        evictionLock.lock();
+        try {
+            maintenance();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    long weightedSize() {
+        evictionLock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), loadSuccesses.sum(), loadFailures.sum(), loadTime.sum(),
+            evictions.sum(), evictedWeight.sum());
+    }
+
+    private void retire(CacheNode<K, V> node) {
+        synchronized (node) {
+            node.retired = true;
+        }
+    }
+
+    private void afterRead(CacheNode<K, V> node) {
+        if (readBuffer.offer(node) == StripedReadBuffer.FULL && drainStatus.compareAndSet(IDLE, REQUIRED)) {
+            tryToDrain();
+        }
+    }
+
+    private void afterWrite(Runnable task) {
+        writeBuffer.add(task);
+        drainStatus.set(REQUIRED);
+        if (pendingWrites.incrementAndGet() > WRITE_BUFFER_LIMIT) {
+            cleanUp();  // Back-pressure: writers outran maintenance, so this one waits and helps
+        } else {
+            tryToDrain();
+        }
+    }
+
+    // Whoever gets the lock drains; re-check after unlock so no request is left behind
+    private void tryToDrain() {
+        while (drainStatus.get() == REQUIRED && evictionLock.tryLock()) {
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    // ---- Policy: only under evictionLock ----
+
+    private void maintenance() {
+        drainStatus.set(IDLE);
+        sketch.ensureCapacity(Math.min(maximum, data.mappingCount()));
+        readBuffer.drainTo(onAccess);
+        Runnable task;
+        while ((task = writeBuffer.poll()) != null) {
+            pendingWrites.decrementAndGet();
+            task.run();
+        }
+        expireEntries();
+        evictEntries();
+    }
+
+    private void onAdd(CacheNode<K, V> node) {
+        if (node.retired || node.queue != CacheNode.NONE) {
+            return;  // Removed again before we got here
+        }
+        node.policyWeight = node.weight;
+        node.queue = CacheNode.WINDOW;
+        window.linkLast(node);
+        writeOrder.linkLast(node);
+        weightedSize += node.policyWeight;
+        windowWeight += node.policyWeight;
+        sketch.increment(node.key);
+    }
+
+    private void onUpdate(CacheNode<K, V> node) {
+        if (node.queue == CacheNode.NONE) {
+            return;
+        }
+        int delta = node.weight - node.policyWeight;
+        node.policyWeight += delta;
+        weightedSize += delta;
+        if (node.queue == CacheNode.WINDOW) {
+            windowWeight += delta;
+        } else if (node.queue == CacheNode.PROTECTED) {
+            protectedWeight += delta;
+        }
+        writeOrder.moveToBack(node);
+        onAccess(node);
+    }
+
+    private void onRemove(CacheNode<K, V> node) {
+        if (node.queue != CacheNode.NONE) {
+            unlink(node);
+        }
+    }
+
+    private void onAccess(CacheNode<K, V> node) {
+        if (node.queue == CacheNode.NONE) {
+            return;  // Not added yet, or already gone
+        }
+        sketch.increment(node.key);
+        switch (node.queue) {
+            case CacheNode.WINDOW:
+                window.moveToBack(node);
+                break;
+            case CacheNode.PROBATION:
+                // Second chance earned: promote, and demote protected's oldest if it overflows
+                probation.unlink(node);
+                node.queue = CacheNode.PROTECTED;
+                protectedQueue.linkLast(node);
+                protectedWeight += node.policyWeight;
+                while (protectedWeight > protectedMaximum) {
+                    CacheNode<K, V> demoted = protectedQueue.first();
+                    if (demoted == null || demoted == node) {
+                        break;
+                    }
+                    protectedQueue.unlink(demoted);
+                    protectedWeight -= demoted.policyWeight;
+                    demoted.queue = CacheNode.PROBATION;
+                    probation.linkLast(demoted);
+                }
+                break;
+            default:
+                protectedQueue.moveToBack(node);
+                break;
+        }
+    }
+
+    private void expireEntries() {
+        if (expireAfterWriteNanos <= 0) {
+            return;
+        }
+        long now = now();
+        CacheNode<K, V> node;
+        while ((node = writeOrder.first()) != null && isExpired(node, now)) {
+            if (!evict(node, true)) {
+                writeOrder.moveToBack(node);  // A put() refreshed it; its onUpdate is still queued
+            }
+        }
+    }
+
+    private void evictEntries() {
+        // Window overflow: its oldest entries move to probation as admission candidates
+        CacheNode<K, V> candidate = null;
+        while (windowWeight > windowMaximum) {
+            CacheNode<K, V> node = window.first();
+            if (node == null) {
+                break;
+            }
+            window.unlink(node);
+            windowWeight -= node.policyWeight;
+            node.queue = CacheNode.PROBATION;
+            probation.linkLast(node);
+            if (candidate == null) {
+                candidate = node;
+            }
+        }
+
+        // Over the bound: each candidate duels the oldest probation entry (TinyLFU admission)
+        while (weightedSize > maximum) {
+            CacheNode<K, V> victim = probation.first();
+            if (victim == null) {
+                victim = protectedQueue.first() != null ? protectedQueue.first() : window.first();
+                if (victim == null) {
+                    break;
+                }
+                evict(victim, false);
+                continue;
+            }
+            if (candidate == null) {
+                evict(victim, false);
+            } else if (candidate == victim) {
+                candidate = probation.next(candidate);
+                evict(victim, false);
+            } else if (candidate.policyWeight > maximum
+                    || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                CacheNode<K, V> rejected = candidate;
+                candidate = probation.next(candidate);
+                evict(rejected, false);
+            } else {
+                evict(victim, false);
+            }
+        }
+    }
+
+    // Retired under the node's lock while the map still holds it, so a racing put() either
+    // lands first (and an entry evicted for age survives it) or sees retired and re-inserts.
+    // Returns false only when onlyIfExpired and the entry was refreshed meanwhile.
+    private boolean evict(CacheNode<K, V> node, boolean onlyIfExpired) {
+        boolean[] removed = new boolean[1];
+        boolean[] refreshed = new boolean[1];
+        data.computeIfPresent(node.key, (key, current) -> {
+            if (current != node) {
+                return current;
+            }
+            synchronized (node) {
+                if (onlyIfExpired && !isExpired(node, now())) {
+                    refreshed[0] = true;
+                    return node;
+                }
+                node.retired = true;
+            }
+            removed[0] = true;
+            return null;
+        });
+        if (refreshed[0]) {
+            return false;
+        }
+        retire(node);  // Already out of the map: whoever removed it retires it too
+        int weight = node.policyWeight;
+        unlink(node);
+        if (removed[0]) {
+            evictions.increment();
+            evictedWeight.add(weight);
+        }
+        return true;
+    }
+
+    private void unlink(CacheNode<K, V> node) {
+        switch (node.queue) {
+            case CacheNode.WINDOW:
+                window.unlink(node);
+                windowWeight -= node.policyWeight;
+                break;
+            case CacheNode.PROBATION:
+                probation.unlink(node);
+                break;
+            default:
+                protectedQueue.unlink(node);
+                protectedWeight -= node.policyWeight;
+                break;
+        }
+        writeOrder.unlink(node);
+        weightedSize -= node.policyWeight;
+        node.queue = CacheNode.NONE;
+    }
+}
+
+
+// Same cache, with the loader given once at build time
+class LoadingConcurrentCache<K, V> extends ConcurrentCache<K, V> {
+    private final Function<? super K, ? extends V> loader;
+
+    LoadingConcurrentCache(Builder<? super K, ? super V> builder, Function<? super K, ? extends V> loader) {
+        super(builder);
+        this.loader = loader;
+    }
+
+    V get(K key) {
+        return get(key, loader);
+    }
+}
+
+
+// ============================================
+// EXAMPLE 3: ZIPFIAN BENCHMARK
+// ============================================
+
+class ConcurrentCacheBenchmark {
+
+    // The LinkedHashMap example, made bounded and thread-safe the simple way
+    static <K, V> Map<K, V> synchronizedLru(int maximumSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maximumSize;
+            }
+        });
+    }
+
+    // Zipf(theta) over [0, items): rank 0 is the most popular; precomputed so threads only read an array
+    static int[] zipfian(int items, double theta, int samples, long seed) {
+        double[] cumulative = new double[items];
+        double sum = 0;
+        for (int i = 0; i < items; i++) {
+            sum += 1.0 / Math.pow(i + 1, theta);
+            cumulative[i] = sum;
+        }
+        // Scramble ranks, so popular keys are not also neighbouring numbers
+        int[] scramble = new int[items];
+        for (int i = 0; i < items; i++) {
+            scramble[i] = i;
+        }
+        Random random = new Random(seed);
+        for (int i = items - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = scramble[i];
+            scramble[i] = scramble[j];
+            scramble[j] = t;
+        }
+        int[] keys = new int[samples];
+        for (int i = 0; i < samples; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            rank = rank >= 0 ? rank : Math.min(-rank - 1, items - 1);
+            keys[i] = scramble[rank];
+        }
+        return keys;
+    }
+
+    interface CacheOperations {
+        Integer get(Integer key);
+
+        void put(Integer key, Integer value);
+    }
+
+    // Single thread, every miss "loads" the key: what fraction of requests hit?
+    static void hitRates(int[] keys, int[] capacities) {
+        System.out.printf("%-22s %18s %18s%n", "capacity", "LRU (LinkedHashMap)", "W-TinyLFU");
+        for (int capacity : capacities) {
+            Map<Integer, Integer> lru = synchronizedLru(capacity);
+            ConcurrentCache<Integer, Integer> cache = ConcurrentCache.builder().maximumSize(capacity).build();
+            long lruHits = 0;
+            for (int key : keys) {
+                if (lru.get(key) != null) {
+                    lruHits++;
+                } else {
+                    lru.put(key, key);
+                }
+            }
+            for (int key : keys) {
+                cache.get(key, k -> k);
+            }
+            System.out.printf("%-22s %17.1f%% %17.1f%%%n", String.format("%,d", capacity),
+                100.0 * lruHits / keys.length, cache.stats().hitRate() * 100);
+        }
+    }
+
+    // threads x (read, or write with writePercent%) for millis; returns million operations per second
+    static double throughput(CacheOperations cache, int[] keys, int threads, int writePercent, long millis)
+            throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger stop = new AtomicInteger();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int offset = (int) ((long) t * keys.length / threads);
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int i = offset;
+                long count = 0;
+                long sum = 0;
+                while (stop.get() == 0) {
+                    for (int batch = 0; batch < 256; batch++) {
+                        Integer key = keys[i];
+                        if (++i == keys.length) {
+                            i = 0;
+                        }
+                        if ((i & 127) < writePercent * 128 / 100) {
+                            cache.put(key, key);
+                        } else {
+                            Integer value = cache.get(key);
+                            sum += value == null ? 0 : 1;
+                        }
+                    }
+                    count += 256;
+                }
+                operations.add(count);
+                Blackhole.consume(sum);
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        Thread.sleep(millis);
+        stop.set(1);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        return operations.sum() * 1e3 / elapsed;
+    }
+
+    static final String CHILD_FLAG = "--child";
+    private static final int ITEMS = 1_000_000;
+    private static final int CAPACITY = 100_000;
+    private static final String[] IMPLEMENTATIONS = {"lru", "tinylfu", "chm"};
+
+    void run(int threads, long millis) throws Exception {
+        int[] keys = zipfian(ITEMS, 0.99, 1 << 22, 42);
+        System.out.println("\nZipfian(0.99) over " + String.format("%,d", ITEMS) + " keys, "
+            + String.format("%,d", keys.length) + " precomputed requests");
+
+        System.out.println("\nHit rate (1 thread, load on miss):");
+        hitRates(keys, new int[] {1_000, 10_000, 100_000});
+
+        // One JVM per cell: in one JVM, whichever cache runs first gets the best JIT profile
+        System.out.println("\nThroughput, " + threads + " threads, capacity " + String.format("%,d", CAPACITY)
+            + " (million ops/s, fresh JVM per cell, warmup + " + millis + " ms):");
+        System.out.printf("%-22s %12s %12s %15s%n", "workload", "sync LRU", "W-TinyLFU", "CHM (no bound)");
+        for (int writePercent : new int[] {0, 25, 100}) {
+            System.out.printf("%-22s", (100 - writePercent) + "% read / " + writePercent + "% write");
+            for (String implementation : IMPLEMENTATIONS) {
+                System.out.printf(implementation.equals("chm") ? " %15.2f" : " %12.2f",
+                    fork(implementation, writePercent, threads, millis));
+            }
+            System.out.println();
+        }
+    }
+
+    private static double fork(String implementation, int writePercent, int threads, long millis) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(java.lang.management.ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"), "Unit5_ConcurrentCache", CHILD_FLAG,
+            implementation, String.valueOf(writePercent), String.valueOf(threads), String.valueOf(millis)));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes()).trim();
+        if (process.waitFor() != 0 || !output.startsWith("SCORE ")) {
+            throw new IllegalStateException("Fork " + implementation + " failed:\n" + output);
+        }
+        return Double.parseDouble(output.substring("SCORE ".length()));
+    }
+
+    // Entry point of a forked JVM: implementation, write %, threads, millis
+    static void runChild(String[] args) throws InterruptedException {
+        String implementation = args[1];
+        int writePercent = Integer.parseInt(args[2]);
+        int threads = Integer.parseInt(args[3]);
+        long millis = Long.parseLong(args[4]);
+        int[] keys = zipfian(ITEMS, 0.99, 1 << 22, 42);
+
+        CacheOperations operations;
+        ConcurrentCache<Integer, Integer> cache = null;
+        if (implementation.equals("lru")) {
+            operations = operations(synchronizedLru(CAPACITY));
+        } else if (implementation.equals("tinylfu")) {
+            cache = ConcurrentCache.builder().maximumSize(CAPACITY).build();
+            operations = operations(cache);
+        } else {
+            operations = operations(new ConcurrentHashMap<>());
+        }
+        for (int i = 0; i < CAPACITY * 2; i++) {
+            operations.put(keys[i], keys[i]);
+        }
+        throughput(operations, keys, threads, writePercent, Math.max(200, millis / 2));  // Warmup
+        double score = throughput(operations, keys, threads, writePercent, millis);
+        if (cache != null) {
+            cache.cleanUp();
+            if (cache.weightedSize() > CAPACITY) {
+                throw new IllegalStateException("Cache exceeded its bound: " + cache.weightedSize());
+            }
+        }
+        System.out.println("SCORE " + score);
+    }
+
+    private static CacheOperations operations(Map<Integer, Integer> map) {
+        return new CacheOperations() {
+            public Integer get(Integer key) {
+                return map.get(key);
+            }
+
+            public void put(Integer key, Integer value) {
+                map.put(key, value);
+            }
+        };
+    }
+
+    private static CacheOperations operations(ConcurrentCache<Integer, Integer> cache) {
+        return new CacheOperations() {
+            public Integer get(Integer key) {
+                return cache.getIfPresent(key);
+            }
+
+            public void put(Integer key, Integer value) {
+                cache.put(key, value);
+            }
+        };
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit5_ConcurrentCache {
+
+    public static void main(String[] args) throws Exception {
+
+        if (args.length > 0 && args[0].equals(ConcurrentCacheBenchmark.CHILD_FLAG)) {
+            ConcurrentCacheBenchmark.runChild(args);
+            return;
+        }
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 5 (EXTRA): A CONCURRENT CACHE (W-TinyLFU)");
+        System.out.println("=".repeat(70));
+
+
+        // ========== EXAMPLE 1: FROM THE LRU EXAMPLE TO A CACHE ==========
+        System.out.println("\nEXAMPLE 1: linkedHashMapOperations() as a real cache");
+        System.out.println("-".repeat(70));
+
+        concurrentCacheOperations();
+
+
+        // ========== EXAMPLE 2: BENCHMARK ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Synchronized LRU vs W-TinyLFU");
+        System.out.println("-".repeat(70));
+
+        new ConcurrentCacheBenchmark().run(threads, millis);
+        System.out.println();
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("CONCURRENT CACHE SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  Reads          : ConcurrentHashMap + lossy striped buffer, no lock");
+        System.out.println("  Writes         : Map first, policy replayed in batches under tryLock");
+        System.out.println("  W-TinyLFU      : Window LRU + segmented LRU + frequency-based admission");
+        System.out.println("  Bounds         : maximumSize or maximumWeight with a Weigher");
+        System.out.println("  TTL / loading  : expireAfterWrite, get(key, loader), one load per key");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // MapExample Method 2b: The LRU idea as a bounded, thread-safe cache (run by Unit5_Collections too)
+    static void concurrentCacheOperations() {
+        System.out.println("\n=== ConcurrentCache Operations ===");
+        System.out.println("Implementation: ConcurrentHashMap + W-TinyLFU eviction policy");
+        System.out.println("Bound: maximumSize (or maximumWeight), TTL: expireAfterWrite");
+        System.out.println();
+
+        // Size bound: popular keys survive, one-hit wonders are not admitted
+        ConcurrentCache<String, Integer> cache = ConcurrentCache.builder().maximumSize(3).build();
+        cache.put("A", 1);
+        cache.put("B", 2);
+        cache.put("C", 3);
+        cache.getIfPresent("A");
+        cache.getIfPresent("A");
+        cache.getIfPresent("A");  // A is popular now
+        cache.put("D", 4);
+        cache.put("E", 5);
+        cache.cleanUp();
+
+        System.out.println("After put A, B, C, reading A 3 times, put D, E (maximumSize 3):");
+        for (String key : new String[] {"A", "B", "C", "D", "E"}) {
+            System.out.println("  " + key + " -> " + cache.getIfPresent(key));
+        }
+        System.out.println("Size: " + cache.estimatedSize());
+        System.out.println("Note: A stayed (frequent); C and D lost the admission duel against B");
+
+        // TTL with a manual clock, so the example does not have to sleep
+        System.out.println("\n--- expireAfterWrite(10 minutes) ---");
+        long[] now = {0};
+        ConcurrentCache<String, String> sessions = ConcurrentCache.builder()
+            .maximumSize(100)
+            .expireAfterWrite(java.time.Duration.ofMinutes(10))
+            .ticker(() -> now[0])
+            .build();
+        sessions.put("alice", "session-1");
+        System.out.println("At 0 min: " + sessions.getIfPresent("alice"));
+        now[0] += java.time.Duration.ofMinutes(11).toNanos();
+        System.out.println("At 11 min: " + sessions.getIfPresent("alice") + " (expired)");
+
+        // Loading: a miss calls the loader once, later calls hit
+        System.out.println("\n--- Loading cache ---");
+        LoadingConcurrentCache<Integer, String> squares = ConcurrentCache.builder()
+            .maximumSize(100)
+            .build(n -> {
+                System.out.println("  Loading " + n + "...");
+                return String.valueOf(n * n);
+            });
+        System.out.println("get(12) = " + squares.get(12));
+        System.out.println("get(12) = " + squares.get(12) + " (no load this time)");
+
+        System.out.println("\nStats: " + cache.stats());
+        System.out.println("Loading stats: " + squares.stats());
+        System.out.println();
+    }
+}
@@ -569,6 +569,7 @@ public class Unit5_IteratorsGenerics {
         iterExample.listIterator();
         iterExample.iterationMethods();
         iterExample.failFastBehavior();
+        Unit5_PrimitiveCollections.failFastBehaviorPrimitive();
         
         
         // ========== EXAMPLE 2: GENERICS ==========
@@ -605,6 +606,7 @@ public class Unit5_IteratorsGenerics {
         System.out.println("  Enhanced for    : Simple syntax, no remove");
         System.out.println("  forEach lambda  : Functional style (Java 8+)");
         System.out.println("  Fail-fast       : ConcurrentModificationException");
+        System.out.println("  IntIterator     : nextInt() without boxing, same fail-fast rules");
         System.out.println("\nGENERICS:");
         System.out.println("  Type parameters : <T>, <E>, <K,V>");
         System.out.println("  Generic class   : class Box<T>");
@@ -0,0 +1,677 @@
+/*
+ * UNIT 5 (EXTRA): BENCHMARKING LISTS PROPERLY
+ *
+ * compareListPerformance() times 100,000 adds once, with no warmup, and calls
+ * that proof. The first loop runs in the interpreter, the second one gets the
+ * JIT, and the "winner" is whoever went last. Stopwatch benchmarks: 0, JIT: 1. ⏱️
+ *
+ * THEORY:
+ *
+ * WHAT A HARNESS DOES (the JMH recipe, by hand):
+ *   - WARMUP iterations     : Run the code until the JIT has compiled it, then throw the numbers away
+ *   - MEASUREMENT iterations: Fixed TIME per iteration (not fixed count) -> score = ns per operation
+ *   - FORKS                 : Every benchmark in a fresh JVM, so one benchmark's JIT profile
+ *                             (e.g. "this List call site is always ArrayList") cannot help or hurt the next
+ *   - BLACKHOLE             : Results are consumed, so the JIT cannot delete the work as dead code
+ *   - SETUP outside timing  : Building the list for get() is not part of get()'s score
+ *   - ERROR                 : Scores vary between iterations and forks -> report mean +- 99.9% interval
+ *
+ * OPERATIONS (what one "op" means):
+ *   add                  -> one add() at the end while building a list of N
+ *   insertMiddle         -> one add(N/2, x) + remove(N/2) pair (size stays N)
+ *   randomGet            -> one get(random index)
+ *   iterate              -> one element visited by for-each
+ *   removeWhileIterating -> one element visited while Iterator.remove() drops every other one
+ *   subList              -> one subList(N/4, N/4 + 100) view, summed
+ *
+ * ArrayDeque is not a List: no get(i), no add(i, x), no subList -> those are "n/a".
+ * removeWhileIterating on array-backed lists is O(N^2) -> skipped above 100,000.
+ *
+ * OUTPUT: <prefix>.csv and <prefix>.json, one row per (implementation, operation, size),
+ * so two runs (two releases, two JVMs) can be diffed by a script.
+ */
+
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+
+
+// ============================================
+// EXAMPLE 1: THE HARNESS PIECES
+// ============================================
+
+// Blackhole, BenchmarkInvocation and BenchmarkRunner live in their own files: the other
+// Unit 5 benchmarks use them too
+
+
+enum ListKind {
+    ARRAY_LIST("ArrayList", true),
+    LINKED_LIST("LinkedList", false),
+    VECTOR("Vector", true),
+    ARRAY_DEQUE("ArrayDeque", false);
+
+    final String displayName;
+    final boolean randomAccess;
+
+    ListKind(String displayName, boolean randomAccess) {
+        this.displayName = displayName;
+        this.randomAccess = randomAccess;
+    }
+
+    Collection<Integer> create() {
+        switch (this) {
+            case ARRAY_LIST:
+                return new ArrayList<>();
+            case LINKED_LIST:
+                return new LinkedList<>();
+            case VECTOR:
+                return new Vector<>();
+            default:
+                return new ArrayDeque<>();
+        }
+    }
+
+    Collection<Integer> filled(int size) {
+        Collection<Integer> collection = create();
+        for (int i = 0; i < size; i++) {
+            collection.add(i);
+        }
+        return collection;
+    }
+
+    Collection<Integer> copyOf(Collection<Integer> source) {
+        Collection<Integer> copy = create();
+        copy.addAll(source);
+        return copy;
+    }
+
+    boolean isList() {
+        return this != ARRAY_DEQUE;
+    }
+}
+
+
+enum ListOperation {
+    ADD("add"),
+    INSERT_MIDDLE("insertMiddle"),
+    RANDOM_GET("randomGet"),
+    ITERATE("iterate"),
+    REMOVE_WHILE_ITERATING("removeWhileIterating"),
+    SUB_LIST("subList");
+
+    static final int REMOVE_WHILE_ITERATING_LIMIT = 100_000;
+    static final int SUB_LIST_LENGTH = 100;
+
+    final String displayName;
+
+    ListOperation(String displayName) {
+        this.displayName = displayName;
+    }
+
+    static ListOperation byName(String name) {
+        for (ListOperation operation : values()) {
+            if (operation.displayName.equalsIgnoreCase(name) || operation.name().equalsIgnoreCase(name)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + name);
+    }
+
+    // null when the combination can be measured, otherwise why it is not
+    String skipReason(ListKind kind, int size) {
+        if (!kind.isList() && (this == INSERT_MIDDLE || this == RANDOM_GET || this == SUB_LIST)) {
+            return "n/a";
+        }
+        if (this == REMOVE_WHILE_ITERATING && kind != ListKind.LINKED_LIST && size > REMOVE_WHILE_ITERATING_LIMIT) {
+            return "O(n^2)";
+        }
+        return null;
+    }
+
+    // Small sizes repeat the work, so one timed call is never just a few nanoseconds
+    private static int repeats(int size) {
+        return Math.max(1, 1024 / Math.max(1, size));
+    }
+
+    BenchmarkInvocation prepare(ListKind kind, int size) {
+        switch (this) {
+            case ADD:
+                return add(kind, size);
+            case INSERT_MIDDLE:
+                return insertMiddle((List<Integer>) kind.filled(size), size);
+            case RANDOM_GET:
+                return randomGet((List<Integer>) kind.filled(size), kind.randomAccess, size);
+            case ITERATE:
+                return iterate(kind.filled(size), size);
+            case REMOVE_WHILE_ITERATING:
+                return removeWhileIterating(kind, kind.filled(size), size);
+            default:
+                return subList((List<Integer>) kind.filled(size), size);
+        }
+    }
+
+    private static BenchmarkInvocation add(ListKind kind, int size) {
+        int repeats = repeats(size);
+        return new BenchmarkInvocation() {
+            long run() {
+                for (int r = 0; r < repeats; r++) {
+                    Collection<Integer> collection = kind.create();
+                    for (int i = 0; i < size; i++) {
+                        collection.add(i);
+                    }
+                    Blackhole.consume(collection);
+                }
+                return (long) repeats * size;
+            }
+        };
+    }
+
+    private static BenchmarkInvocation insertMiddle(List<Integer> list, int size) {
+        int pairs = size >= 1_000_000 ? 1 : 64;
+        Integer value = -1;
+        return new BenchmarkInvocation() {
+            long run() {
+                int middle = list.size() / 2;
+                for (int i = 0; i < pairs; i++) {
+                    list.add(middle, value);
+                    Blackhole.consume(list.remove(middle));
+                }
+                return pairs;
+            }
+        };
+    }
+
+    private static BenchmarkInvocation randomGet(List<Integer> list, boolean randomAccess, int size) {
+        // LinkedList.get walks up to N/2 nodes: fewer calls per invocation keep it inside one iteration
+        int count = randomAccess ? 1024 : Math.max(1, Math.min(1024, 100_000 / size));
+        int[] indexes = new Random(42).ints(count, 0, size).toArray();
+        return new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                for (int index : indexes) {
+                    sum += list.get(index);
+                }
+                Blackhole.consume(sum);
+                return indexes.length;
+            }
+        };
+    }
+
+    private static BenchmarkInvocation iterate(Collection<Integer> collection, int size) {
+        int repeats = repeats(size);
+        return new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                for (int r = 0; r < repeats; r++) {
+                    for (Integer value : collection) {
+                        sum += value;
+                    }
+                }
+                Blackhole.consume(sum);
+                return (long) repeats * size;
+            }
+        };
+    }
+
+    private static BenchmarkInvocation removeWhileIterating(ListKind kind, Collection<Integer> source, int size) {
+        int repeats = repeats(size);
+        List<Collection<Integer>> copies = new ArrayList<>(repeats);
+        return new BenchmarkInvocation() {
+            void setup() {
+                copies.clear();
+                for (int r = 0; r < repeats; r++) {
+                    copies.add(kind.copyOf(source));
+                }
+            }
+
+            long run() {
+                for (Collection<Integer> copy : copies) {
+                    Iterator<Integer> iterator = copy.iterator();
+                    while (iterator.hasNext()) {
+                        if ((iterator.next() & 1) == 0) {
+                            iterator.remove();
+                        }
+                    }
+                    Blackhole.consume(copy.size());
+                }
+                return (long) repeats * size;
+            }
+        };
+    }
+
+    private static BenchmarkInvocation subList(List<Integer> list, int size) {
+        int from = size / 4;
+        int to = from + Math.min(SUB_LIST_LENGTH, size - from);
+        int views = size >= 1_000_000 ? 1 : 64;
+        return new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                for (int v = 0; v < views; v++) {
+                    for (Integer value : list.subList(from, to)) {
+                        sum += value;
+                    }
+                }
+                Blackhole.consume(sum);
+                return views;
+            }
+        };
+    }
+}
+
+
+class ListBenchmarkResult {
+    final ListKind kind;
+    final ListOperation operation;
+    final int size;
+    final String skipped;
+    final double[] scores;  // ns/op, one per measurement iteration, all forks together
+    final int forks;
+
+    ListBenchmarkResult(ListKind kind, ListOperation operation, int size, String skipped, double[] scores, int forks) {
+        this.kind = kind;
+        this.operation = operation;
+        this.size = size;
+        this.skipped = skipped;
+        this.scores = scores;
+        this.forks = forks;
+    }
+
+    double mean() {
+        double sum = 0;
+        for (double score : scores) {
+            sum += score;
+        }
+        return scores.length == 0 ? Double.NaN : sum / scores.length;
+    }
+
+    // Half-width of the 99.9% interval (normal approximation), like JMH's "Error" column
+    double error() {
+        if (scores.length < 2) {
+            return Double.NaN;
+        }
+        double mean = mean();
+        double squares = 0;
+        for (double score : scores) {
+            squares += (score - mean) * (score - mean);
+        }
+        double stddev = Math.sqrt(squares / (scores.length - 1));
+        return 3.291 * stddev / Math.sqrt(scores.length);
+    }
+}
+
+
+// BenchmarkRunner's in-JVM measurement, plus forks and the list operations
+class ListBenchmarkRunner extends BenchmarkRunner {
+    static final String CHILD_FLAG = "--child";
+    private static final String SCORE_PREFIX = "SCORE ";
+
+    final int forks;  // 0 = run inside this JVM
+
+    ListBenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis, int forks) {
+        super(warmupIterations, measurementIterations, iterationMillis);
+        this.forks = forks;
+    }
+
+    ListBenchmarkResult run(ListKind kind, ListOperation operation, int size) throws IOException, InterruptedException {
+        String skipped = operation.skipReason(kind, size);
+        if (skipped != null) {
+            return new ListBenchmarkResult(kind, operation, size, skipped, new double[0], 0);
+        }
+        if (forks == 0) {
+            return new ListBenchmarkResult(kind, operation, size, null, measure(kind, operation, size), 0);
+        }
+        double[] scores = new double[0];
+        for (int fork = 0; fork < forks; fork++) {
+            double[] forkScores = fork(kind, operation, size);
+            double[] all = Arrays.copyOf(scores, scores.length + forkScores.length);
+            System.arraycopy(forkScores, 0, all, scores.length, forkScores.length);
+            scores = all;
+        }
+        return new ListBenchmarkResult(kind, operation, size, null, scores, forks);
+    }
+
+    // Warmup + measurement in this JVM; returns ns/op per measurement iteration
+    double[] measure(ListKind kind, ListOperation operation, int size) {
+        return measure(operation.prepare(kind, size));
+    }
+
+    // Same measurement in a fresh JVM: no JIT profile or heap state from earlier benchmarks
+    private double[] fork(ListKind kind, ListOperation operation, int size) throws IOException, InterruptedException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("Unit5_ListBenchmark");
+        command.add(CHILD_FLAG);
+        command.add(kind.name());
+        command.add(operation.name());
+        command.add(String.valueOf(size));
+        command.add(String.valueOf(warmupIterations));
+        command.add(String.valueOf(measurementIterations));
+        command.add(String.valueOf(iterationMillis));
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        List<Double> scores = new ArrayList<>();
+        StringBuilder other = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(SCORE_PREFIX)) {
+                    scores.add(Double.parseDouble(line.substring(SCORE_PREFIX.length())));
+                } else {
+                    other.append(line).append('\n');
+                }
+            }
+        }
+        int exit = process.waitFor();
+        if (exit != 0 || scores.size() != measurementIterations) {
+            throw new IOException("Fork for " + kind.displayName + "." + operation.displayName + " (" + size
+                + ") failed with exit code " + exit + ":\n" + other);
+        }
+        double[] result = new double[scores.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = scores.get(i);
+        }
+        return result;
+    }
+
+    // Entry point of a forked JVM: args after CHILD_FLAG
+    static void runChild(String[] args) {
+        ListKind kind = ListKind.valueOf(args[1]);
+        ListOperation operation = ListOperation.valueOf(args[2]);
+        int size = Integer.parseInt(args[3]);
+        ListBenchmarkRunner runner = new ListBenchmarkRunner(Integer.parseInt(args[4]), Integer.parseInt(args[5]),
+            Long.parseLong(args[6]), 0);
+        for (double score : runner.measure(kind, operation, size)) {
+            System.out.println(SCORE_PREFIX + score);
+        }
+    }
+}
+
+
+class ListBenchmarkReport {
+    static final String CSV_HEADER = "implementation,operation,size,score_ns_per_op,error_ns_per_op,samples,forks,status";
+
+    private final List<ListBenchmarkResult> results;
+
+    ListBenchmarkReport(List<ListBenchmarkResult> results) {
+        this.results = results;
+    }
+
+    void writeCsv(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            for (ListBenchmarkResult r : results) {
+                writer.write(String.join(",", r.kind.displayName, r.operation.displayName, String.valueOf(r.size),
+                    number(r.mean()), number(r.error()), String.valueOf(r.scores.length), String.valueOf(r.forks),
+                    r.skipped == null ? "ok" : "skipped " + r.skipped));
+                writer.newLine();
+            }
+        }
+    }
+
+    void writeJson(Path file, ListBenchmarkRunner runner) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("{\n");
+            writer.write("  \"timestamp\": \"" + Instant.now() + "\",\n");
+            writer.write("  \"jvm\": \"" + System.getProperty("java.vm.name") + " "
+                + System.getProperty("java.version") + "\",\n");
+            writer.write("  \"processors\": " + Runtime.getRuntime().availableProcessors() + ",\n");
+            writer.write("  \"warmupIterations\": " + runner.warmupIterations + ",\n");
+            writer.write("  \"measurementIterations\": " + runner.measurementIterations + ",\n");
+            writer.write("  \"iterationMillis\": " + runner.iterationMillis + ",\n");
+            writer.write("  \"forks\": " + runner.forks + ",\n");
+            writer.write("  \"unit\": \"ns/op\",\n");
+            writer.write("  \"results\": [\n");
+            for (int i = 0; i < results.size(); i++) {
+                ListBenchmarkResult r = results.get(i);
+                writer.write("    {\"implementation\": \"" + r.kind.displayName + "\", \"operation\": \""
+                    + r.operation.displayName + "\", \"size\": " + r.size);
+                if (r.skipped != null) {
+                    writer.write(", \"skipped\": \"" + r.skipped + "\"}");
+                } else {
+                    writer.write(", \"score\": " + jsonNumber(r.mean()) + ", \"error\": " + jsonNumber(r.error())
+                        + ", \"samples\": " + Arrays.toString(r.scores) + "}");
+                }
+                writer.write(i + 1 < results.size() ? ",\n" : "\n");
+            }
+            writer.write("  ]\n}\n");
+        }
+    }
+
+    // One table per operation: rows = sizes, columns = implementations
+    void printTable(List<ListKind> kinds) {
+        Map<ListOperation, Map<Integer, Map<ListKind, ListBenchmarkResult>>> byOperation = new EnumMap<>(ListOperation.class);
+        for (ListBenchmarkResult r : results) {
+            byOperation.computeIfAbsent(r.operation, o -> new TreeMap<>())
+                .computeIfAbsent(r.size, s -> new EnumMap<>(ListKind.class))
+                .put(r.kind, r);
+        }
+        for (Map.Entry<ListOperation, Map<Integer, Map<ListKind, ListBenchmarkResult>>> operation : byOperation.entrySet()) {
+            System.out.printf("%n%-20s", operation.getKey().displayName);
+            for (ListKind kind : kinds) {
+                System.out.printf(" %20s", kind.displayName);
+            }
+            System.out.println("   (ns/op)");
+            for (Map.Entry<Integer, Map<ListKind, ListBenchmarkResult>> row : operation.getValue().entrySet()) {
+                System.out.printf("  %,18d", row.getKey());
+                for (ListKind kind : kinds) {
+                    ListBenchmarkResult r = row.getValue().get(kind);
+                    System.out.printf(" %20s", r == null ? "" : cell(r));
+                }
+                System.out.println();
+            }
+        }
+    }
+
+    private static String cell(ListBenchmarkResult r) {
+        if (r.skipped != null) {
+            return r.skipped;
+        }
+        double error = r.error();
+        return Double.isNaN(error) ? format(r.mean()) : format(r.mean()) + " +- " + format(error);
+    }
+
+    private static String format(double nanos) {
+        return nanos >= 100 ? String.format("%,.0f", nanos) : String.format("%.2f", nanos);
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    private static String jsonNumber(double value) {
+        return Double.isNaN(value) ? "null" : String.format(Locale.ROOT, "%.4f", value);
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: THE SUITE
+// ============================================
+
+class ListBenchmarkSuite {
+    static final int[] DEFAULT_SIZES = {10, 1_000, 100_000, 10_000_000};
+
+    int[] sizes = DEFAULT_SIZES;
+    List<ListKind> kinds = Arrays.asList(ListKind.values());
+    List<ListOperation> operations = Arrays.asList(ListOperation.values());
+    int warmupIterations = 3;
+    int measurementIterations = 5;
+    long iterationMillis = 100;
+    int forks = 1;
+    String outputPrefix = "list_benchmark";
+
+    // --sizes 10,1000 --impls ArrayList,LinkedList --ops add,randomGet --warmup 3 --iterations 5
+    // --time 100 --forks 1 --out list_benchmark
+    static ListBenchmarkSuite fromArgs(String[] args) {
+        ListBenchmarkSuite suite = new ListBenchmarkSuite();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--sizes":
+                    suite.sizes = Arrays.stream(value.split(",")).map(s -> s.trim().replace("_", ""))
+                        .mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "--impls":
+                    suite.kinds = new ArrayList<>();
+                    for (String name : value.split(",")) {
+                        suite.kinds.add(kindByName(name.trim()));
+                    }
+                    break;
+                case "--ops":
+                    suite.operations = new ArrayList<>();
+                    for (String name : value.split(",")) {
+                        suite.operations.add(ListOperation.byName(name.trim()));
+                    }
+                    break;
+                case "--warmup":
+                    suite.warmupIterations = Integer.parseInt(value);
+                    break;
+                case "--iterations":
+                    suite.measurementIterations = Integer.parseInt(value);
+                    break;
+                case "--time":
+                    suite.iterationMillis = Long.parseLong(value);
+                    break;
+                case "--forks":
+                    suite.forks = Integer.parseInt(value);
+                    break;
+                case "--out":
+                    suite.outputPrefix = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        return suite;
+    }
+
+    private static ListKind kindByName(String name) {
+        for (ListKind kind : ListKind.values()) {
+            if (kind.displayName.equalsIgnoreCase(name) || kind.name().equalsIgnoreCase(name)) {
+                return kind;
+            }
+        }
+        throw new IllegalArgumentException("Unknown implementation: " + name);
+    }
+
+    ListBenchmarkReport run() throws IOException, InterruptedException {
+        ListBenchmarkRunner runner = runner();
+        List<ListBenchmarkResult> results = new ArrayList<>();
+        for (ListOperation operation : operations) {
+            for (int size : sizes) {
+                for (ListKind kind : kinds) {
+                    ListBenchmarkResult result = runner.run(kind, operation, size);
+                    results.add(result);
+                    System.out.printf("  %-22s %-10s %,12d  %s%n", operation.displayName, kind.displayName, size,
+                        result.skipped != null ? "skipped (" + result.skipped + ")"
+                            : String.format("%.2f ns/op", result.mean()));
+                }
+            }
+        }
+        return new ListBenchmarkReport(results);
+    }
+
+    ListBenchmarkRunner runner() {
+        return new ListBenchmarkRunner(warmupIterations, measurementIterations, iterationMillis, forks);
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit5_ListBenchmark {
+
+    public static void main(String[] args) throws Exception {
+
+        if (args.length > 0 && args[0].equals(ListBenchmarkRunner.CHILD_FLAG)) {
+            ListBenchmarkRunner.runChild(args);
+            return;
+        }
+        ListBenchmarkSuite suite = ListBenchmarkSuite.fromArgs(args);
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 5 (EXTRA): BENCHMARKING LISTS PROPERLY");
+        System.out.println("=".repeat(70));
+
+
+        // ========== EXAMPLE 1: SAME QUESTION, MEASURED ==========
+        System.out.println("\nEXAMPLE 1: compareListPerformance(), measured");
+        System.out.println("-".repeat(70));
+
+        compareListPerformanceMeasured();
+
+
+        // ========== EXAMPLE 2: FULL SUITE ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Full Suite (" + suite.forks + " fork(s), " + suite.warmupIterations + " warmup + "
+            + suite.measurementIterations + " x " + suite.iterationMillis + " ms iterations)");
+        System.out.println("-".repeat(70));
+
+        ListBenchmarkReport report = suite.run();
+        report.printTable(suite.kinds);
+
+        Path csv = Paths.get(suite.outputPrefix + ".csv");
+        Path json = Paths.get(suite.outputPrefix + ".json");
+        report.writeCsv(csv);
+        report.writeJson(json, suite.runner());
+        System.out.println("\nResults written to " + csv.toAbsolutePath() + " and " + json.toAbsolutePath());
+        System.out.println();
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("LIST BENCHMARK SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  Warmup       : JIT compiles first, numbers from then on");
+        System.out.println("  Time-boxed   : Score = ns per operation, not ms per loop");
+        System.out.println("  Forks        : Fresh JVM per benchmark, no shared JIT profile");
+        System.out.println("  Blackhole    : Results consumed, no dead-code elimination");
+        System.out.println("  CSV / JSON   : One row per implementation/operation/size, diffable");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // ListExample Method 3b: compareListPerformance() with warmup and ns/op scores (run by Unit5_Collections too)
+    static void compareListPerformanceMeasured() {
+        System.out.println("\n=== ArrayList vs LinkedList, Measured ===");
+        System.out.println("2 warmup + 3 measured iterations of 50 ms each, scores in ns per operation");
+        System.out.println();
+
+        int size = 100000;
+        ListBenchmarkRunner runner = new ListBenchmarkRunner(2, 3, 50, 0);
+        ListOperation[] operations = {ListOperation.ADD, ListOperation.RANDOM_GET, ListOperation.INSERT_MIDDLE};
+
+        System.out.printf("%-14s %12s %12s%n", "Operation", "ArrayList", "LinkedList");
+        for (ListOperation operation : operations) {
+            double arrayList = mean(runner.measure(ListKind.ARRAY_LIST, operation, size));
+            double linkedList = mean(runner.measure(ListKind.LINKED_LIST, operation, size));
+            System.out.printf("%-14s %12.1f %12.1f%n", operation.displayName, arrayList, linkedList);
+        }
+
+        System.out.println("\nConclusion (" + size + " elements):");
+        System.out.println("- ArrayList: Wins add and get; insert in the middle is one arraycopy");
+        System.out.println("- LinkedList: Insert in the middle must first WALK to the middle");
+        System.out.println();
+    }
+
+
+    private static double mean(double[] scores) {
+        double sum = 0;
+        for (double score : scores) {
+            sum += score;
+        }
+        return sum / scores.length;
+    }
+}
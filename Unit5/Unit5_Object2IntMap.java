@@ -0,0 +1,637 @@
+/*
+ * UNIT 5 (EXTRA): OBJECT-TO-int MAP FOR SCORE TABLES
+ *
+ * scores.merge("Bob", 5, Integer::sum) reads like one addition. Under the hood it
+ * unboxes 87, adds 5, boxes 92 into a brand new Integer, and the old one becomes
+ * garbage. Ten million updates = ten million little presents for the garbage collector. 🎁
+ *
+ * THEORY:
+ *
+ * HashMap<String, Integer> per entry (64-bit JVM, compressed references):
+ *   - HashMap.Node  : 32 bytes (header, hash, key, value, next)
+ *   - Integer value : 16 bytes (only -128..127 are cached)
+ *   - table slot    :  4 bytes / 0.75 load factor
+ *   -> ~53 bytes before counting the key String itself
+ *
+ * Object2IntMap (open addressing, linear probing):
+ *   - Three parallel arrays: Object[] keys, int[] hashes, int[] values
+ *   - 12 bytes per slot / 0.75 load factor -> ~16 bytes per entry, zero objects per entry
+ *   - Collision: try the next slot (pos + 1), which is usually in the same cache line
+ *   - Cached hash: a slot with a different hash is skipped without calling equals()
+ *   - Delete: backward shift (no tombstones), like IntHashSet
+ *
+ * PRIMITIVE UPDATES (nothing allocated):
+ *   addTo(key, 5)                   -> merge(key, 5, Integer::sum)
+ *   putIfAbsent(key, 90)            -> putIfAbsent(key, 90)
+ *   compute(key, (k, v) -> v + 2)   -> compute(key, (k, v) -> v + 2)
+ *   getInt(key)                     -> get(key), but "absent" is defaultReturnValue, not null
+ *
+ * ITERATION: forEach((key, value) -> ...) or a Cursor (next/key/value/setValue):
+ * no Map.Entry object per element.
+ */
+
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ObjIntConsumer;
+
+
+// ============================================
+// EXAMPLE 1: THE MAP
+// ============================================
+
+@FunctionalInterface
+interface KeyIntFunction<K> {
+    int apply(K key, int value);
+}
+
+
+class Object2IntMap<K> {
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private Object[] keys;       // null = free slot (so null keys are not allowed)
+    private int[] hashes;
+    private int[] values;
+    private int mask;
+    private int maxFill;
+    private int size;
+    private int modCount;
+    private final int defaultReturnValue;
+
+    Object2IntMap() {
+        this(16, 0);
+    }
+
+    Object2IntMap(int expectedSize) {
+        this(expectedSize, 0);
+    }
+
+    // defaultReturnValue: what getInt/put/remove return for a missing key (HashMap would return null)
+    Object2IntMap(int expectedSize, int defaultReturnValue) {
+        this.defaultReturnValue = defaultReturnValue;
+        int capacity = Math.max(4, Integer.highestOneBit((int) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR) - 1) << 1);
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        hashes = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        maxFill = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+
+    // String.hashCode() of "student-1", "student-2"... differ only in the low bits: spread them
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Slot holding key, or -(free slot) - 1
+    private int find(Object key, int hash) {
+        int pos = hash & mask;
+        Object current;
+        while ((current = keys[pos]) != null) {
+            if (hashes[pos] == hash && (current == key || current.equals(key))) {
+                return pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -pos - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int defaultReturnValue() {
+        return defaultReturnValue;
+    }
+
+    int getInt(K key) {
+        int pos = find(key, hash(key));
+        return pos >= 0 ? values[pos] : defaultReturnValue;
+    }
+
+    int getOrDefault(K key, int defaultValue) {
+        int pos = find(key, hash(key));
+        return pos >= 0 ? values[pos] : defaultValue;
+    }
+
+    boolean containsKey(K key) {
+        return find(key, hash(key)) >= 0;
+    }
+
+    boolean containsValue(int value) {
+        for (int pos = 0; pos < keys.length; pos++) {
+            if (keys[pos] != null && values[pos] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns the previous value, or defaultReturnValue
+    int put(K key, int value) {
+        int hash = hash(key);
+        int pos = find(key, hash);
+        if (pos >= 0) {
+            int old = values[pos];
+            values[pos] = value;
+            return old;
+        }
+        insert(-pos - 1, key, hash, value);
+        return defaultReturnValue;
+    }
+
+    // Returns the existing value, or defaultReturnValue if value was stored
+    int putIfAbsent(K key, int value) {
+        int hash = hash(key);
+        int pos = find(key, hash);
+        if (pos >= 0) {
+            return values[pos];
+        }
+        insert(-pos - 1, key, hash, value);
+        return defaultReturnValue;
+    }
+
+    // value += increment (a missing key starts at defaultReturnValue); returns the old value
+    int addTo(K key, int increment) {
+        int hash = hash(key);
+        int pos = find(key, hash);
+        if (pos >= 0) {
+            int old = values[pos];
+            values[pos] = old + increment;
+            return old;
+        }
+        insert(-pos - 1, key, hash, defaultReturnValue + increment);
+        return defaultReturnValue;
+    }
+
+    // Like Map.merge: value if absent, otherwise function(old, value); returns the new value
+    int merge(K key, int value, IntBinaryOperator function) {
+        int hash = hash(key);
+        int pos = find(key, hash);
+        if (pos >= 0) {
+            return values[pos] = function.applyAsInt(values[pos], value);
+        }
+        insert(-pos - 1, key, hash, value);
+        return value;
+    }
+
+    // Like Map.compute, but a missing key is passed as defaultReturnValue and the result is always stored
+    int compute(K key, KeyIntFunction<? super K> function) {
+        int hash = hash(key);
+        int pos = find(key, hash);
+        if (pos >= 0) {
+            return values[pos] = function.apply(key, values[pos]);
+        }
+        int value = function.apply(key, defaultReturnValue);
+        insert(-pos - 1, key, hash, value);
+        return value;
+    }
+
+    // Returns the removed value, or defaultReturnValue
+    int removeInt(K key) {
+        int pos = find(key, hash(key));
+        if (pos < 0) {
+            return defaultReturnValue;
+        }
+        int old = values[pos];
+        shiftKeys(pos);
+        size--;
+        modCount++;
+        return old;
+    }
+
+    void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+        modCount++;
+    }
+
+    private void insert(int pos, Object key, int hash, int value) {
+        keys[pos] = key;
+        hashes[pos] = hash;
+        values[pos] = value;
+        modCount++;
+        if (++size > maxFill) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    // Backward-shift deletion, as in IntHashSet
+    private void shiftKeys(int pos) {
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            while (true) {
+                if (keys[pos] == null) {
+                    keys[last] = null;
+                    return;
+                }
+                int ideal = hashes[pos] & mask;
+                if (last <= pos ? (last >= ideal || ideal > pos) : (last >= ideal && ideal > pos)) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = keys[pos];
+            hashes[last] = hashes[pos];
+            values[last] = values[pos];
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        Object[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int pos = oldHashes[i] & mask;
+                while (keys[pos] != null) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = oldKeys[i];
+                hashes[pos] = oldHashes[i];
+                values[pos] = oldValues[i];
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(ObjIntConsumer<? super K> action) {
+        int expected = modCount;
+        for (int pos = 0; pos < keys.length; pos++) {
+            if (keys[pos] != null) {
+                action.accept((K) keys[pos], values[pos]);
+            }
+        }
+        if (modCount != expected) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    // while (cursor.next()) { cursor.key(); cursor.value(); } - one object for the whole walk
+    final class Cursor {
+        private int pos = -1;
+        private final int expectedModCount = modCount;
+
+        boolean next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            while (++pos < keys.length) {
+                if (keys[pos] != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        K key() {
+            return (K) keys[pos];
+        }
+
+        int value() {
+            return values[pos];
+        }
+
+        // Not a structural change: allowed while walking
+        void setValue(int value) {
+            values[pos] = value;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((key, value) -> sb.append(sb.length() == 1 ? "" : ", ").append(key).append('=').append(value));
+        return sb.append('}').toString();
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: HashMap<String, Integer> vs Object2IntMap<String>
+// ============================================
+
+class Object2IntMapBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static double mean(double[] scores) {
+        double sum = 0;
+        for (double score : scores) {
+            sum += score;
+        }
+        return sum / scores.length;
+    }
+
+    private static void row(String label, double boxed, double primitive, String format) {
+        System.out.printf("%-30s " + format + " " + format + " %8.1fx%n", label, boxed, primitive, boxed / primitive);
+    }
+
+    void run(int n, int updates) {
+        String[] names = new String[n];
+        for (int i = 0; i < n; i++) {
+            names[i] = "student-" + i;
+        }
+        int[] stream = new Random(42).ints(updates, 0, n).toArray();
+
+        // Both maps share the same key Strings, so this is the map's own overhead
+        System.out.println("\nMemory (" + String.format("%,d", n) + " keys, key Strings not counted)");
+        System.out.printf("%-30s %12s %12s %9s%n", "", "HashMap", "O2IntMap", "saving");
+        double boxedBytes = BenchmarkRunner.bytesPerElement(n, () -> {
+            HashMap<String, Integer> map = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                map.put(names[i], 1000 + i);
+            }
+            return map;
+        });
+        double primitiveBytes = BenchmarkRunner.bytesPerElement(n, () -> {
+            Object2IntMap<String> map = new Object2IntMap<>();
+            for (int i = 0; i < n; i++) {
+                map.put(names[i], 1000 + i);
+            }
+            return map;
+        });
+        row("bytes / entry", boxedBytes, primitiveBytes, "%12.1f");
+
+        BenchmarkRunner runner = new BenchmarkRunner(1, 3, 100);
+        System.out.println("\nThroughput (ns per operation, " + String.format("%,d", updates) + " operations per pass)");
+        System.out.printf("%-30s %12s %12s %9s%n", "", "HashMap", "O2IntMap", "speedup");
+
+        double boxedPut = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                HashMap<String, Integer> map = new HashMap<>();
+                for (String name : names) {
+                    map.put(name, 1000);
+                }
+                Blackhole.consume(map);
+                return names.length;
+            }
+        }));
+        double primitivePut = mean(runner.measure(new BenchmarkInvocation() {
+            long run() {
+                Object2IntMap<String> map = new Object2IntMap<>();
+                for (String name : names) {
+                    map.put(name, 1000);
+                }
+                Blackhole.consume(map);
+                return names.length;
+            }
+        }));
+        row("put " + String.format("%,d", n) + " new keys", boxedPut, primitivePut, "%12.1f");
+
+        // One map at a time: two 10M-entry maps plus the keys do not fit a default heap
+        HashMap<String, Integer> hashMap = new HashMap<>();
+        for (String name : names) {
+            hashMap.put(name, 1000);
+        }
+        double[] boxed = updateScores(runner, stream, names, hashMap);
+        hashMap = null;
+
+        Object2IntMap<String> map = new Object2IntMap<>();
+        for (String name : names) {
+            map.put(name, 1000);
+        }
+        double[] primitive = updateScores(runner, stream, names, map);
+
+        row("merge(k, 1, sum) / addTo(k, 1)", boxed[0], primitive[0], "%12.1f");
+        row("get / getInt", boxed[1], primitive[1], "%12.1f");
+        System.out.printf("%-30s %12.1f %12.1f%n", "bytes allocated / update", boxed[2], primitive[2]);
+    }
+
+    // {update ns/op, get ns/op, bytes allocated per update}
+    private static double[] updateScores(BenchmarkRunner runner, int[] stream, String[] names,
+                                         HashMap<String, Integer> map) {
+        BenchmarkInvocation update = new BenchmarkInvocation() {
+            long run() {
+                for (int i : stream) {
+                    map.merge(names[i], 1, Integer::sum);
+                }
+                return stream.length;
+            }
+        };
+        return new double[] {
+            mean(runner.measure(update)),
+            mean(runner.measure(new BenchmarkInvocation() {
+                long run() {
+                    long sum = 0;
+                    for (int i : stream) {
+                        sum += map.get(names[i]);
+                    }
+                    Blackhole.consume(sum);
+                    return stream.length;
+                }
+            })),
+            allocationPerOperation(update)
+        };
+    }
+
+    private static double[] updateScores(BenchmarkRunner runner, int[] stream, String[] names,
+                                         Object2IntMap<String> map) {
+        BenchmarkInvocation update = new BenchmarkInvocation() {
+            long run() {
+                for (int i : stream) {
+                    map.addTo(names[i], 1);
+                }
+                return stream.length;
+            }
+        };
+        return new double[] {
+            mean(runner.measure(update)),
+            mean(runner.measure(new BenchmarkInvocation() {
+                long run() {
+                    long sum = 0;
+                    for (int i : stream) {
+                        sum += map.getInt(names[i]);
+                    }
+                    Blackhole.consume(sum);
+                    return stream.length;
+                }
+            })),
+            allocationPerOperation(update)
+        };
+    }
+
+    private static double allocationPerOperation(BenchmarkInvocation invocation) {
+        long before = allocatedBytes();
+        long operations = invocation.run();
+        return (double) (allocatedBytes() - before) / operations;
+    }
+
+    // Random operations against HashMap; returns the number of checks
+    static int verify(int operations, long seed) {
+        Random random = new Random(seed);
+        Object2IntMap<String> map = new Object2IntMap<>(4, -1);
+        HashMap<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < operations; i++) {
+            String key = "k" + random.nextInt(operations / 4 + 1);
+            int value = random.nextInt(100);
+            int result;
+            Integer old;
+            switch (random.nextInt(6)) {
+                case 0:
+                    result = map.put(key, value);
+                    old = expected.put(key, value);
+                    break;
+                case 1:
+                    result = map.addTo(key, value);
+                    old = expected.get(key);
+                    expected.put(key, (old == null ? -1 : old) + value);  // A missing key starts at -1
+                    break;
+                case 2:
+                    result = map.putIfAbsent(key, value);
+                    old = expected.putIfAbsent(key, value);
+                    break;
+                case 3:
+                    result = map.removeInt(key);
+                    old = expected.remove(key);
+                    break;
+                case 4:
+                    result = map.compute(key, (k, v) -> v * 2 + k.length());
+                    old = expected.compute(key, (k, v) -> (v == null ? -1 : v) * 2 + k.length());
+                    break;
+                default:
+                    result = map.getInt(key);
+                    old = expected.get(key);
+                    break;
+            }
+            if (result != (old == null ? -1 : old) || map.size() != expected.size()) {
+                throw new IllegalStateException("Mismatch at operation " + i + " on " + key);
+            }
+        }
+        Object2IntMap<String>.Cursor cursor = map.cursor();
+        int walked = 0;
+        while (cursor.next()) {
+            if (!expected.get(cursor.key()).equals(cursor.value())) {
+                throw new IllegalStateException("Cursor mismatch on " + cursor.key());
+            }
+            walked++;
+        }
+        if (walked != expected.size()) {
+            throw new IllegalStateException("Cursor walked " + walked + " of " + expected.size());
+        }
+        return operations + 1;
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit5_Object2IntMap {
+
+    public static void main(String[] args) {
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int updates = args.length > 1 ? Integer.parseInt(args[1]) : n;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 5 (EXTRA): OBJECT-TO-int MAP FOR SCORE TABLES");
+        System.out.println("=".repeat(70));
+
+
+        // ========== EXAMPLE 1: SCORE TABLE ==========
+        System.out.println("\nEXAMPLE 1: hashMapOperations() with an Object2IntMap");
+        System.out.println("-".repeat(70));
+
+        scoreTableOperations();
+
+        int checks = Object2IntMapBenchmark.verify(500_000, 1);
+        System.out.println("Checked against HashMap: " + String.format("%,d", checks) + " random operations, all equal");
+
+
+        // ========== EXAMPLE 2: BENCHMARK ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: HashMap<String, Integer> vs Object2IntMap<String>");
+        System.out.println("-".repeat(70));
+
+        new Object2IntMapBenchmark().run(n, updates);
+        System.out.println();
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("OBJECT2INTMAP SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  Open addressing : keys, hashes, values in three arrays, no nodes");
+        System.out.println("  Linear probing  : Next slot on collision, cache friendly");
+        System.out.println("  addTo/merge     : int arithmetic in place, no Integer allocated");
+        System.out.println("  Cursor/forEach  : Iteration without Map.Entry objects");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // MapExample Method 1b: The same score table without boxing (run by Unit5_Collections too)
+    static void scoreTableOperations() {
+        System.out.println("\n=== Object2IntMap Operations ===");
+        System.out.println("Implementation: Open addressing (keys, hashes, int values in arrays)");
+        System.out.println("Null: No null keys; a missing key returns the default value");
+        System.out.println("Performance: O(1) for get/put, no object per entry");
+        System.out.println();
+
+        Object2IntMap<String> scores = new Object2IntMap<>(16, -1);  // -1 = "no score"
+
+        // Adding key-value pairs
+        scores.put("Alice", 95);
+        scores.put("Bob", 87);
+        scores.put("Carol", 92);
+        scores.put("David", 88);
+        scores.put("Alice", 98);  // Overwrites previous value
+
+        System.out.println("Object2IntMap: " + scores);
+        System.out.println("Size: " + scores.size());
+
+        // Accessing values
+        System.out.println("\nAccessing:");
+        System.out.println("Alice's score: " + scores.getInt("Alice"));
+        System.out.println("Eve's score: " + scores.getInt("Eve") + " (default return value)");
+        System.out.println("Eve's score (with default): " + scores.getOrDefault("Eve", 0));
+
+        // Removing and putIfAbsent
+        scores.removeInt("David");
+        scores.putIfAbsent("Eve", 90);
+        scores.putIfAbsent("Alice", 100);  // Won't update (key exists)
+        System.out.println("\nAfter removing David and putIfAbsent: " + scores);
+
+        // Iterating without Map.Entry objects
+        System.out.println("\n1. forEach((key, value) -> ...):");
+        scores.forEach((name, score) -> System.out.println("  " + name + " -> " + score));
+
+        System.out.println("\n2. Cursor (setValue while walking):");
+        Object2IntMap<String>.Cursor cursor = scores.cursor();
+        while (cursor.next()) {
+            cursor.setValue(cursor.value() + 1);  // Everyone gets a bonus point
+            System.out.println("  " + cursor.key() + " -> " + cursor.value());
+        }
+
+        // Primitive updates: no Integer created
+        System.out.println("\n3. Primitive updates:");
+        scores.compute("Alice", (key, value) -> value + 2);
+        System.out.println("After computing Alice: " + scores.getInt("Alice"));
+        scores.addTo("Bob", 5);  // merge("Bob", 5, Integer::sum)
+        System.out.println("After addTo Bob: " + scores.getInt("Bob"));
+        scores.merge("Carol", 5, Integer::sum);
+        System.out.println("After merging Carol: " + scores.getInt("Carol"));
+        System.out.println();
+    }
+}
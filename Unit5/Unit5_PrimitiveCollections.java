@@ -0,0 +1,1526 @@
+/*
+ * UNIT 5 (EXTRA): PRIMITIVE int COLLECTIONS
+ *
+ * LinkedList<Integer>, TreeSet<Integer>, ArrayList<Integer>: every number we store
+ * is wrapped in its own Integer object, and every lookup follows a pointer to find it.
+ * 4 bytes of data, 16 bytes of box, 4-8 bytes of reference. Paying rent for a parking spot
+ * to park a bicycle. 🚲
+ *
+ * THEORY:
+ *
+ * BOXING COST (64-bit JVM, compressed references):
+ *   - Integer object          : 16 bytes (12 header + 4 value), only -128..127 are cached
+ *   - ArrayList<Integer> slot : 4 bytes reference + 16 bytes Integer = ~20 bytes / element
+ *   - HashSet<Integer>        : HashMap.Node (32) + Integer (16) + table slot  = ~50 bytes
+ *   - TreeSet<Integer>        : TreeMap.Entry (40) + Integer (16)              = ~56 bytes
+ *   - LinkedList<Integer>     : Node (24) + Integer (16)                       = ~40 bytes
+ *   - int[] slot              : 4 bytes, values next to each other in memory
+ *
+ * THE PRIMITIVE VERSIONS (same operations as the Unit 5 examples):
+ *   IntArrayList  -> int[] + size                   : add, add(i, x), get, set, removeAt, removeValue
+ *   IntHashSet    -> open addressing, linear probing : add, contains, remove
+ *   IntTreeSet    -> sorted int[] blocks of <= 512   : first/last, lower/floor/ceiling/higher,
+ *                                                      head/tail/subSet, pollFirst/pollLast
+ *   IntArrayDeque -> circular int[]                  : addFirst/addLast, poll, peek, push/pop
+ *
+ * No null to say "not found": methods that return null in java.util take an
+ * ifNone value instead (like getOrDefault), e.g. set.floor(35, -1).
+ *
+ * ITERATORS: IntIterator.nextInt() returns an int (no box); remove() works, and
+ * modifying the collection behind the iterator's back still throws
+ * ConcurrentModificationException (fail-fast, like failFastBehavior()).
+ */
+
+
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+
+// ============================================
+// EXAMPLE 1: THE COLLECTIONS
+// ============================================
+
+interface IntIterator {
+    boolean hasNext();
+
+    int nextInt();
+
+    void remove();
+}
+
+
+class IntArrayList {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private int[] elements;
+    private int size;
+    private int modCount;
+
+    IntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    IntArrayList(int capacity) {
+        elements = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(int value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+        modCount++;
+    }
+
+    void add(int index, int value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = value;
+        size++;
+        modCount++;
+    }
+
+    int get(int index) {
+        Objects.checkIndex(index, size);
+        return elements[index];
+    }
+
+    int set(int index, int value) {
+        Objects.checkIndex(index, size);
+        int old = elements[index];
+        elements[index] = value;
+        return old;
+    }
+
+    // remove(int) is ambiguous for an int list: by position...
+    int removeAt(int index) {
+        Objects.checkIndex(index, size);
+        int old = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        modCount++;
+        return old;
+    }
+
+    // ...or by value (first occurrence)
+    boolean removeValue(int value) {
+        int index = indexOf(value);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    int indexOf(int value) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int lastIndexOf(int value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (elements[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    void forEach(IntConsumer action) {
+        int expected = modCount;
+        for (int i = 0; i < size && modCount == expected; i++) {
+            action.accept(elements[i]);
+        }
+        if (modCount != expected) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    IntIterator iterator() {
+        return new IntIterator() {
+            private int cursor;
+            private int lastReturned = -1;
+            private int expectedModCount = modCount;
+
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            public int nextInt() {
+                checkForComodification();
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = cursor++;
+                return elements[lastReturned];
+            }
+
+            public void remove() {
+                if (lastReturned < 0) {
+                    throw new IllegalStateException();
+                }
+                checkForComodification();
+                removeAt(lastReturned);
+                cursor = lastReturned;
+                lastReturned = -1;
+                expectedModCount = modCount;
+            }
+
+            private void checkForComodification() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        };
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(Math.max(minCapacity, DEFAULT_CAPACITY), elements.length + (elements.length >> 1));
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(i == 0 ? "" : ", ").append(elements[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
+
+
+class IntHashSet {
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private int[] keys;          // 0 = free slot; the key 0 itself lives in containsZero
+    private boolean containsZero;
+    private int mask;
+    private int maxFill;
+    private int size;
+    private int modCount;
+
+    IntHashSet() {
+        this(16);
+    }
+
+    IntHashSet(int expectedSize) {
+        allocate(tableSizeFor((int) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR)));
+    }
+
+    private static int tableSizeFor(int n) {
+        return Math.max(4, Integer.highestOneBit(n - 1) << 1);
+    }
+
+    // Spreads nearby keys (1, 2, 3...) over the whole table
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        mask = capacity - 1;
+        maxFill = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean add(int key) {
+        if (key == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+        } else {
+            int pos = mix(key) & mask;
+            int current;
+            while ((current = keys[pos]) != 0) {
+                if (current == key) {
+                    return false;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[pos] = key;
+        }
+        modCount++;
+        if (++size > maxFill) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    boolean contains(int key) {
+        if (key == 0) {
+            return containsZero;
+        }
+        int pos = mix(key) & mask;
+        int current;
+        while ((current = keys[pos]) != 0) {
+            if (current == key) {
+                return true;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return false;
+    }
+
+    boolean remove(int key) {
+        if (key == 0) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+        } else {
+            int pos = mix(key) & mask;
+            int current;
+            while ((current = keys[pos]) != key) {
+                if (current == 0) {
+                    return false;
+                }
+                pos = (pos + 1) & mask;
+            }
+            shiftKeys(pos, null);
+        }
+        size--;
+        modCount++;
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        containsZero = false;
+        size = 0;
+        modCount++;
+    }
+
+    // Backward-shift deletion: no tombstones, probe chains stay as short as before the key arrived.
+    // A key moved from the start of the table to the end (wrap-around) goes to "wrapped",
+    // so an iterator walking downwards does not miss it.
+    private void shiftKeys(int pos, IntArrayList wrapped) {
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            int current;
+            while (true) {
+                if ((current = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    return;
+                }
+                int ideal = mix(current) & mask;
+                // The key may move back to "last" unless its ideal slot lies in (last, pos]
+                if (last <= pos ? (last >= ideal || ideal > pos) : (last >= ideal && ideal > pos)) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            if (wrapped != null && pos < last) {
+                wrapped.add(current);
+            }
+            keys[last] = current;
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        int[] old = keys;
+        allocate(newCapacity);
+        for (int key : old) {
+            if (key != 0) {
+                int pos = mix(key) & mask;
+                while (keys[pos] != 0) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = key;
+            }
+        }
+    }
+
+    void forEach(IntConsumer action) {
+        if (containsZero) {
+            action.accept(0);
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                action.accept(key);
+            }
+        }
+    }
+
+    int[] toArray() {
+        int[] result = new int[size];
+        int i = 0;
+        for (IntIterator it = iterator(); it.hasNext(); ) {
+            result[i++] = it.nextInt();
+        }
+        return result;
+    }
+
+    // Walks the table from the last slot down (see shiftKeys for why)
+    IntIterator iterator() {
+        return new IntIterator() {
+            private int pos = keys.length;
+            private int last = -1;          // slot of the last key; keys.length = the zero key; -2 = from wrapped
+            private int lastWrapped;
+            private int remaining = size;
+            private boolean zeroPending = containsZero;
+            private IntArrayList wrapped;
+            private int expectedModCount = modCount;
+
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            public int nextInt() {
+                checkForComodification();
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                if (zeroPending) {
+                    zeroPending = false;
+                    last = keys.length;
+                    return 0;
+                }
+                while (--pos >= 0) {
+                    if (keys[pos] != 0) {
+                        last = pos;
+                        return keys[pos];
+                    }
+                }
+                last = -2;
+                lastWrapped = wrapped.removeAt(wrapped.size() - 1);
+                return lastWrapped;
+            }
+
+            public void remove() {
+                if (last == -1) {
+                    throw new IllegalStateException();
+                }
+                checkForComodification();
+                if (last == keys.length) {
+                    containsZero = false;
+                    size--;
+                    modCount++;
+                } else if (last >= 0) {
+                    if (wrapped == null) {
+                        wrapped = new IntArrayList(2);
+                    }
+                    shiftKeys(last, wrapped);
+                    size--;
+                    modCount++;
+                } else {
+                    IntHashSet.this.remove(lastWrapped);  // Whole table already walked: shifting is harmless
+                }
+                last = -1;
+                expectedModCount = modCount;
+            }
+
+            private void checkForComodification() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        forEach(key -> sb.append(sb.length() == 1 ? "" : ", ").append(key));
+        return sb.append(']').toString();
+    }
+}
+
+
+// Sorted set of sorted blocks: every key in block i is smaller than every key in block i + 1.
+// Inserts move at most one block (<= 512 ints); a full block splits in two.
+class IntTreeSet {
+    static final int BLOCK_SIZE = 512;
+
+    private int[][] blocks = new int[4][];
+    private int[] counts = new int[4];
+    private int blockCount;
+    private int size;
+    private int modCount;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Last block whose first key is <= key (0 if key is below everything)
+    private int blockFor(int key) {
+        int low = 1;
+        int high = blockCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (blocks[mid][0] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    boolean add(int key) {
+        if (blockCount == 0) {
+            insertBlock(0, new int[BLOCK_SIZE]);
+        }
+        int b = blockFor(key);
+        int index = Arrays.binarySearch(blocks[b], 0, counts[b], key);
+        if (index >= 0) {
+            return false;
+        }
+        index = -index - 1;
+        if (counts[b] == BLOCK_SIZE) {
+            split(b);
+            if (index > counts[b]) {
+                index -= counts[b];
+                b++;
+            }
+        }
+        int[] block = blocks[b];
+        System.arraycopy(block, index, block, index + 1, counts[b] - index);
+        block[index] = key;
+        counts[b]++;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    boolean contains(int key) {
+        if (blockCount == 0) {
+            return false;
+        }
+        int b = blockFor(key);
+        return Arrays.binarySearch(blocks[b], 0, counts[b], key) >= 0;
+    }
+
+    boolean remove(int key) {
+        if (blockCount == 0) {
+            return false;
+        }
+        int b = blockFor(key);
+        int index = Arrays.binarySearch(blocks[b], 0, counts[b], key);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(b, index);
+        return true;
+    }
+
+    private void removeAt(int b, int index) {
+        int[] block = blocks[b];
+        System.arraycopy(block, index + 1, block, index, counts[b] - index - 1);
+        if (--counts[b] == 0) {
+            removeBlock(b);
+        }
+        size--;
+        modCount++;
+    }
+
+    int first() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return blocks[0][0];
+    }
+
+    int last() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return blocks[blockCount - 1][counts[blockCount - 1] - 1];
+    }
+
+    // Smallest key >= key
+    int ceiling(int key, int ifNone) {
+        if (blockCount == 0) {
+            return ifNone;
+        }
+        int b = blockFor(key);
+        int index = Arrays.binarySearch(blocks[b], 0, counts[b], key);
+        if (index >= 0) {
+            return key;
+        }
+        index = -index - 1;
+        if (index < counts[b]) {
+            return blocks[b][index];
+        }
+        return b + 1 < blockCount ? blocks[b + 1][0] : ifNone;
+    }
+
+    // Largest key <= key
+    int floor(int key, int ifNone) {
+        if (blockCount == 0) {
+            return ifNone;
+        }
+        int b = blockFor(key);
+        int index = Arrays.binarySearch(blocks[b], 0, counts[b], key);
+        if (index >= 0) {
+            return key;
+        }
+        index = -index - 1;
+        return index > 0 ? blocks[b][index - 1] : ifNone;  // index 0 only happens below the first key
+    }
+
+    int higher(int key, int ifNone) {
+        return key == Integer.MAX_VALUE ? ifNone : ceiling(key + 1, ifNone);
+    }
+
+    int lower(int key, int ifNone) {
+        return key == Integer.MIN_VALUE ? ifNone : floor(key - 1, ifNone);
+    }
+
+    int pollFirst(int ifNone) {
+        if (size == 0) {
+            return ifNone;
+        }
+        int key = blocks[0][0];
+        removeAt(0, 0);
+        return key;
+    }
+
+    int pollLast(int ifNone) {
+        if (size == 0) {
+            return ifNone;
+        }
+        int b = blockCount - 1;
+        int key = blocks[b][counts[b] - 1];
+        removeAt(b, counts[b] - 1);
+        return key;
+    }
+
+    // Copies, not views: [from, to)
+    IntTreeSet subSet(int from, int to) {
+        IntTreeSet result = new IntTreeSet();
+        forEachInRange(from, to, result::add);
+        return result;
+    }
+
+    IntTreeSet headSet(int to) {
+        return subSet(Integer.MIN_VALUE, to);
+    }
+
+    IntTreeSet tailSet(int from) {
+        IntTreeSet result = new IntTreeSet();
+        forEachFrom(from, Integer.MAX_VALUE + 1L, result::add);
+        return result;
+    }
+
+    // Keys in [from, to), ascending
+    void forEachInRange(int from, int to, IntConsumer action) {
+        forEachFrom(from, to, action);
+    }
+
+    // long bound, so tailSet can include Integer.MAX_VALUE
+    private void forEachFrom(int from, long to, IntConsumer action) {
+        if (blockCount == 0 || from >= to) {
+            return;
+        }
+        int b = blockFor(from);
+        int index = Arrays.binarySearch(blocks[b], 0, counts[b], from);
+        index = index >= 0 ? index : -index - 1;
+        for (; b < blockCount; b++, index = 0) {
+            int[] block = blocks[b];
+            for (; index < counts[b]; index++) {
+                if (block[index] >= to) {
+                    return;
+                }
+                action.accept(block[index]);
+            }
+        }
+    }
+
+    void forEach(IntConsumer action) {
+        for (int b = 0; b < blockCount; b++) {
+            int[] block = blocks[b];
+            for (int i = 0; i < counts[b]; i++) {
+                action.accept(block[i]);
+            }
+        }
+    }
+
+    int[] toArray() {
+        int[] result = new int[size];
+        int offset = 0;
+        for (int b = 0; b < blockCount; b++) {
+            System.arraycopy(blocks[b], 0, result, offset, counts[b]);
+            offset += counts[b];
+        }
+        return result;
+    }
+
+    IntIterator iterator() {
+        return new BlockIterator(false);
+    }
+
+    IntIterator descendingIterator() {
+        return new BlockIterator(true);
+    }
+
+    private void split(int b) {
+        int half = counts[b] / 2;
+        int[] right = new int[BLOCK_SIZE];
+        System.arraycopy(blocks[b], half, right, 0, counts[b] - half);
+        insertBlock(b + 1, right);
+        counts[b + 1] = counts[b] - half;
+        counts[b] = half;
+    }
+
+    private void insertBlock(int b, int[] block) {
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount * 2);
+            counts = Arrays.copyOf(counts, blockCount * 2);
+        }
+        System.arraycopy(blocks, b, blocks, b + 1, blockCount - b);
+        System.arraycopy(counts, b, counts, b + 1, blockCount - b);
+        blocks[b] = block;
+        counts[b] = 0;
+        blockCount++;
+    }
+
+    private void removeBlock(int b) {
+        System.arraycopy(blocks, b + 1, blocks, b, blockCount - b - 1);
+        System.arraycopy(counts, b + 1, counts, b, blockCount - b - 1);
+        blockCount--;
+        blocks[blockCount] = null;
+    }
+
+    private class BlockIterator implements IntIterator {
+        private final boolean descending;
+        private int block;
+        private int index;               // Next position to return within block
+        private int lastBlock = -1;
+        private int lastIndex;
+        private int remaining = size;
+        private int expectedModCount = modCount;
+
+        BlockIterator(boolean descending) {
+            this.descending = descending;
+            if (descending) {
+                block = blockCount - 1;
+                index = blockCount == 0 ? -1 : counts[block] - 1;
+            }
+        }
+
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        public int nextInt() {
+            checkForComodification();
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            if (descending) {
+                if (index < 0) {
+                    block--;
+                    index = counts[block] - 1;
+                }
+                lastBlock = block;
+                lastIndex = index--;
+            } else {
+                if (index == counts[block]) {
+                    block++;
+                    index = 0;
+                }
+                lastBlock = block;
+                lastIndex = index++;
+            }
+            return blocks[lastBlock][lastIndex];
+        }
+
+        public void remove() {
+            if (lastBlock < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            boolean blockGone = counts[lastBlock] == 1;
+            removeAt(lastBlock, lastIndex);
+            if (!descending) {
+                // Later keys moved one to the left; a removed block makes the next block this one
+                index = blockGone ? 0 : lastIndex;
+            } else if (blockGone) {
+                index = -1;  // Continue in the previous block
+            }
+            lastBlock = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        forEach(key -> sb.append(sb.length() == 1 ? "" : ", ").append(key));
+        return sb.append(']').toString();
+    }
+}
+
+
+class IntArrayDeque {
+    private int[] elements;
+    private int head;
+    private int size;
+    private int modCount;
+
+    IntArrayDeque() {
+        this(16);
+    }
+
+    IntArrayDeque(int expectedSize) {
+        elements = new int[Math.max(8, Integer.highestOneBit(Math.max(expectedSize, 1) - 1) << 1)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private int slot(int index) {
+        return (head + index) & (elements.length - 1);
+    }
+
+    void addFirst(int value) {
+        if (size == elements.length) {
+            grow();
+        }
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = value;
+        size++;
+        modCount++;
+    }
+
+    void addLast(int value) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[slot(size)] = value;
+        size++;
+        modCount++;
+    }
+
+    int removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int value = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        modCount++;
+        return value;
+    }
+
+    int removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        size--;
+        modCount++;
+        return elements[slot(size)];
+    }
+
+    int pollFirst(int ifEmpty) {
+        return size == 0 ? ifEmpty : removeFirst();
+    }
+
+    int pollLast(int ifEmpty) {
+        return size == 0 ? ifEmpty : removeLast();
+    }
+
+    int peekFirst(int ifEmpty) {
+        return size == 0 ? ifEmpty : elements[head];
+    }
+
+    int peekLast(int ifEmpty) {
+        return size == 0 ? ifEmpty : elements[slot(size - 1)];
+    }
+
+    int getFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elements[head];
+    }
+
+    int getLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elements[slot(size - 1)];
+    }
+
+    int get(int index) {
+        Objects.checkIndex(index, size);
+        return elements[slot(index)];
+    }
+
+    // Stack (LIFO) and queue (FIFO) names, as in LinkedList
+    void push(int value) {
+        addFirst(value);
+    }
+
+    int pop() {
+        return removeFirst();
+    }
+
+    void offer(int value) {
+        addLast(value);
+    }
+
+    int poll(int ifEmpty) {
+        return pollFirst(ifEmpty);
+    }
+
+    boolean contains(int value) {
+        for (int i = 0; i < size; i++) {
+            if (elements[slot(i)] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    private void removeAt(int index) {
+        for (int i = index; i < size - 1; i++) {
+            elements[slot(i)] = elements[slot(i + 1)];
+        }
+        size--;
+        modCount++;
+    }
+
+    private void grow() {
+        int[] grown = new int[elements.length * 2];
+        for (int i = 0; i < size; i++) {
+            grown[i] = elements[slot(i)];
+        }
+        elements = grown;
+        head = 0;
+    }
+
+    IntIterator iterator() {
+        return new IntIterator() {
+            private int cursor;
+            private int lastReturned = -1;
+            private int expectedModCount = modCount;
+
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            public int nextInt() {
+                checkForComodification();
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = cursor++;
+                return elements[slot(lastReturned)];
+            }
+
+            public void remove() {
+                if (lastReturned < 0) {
+                    throw new IllegalStateException();
+                }
+                checkForComodification();
+                removeAt(lastReturned);
+                cursor = lastReturned;
+                lastReturned = -1;
+                expectedModCount = modCount;
+            }
+
+            private void checkForComodification() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(i == 0 ? "" : ", ").append(elements[slot(i)]);
+        }
+        return sb.append(']').toString();
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: BOXED vs PRIMITIVE
+// ============================================
+
+class PrimitiveCollectionsBenchmark {
+    private static void memoryRow(String label, int n, Supplier<Object> boxed, Supplier<Object> primitive) {
+        double boxedBytes = BenchmarkRunner.bytesPerElement(n, boxed);
+        double primitiveBytes = BenchmarkRunner.bytesPerElement(n, primitive);
+        System.out.printf("%-36s %10.1f %10.1f %8.1fx%n", label, boxedBytes, primitiveBytes, boxedBytes / primitiveBytes);
+    }
+
+    private static void throughputRow(BenchmarkRunner runner, String label, BenchmarkInvocation boxed,
+                                      BenchmarkInvocation primitive) {
+        double boxedScore = mean(runner.measure(boxed));
+        double primitiveScore = mean(runner.measure(primitive));
+        System.out.printf("%-36s %10.2f %10.2f %8.1fx%n", label, boxedScore, primitiveScore, boxedScore / primitiveScore);
+    }
+
+    private static double mean(double[] scores) {
+        double sum = 0;
+        for (double score : scores) {
+            sum += score;
+        }
+        return sum / scores.length;
+    }
+
+    void run(int n) {
+        // Random values: outside the -128..127 Integer cache, like real data
+        int[] values = new Random(42).ints(n).toArray();
+        int[] probes = new Random(7).ints(n).toArray();
+        for (int i = 0; i < probes.length; i += 2) {
+            probes[i] = values[i];  // Half the lookups hit
+        }
+
+        System.out.println("\nMemory (" + String.format("%,d", n) + " elements)");
+        System.out.printf("%-36s %10s %10s %9s%n", "bytes / element", "boxed", "int", "saving");
+        memoryRow("ArrayList<Integer> / IntArrayList", n,
+            () -> { ArrayList<Integer> c = new ArrayList<>(); for (int v : values) c.add(v); return c; },
+            () -> { IntArrayList c = new IntArrayList(); for (int v : values) c.add(v); return c; });
+        memoryRow("LinkedList<Integer> / IntArrayDeque", n,
+            () -> { LinkedList<Integer> c = new LinkedList<>(); for (int v : values) c.addLast(v); return c; },
+            () -> { IntArrayDeque c = new IntArrayDeque(); for (int v : values) c.addLast(v); return c; });
+        memoryRow("ArrayDeque<Integer> / IntArrayDeque", n,
+            () -> { ArrayDeque<Integer> c = new ArrayDeque<>(); for (int v : values) c.addLast(v); return c; },
+            () -> { IntArrayDeque c = new IntArrayDeque(); for (int v : values) c.addLast(v); return c; });
+        memoryRow("HashSet<Integer> / IntHashSet", n,
+            () -> { HashSet<Integer> c = new HashSet<>(); for (int v : values) c.add(v); return c; },
+            () -> { IntHashSet c = new IntHashSet(); for (int v : values) c.add(v); return c; });
+        memoryRow("TreeSet<Integer> / IntTreeSet", n,
+            () -> { TreeSet<Integer> c = new TreeSet<>(); for (int v : values) c.add(v); return c; },
+            () -> { IntTreeSet c = new IntTreeSet(); for (int v : values) c.add(v); return c; });
+
+        BenchmarkRunner runner = new BenchmarkRunner(2, 3, 200);
+        System.out.println("\nThroughput (ns per element, " + runner.warmupIterations + " warmup + "
+            + runner.measurementIterations + " measured iterations)");
+        System.out.printf("%-36s %10s %10s %9s%n", "operation", "boxed", "int", "speedup");
+
+        ArrayList<Integer> boxedList = new ArrayList<>();
+        IntArrayList intList = new IntArrayList();
+        for (int v : values) {
+            boxedList.add(v);
+            intList.add(v);
+        }
+        throughputRow(runner, "list add", new BenchmarkInvocation() {
+            long run() {
+                ArrayList<Integer> list = new ArrayList<>();
+                for (int v : values) {
+                    list.add(v);
+                }
+                Blackhole.consume(list);
+                return values.length;
+            }
+        }, new BenchmarkInvocation() {
+            long run() {
+                IntArrayList list = new IntArrayList();
+                for (int v : values) {
+                    list.add(v);
+                }
+                Blackhole.consume(list);
+                return values.length;
+            }
+        });
+        throughputRow(runner, "list get + sum (sequential)", new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                for (int i = 0; i < boxedList.size(); i++) {
+                    sum += boxedList.get(i);
+                }
+                Blackhole.consume(sum);
+                return boxedList.size();
+            }
+        }, new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                for (int i = 0; i < intList.size(); i++) {
+                    sum += intList.get(i);
+                }
+                Blackhole.consume(sum);
+                return intList.size();
+            }
+        });
+
+        HashSet<Integer> boxedSet = new HashSet<>(boxedList);
+        IntHashSet intSet = new IntHashSet(n);
+        for (int v : values) {
+            intSet.add(v);
+        }
+        throughputRow(runner, "set add", new BenchmarkInvocation() {
+            long run() {
+                HashSet<Integer> set = new HashSet<>();
+                for (int v : values) {
+                    set.add(v);
+                }
+                Blackhole.consume(set);
+                return values.length;
+            }
+        }, new BenchmarkInvocation() {
+            long run() {
+                IntHashSet set = new IntHashSet();
+                for (int v : values) {
+                    set.add(v);
+                }
+                Blackhole.consume(set);
+                return values.length;
+            }
+        });
+        throughputRow(runner, "set contains (50% hits)", new BenchmarkInvocation() {
+            long run() {
+                long hits = 0;
+                for (int p : probes) {
+                    hits += boxedSet.contains(p) ? 1 : 0;
+                }
+                Blackhole.consume(hits);
+                return probes.length;
+            }
+        }, new BenchmarkInvocation() {
+            long run() {
+                long hits = 0;
+                for (int p : probes) {
+                    hits += intSet.contains(p) ? 1 : 0;
+                }
+                Blackhole.consume(hits);
+                return probes.length;
+            }
+        });
+
+        TreeSet<Integer> boxedTree = new TreeSet<>(boxedList);
+        IntTreeSet intTree = new IntTreeSet();
+        for (int v : values) {
+            intTree.add(v);
+        }
+        throughputRow(runner, "sorted set add (random order)", new BenchmarkInvocation() {
+            long run() {
+                TreeSet<Integer> set = new TreeSet<>();
+                for (int v : values) {
+                    set.add(v);
+                }
+                Blackhole.consume(set);
+                return values.length;
+            }
+        }, new BenchmarkInvocation() {
+            long run() {
+                IntTreeSet set = new IntTreeSet();
+                for (int v : values) {
+                    set.add(v);
+                }
+                Blackhole.consume(set);
+                return values.length;
+            }
+        });
+        throughputRow(runner, "sorted set ceiling", new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                for (int p : probes) {
+                    Integer c = boxedTree.ceiling(p);
+                    sum += c == null ? 0 : c;
+                }
+                Blackhole.consume(sum);
+                return probes.length;
+            }
+        }, new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                for (int p : probes) {
+                    sum += intTree.ceiling(p, 0);
+                }
+                Blackhole.consume(sum);
+                return probes.length;
+            }
+        });
+        throughputRow(runner, "sorted set iterate", new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                for (Integer v : boxedTree) {
+                    sum += v;
+                }
+                Blackhole.consume(sum);
+                return boxedTree.size();
+            }
+        }, new BenchmarkInvocation() {
+            long run() {
+                long sum = 0;
+                for (IntIterator it = intTree.iterator(); it.hasNext(); ) {
+                    sum += it.nextInt();
+                }
+                Blackhole.consume(sum);
+                return intTree.size();
+            }
+        });
+
+        throughputRow(runner, "deque offer + poll (queue of 1,024)", new BenchmarkInvocation() {
+            final ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+            long run() {
+                long sum = 0;
+                for (int v : values) {
+                    queue.offer(v);
+                    if (queue.size() > 1024) {
+                        sum += queue.poll();
+                    }
+                }
+                Blackhole.consume(sum);
+                return values.length;
+            }
+        }, new BenchmarkInvocation() {
+            final IntArrayDeque queue = new IntArrayDeque();
+
+            long run() {
+                long sum = 0;
+                for (int v : values) {
+                    queue.offer(v);
+                    if (queue.size() > 1024) {
+                        sum += queue.poll(0);
+                    }
+                }
+                Blackhole.consume(sum);
+                return values.length;
+            }
+        });
+    }
+
+    // Every operation against java.util on random data; returns the number of checks
+    static int verify(int n, long seed) {
+        Random random = new Random(seed);
+        IntHashSet intSet = new IntHashSet(4);
+        HashSet<Integer> set = new HashSet<>();
+        IntTreeSet intTree = new IntTreeSet();
+        TreeSet<Integer> tree = new TreeSet<>();
+        IntArrayDeque intDeque = new IntArrayDeque(4);
+        ArrayDeque<Integer> deque = new ArrayDeque<>();
+        int checks = 0;
+        for (int i = 0; i < n; i++) {
+            int key = random.nextInt(n / 2) - n / 4;  // Small range: many duplicates, removals hit, 0 included
+            switch (random.nextInt(6)) {
+                case 0:
+                case 1:
+                    check(intSet.add(key) == set.add(key), "IntHashSet.add");
+                    check(intTree.add(key) == tree.add(key), "IntTreeSet.add");
+                    break;
+                case 2:
+                    check(intSet.remove(key) == set.remove(key), "IntHashSet.remove");
+                    check(intTree.remove(key) == tree.remove(key), "IntTreeSet.remove");
+                    break;
+                case 3:
+                    check(intSet.contains(key) == set.contains(key), "IntHashSet.contains");
+                    check(intTree.floor(key, -1) == orElse(tree.floor(key), -1), "IntTreeSet.floor");
+                    check(intTree.ceiling(key, -1) == orElse(tree.ceiling(key), -1), "IntTreeSet.ceiling");
+                    check(intTree.lower(key, -1) == orElse(tree.lower(key), -1), "IntTreeSet.lower");
+                    check(intTree.higher(key, -1) == orElse(tree.higher(key), -1), "IntTreeSet.higher");
+                    break;
+                case 4:
+                    if (random.nextBoolean()) {
+                        intDeque.addFirst(key);
+                        deque.addFirst(key);
+                    } else {
+                        intDeque.addLast(key);
+                        deque.addLast(key);
+                    }
+                    break;
+                default:
+                    check(intDeque.pollFirst(-1) == orElse(deque.pollFirst(), -1), "IntArrayDeque.pollFirst");
+                    check(intDeque.pollLast(-1) == orElse(deque.pollLast(), -1), "IntArrayDeque.pollLast");
+                    break;
+            }
+            checks++;
+        }
+        // Iterator.remove of every other key, then the contents must still match
+        removeEveryOther(intSet.iterator());
+        set.removeIf(k -> (k & 1) == 0);
+        removeEveryOther(intTree.iterator());
+        tree.removeIf(k -> (k & 1) == 0);
+        removeEveryOther(intDeque.iterator());
+        deque.removeIf(k -> (k & 1) == 0);
+        int[] setKeys = intSet.toArray();
+        Arrays.sort(setKeys);
+        check(Arrays.equals(setKeys, tree(set)), "IntHashSet iterator.remove");
+        check(Arrays.equals(intTree.toArray(), tree(tree)), "IntTreeSet iterator.remove");
+        check(intDeque.toString().equals(deque.toString()), "IntArrayDeque iterator.remove");
+        int[] descending = new int[intTree.size()];
+        int i = 0;
+        for (IntIterator it = intTree.descendingIterator(); it.hasNext(); ) {
+            descending[descending.length - 1 - i++] = it.nextInt();
+        }
+        check(Arrays.equals(descending, intTree.toArray()), "IntTreeSet.descendingIterator");
+        return checks + 4;
+    }
+
+    private static void removeEveryOther(IntIterator it) {
+        while (it.hasNext()) {
+            if ((it.nextInt() & 1) == 0) {
+                it.remove();
+            }
+        }
+    }
+
+    private static int[] tree(Collection<Integer> values) {
+        return new TreeSet<>(values).stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int orElse(Integer value, int ifNone) {
+        return value == null ? ifNone : value;
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) {
+            throw new IllegalStateException("Mismatch in " + what);
+        }
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit5_PrimitiveCollections {
+
+    public static void main(String[] args) {
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 5 (EXTRA): PRIMITIVE int COLLECTIONS");
+        System.out.println("=".repeat(70));
+
+
+        // ========== EXAMPLE 1: SAME EXAMPLES, NO BOXES ==========
+        System.out.println("\nEXAMPLE 1: LinkedList / TreeSet / fail-fast examples with int collections");
+        System.out.println("-".repeat(70));
+
+        intDequeOperations();
+        intTreeSetOperations();
+        failFastBehaviorPrimitive();
+
+        int checks = PrimitiveCollectionsBenchmark.verify(200_000, 1);
+        System.out.println("Checked against java.util: " + String.format("%,d", checks) + " random operations, all equal");
+
+
+        // ========== EXAMPLE 2: BENCHMARK ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Boxed vs Primitive");
+        System.out.println("-".repeat(70));
+
+        new PrimitiveCollectionsBenchmark().run(n);
+        System.out.println();
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("PRIMITIVE COLLECTIONS SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  IntArrayList  : int[] + size, no Integer per element");
+        System.out.println("  IntHashSet    : Open addressing, keys in one int[]");
+        System.out.println("  IntTreeSet    : Sorted int[] blocks, navigation by binary search");
+        System.out.println("  IntArrayDeque : Circular int[], stack and queue");
+        System.out.println("  IntIterator   : nextInt() without boxing, remove(), fail-fast");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // ListExample Method 2b: The same deque/stack/queue operations on ints (run by Unit5_Collections too)
+    static void intDequeOperations() {
+        System.out.println("\n=== IntArrayDeque Operations ===");
+        System.out.println("Implementation: Circular int[] (no Integer objects, no nodes)");
+        System.out.println("Best for: Stack/queue of numbers, 4 bytes per element");
+        System.out.println();
+
+        IntArrayDeque numbers = new IntArrayDeque();
+
+        // Adding elements
+        numbers.addLast(10);
+        numbers.addLast(20);
+        numbers.addLast(30);
+        System.out.println("After adding: " + numbers);
+
+        // Adding at beginning/end
+        numbers.addFirst(5);
+        numbers.addLast(40);
+        System.out.println("After addFirst(5) and addLast(40): " + numbers);
+
+        // Accessing first/last
+        System.out.println("\nAccessing:");
+        System.out.println("First element: " + numbers.getFirst());
+        System.out.println("Last element: " + numbers.getLast());
+        System.out.println("Element at index 2: " + numbers.get(2));
+
+        // Poll operations: no null for "empty", the caller picks the value
+        System.out.println("\nPoll operations:");
+        System.out.println("Poll first: " + numbers.pollFirst(-1));
+        System.out.println("Poll last: " + numbers.pollLast(-1));
+        System.out.println("After polling: " + numbers);
+
+        // Using as Stack (LIFO)
+        System.out.println("\nUsing as Stack:");
+        numbers.push(100);
+        numbers.push(200);
+        System.out.println("After push(100, 200): " + numbers);
+        System.out.println("Pop: " + numbers.pop());
+        System.out.println("After pop: " + numbers);
+
+        // Using as Queue (FIFO)
+        System.out.println("\nUsing as Queue:");
+        numbers.offer(50);
+        System.out.println("After offer(50): " + numbers);
+        System.out.println("Poll: " + numbers.poll(-1));
+        System.out.println("After poll: " + numbers);
+        System.out.println();
+    }
+
+    // SetExample Method 3b: The same navigation on an IntTreeSet (run by Unit5_Collections too)
+    static void intTreeSetOperations() {
+        System.out.println("\n=== IntTreeSet Operations ===");
+        System.out.println("Implementation: Sorted int[] blocks (binary search, no Integer objects)");
+        System.out.println("Order: Sorted");
+        System.out.println("Performance: O(log n) search, inserts move at most " + IntTreeSet.BLOCK_SIZE + " ints");
+        System.out.println();
+
+        IntTreeSet numbers = new IntTreeSet();
+        numbers.add(50);
+        numbers.add(20);
+        numbers.add(40);
+        numbers.add(10);
+        numbers.add(30);
+        numbers.add(60);
+
+        System.out.println("IntTreeSet: " + numbers);
+
+        // Navigation methods: -1 stands in for TreeSet's null
+        System.out.println("\nNavigation methods:");
+        System.out.println("First: " + numbers.first());
+        System.out.println("Last: " + numbers.last());
+        System.out.println("Lower than 30: " + numbers.lower(30, -1));
+        System.out.println("Higher than 30: " + numbers.higher(30, -1));
+        System.out.println("Floor of 35: " + numbers.floor(35, -1));
+        System.out.println("Ceiling of 35: " + numbers.ceiling(35, -1));
+        System.out.println("Floor of 5: " + numbers.floor(5, -1) + " (none)");
+
+        // Subset operations (copies, not views)
+        System.out.println("\nSubset operations:");
+        System.out.println("HeadSet (< 40): " + numbers.headSet(40));
+        System.out.println("TailSet (>= 40): " + numbers.tailSet(40));
+        System.out.println("SubSet [20, 50): " + numbers.subSet(20, 50));
+
+        // Poll operations
+        System.out.println("\nPoll operations:");
+        System.out.println("Poll first: " + numbers.pollFirst(-1));
+        System.out.println("Poll last: " + numbers.pollLast(-1));
+        System.out.println("After polling: " + numbers);
+
+        // Descending order without a comparator
+        System.out.print("\nDescending iteration:");
+        for (IntIterator it = numbers.descendingIterator(); it.hasNext(); ) {
+            System.out.print(" " + it.nextInt());
+        }
+        System.out.println();
+        System.out.println();
+    }
+
+    // IteratorExample Method 4b: Fail-fast on an IntArrayList (run by Unit5_IteratorsGenerics too)
+    static void failFastBehaviorPrimitive() {
+        System.out.println("\n=== Fail-Fast IntIterator ===");
+        System.out.println("Same rules without boxing: nextInt() returns an int");
+        System.out.println();
+
+        IntArrayList numbers = new IntArrayList();
+        for (int i = 1; i <= 5; i++) {
+            numbers.add(i);
+        }
+
+        System.out.println("Original list: " + numbers);
+
+        // Modifying the list directly still breaks the iterator
+        System.out.println("\nAttempting to modify collection during iteration:");
+        try {
+            for (IntIterator it = numbers.iterator(); it.hasNext(); ) {
+                int num = it.nextInt();
+                System.out.println("  Processing: " + num);
+                if (num == 3) {
+                    numbers.removeValue(num);  // Modifying collection
+                }
+            }
+        } catch (ConcurrentModificationException e) {
+            System.out.println("  ERROR: " + e.getClass().getSimpleName());
+        }
+
+        // Correct way: IntIterator.remove()
+        System.out.println("\nCorrect way (using IntIterator.remove()):");
+        IntIterator iterator = numbers.iterator();
+        while (iterator.hasNext()) {
+            int num = iterator.nextInt();
+            if (num % 2 == 0) {
+                iterator.remove();
+                System.out.println("  Removed: " + num);
+            }
+        }
+
+        System.out.println("Final list: " + numbers);
+        System.out.println();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * UNIT 6: MULTITHREADING - BankAccount
+ *
+ * Example 2's synchronized account, one monitor per account.
+ * Unit6_ConcurrentLedger compares its striped ledger against it,
+ * which is why it is not tucked inside Unit6_Multithreading.java.
+ */
+
+// Bank account with synchronized methods
+class BankAccount {
+    private double balance;
+    private String accountHolder;
+    
+    public BankAccount(String holder, double initialBalance) {
+        this.accountHolder = holder;
+        this.balance = initialBalance;
+    }
+    
+    // Synchronized deposit
+    public synchronized void deposit(double amount) {
+        System.out.println(Thread.currentThread().getName() + " depositing " + amount);
+        double newBalance = balance + amount;
+        
+        // Simulate processing delay
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        
+        balance = newBalance;
+        System.out.println(Thread.currentThread().getName() + " deposit complete. Balance: " + balance);
+    }
+    
+    // Synchronized withdrawal
+    public synchronized void withdraw(double amount) {
+        System.out.println(Thread.currentThread().getName() + " withdrawing " + amount);
+        
+        if (balance >= amount) {
+            double newBalance = balance - amount;
+            
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            
+            balance = newBalance;
+            System.out.println(Thread.currentThread().getName() + " withdrawal complete. Balance: " + balance);
+        } else {
+            System.out.println(Thread.currentThread().getName() + " withdrawal failed. Insufficient balance.");
+        }
+    }
+    
+    public synchronized double getBalance() {
+        return balance;
+    }
+    
+    public String getAccountHolder() {
+        return accountHolder;
+    }
+}
@@ -0,0 +1,10 @@
+/*
+ * UNIT 6 (EXTRA): EXECUTION MODES - ExecutionMode
+ *
+ * Which kind of thread runs a task. Picked on the Unit6_Multithreading
+ * command line and compared in Unit6_ExecutionModes.
+ */
+
+enum ExecutionMode {
+    VIRTUAL, PLATFORM_POOL, FORK_JOIN
+}
@@ -0,0 +1,35 @@
+/*
+ * UNIT 6 (EXTRA): JVM-WIDE DEADLOCK CHECK
+ *
+ * Asks ThreadMXBean which threads are deadlocked. It can only report a cycle,
+ * not break it - DeadlockDetector in Unit6_DeadlockDetection does that.
+ * deadlockExample() in Unit6_Multithreading prints this report instead of
+ * assuming a deadlock happened.
+ */
+
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+
+
+class JvmDeadlockMonitor {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    // Describes each deadlocked thread (monitors and j.u.c locks), empty if none
+    public static List<String> findDeadlocks() {
+        long[] ids = THREADS.findDeadlockedThreads();
+        List<String> report = new ArrayList<>();
+        if (ids == null) {
+            return report;
+        }
+        for (ThreadInfo info : THREADS.getThreadInfo(ids)) {
+            if (info != null) {
+                report.add(info.getThreadName() + " waiting for " + info.getLockName()
+                    + " held by " + info.getLockOwnerName());
+            }
+        }
+        return report;
+    }
+}
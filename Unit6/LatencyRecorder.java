@@ -0,0 +1,46 @@
+/*
+ * UNIT 6 (EXTRA): LATENCY RECORDER
+ *
+ * Fixed-size sample buffer for per-task latencies, read back as percentiles.
+ * Started in Unit6_ExecutionModes; Unit6_AsyncPipeline and
+ * Unit6_PriorityScheduler report their latencies with it as well.
+ */
+
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+
+class LatencyRecorder {
+    private final long[] samples;
+    private final AtomicInteger count = new AtomicInteger();
+
+    public LatencyRecorder(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public void record(long nanos) {
+        int i = count.getAndIncrement();
+        if (i < samples.length) {
+            samples[i] = nanos;
+        }
+    }
+
+    public int count() {
+        return Math.min(count.get(), samples.length);
+    }
+
+    // Sorts a copy; p is 0..100
+    public long[] percentiles(double... p) {
+        long[] sorted = Arrays.copyOf(samples, count());
+        Arrays.sort(sorted);
+        long[] result = new long[p.length];
+        for (int i = 0; i < p.length; i++) {
+            if (sorted.length > 0) {
+                int index = (int) Math.ceil(p[i] / 100.0 * sorted.length) - 1;
+                result[i] = sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * UNIT 6 (EXTRA): LOG-LINEAR HISTOGRAM
+ *
+ * HdrHistogram-style buckets: powers of 2, each split into 128 linear
+ * sub-buckets. Fixed memory, <1% value error, cheap percentiles.
+ * ThreadMetrics records state and CPU times in it; PriorityScheduler uses
+ * one per lane for queue latency.
+ */
+
+
+import java.io.PrintStream;
+
+
+class LogHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;  // 128
+    private static final int HALF_COUNT = SUB_BUCKET_COUNT / 2;
+
+    private final String name;
+    private final String unit;
+    private final long[] counts = new long[(64 - SUB_BUCKET_BITS + 2) * HALF_COUNT];
+    private long totalCount;
+    private long max;
+    private double sum;
+
+
+    public LogHistogram(String name, String unit) {
+        this.name = name;
+        this.unit = unit;
+    }
+
+
+    static int indexOf(long value) {
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        int sub = (int) (value >>> shift);
+        return shift == 0 ? sub : shift * HALF_COUNT + sub;
+    }
+
+
+    // Highest value that lands in the same bucket (what HdrHistogram reports)
+    static long highestEquivalent(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / HALF_COUNT - 1;
+        long sub = index - (long) shift * HALF_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+
+
+    public synchronized void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+
+    public synchronized long getTotalCount() {
+        return totalCount;
+    }
+
+
+    public synchronized double getMean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+
+    public synchronized long valueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestEquivalent(i), max);
+            }
+        }
+        return max;
+    }
+
+
+    // HdrHistogram-like "percentile distribution" text block
+    public synchronized void writeDistribution(PrintStream out, double scale) {
+        out.println("# " + name + " (" + unit + ")");
+        out.printf("%12s %14s %10s %14s%n", "Value", "Percentile", "TotalCount", "1/(1-Percentile)");
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            seen += counts[i];
+            double percentile = (double) seen / totalCount;
+            String inverse = percentile < 1.0 ? String.format("%.2f", 1 / (1 - percentile)) : "";
+            out.printf("%12.3f %14.12f %10d %14s%n",
+                Math.min(highestEquivalent(i), max) / scale, percentile, seen, inverse);
+        }
+        out.printf("#[Mean = %.3f, Max = %.3f, Total count = %d]%n%n", getMean() / scale, max / scale, totalCount);
+    }
+}
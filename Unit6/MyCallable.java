@@ -0,0 +1,53 @@
+/*
+ * UNIT 6: MULTITHREADING - MyCallable
+ *
+ * The Callable task from Example 1 of Unit6_Multithreading.java. The extra
+ * units (execution modes, async pipeline, fork/join sums) all submit it,
+ * so it sits in a file of its own.
+ */
+
+
+import java.io.PrintStream;
+import java.util.concurrent.*;
+
+
+// Method 3: Implementing Callable interface (returns result)
+class MyCallable implements Callable<Integer> {
+    // At or above this limit the sum runs on fork/join instead (see Unit6_ParallelSum)
+    static final int PARALLEL_LIMIT = 10_000;
+    
+    private String taskName;
+    private int limit;
+    private PrintStream out;
+    
+    public MyCallable(String name, int limit) {
+        this(name, limit, System.out);
+    }
+    
+    public MyCallable(String name, int limit, PrintStream out) {
+        this.taskName = name;
+        this.limit = limit;
+        this.out = out;
+    }
+    
+    @Override
+    public Integer call() throws Exception {
+        out.println(taskName + " started");
+        
+        if (limit >= PARALLEL_LIMIT) {
+            // Same wrap-around result as the int loop below, without the per-step sleep
+            int sum = (int) new ParallelSum().sumRange(1, limit);
+            out.println(taskName + " computed sum (fork/join): " + sum);
+            return sum;
+        }
+        
+        int sum = 0;
+        for (int i = 1; i <= limit; i++) {
+            sum += i;
+            Thread.sleep(100);
+        }
+        
+        out.println(taskName + " computed sum: " + sum);
+        return sum;
+    }
+}
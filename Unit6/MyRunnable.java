@@ -0,0 +1,45 @@
+/*
+ * UNIT 6: MULTITHREADING - MyRunnable
+ *
+ * The Runnable task from Example 1 of Unit6_Multithreading.java.
+ * Unit6_ExecutionModes submits thousands of these per mode, so the class
+ * is declared here rather than as a helper inside the lesson file.
+ */
+
+import java.io.PrintStream;
+
+
+// Method 2: Implementing Runnable interface (preferred)
+class MyRunnable implements Runnable {
+    private String taskName;
+    private int iterations;
+    private PrintStream out;
+    
+    public MyRunnable(String name, int iterations) {
+        this(name, iterations, System.out);
+    }
+    
+    // out: where the progress lines go (Unit6_ExecutionModes passes a null stream)
+    public MyRunnable(String name, int iterations, PrintStream out) {
+        this.taskName = name;
+        this.iterations = iterations;
+        this.out = out;
+    }
+    
+    @Override
+    public void run() {
+        out.println(taskName + " started (Thread: " + Thread.currentThread().getName() + ")");
+        
+        for (int i = 1; i <= iterations; i++) {
+            out.println(taskName + " - Step " + i);
+            
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                out.println(taskName + " interrupted");
+            }
+        }
+        
+        out.println(taskName + " completed");
+    }
+}
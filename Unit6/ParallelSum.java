@@ -0,0 +1,157 @@
+/*
+ * UNIT 6 (EXTRA): FORK/JOIN SUM ENGINE
+ *
+ * Splits a range or an int[] into leaves of about `threshold` elements and
+ * adds them on a ForkJoinPool, wrapping or checked (Math.addExact).
+ * MyCallable hands large limits to it, and Unit6_ParallelSum demos and
+ * benchmarks it.
+ */
+
+
+import java.util.*;
+import java.util.concurrent.*;
+
+
+class ParallelSum {
+    static final int DEFAULT_THRESHOLD = 32_768;
+
+
+    // Sum of from..to (inclusive, from <= to)
+    static final class RangeTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+        private final int threshold;
+        private final boolean checked;
+
+        RangeTask(long from, long to, int threshold, boolean checked) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.checked = checked;
+        }
+
+        @Override
+        protected Long compute() {
+            // to - from read as unsigned: Long.MIN_VALUE..Long.MAX_VALUE must not look small
+            long span = to - from;
+            if (Long.compareUnsigned(span, threshold) < 0) {
+                // Stop at to before incrementing: i <= to never fails when to == Long.MAX_VALUE
+                long sum = 0;
+                if (checked) {
+                    for (long i = from; ; i++) {
+                        sum = Math.addExact(sum, i);
+                        if (i == to) {
+                            break;
+                        }
+                    }
+                } else {
+                    for (long i = from; ; i++) {
+                        sum += i;
+                        if (i == to) {
+                            break;
+                        }
+                    }
+                }
+                return sum;
+            }
+
+            long mid = from + (span >>> 1);
+            RangeTask left = new RangeTask(from, mid, threshold, checked);
+            RangeTask right = new RangeTask(mid + 1, to, threshold, checked);
+            left.fork();                          // Someone may steal this half
+            long rightSum = right.compute();      // Do the other half ourselves
+            long leftSum = left.join();
+            return checked ? Math.addExact(leftSum, rightSum) : leftSum + rightSum;
+        }
+    }
+
+
+    // Sum of data[from..to) (exclusive end, like Arrays methods)
+    static final class ArrayTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] data;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final boolean checked;
+
+        ArrayTask(int[] data, int from, int to, int threshold, boolean checked) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.checked = checked;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= threshold) {
+                long sum = 0;
+                if (checked) {
+                    for (int i = from; i < to; i++) {
+                        sum = Math.addExact(sum, data[i]);
+                    }
+                } else {
+                    for (int i = from; i < to; i++) {
+                        sum += data[i];
+                    }
+                }
+                return sum;
+            }
+
+            int mid = (from + to) >>> 1;
+            ArrayTask left = new ArrayTask(data, from, mid, threshold, checked);
+            ArrayTask right = new ArrayTask(data, mid, to, threshold, checked);
+            left.fork();
+            long rightSum = right.compute();
+            long leftSum = left.join();
+            return checked ? Math.addExact(leftSum, rightSum) : leftSum + rightSum;
+        }
+    }
+
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final boolean checked;
+
+
+    // Common pool, default threshold, wrapping arithmetic
+    public ParallelSum() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD, false);
+    }
+
+    public ParallelSum(ForkJoinPool pool, int threshold, boolean checked) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+        this.checked = checked;
+    }
+
+
+    // Throws ArithmeticException in checked mode if the total does not fit in a long
+    public long sumRange(long from, long to) {
+        if (from > to) {
+            return 0;
+        }
+        return pool.invoke(new RangeTask(from, to, threshold, checked));
+    }
+
+
+    public long sum(int[] data) {
+        return sum(data, 0, data.length);
+    }
+
+
+    public long sum(int[] data, int from, int to) {
+        Objects.checkFromToIndex(from, to, data.length);
+        if (to - from <= threshold) {
+            return new ArrayTask(data, from, to, threshold, checked).compute();  // Too small to split
+        }
+        return pool.invoke(new ArrayTask(data, from, to, threshold, checked));
+    }
+}
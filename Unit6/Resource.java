@@ -0,0 +1,20 @@
+/*
+ * UNIT 6: MULTITHREADING - Resource
+ *
+ * The lock target of Example 3's deadlock demos. Unit6_DeadlockDetection
+ * builds its wait-for graph over the same Resource objects, so the class
+ * needs a file of its own to be shared without lint warnings.
+ */
+
+// Deadlock example
+class Resource {
+    private String name;
+    
+    public Resource(String name) {
+        this.name = name;
+    }
+    
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,19 @@
+/*
+ * UNIT 6: MULTITHREADING - SafeCounter
+ *
+ * The synchronized counter from Example 2 of Unit6_Multithreading.java.
+ */
+
+// Shared resource WITH synchronization (thread-safe)
+class SafeCounter {
+    private int count = 0;
+    
+    // Synchronized method
+    public synchronized void increment() {
+        count++;
+    }
+    
+    public synchronized int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * UNIT 6: MULTITHREADING - SharedBuffer
+ *
+ * Example 3's wait()/notify() producer-consumer buffer, from Unit6_Multithreading.java.
+ */
+
+
+import java.io.PrintStream;
+import java.util.*;
+
+
+// Producer-Consumer problem
+class SharedBuffer {
+    private Queue<Integer> buffer = new LinkedList<>();
+    private int capacity;
+    private PrintStream out;
+    
+    public SharedBuffer(int capacity) {
+        this(capacity, System.out);
+    }
+    
+    // out: where the per-item messages go (Unit6_RingBuffers passes a null stream)
+    public SharedBuffer(int capacity, PrintStream out) {
+        this.capacity = capacity;
+        this.out = out;
+    }
+    
+    // Producer adds to buffer
+    public synchronized void produce(int item) throws InterruptedException {
+        while (buffer.size() == capacity) {
+            out.println("Buffer full. Producer waiting...");
+            wait();  // Release lock and wait
+        }
+        
+        buffer.add(item);
+        out.println("Produced: " + item + " (Buffer size: " + buffer.size() + ")");
+        
+        notify();  // Wake up consumer
+    }
+    
+    // Consumer removes from buffer
+    public synchronized int consume() throws InterruptedException {
+        while (buffer.isEmpty()) {
+            out.println("Buffer empty. Consumer waiting...");
+            wait();  // Release lock and wait
+        }
+        
+        int item = buffer.poll();
+        out.println("Consumed: " + item + " (Buffer size: " + buffer.size() + ")");
+        
+        notify();  // Wake up producer
+        
+        return item;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * UNIT 6 (EXTRA): EXECUTION MODES - TaskExecutors
+ *
+ * The executor factory from Example 1 of Unit6_ExecutionModes.java.
+ */
+
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+class TaskExecutors {
+
+    private static final Method NEW_VIRTUAL_EXECUTOR = findVirtualExecutorFactory();
+
+    // Looked up reflectively so this file still compiles and runs on Java 17
+    private static Method findVirtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+
+    public static boolean virtualThreadsAvailable() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+
+    // poolSize is ignored for VIRTUAL (one thread per task)
+    public static ExecutorService create(ExecutionMode mode, int poolSize) {
+        switch (mode) {
+            case VIRTUAL:
+                if (NEW_VIRTUAL_EXECUTOR != null) {
+                    try {
+                        return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+                    } catch (ReflectiveOperationException e) {
+                        throw new IllegalStateException("Cannot create virtual thread executor", e);
+                    }
+                }
+                // Closest thing on older JDKs: a new (platform) thread per task
+                return new ThreadPerTaskExecutor();
+            case PLATFORM_POOL:
+                return Executors.newFixedThreadPool(poolSize);
+            case FORK_JOIN:
+                return new ForkJoinPool(poolSize);
+            default:
+                throw new IllegalArgumentException("Unknown execution mode: " + mode);
+        }
+    }
+
+
+    public static String describe(ExecutionMode mode, int poolSize) {
+        switch (mode) {
+            case VIRTUAL:
+                return virtualThreadsAvailable() ? "virtual threads" : "thread-per-task (no virtual threads on this JDK)";
+            case PLATFORM_POOL:
+                return "fixed pool of " + poolSize;
+            default:
+                return "fork/join, parallelism " + poolSize;
+        }
+    }
+
+
+    // newVirtualThreadPerTaskExecutor() with platform threads: every task gets a new
+    // thread that ends with it. Unlike newCachedThreadPool(), no thread is ever reused.
+    static final class ThreadPerTaskExecutor extends AbstractExecutorService {
+        private final AtomicInteger created = new AtomicInteger();
+        private final Set<Thread> running = new HashSet<>();  // Guarded by itself
+        private boolean shutdown;
+
+        @Override
+        public void execute(Runnable task) {
+            Thread thread = new Thread(() -> {
+                try {
+                    task.run();
+                } finally {
+                    synchronized (running) {
+                        running.remove(Thread.currentThread());
+                        running.notifyAll();
+                    }
+                }
+            }, "task-thread-" + created.incrementAndGet());
+            synchronized (running) {
+                if (shutdown) {
+                    throw new RejectedExecutionException("Executor is shut down");
+                }
+                running.add(thread);
+            }
+            thread.start();
+        }
+
+        @Override
+        public void shutdown() {
+            synchronized (running) {
+                shutdown = true;
+                running.notifyAll();
+            }
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            synchronized (running) {
+                shutdown = true;
+                for (Thread thread : running) {
+                    thread.interrupt();
+                }
+            }
+            return Collections.emptyList();  // Nothing is ever queued
+        }
+
+        @Override
+        public boolean isShutdown() {
+            synchronized (running) {
+                return shutdown;
+            }
+        }
+
+        @Override
+        public boolean isTerminated() {
+            synchronized (running) {
+                return shutdown && running.isEmpty();
+            }
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (running) {
+                while (!(shutdown && running.isEmpty())) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(running, remaining);
+                }
+                return true;
+            }
+        }
+    }
+}
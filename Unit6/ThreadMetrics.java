@@ -0,0 +1,264 @@
+/*
+ * UNIT 6 (EXTRA): THREAD METRICS - ThreadMetrics
+ *
+ * The registry and sampler from Example 2 of Unit6_ThreadMetrics.java.
+ */
+
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+
+class ThreadMetrics {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    // Per-worker accumulators (only the sampler touches stateNanos)
+    static final class Tracked {
+        final Thread thread;  // null for threads found by watchAllThreads()
+        final long startNanos;
+        final long[] stateNanos = new long[Thread.State.values().length];
+        long lastSample;
+        volatile long cpuNanos = -1;
+        volatile long blockedCount;
+        volatile long waitedCount;
+
+        Tracked(Thread thread, long startNanos) {
+            this.thread = thread;
+            this.startNanos = startNanos;
+            this.lastSample = startNanos;
+        }
+    }
+
+
+    private final long intervalNanos;
+    private final Map<Long, Tracked> live = new ConcurrentHashMap<>();  // By thread id
+    private final Set<Long> created = ConcurrentHashMap.newKeySet();  // Ids of newThread() threads
+    private volatile Set<Long> preexisting;  // Set by watchAllThreads(): threads it leaves alone
+    private final Map<Thread.State, LogHistogram> stateHistograms = new EnumMap<>(Thread.State.class);
+    private final LogHistogram cpuHistogram = new LogHistogram("CPU time per thread", "ms");
+    private final LogHistogram lifetimeHistogram = new LogHistogram("Lifetime per thread", "ms");
+    private final LogHistogram blockedHistogram = new LogHistogram("Monitor contentions per thread", "count");
+    private final LogHistogram waitedHistogram = new LogHistogram("Waits per thread", "count");
+    private final AtomicInteger threadNumber = new AtomicInteger();
+    private final Thread sampler;
+    private volatile boolean running = true;
+
+
+    public ThreadMetrics(long intervalMillis) {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        for (Thread.State state : new Thread.State[] {
+                Thread.State.RUNNABLE, Thread.State.BLOCKED, Thread.State.WAITING, Thread.State.TIMED_WAITING }) {
+            stateHistograms.put(state, new LogHistogram("Time " + state + " per thread", "ms"));
+        }
+        if (THREADS.isThreadCpuTimeSupported() && !THREADS.isThreadCpuTimeEnabled()) {
+            THREADS.setThreadCpuTimeEnabled(true);
+        }
+
+        sampler = new Thread(this::sampleLoop, "thread-metrics-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+
+    // Like new Thread(task, name), but the thread is tracked from start to finish
+    public Thread newThread(Runnable task, String name) {
+        Tracked[] tracked = new Tracked[1];
+
+        Thread thread = new Thread(() -> {
+            try {
+                task.run();
+            } finally {
+                captureMXBeanStats(tracked[0]);
+            }
+        }, name);
+
+        tracked[0] = new Tracked(thread, System.nanoTime());
+        created.add(thread.getId());
+        live.put(thread.getId(), tracked[0]);
+        return thread;
+    }
+
+
+    // Also track every thread started from now on, however it was created: new Thread(...),
+    // a subclass like MyThread, a pool. The sampler finds them through ThreadMXBean, so a
+    // thread that lives for less than one sampling interval can be missed.
+    public void watchAllThreads() {
+        Set<Long> existing = new HashSet<>();
+        for (long id : THREADS.getAllThreadIds()) {
+            existing.add(id);
+        }
+        preexisting = existing;
+    }
+
+
+    // Plug into Executors.newFixedThreadPool(n, factory) / TaskExecutors
+    public ThreadFactory factory(String prefix) {
+        return task -> newThread(task, prefix + "-" + threadNumber.incrementAndGet());
+    }
+
+
+    private static void captureMXBeanStats(Tracked tracked) {
+        tracked.cpuNanos = THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+        ThreadInfo info = THREADS.getThreadInfo(Thread.currentThread().getId());
+        if (info != null) {
+            tracked.blockedCount = info.getBlockedCount();
+            tracked.waitedCount = info.getWaitedCount();
+        }
+    }
+
+
+    private void sampleLoop() {
+        while (running) {
+            sampleOnce();
+            try {
+                Thread.sleep(Math.max(1, TimeUnit.NANOSECONDS.toMillis(intervalNanos)));
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        sampleOnce();
+    }
+
+
+    private void sampleOnce() {
+        long now = System.nanoTime();
+        if (preexisting != null) {
+            sampleAllThreads(now);
+        }
+        Iterator<Tracked> it = live.values().iterator();
+        while (it.hasNext()) {
+            Tracked t = it.next();
+            if (t.thread == null) {
+                continue;  // Handled by sampleAllThreads()
+            }
+            Thread.State state = t.thread.getState();
+
+            if (state == Thread.State.NEW) {
+                t.lastSample = now;  // Not started yet, nothing to charge
+                continue;
+            }
+            if (state == Thread.State.TERMINATED) {
+                it.remove();
+                finish(t, now);
+                continue;
+            }
+            t.stateNanos[state.ordinal()] += now - t.lastSample;
+            t.lastSample = now;
+        }
+    }
+
+
+    // Threads we did not create: state, CPU time and counts come from ThreadMXBean on every
+    // tick, and a thread that is no longer listed has ended
+    private void sampleAllThreads(long now) {
+        long[] ids = THREADS.getAllThreadIds();
+        ThreadInfo[] infos = THREADS.getThreadInfo(ids);
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < ids.length; i++) {
+            long id = ids[i];
+            // newThread() threads are sampled below, through their Thread object
+            if (infos[i] == null || preexisting.contains(id) || created.contains(id) || id == sampler.getId()) {
+                continue;
+            }
+            Tracked t = live.computeIfAbsent(id, key -> new Tracked(null, now));
+            seen.add(id);
+            t.stateNanos[infos[i].getThreadState().ordinal()] += now - t.lastSample;
+            t.lastSample = now;
+            long cpu = THREADS.isThreadCpuTimeEnabled() ? THREADS.getThreadCpuTime(id) : -1;
+            if (cpu >= 0) {
+                t.cpuNanos = cpu;  // -1 once it has ended: keep the last value
+            }
+            t.blockedCount = infos[i].getBlockedCount();
+            t.waitedCount = infos[i].getWaitedCount();
+        }
+
+        Iterator<Map.Entry<Long, Tracked>> it = live.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Tracked> entry = it.next();
+            if (entry.getValue().thread == null && !seen.contains(entry.getKey())) {
+                it.remove();
+                finish(entry.getValue(), now);
+            }
+        }
+    }
+
+
+    private void finish(Tracked t, long now) {
+        for (Map.Entry<Thread.State, LogHistogram> entry : stateHistograms.entrySet()) {
+            entry.getValue().record(t.stateNanos[entry.getKey().ordinal()]);
+        }
+        lifetimeHistogram.record(now - t.startNanos);
+        if (t.cpuNanos >= 0) {
+            cpuHistogram.record(t.cpuNanos);
+        }
+        blockedHistogram.record(t.blockedCount);
+        waitedHistogram.record(t.waitedCount);
+    }
+
+
+    // Stops sampling, folds in any threads that already ended
+    public void stop() {
+        running = false;
+        sampler.interrupt();
+        try {
+            sampler.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    public LogHistogram stateHistogram(Thread.State state) {
+        return stateHistograms.get(state);
+    }
+
+
+    public void printSummary(PrintStream out) {
+        out.printf("%-16s %8s %10s %10s %10s %10s%n", "Metric (ms)", "threads", "mean", "p50", "p99", "max");
+        for (Map.Entry<Thread.State, LogHistogram> entry : stateHistograms.entrySet()) {
+            printRow(out, entry.getKey().toString(), entry.getValue(), 1e6);
+        }
+        printRow(out, "CPU time", cpuHistogram, 1e6);
+        printRow(out, "Lifetime", lifetimeHistogram, 1e6);
+        printRow(out, "Blocked (count)", blockedHistogram, 1);
+        printRow(out, "Waited (count)", waitedHistogram, 1);
+    }
+
+
+    private static void printRow(PrintStream out, String label, LogHistogram h, double scale) {
+        out.printf("%-16s %8d %10.2f %10.2f %10.2f %10.2f%n", label, h.getTotalCount(),
+            h.getMean() / scale, h.valueAtPercentile(50) / scale,
+            h.valueAtPercentile(99) / scale, h.valueAtPercentile(100) / scale);
+    }
+
+
+    public void dump(File file) throws IOException {
+        try (PrintStream out = new PrintStream(new FileOutputStream(file))) {
+            for (LogHistogram h : stateHistograms.values()) {
+                h.writeDistribution(out, 1e6);
+            }
+            cpuHistogram.writeDistribution(out, 1e6);
+            lifetimeHistogram.writeDistribution(out, 1e6);
+            blockedHistogram.writeDistribution(out, 1);
+            waitedHistogram.writeDistribution(out, 1);
+        }
+    }
+
+
+    // Stop sampling and write the histograms when the JVM exits
+    public void dumpOnShutdown(File file) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stop();
+            try {
+                dump(file);
+            } catch (IOException e) {
+                System.err.println("Could not write thread metrics: " + e.getMessage());
+            }
+        }, "thread-metrics-dump"));
+    }
+}
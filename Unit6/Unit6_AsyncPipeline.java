@@ -0,0 +1,335 @@
+/*
+ * UNIT 6 (EXTRA): ASYNC PIPELINES WITH COMPLETABLEFUTURE
+ *
+ * callableExample() calls future1.get() and then future2.get().
+ * If Task-2 finishes first, its result just sits there until Task-1 is done.
+ * That's waiting in line at the canteen even though your order is ready. 🍛
+ *
+ * THEORY:
+ *
+ * Future.get()        : Blocks the calling thread until the result arrives
+ * CompletableFuture   : Says WHAT to do when a result arrives, no thread waits
+ *
+ * Building blocks:
+ * - supplyAsync(task, executor) : Start a stage
+ * - thenApply(fn)               : Transform a result
+ * - thenCombine(other, fn)      : Join two results (fan-in of 2)
+ * - allOf(...)                  : Completes when all complete (fan-in of N)
+ * - orTimeout(t, unit)          : Fail the stage if it takes too long
+ * - completeOnTimeout(v, t, u)  : Use a fallback value instead of failing
+ * - cancel(true)                : Give up on a stage (dependents fail too).
+ *                                 Note: the task already running is NOT interrupted
+ *
+ * DAG: fan-out N sum tasks, combine them pairwise as a tree (log N depth),
+ * so thousands of results are added up without blocking a thread per result.
+ */
+
+
+import java.util.*;
+import java.util.concurrent.*;
+
+
+// ============================================
+// EXAMPLE 1: ASYNC COMPOSITION LAYER
+// ============================================
+
+class AsyncSumPipeline {
+    private final Executor executor;
+    private final long stageTimeoutMillis;
+    private final Set<CompletableFuture<?>> stages = ConcurrentHashMap.newKeySet();  // Not finished yet
+
+    public AsyncSumPipeline(Executor executor, long stageTimeoutMillis) {
+        this.executor = executor;
+        this.stageTimeoutMillis = stageTimeoutMillis;
+    }
+
+
+    // One task (e.g. a MyCallable) as a stage, failing with TimeoutException after stageTimeoutMillis
+    public CompletableFuture<Integer> submit(Callable<Integer> task) {
+        CompletableFuture<Integer> stage = CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor).orTimeout(stageTimeoutMillis, TimeUnit.MILLISECONDS);
+
+        stages.add(stage);
+        stage.whenComplete((result, error) -> stages.remove(stage));  // Nothing left to cancel
+        return stage;
+    }
+
+
+    // Fan-out: one stage per task
+    public List<CompletableFuture<Integer>> fanOut(List<? extends Callable<Integer>> tasks) {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(tasks.size());
+        for (Callable<Integer> task : tasks) {
+            futures.add(submit(task));
+        }
+        return futures;
+    }
+
+
+    // Fan-in: pairwise thenCombine tree, depth log2(N)
+    public CompletableFuture<Long> sumAll(List<CompletableFuture<Integer>> parts) {
+        if (parts.isEmpty()) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        List<CompletableFuture<Long>> level = new ArrayList<>(parts.size());
+        for (CompletableFuture<Integer> part : parts) {
+            level.add(part.thenApply(Integer::longValue));
+        }
+        while (level.size() > 1) {
+            List<CompletableFuture<Long>> next = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i + 1 < level.size(); i += 2) {
+                next.add(level.get(i).thenCombine(level.get(i + 1), Long::sum));
+            }
+            if (level.size() % 2 == 1) {
+                next.add(level.get(level.size() - 1));
+            }
+            level = next;
+        }
+        return level.get(0);
+    }
+
+
+    // Fan-in that tolerates slow/failed parts: they count as `fallback`
+    public CompletableFuture<Long> sumAllOrDefault(List<CompletableFuture<Integer>> parts, int fallback) {
+        List<CompletableFuture<Integer>> safe = new ArrayList<>(parts.size());
+        for (CompletableFuture<Integer> part : parts) {
+            safe.add(part.exceptionally(e -> fallback));
+        }
+        return sumAll(safe);
+    }
+
+
+    // Cancels every stage that has not finished yet; returns how many were cancelled
+    public int cancelAll() {
+        int cancelled = 0;
+        for (CompletableFuture<?> stage : stages) {
+            if (stage.cancel(true)) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: DEMOS AND LATENCY COMPARISON
+// ============================================
+
+class AsyncPipelineExample {
+
+    // MyCallable's sum (100 ms per step) without its println per task, so the
+    // measured runs below don't flood the console
+    static Callable<Integer> sumTask(int limit) {
+        return () -> {
+            int sum = 0;
+            for (int i = 1; i <= limit; i++) {
+                sum += i;
+                Thread.sleep(100);
+            }
+            return sum;
+        };
+    }
+
+
+    public void timeoutsAndCancellation() throws Exception {
+        System.out.println("\n=== Per-Stage Timeouts and Cancellation ===");
+        System.out.println();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AsyncSumPipeline pipeline = new AsyncSumPipeline(executor, 500);
+
+        // Limit 3 -> ~300 ms (fits), limit 20 -> ~2 s (times out at 500 ms)
+        List<CompletableFuture<Integer>> parts = pipeline.fanOut(Arrays.asList(
+            sumTask(3),
+            sumTask(3),
+            sumTask(20)));
+
+        CompletableFuture<Long> strict = pipeline.sumAll(parts);
+        CompletableFuture<Long> lenient = pipeline.sumAllOrDefault(parts, 0);
+
+        try {
+            System.out.println("Strict sum: " + strict.get());
+        } catch (ExecutionException e) {
+            System.out.println("Strict sum failed: " + e.getCause().getClass().getSimpleName()
+                + " (the slow stage missed its 500 ms budget)");
+        }
+        System.out.println("Lenient sum (timed-out stage counts as 0): " + lenient.get());
+
+        // Start more work, then abandon it
+        pipeline.fanOut(Arrays.asList(sumTask(50), sumTask(50)));
+        System.out.println("Cancelled stages: " + pipeline.cancelAll());
+
+        executor.shutdownNow();
+        System.out.println();
+    }
+
+
+    static List<Callable<Integer>> workload(int tasks, long seed) {
+        Random random = new Random(seed);
+        List<Callable<Integer>> list = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            list.add(sumTask(1 + random.nextInt(4)));  // 100..400 ms
+        }
+        return list;
+    }
+
+
+    // Runs task, first recording how long it sat in the executor's queue
+    private static Callable<Integer> timed(Callable<Integer> task, LatencyRecorder queueDelay) {
+        long submitted = System.nanoTime();
+        return () -> {
+            queueDelay.record(System.nanoTime() - submitted);
+            return task.call();
+        };
+    }
+
+
+    // Total wall time, queue delay (submit -> start) and, for get(), how long results sat unread
+    public void compareWithBlockingGet(int tasks, int poolSize) throws Exception {
+        System.out.println("\n=== Blocking get() vs CompletableFuture DAG ===");
+        System.out.println("Tasks: " + tasks + ", pool: " + poolSize);
+        System.out.println();
+
+        // --- Blocking: submit all, then get() in submission order ---
+        LatencyRecorder blockingQueue = new LatencyRecorder(tasks);
+        LatencyRecorder blockingIdle = new LatencyRecorder(tasks);
+        ExecutorService blockingPool = Executors.newFixedThreadPool(poolSize);
+        long[] readyAt = new long[tasks];
+        List<Future<Integer>> futures = new ArrayList<>(tasks);
+        long blockingStart = System.nanoTime();
+
+        List<Callable<Integer>> list = workload(tasks, 42);
+        for (int i = 0; i < tasks; i++) {
+            final int index = i;
+            Callable<Integer> task = timed(list.get(i), blockingQueue);
+            futures.add(blockingPool.submit(() -> {
+                int value = task.call();
+                readyAt[index] = System.nanoTime();
+                return value;
+            }));
+        }
+
+        long blockingTotal = 0;
+        for (int i = 0; i < tasks; i++) {
+            blockingTotal += futures.get(i).get();  // Head-of-line blocking
+            blockingIdle.record(System.nanoTime() - readyAt[i]);
+        }
+        long blockingElapsed = System.nanoTime() - blockingStart;
+        blockingPool.shutdown();
+
+        // --- Async: each result is combined the moment its partner is ready ---
+        LatencyRecorder asyncQueue = new LatencyRecorder(tasks);
+        ExecutorService asyncPool = Executors.newFixedThreadPool(poolSize);
+        AsyncSumPipeline pipeline = new AsyncSumPipeline(asyncPool, 60_000);
+        long asyncStart = System.nanoTime();
+
+        List<CompletableFuture<Integer>> parts = new ArrayList<>(tasks);
+        for (Callable<Integer> task : workload(tasks, 42)) {
+            parts.add(pipeline.submit(timed(task, asyncQueue)));
+        }
+
+        long asyncTotal = pipeline.sumAll(parts).get();  // Only the final answer is awaited
+        long asyncElapsed = System.nanoTime() - asyncStart;
+        asyncPool.shutdown();
+
+        long[] bq = blockingQueue.percentiles(50, 99);
+        long[] bi = blockingIdle.percentiles(50, 99);
+        long[] aq = asyncQueue.percentiles(50, 99);
+        System.out.printf("%-22s %10s %13s %13s %13s%n", "Approach", "total ms", "p50 queue ms", "p99 queue ms",
+            "p99 unread ms");
+        System.out.printf("%-22s %10.1f %13.2f %13.2f %13.2f%n", "get() in order",
+            blockingElapsed / 1e6, bq[0] / 1e6, bq[1] / 1e6, bi[1] / 1e6);
+        System.out.printf("%-22s %10.1f %13.2f %13.2f %13s%n", "CompletableFuture DAG",
+            asyncElapsed / 1e6, aq[0] / 1e6, aq[1] / 1e6, "-");
+        System.out.println("Sums match: " + (blockingTotal == asyncTotal) + " (" + asyncTotal + ")");
+        System.out.println("'queue' = submit -> task start; 'unread' = finished result waiting for get()");
+        System.out.println();
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit6_AsyncPipeline {
+
+    public static void main(String[] args) throws Exception {
+
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int poolSize = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 6 (EXTRA): ASYNC PIPELINES");
+        System.out.println("=".repeat(70));
+
+
+        // ========== EXAMPLE 1: callableExample() WITHOUT BLOCKING ==========
+        System.out.println("\nEXAMPLE 1: callableExample(), composed instead of get()");
+        System.out.println("-".repeat(70));
+
+        callableExampleAsync();
+
+
+        // ========== EXAMPLE 2: TIMEOUTS AND CANCELLATION ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Timeouts and Cancellation");
+        System.out.println("-".repeat(70));
+
+        AsyncPipelineExample example = new AsyncPipelineExample();
+        example.timeoutsAndCancellation();
+
+
+        // ========== EXAMPLE 3: LATENCY COMPARISON ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 3: Latency Comparison");
+        System.out.println("-".repeat(70));
+
+        example.compareWithBlockingGet(tasks, poolSize);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("ASYNC PIPELINE SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  get() in order : Early results wait for slow ones ahead of them");
+        System.out.println("  thenCombine    : Results are added the moment both sides exist");
+        System.out.println("  orTimeout      : Each stage gets its own time budget");
+        System.out.println("  cancel         : Dependents complete exceptionally, nobody waits on them");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // ThreadCreationExample Method 6: callableExample()'s two tasks, combined without blocking on each get()
+    static void callableExampleAsync() {
+        System.out.println("\n=== Callable and CompletableFuture ===");
+        System.out.println("Results are combined as they arrive, no thread blocks per result");
+        System.out.println();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AsyncSumPipeline pipeline = new AsyncSumPipeline(executor, 10_000);
+
+        CompletableFuture<Integer> future1 = pipeline.submit(new MyCallable("Task-1", 10));
+        CompletableFuture<Integer> future2 = pipeline.submit(new MyCallable("Task-2", 20));
+
+        // Each result is printed the moment it is ready, in whatever order
+        future1.thenAccept(result -> System.out.println("\nTask-1 result: " + result));
+        future2.thenAccept(result -> System.out.println("\nTask-2 result: " + result));
+
+        try {
+            // The only wait is for the final combined value
+            System.out.println("Total: " + future1.thenCombine(future2, Integer::sum).get());
+
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        } finally {
+            executor.shutdown();
+        }
+        System.out.println();
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * UNIT 6 (EXTRA): CONCURRENT LEDGER - LOCK STRIPING AND STAMPEDLOCK
+ *
+ * BankAccount locks the whole account and sleeps 100 ms while holding it.
+ * Fine for one account. For a bank with thousands, one slow teller should not
+ * freeze everybody else's deposits. 🏦
+ *
+ * THEORY:
+ *
+ * LOCK STRIPING: Instead of one lock for everything (too coarse) or one lock per
+ * account (lots of lock objects), keep N locks and map each account to
+ * lock[hash(account) % N]. Accounts on different stripes never wait for each other.
+ *
+ * STAMPEDLOCK:
+ * - writeLock()          : Exclusive, like synchronized
+ * - readLock()           : Shared between readers
+ * - tryOptimisticRead()  : No lock at all! Read, then validate(stamp).
+ *                          If a writer slipped in, retry with a real readLock().
+ * Balance reads are frequent and tiny -> perfect for optimistic reads.
+ *
+ * DEADLOCK-FREE TRANSFER:
+ * A transfer needs two locks. Always take them in stripe-index order
+ * (same idea as deadlockPrevention()), and take only one if both accounts share a stripe.
+ */
+
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.StampedLock;
+
+
+// ============================================
+// EXAMPLE 1: THE LEDGER
+// ============================================
+
+class AccountLedger {
+
+    // Per-account state, guarded by its stripe's lock
+    static final class LedgerAccount {
+        final String accountId;
+        final String holder;
+        final StampedLock lock;
+        double balance;
+
+        LedgerAccount(String accountId, String holder, StampedLock lock, double balance) {
+            this.accountId = accountId;
+            this.holder = holder;
+            this.lock = lock;
+            this.balance = balance;
+        }
+    }
+
+
+    private final StampedLock[] stripes;
+    private final int mask;
+    private final long processingNanos;  // Simulated work done while holding the lock
+    private final ConcurrentHashMap<String, LedgerAccount> accounts = new ConcurrentHashMap<>();
+
+
+    public AccountLedger(int stripeCount) {
+        this(stripeCount, 0);
+    }
+
+    public AccountLedger(int stripeCount, long processingNanos) {
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;  // Power of 2
+        this.stripes = new StampedLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new StampedLock();
+        }
+        this.mask = size - 1;
+        this.processingNanos = processingNanos;
+    }
+
+
+    private int stripeIndex(String accountId) {
+        int h = accountId.hashCode();
+        h ^= (h >>> 16);  // Spread high bits, like HashMap does
+        return h & mask;
+    }
+
+
+    private LedgerAccount account(String accountId) {
+        LedgerAccount account = accounts.get(accountId);
+        if (account == null) {
+            throw new IllegalArgumentException("No such account: " + accountId);
+        }
+        return account;
+    }
+
+
+    private static void checkAmount(double amount) {
+        if (amount <= 0 || Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new IllegalArgumentException("Amount must be positive: " + amount);
+        }
+    }
+
+
+    private void process() {
+        if (processingNanos > 0) {
+            LockSupport.parkNanos(processingNanos);
+        }
+    }
+
+
+    // Opening an account
+    public void open(String accountId, String holder, double initialBalance) {
+        if (initialBalance < 0) {
+            throw new IllegalArgumentException("Initial balance cannot be negative: " + initialBalance);
+        }
+        LedgerAccount account = new LedgerAccount(accountId, holder,
+            stripes[stripeIndex(accountId)], initialBalance);
+        if (accounts.putIfAbsent(accountId, account) != null) {
+            throw new IllegalArgumentException("Account already exists: " + accountId);
+        }
+    }
+
+
+    // Moves an existing Unit 6 BankAccount into the ledger
+    public void open(String accountId, BankAccount existing) {
+        open(accountId, existing.getAccountHolder(), existing.getBalance());
+    }
+
+
+    public int accountCount() {
+        return accounts.size();
+    }
+
+
+    public void deposit(String accountId, double amount) {
+        checkAmount(amount);
+        LedgerAccount account = account(accountId);
+
+        long stamp = account.lock.writeLock();
+        try {
+            process();
+            account.balance += amount;
+        } finally {
+            account.lock.unlockWrite(stamp);
+        }
+    }
+
+
+    public boolean withdraw(String accountId, double amount) {
+        checkAmount(amount);
+        LedgerAccount account = account(accountId);
+
+        long stamp = account.lock.writeLock();
+        try {
+            if (account.balance < amount) {
+                return false;  // Insufficient balance
+            }
+            process();
+            account.balance -= amount;
+            return true;
+        } finally {
+            account.lock.unlockWrite(stamp);
+        }
+    }
+
+
+    // Optimistic read: no lock taken unless a writer interfered
+    public double getBalance(String accountId) {
+        LedgerAccount account = account(accountId);
+        StampedLock lock = account.lock;
+
+        long stamp = lock.tryOptimisticRead();
+        double balance = account.balance;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();  // Fall back to a real read lock
+            try {
+                balance = account.balance;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return balance;
+    }
+
+
+    // Atomic: either both balances change or neither does
+    public boolean transfer(String fromId, String toId, double amount) {
+        checkAmount(amount);
+        if (fromId.equals(toId)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account: " + fromId);
+        }
+        LedgerAccount from = account(fromId);
+        LedgerAccount to = account(toId);
+
+        int fromStripe = stripeIndex(fromId);
+        int toStripe = stripeIndex(toId);
+
+        // Same stripe -> one lock; otherwise always lower index first (no circular wait)
+        StampedLock first = stripes[Math.min(fromStripe, toStripe)];
+        StampedLock second = fromStripe == toStripe ? null : stripes[Math.max(fromStripe, toStripe)];
+
+        long firstStamp = first.writeLock();
+        long secondStamp = second == null ? 0 : second.writeLock();
+        try {
+            if (from.balance < amount) {
+                return false;
+            }
+            process();
+            from.balance -= amount;
+            to.balance += amount;
+            return true;
+        } finally {
+            if (second != null) {
+                second.unlockWrite(secondStamp);
+            }
+            first.unlockWrite(firstStamp);
+        }
+    }
+
+
+    // Consistent snapshot: holds every stripe's read lock (in order) while summing
+    public double totalBalance() {
+        long[] stamps = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = stripes[i].readLock();
+        }
+        try {
+            double total = 0;
+            for (LedgerAccount account : accounts.values()) {
+                total += account.balance;
+            }
+            return total;
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].unlockRead(stamps[i]);
+            }
+        }
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: DEMO AND SCALING BENCHMARK
+// ============================================
+
+class LedgerExample {
+
+    public void tellers() {
+        System.out.println("\n=== Ledger: Deposits, Withdrawals and Transfers ===");
+        System.out.println();
+
+        AccountLedger ledger = new AccountLedger(16);
+        ledger.open("ACC-1", new BankAccount("Alice", 1000));
+        ledger.open("ACC-2", new BankAccount("Bob", 500));
+
+        Thread t1 = new Thread(() -> ledger.deposit("ACC-1", 500), "Teller-1");
+        Thread t2 = new Thread(() -> ledger.withdraw("ACC-1", 300), "Teller-2");
+        Thread t3 = new Thread(() -> ledger.deposit("ACC-1", 200), "Teller-3");
+
+        // Transfers in both directions at once - would deadlock with naive locking
+        Thread t4 = new Thread(() -> {
+            for (int i = 0; i < 100; i++) ledger.transfer("ACC-1", "ACC-2", 1);
+        }, "Teller-4");
+        Thread t5 = new Thread(() -> {
+            for (int i = 0; i < 100; i++) ledger.transfer("ACC-2", "ACC-1", 1);
+        }, "Teller-5");
+
+        Thread[] tellers = { t1, t2, t3, t4, t5 };
+        for (Thread t : tellers) t.start();
+        for (Thread t : tellers) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+
+        System.out.println("Alice: " + ledger.getBalance("ACC-1") + " (expected 1400.0)");
+        System.out.println("Bob: " + ledger.getBalance("ACC-2") + " (expected 500.0)");
+        System.out.println("Total: " + ledger.totalBalance() + " (expected 1900.0)");
+        System.out.println();
+    }
+
+
+    // Deposits per second with `threads` tellers spread over `accountCount` accounts
+    static double run(AccountLedger ledger, String[] ids, int threads, int opsPerThread)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            final int seed = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int index = seed * 7919;
+                for (int i = 0; i < opsPerThread; i++) {
+                    index = (index + 104729) % ids.length;
+                    ledger.deposit(ids[index], 1);
+                }
+            });
+            workers[t].start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread w : workers) {
+            w.join();
+        }
+        return (long) threads * opsPerThread * 1e9 / (System.nanoTime() - startTime);
+    }
+
+
+    public void scaling(int accountCount, int maxThreads, int opsPerThread, long processingNanos)
+            throws InterruptedException {
+        System.out.println("\n=== Deposit Scaling ===");
+        System.out.println("Accounts: " + accountCount + ", deposits per teller: " + opsPerThread
+            + ", hold time: " + processingNanos / 1000 + " us");
+        System.out.println();
+
+        String[] ids = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            ids[i] = "ACC-" + i;
+        }
+
+        System.out.printf("%-8s %18s %18s %10s%n", "Tellers", "1 lock (ops/s)", "striped (ops/s)", "speedup");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            AccountLedger single = new AccountLedger(1, processingNanos);
+            AccountLedger striped = new AccountLedger(1024, processingNanos);
+            for (String id : ids) {
+                single.open(id, "Holder", 0);
+                striped.open(id, "Holder", 0);
+            }
+
+            double singleOps = run(single, ids, threads, opsPerThread);
+            double stripedOps = run(striped, ids, threads, opsPerThread);
+            System.out.printf("%-8d %,18.0f %,18.0f %9.1fx%n", threads, singleOps, stripedOps, stripedOps / singleOps);
+
+            double expected = (double) threads * opsPerThread;
+            if (striped.totalBalance() != expected) {
+                System.out.println("  WARNING: lost deposits, total " + striped.totalBalance() + " != " + expected);
+            }
+        }
+        System.out.println();
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit6_ConcurrentLedger {
+
+    public static void main(String[] args) throws Exception {
+
+        int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        long holdMicros = args.length > 2 ? Long.parseLong(args[2]) : 20;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 6 (EXTRA): CONCURRENT LEDGER");
+        System.out.println("=".repeat(70));
+
+
+        // ========== EXAMPLE 1: TELLERS ==========
+        System.out.println("\nEXAMPLE 1: Same tellers as synchronizedBlock(), plus transfers");
+        System.out.println("-".repeat(70));
+
+        LedgerExample example = new LedgerExample();
+        example.tellers();
+
+
+        // ========== EXAMPLE 2: SCALING ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: One lock vs striped locks");
+        System.out.println("-".repeat(70));
+
+        example.scaling(accounts, maxThreads, 200, holdMicros * 1000);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("LEDGER SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  Lock striping   : Accounts on different stripes never block each other");
+        System.out.println("  Optimistic read : getBalance() takes no lock unless a writer interferes");
+        System.out.println("  Transfers       : Stripe-ordered locking, so no circular wait");
+        System.out.println("=".repeat(70));
+    }
+}
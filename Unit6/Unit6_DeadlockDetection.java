@@ -0,0 +1,555 @@
+/*
+ * UNIT 6 (EXTRA): DEADLOCK DETECTION AND LOCK ORDERING
+ *
+ * deadlockExample() waits 500 ms and then just *announces* a deadlock.
+ * interrupt() can't even break it - threads stuck on synchronized don't care. 🔒
+ * Here we actually find the cycle, and pick a victim that backs off.
+ *
+ * THEORY:
+ *
+ * WAIT-FOR GRAPH:
+ * - Node = thread
+ * - Edge T1 -> T2 = "T1 is waiting for a lock that T2 owns"
+ * - Deadlock <=> the graph has a cycle
+ *
+ * DETECTION:
+ * - ThreadMXBean.findDeadlockedThreads() : JVM-wide, sees synchronized monitors too,
+ *   but can only REPORT (a thread blocked on a monitor cannot be cancelled)
+ * - Our own InstrumentedLock : records owner and waiter, checks for a cycle
+ *   before/while waiting, and uses tryLock(timeout) so the victim can give up
+ *
+ * VICTIM: Every thread on the cycle sees it, but only the one with the highest
+ * thread id throws DeadlockException. Its finally blocks release what it holds,
+ * and the others, still waiting, move on.
+ *
+ * PREVENTION (lock ordering):
+ * - Give every lock a global rank
+ * - Always acquire in increasing rank -> no cycle is possible
+ * - deadlockPrevention() does this by hand for 2 resources; lockInOrder() does it for N
+ *
+ * COST: Uncontended path = one tryLock() + one owner write. Graph work only
+ * happens when a thread actually has to wait.
+ */
+
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+// ============================================
+// EXAMPLE 1: INSTRUMENTED LOCKS AND THE WAIT-FOR GRAPH
+// ============================================
+
+class DeadlockException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Thread victim;
+
+    public DeadlockException(String message, Thread victim) {
+        super(message);
+        this.victim = victim;
+    }
+
+    public Thread getVictim() {
+        return victim;
+    }
+}
+
+
+enum LockMode {
+    DETECT,   // Allow any order, detect cycles and abort the victim
+    ORDERED   // Enforce increasing rank, cycles cannot form
+}
+
+
+class DeadlockDetector {
+    private static final AtomicLong NEXT_RANK = new AtomicLong();
+
+    private final LockMode mode;
+    private final long timeoutNanos;
+
+    // Wait-for graph: thread -> lock it is waiting for (owner comes from the lock)
+    private final ConcurrentHashMap<Thread, InstrumentedLock> waitingFor = new ConcurrentHashMap<>();
+
+    // ORDERED mode only: locks held by each thread, most recent last
+    private final ThreadLocal<ArrayDeque<InstrumentedLock>> held =
+        ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final AtomicLong deadlocksBroken = new AtomicLong();
+
+
+    public DeadlockDetector(LockMode mode, long timeout, TimeUnit unit) {
+        this.mode = mode;
+        this.timeoutNanos = unit.toNanos(timeout);
+    }
+
+
+    public InstrumentedLock wrap(Resource resource) {
+        return new InstrumentedLock(resource, NEXT_RANK.getAndIncrement(), this);
+    }
+
+
+    public LockMode getMode() {
+        return mode;
+    }
+
+
+    long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+
+    public long getDeadlocksBroken() {
+        return deadlocksBroken.get();
+    }
+
+
+    void startWaiting(Thread thread, InstrumentedLock lock) {
+        waitingFor.put(thread, lock);
+    }
+
+
+    void stopWaiting(Thread thread) {
+        waitingFor.remove(thread);
+    }
+
+
+    // Follows thread -> lock -> owner -> lock ... and returns the cycle, or null.
+    // The threads on the cycle are added to members.
+    List<String> findCycle(Thread start, List<Thread> members) {
+        List<String> path = new ArrayList<>();
+        Thread current = start;
+
+        for (int steps = 0; steps <= waitingFor.size(); steps++) {
+            InstrumentedLock lock = waitingFor.get(current);
+            if (lock == null) {
+                return null;
+            }
+            Thread owner = lock.getOwner();
+            if (owner == null) {
+                return null;
+            }
+            path.add(current.getName() + " waits for " + lock.getResource().getName()
+                + " (held by " + owner.getName() + ")");
+            members.add(current);
+            if (owner == start) {
+                return path;
+            }
+            current = owner;
+        }
+        return null;
+    }
+
+
+    void deadlockBroken() {
+        deadlocksBroken.incrementAndGet();
+    }
+
+
+    // ORDERED mode bookkeeping
+    void checkOrder(InstrumentedLock lock) {
+        ArrayDeque<InstrumentedLock> mine = held.get();
+        InstrumentedLock last = mine.peekLast();
+        if (last != null && last.getRank() > lock.getRank() && !lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("Lock order violation: " + lock.getResource().getName()
+                + " (rank " + lock.getRank() + ") requested while holding "
+                + last.getResource().getName() + " (rank " + last.getRank() + ")");
+        }
+    }
+
+
+    void acquired(InstrumentedLock lock) {
+        held.get().addLast(lock);
+    }
+
+
+    void released(InstrumentedLock lock) {
+        held.get().removeLastOccurrence(lock);
+    }
+
+
+    // Generalized deadlockPrevention(): any number of locks, always in rank order
+    public LockGroup lockInOrder(InstrumentedLock... locks) {
+        InstrumentedLock[] sorted = locks.clone();
+        Arrays.sort(sorted, Comparator.comparingLong(InstrumentedLock::getRank));
+
+        int acquired = 0;
+        try {
+            for (InstrumentedLock lock : sorted) {
+                lock.lock();
+                acquired++;
+            }
+        } catch (RuntimeException e) {
+            for (int i = acquired - 1; i >= 0; i--) {
+                sorted[i].unlock();
+            }
+            throw e;
+        }
+        return new LockGroup(sorted);
+    }
+}
+
+
+// Releases a lockInOrder() group in reverse order (use with try-with-resources)
+class LockGroup implements AutoCloseable {
+    private final InstrumentedLock[] locks;
+
+    LockGroup(InstrumentedLock[] locks) {
+        this.locks = locks;
+    }
+
+    @Override
+    public void close() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+}
+
+
+class InstrumentedLock {
+    private final Resource resource;
+    private final long rank;
+    private final DeadlockDetector detector;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Thread owner;
+
+    // How often a waiting thread re-checks the graph
+    private static final long CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+
+    InstrumentedLock(Resource resource, long rank, DeadlockDetector detector) {
+        this.resource = resource;
+        this.rank = rank;
+        this.detector = detector;
+    }
+
+
+    public Resource getResource() {
+        return resource;
+    }
+
+    public long getRank() {
+        return rank;
+    }
+
+    public Thread getOwner() {
+        return owner;
+    }
+
+    public boolean isHeldByCurrentThread() {
+        return lock.isHeldByCurrentThread();
+    }
+
+
+    public void lock() {
+        boolean ordered = detector.getMode() == LockMode.ORDERED;
+        if (ordered) {
+            detector.checkOrder(this);
+        }
+
+        // Fast path: nobody holds it, no graph work at all
+        if (lock.tryLock()) {
+            onAcquired(ordered);
+            return;
+        }
+
+        Thread me = Thread.currentThread();
+        long deadline = System.nanoTime() + detector.getTimeoutNanos();
+        detector.startWaiting(me, this);
+        List<Thread> members = new ArrayList<>();
+        try {
+            while (true) {
+                if (!ordered) {
+                    members.clear();
+                    List<String> cycle = detector.findCycle(me, members);
+                    // Every thread on the cycle sees it; only one (highest id) backs off,
+                    // the others keep waiting for the lock the victim is about to release
+                    if (cycle != null && isVictim(me, members)) {
+                        detector.deadlockBroken();
+                        throw new DeadlockException("Deadlock detected, " + me.getName()
+                            + " backs off: " + String.join(" -> ", cycle), me);
+                    }
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new DeadlockException(me.getName() + " timed out waiting for "
+                        + resource.getName(), me);
+                }
+
+                try {
+                    if (lock.tryLock(Math.min(remaining, CHECK_INTERVAL_NANOS), TimeUnit.NANOSECONDS)) {
+                        onAcquired(ordered);
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DeadlockException(me.getName() + " interrupted waiting for "
+                        + resource.getName(), me);
+                }
+            }
+        } finally {
+            detector.stopWaiting(me);
+        }
+    }
+
+
+    private static boolean isVictim(Thread me, List<Thread> members) {
+        for (Thread member : members) {
+            if (member.getId() > me.getId()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private void onAcquired(boolean ordered) {
+        owner = Thread.currentThread();
+        if (ordered) {
+            detector.acquired(this);
+        }
+    }
+
+
+    public void unlock() {
+        if (detector.getMode() == LockMode.ORDERED) {
+            detector.released(this);
+        }
+        if (lock.getHoldCount() == 1) {
+            owner = null;
+        }
+        lock.unlock();
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: JVM-WIDE DETECTION (ThreadMXBean)
+// ============================================
+
+// JvmDeadlockMonitor: JvmDeadlockMonitor.java
+
+
+// ============================================
+// EXAMPLE 3: DEMOS AND OVERHEAD BENCHMARK
+// ============================================
+
+class DeadlockDetectionExample {
+
+    // Same shape as deadlockExample(), but the cycle is found and broken
+    public void detectAndBreak() {
+        System.out.println("\n=== Deadlock Detection (Instrumented Locks) ===");
+        System.out.println();
+
+        DeadlockDetector detector = new DeadlockDetector(LockMode.DETECT, 5, TimeUnit.SECONDS);
+        InstrumentedLock lock1 = detector.wrap(new Resource("Resource-1"));
+        InstrumentedLock lock2 = detector.wrap(new Resource("Resource-2"));
+        CyclicBarrier bothHoldOne = new CyclicBarrier(2);
+
+        Runnable thread1Work = () -> crossLock(lock1, lock2, bothHoldOne);
+        Runnable thread2Work = () -> crossLock(lock2, lock1, bothHoldOne);
+
+        Thread thread1 = new Thread(thread1Work, "Thread-1");
+        Thread thread2 = new Thread(thread2Work, "Thread-2");
+        thread1.start();
+        thread2.start();
+
+        try {
+            thread1.join();
+            thread2.join();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        System.out.println("\nDeadlocks broken: " + detector.getDeadlocksBroken());
+        System.out.println("Both threads terminated: " + (!thread1.isAlive() && !thread2.isAlive()));
+        System.out.println();
+    }
+
+
+    private void crossLock(InstrumentedLock first, InstrumentedLock second, CyclicBarrier barrier) {
+        String me = Thread.currentThread().getName();
+        first.lock();
+        try {
+            System.out.println(me + ": Locked " + first.getResource().getName());
+            barrier.await();  // Make sure both threads hold their first lock
+
+            System.out.println(me + ": Waiting for " + second.getResource().getName());
+            second.lock();
+            try {
+                System.out.println(me + ": Locked " + second.getResource().getName());
+            } finally {
+                second.unlock();
+            }
+        } catch (DeadlockException e) {
+            System.out.println(me + ": " + e.getMessage());
+        } catch (InterruptedException | BrokenBarrierException e) {
+            e.printStackTrace();
+        } finally {
+            first.unlock();  // Victim releases here, letting the other thread finish
+        }
+    }
+
+
+    // deadlockPrevention() generalized: each worker grabs a random subset of N resources
+    public void orderedLocking(int resources, int workers, int rounds) {
+        System.out.println("\n=== Global Lock Ordering (" + resources + " resources) ===");
+        System.out.println();
+
+        DeadlockDetector detector = new DeadlockDetector(LockMode.ORDERED, 5, TimeUnit.SECONDS);
+        InstrumentedLock[] locks = new InstrumentedLock[resources];
+        for (int i = 0; i < resources; i++) {
+            locks[i] = detector.wrap(new Resource("Resource-" + (i + 1)));
+        }
+
+        AtomicInteger completed = new AtomicInteger();
+        Thread[] threads = new Thread[workers];
+        for (int w = 0; w < workers; w++) {
+            threads[w] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int r = 0; r < rounds; r++) {
+                    // Pick 3 resources in random order - lockInOrder() sorts them by rank
+                    InstrumentedLock[] wanted = {
+                        locks[random.nextInt(resources)],
+                        locks[random.nextInt(resources)],
+                        locks[random.nextInt(resources)]
+                    };
+                    LockGroup group = detector.lockInOrder(wanted);
+                    try {
+                        completed.incrementAndGet();
+                    } finally {
+                        group.close();
+                    }
+                }
+            }, "Worker-" + (w + 1));
+            threads[w].start();
+        }
+
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+        System.out.println("Critical sections completed: " + completed.get() + " of " + (workers * rounds));
+
+        // Taking a lower-ranked lock while holding a higher one is refused up front
+        locks[1].lock();
+        try {
+            locks[0].lock();
+            locks[0].unlock();
+        } catch (IllegalStateException e) {
+            System.out.println("Rejected: " + e.getMessage());
+        } finally {
+            locks[1].unlock();
+        }
+        System.out.println();
+    }
+
+
+    // Uncontended lock/unlock cost per acquisition
+    public void overhead(int iterations) {
+        System.out.println("\n=== Uncontended Overhead ===");
+        System.out.println();
+
+        Object monitor = new Object();
+        ReentrantLock plain = new ReentrantLock();
+        InstrumentedLock detecting = new DeadlockDetector(LockMode.DETECT, 1, TimeUnit.SECONDS)
+            .wrap(new Resource("R"));
+        InstrumentedLock ordered = new DeadlockDetector(LockMode.ORDERED, 1, TimeUnit.SECONDS)
+            .wrap(new Resource("R"));
+
+        for (int pass = 0; pass < 2; pass++) {  // First pass is warmup
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                synchronized (monitor) { }
+            }
+            long sync = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                plain.lock();
+                plain.unlock();
+            }
+            long reentrant = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                detecting.lock();
+                detecting.unlock();
+            }
+            long detect = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                ordered.lock();
+                ordered.unlock();
+            }
+            long order = System.nanoTime() - start;
+
+            if (pass == 1) {
+                System.out.printf("synchronized         : %6.1f ns/op%n", (double) sync / iterations);
+                System.out.printf("ReentrantLock        : %6.1f ns/op%n", (double) reentrant / iterations);
+                System.out.printf("Instrumented DETECT  : %6.1f ns/op%n", (double) detect / iterations);
+                System.out.printf("Instrumented ORDERED : %6.1f ns/op%n", (double) order / iterations);
+            }
+        }
+        System.out.println();
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit6_DeadlockDetection {
+
+    public static void main(String[] args) {
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 6 (EXTRA): DEADLOCK DETECTION AND LOCK ORDERING");
+        System.out.println("=".repeat(70));
+
+        DeadlockDetectionExample example = new DeadlockDetectionExample();
+
+
+        // ========== EXAMPLE 1: DETECT AND BREAK ==========
+        System.out.println("\nEXAMPLE 1: Wait-for graph detection");
+        System.out.println("-".repeat(70));
+
+        example.detectAndBreak();
+
+
+        // ========== EXAMPLE 2: LOCK ORDERING ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Lock ordering for N resources");
+        System.out.println("-".repeat(70));
+
+        example.orderedLocking(10, 8, 10_000);
+
+
+        // ========== EXAMPLE 3: OVERHEAD ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 3: Cost when there is no contention");
+        System.out.println("-".repeat(70));
+
+        example.overhead(10_000_000);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("DEADLOCK DETECTION SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  ThreadMXBean    : Finds monitor deadlocks, but can only report them");
+        System.out.println("  Wait-for graph  : Cycle check only when a thread has to wait");
+        System.out.println("  Victim          : tryLock(timeout) lets one thread back off and release");
+        System.out.println("  Lock ordering   : Sort by rank before locking, cycles become impossible");
+        System.out.println("=".repeat(70));
+    }
+}
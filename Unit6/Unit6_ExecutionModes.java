@@ -0,0 +1,165 @@
+/*
+ * UNIT 6 (EXTRA): EXECUTION MODES - VIRTUAL THREADS, POOLS, FORK/JOIN
+ *
+ * threadPool() runs 10 sleeping tasks on 3 threads, so 7 of them just stand in line.
+ * Sleeping tasks don't need a CPU, they need somewhere cheap to wait. 😴
+ *
+ * THEORY:
+ *
+ * PLATFORM THREAD: One Java thread = one OS thread (~1 MB stack reserved).
+ * A fixed pool caps how many blocking tasks can be in progress at once.
+ *
+ * VIRTUAL THREAD (Java 21+): A Java thread scheduled by the JVM onto a few
+ * carrier threads. When it blocks (sleep, I/O), it is unmounted and the carrier
+ * runs someone else. 100k sleeping virtual threads are cheap.
+ *
+ * FORK/JOIN POOL: Work-stealing pool sized to the CPU count. Great for CPU work,
+ * but a blocking task pins a worker - same problem as a small fixed pool.
+ *
+ * Modes (ExecutionMode):
+ * - VIRTUAL        : Executors.newVirtualThreadPerTaskExecutor()
+ *                    (on Java < 21 falls back to a thread-per-task executor)
+ * - PLATFORM_POOL  : Executors.newFixedThreadPool(n)
+ * - FORK_JOIN      : new ForkJoinPool(n)
+ *
+ * Metrics: throughput (tasks/sec) and latency percentiles (submit -> done).
+ */
+
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+
+// ============================================
+// EXAMPLE 1: EXECUTOR FACTORY
+// ============================================
+
+// Where tasks run: ExecutionMode.java
+
+
+// Executor factory: TaskExecutors.java
+
+
+// ============================================
+// EXAMPLE 2: THROUGHPUT AND LATENCY PER MODE
+// ============================================
+
+class ExecutionModeBenchmark {
+
+    // MyRunnable/MyCallable print every step - their output goes here while measuring
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+
+    // Submits `tasks` MyRunnable (1 step each) or MyCallable (limit 1) and waits for all
+    static void run(ExecutionMode mode, int poolSize, int tasks, boolean callables) throws Exception {
+        LatencyRecorder latency = new LatencyRecorder(tasks);
+        ExecutorService executor = TaskExecutors.create(mode, poolSize);
+        List<Future<Integer>> futures = new ArrayList<>(callables ? tasks : 0);
+        CountDownLatch done = new CountDownLatch(tasks);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            long submitted = System.nanoTime();
+            if (callables) {
+                MyCallable task = new MyCallable("Callable-" + i, 1, DISCARD);
+                futures.add(executor.submit(() -> {
+                    try {
+                        return task.call();
+                    } finally {
+                        latency.record(System.nanoTime() - submitted);
+                        done.countDown();
+                    }
+                }));
+            } else {
+                MyRunnable task = new MyRunnable("Runnable-" + i, 1, DISCARD);
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        latency.record(System.nanoTime() - submitted);
+                        done.countDown();
+                    }
+                });
+            }
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        for (Future<Integer> f : futures) {
+            f.get();  // Surfaces any task failure
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        long[] p = latency.percentiles(50, 90, 99, 99.9);
+        System.out.printf("%-14s %-9s %,12.0f %10.1f %10.1f %10.1f %10.1f%n",
+            mode, callables ? "Callable" : "Runnable",
+            tasks * 1e9 / elapsed,
+            p[0] / 1e6, p[1] / 1e6, p[2] / 1e6, p[3] / 1e6);
+    }
+
+
+    public void compareModes(int tasks, int poolSize) throws Exception {
+        System.out.println("\n=== Execution Modes: " + tasks + " sleeping tasks ===");
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            System.out.println(mode + ": " + TaskExecutors.describe(mode, poolSize));
+        }
+        System.out.println();
+
+        System.out.printf("%-14s %-9s %12s %10s %10s %10s %10s%n",
+            "Mode", "Task", "tasks/sec", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms");
+
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            run(mode, poolSize, tasks, false);
+            run(mode, poolSize, tasks, true);
+        }
+        System.out.println();
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit6_ExecutionModes {
+
+    public static void main(String[] args) throws Exception {
+
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int poolSize = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 6 (EXTRA): EXECUTION MODES");
+        System.out.println("=".repeat(70));
+
+
+        // ========== EXAMPLE 1: threadPool() IN EVERY MODE ==========
+        System.out.println("\nEXAMPLE 1: threadPool() and callableExample() per mode");
+        System.out.println("-".repeat(70));
+
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            Unit6_Multithreading.threadPool(mode);
+            Unit6_Multithreading.callableExample(mode);
+        }
+
+
+        // ========== EXAMPLE 2: BENCHMARK ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Throughput and Latency per Mode");
+        System.out.println("-".repeat(70));
+
+        new ExecutionModeBenchmark().compareModes(tasks, poolSize);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("EXECUTION MODE SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  VIRTUAL       : Blocking is cheap, latency ~ task time, not queue time");
+        System.out.println("  PLATFORM_POOL : Blocking tasks queue behind the pool size");
+        System.out.println("  FORK_JOIN     : Best for CPU-bound splitting, blocking pins workers");
+        System.out.println("=".repeat(70));
+    }
+}
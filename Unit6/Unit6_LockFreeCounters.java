@@ -0,0 +1,396 @@
+/*
+ * UNIT 6 (EXTRA): LOCK-FREE COUNTERS
+ *
+ * SafeCounter works, but every increment() grabs the same monitor.
+ * Ten threads hammering one lock is basically a single-lane road with ten buses. 🚌
+ *
+ * THEORY:
+ *
+ * CAS (Compare-And-Swap): Hardware instruction that updates a value only if it
+ * still holds the value we read. No lock, but threads retry when they collide.
+ *
+ * STRIPING (LongAdder style): Split one hot counter into many cells.
+ * Each thread updates "its" cell, getCount() adds all cells together.
+ * Fewer collisions = fewer retries.
+ *
+ * PER-THREAD BATCHING: Each thread counts privately and publishes its total
+ * every N increments (or on flush()). Writes never collide at all, but a reader
+ * only sees what has been published so far.
+ *
+ * FALSE SHARING: Two cells on the same 64-byte cache line fight each other even
+ * though they are different variables. Cells are padded to separate lines.
+ *
+ * Counter Types:
+ * - CAS      : One AtomicLong, compareAndSet retry loop
+ * - STRIPED  : Padded cells, thread picks a cell, moves on collision
+ * - BATCHED  : Thread-owned slots, published with lazySet
+ */
+
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+
+// ============================================
+// EXAMPLE 1: COUNTER INTERFACE AND IMPLEMENTATIONS
+// ============================================
+
+enum CounterType {
+    CAS, STRIPED, BATCHED
+}
+
+
+interface Counter {
+    void increment();
+
+    long getCount();
+
+    // Publishes anything the calling thread still holds privately (BATCHED only)
+    default void flush() {
+    }
+
+    // Factory - pick the implementation at construction time
+    static Counter create(CounterType type) {
+        switch (type) {
+            case CAS:
+                return new CasCounter();
+            case STRIPED:
+                return new StripedCounter();
+            case BATCHED:
+                return new BatchedCounter(BatchedCounter.DEFAULT_BATCH_SIZE);
+            default:
+                throw new IllegalArgumentException("Unknown counter type: " + type);
+        }
+    }
+}
+
+
+// Single shared value updated with a compare-and-swap loop
+class CasCounter implements Counter {
+    private final AtomicLong value = new AtomicLong();
+
+    @Override
+    public void increment() {
+        long current;
+        do {
+            current = value.get();
+        } while (!value.compareAndSet(current, current + 1));  // Retry if another thread won
+    }
+
+    @Override
+    public long getCount() {
+        return value.get();
+    }
+}
+
+
+// LongAdder-style striped cells
+class StripedCounter implements Counter {
+    // 16 longs = 128 bytes between cells, enough to dodge adjacent-line prefetching
+    private static final int PAD = 16;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    // Each thread remembers which stripe it is using
+    private final ThreadLocal<int[]> probe = ThreadLocal.withInitial(() -> {
+        int h = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        return new int[] { h ^ (h >>> 16) };
+    });
+
+    public StripedCounter() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public StripedCounter(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;  // Round up to power of 2
+        this.cells = new AtomicLongArray(size * PAD);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public void increment() {
+        int[] h = probe.get();
+        int index = (h[0] & mask) * PAD;
+        long current = cells.get(index);
+
+        if (!cells.compareAndSet(index, current, current + 1)) {
+            // Collision: move this thread to another stripe, then finish the add
+            int x = h[0];
+            x ^= x << 13;
+            x ^= x >>> 17;
+            x ^= x << 5;
+            h[0] = x;
+            cells.getAndIncrement((x & mask) * PAD);
+        }
+    }
+
+    @Override
+    public long getCount() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.get(i * PAD);
+        }
+        return sum;
+    }
+}
+
+
+// Per-thread slots published every batchSize increments
+class BatchedCounter implements Counter {
+    static final int DEFAULT_BATCH_SIZE = 256;
+
+    // One slot per thread, only its owner writes to it
+    static final class Slot {
+        long p1, p2, p3, p4, p5, p6, p7;   // Padding before
+        long local;                         // Owner-only running total
+        volatile long published;            // What readers are allowed to see
+        long q1, q2, q3, q4, q5, q6, q7;   // Padding after
+    }
+
+    private static final AtomicLongFieldUpdater<Slot> PUBLISHED =
+        AtomicLongFieldUpdater.newUpdater(Slot.class, "published");
+
+    private final int batchMask;
+    private final Queue<Slot> slots = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Slot> mySlot = ThreadLocal.withInitial(() -> {
+        Slot slot = new Slot();
+        slots.add(slot);
+        return slot;
+    });
+
+    public BatchedCounter(int batchSize) {
+        if (batchSize <= 0 || Integer.bitCount(batchSize) != 1) {
+            throw new IllegalArgumentException("Batch size must be a power of 2: " + batchSize);
+        }
+        this.batchMask = batchSize - 1;
+    }
+
+    @Override
+    public void increment() {
+        Slot slot = mySlot.get();
+        long local = ++slot.local;
+
+        if ((local & batchMask) == 0) {
+            PUBLISHED.lazySet(slot, local);  // Ordered store, no full fence
+        }
+    }
+
+    @Override
+    public void flush() {
+        Slot slot = mySlot.get();
+        PUBLISHED.lazySet(slot, slot.local);
+    }
+
+    // Sees only published totals - call flush() in each writer for an exact count
+    @Override
+    public long getCount() {
+        long sum = 0;
+        for (Slot slot : slots) {
+            sum += slot.published;
+        }
+        return sum;
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: CONTENTION BENCHMARK
+// ============================================
+
+class CounterBenchmark {
+
+    // Common shape for the counters under test, including the Unit 6 originals
+    interface Target {
+        void increment();
+
+        long getCount();
+
+        default void flush() {
+        }
+    }
+
+
+    static Target of(Counter counter) {
+        return new Target() {
+            public void increment() { counter.increment(); }
+            public long getCount() { return counter.getCount(); }
+            public void flush() { counter.flush(); }
+        };
+    }
+
+
+    static Target of(SafeCounter counter) {
+        return new Target() {
+            public void increment() { counter.increment(); }
+            public long getCount() { return counter.getCount(); }
+        };
+    }
+
+
+    static Target of(UnsafeCounter counter) {
+        return new Target() {
+            public void increment() { counter.increment(); }
+            public long getCount() { return counter.getCount(); }
+        };
+    }
+
+
+    static Map<String, Callable<Target>> targets() {
+        Map<String, Callable<Target>> targets = new LinkedHashMap<>();
+        targets.put("UnsafeCounter", () -> of(new UnsafeCounter()));
+        targets.put("SafeCounter", () -> of(new SafeCounter()));
+        for (CounterType type : CounterType.values()) {
+            targets.put(type.name(), () -> of(Counter.create(type)));
+        }
+        return targets;
+    }
+
+
+    // Runs threads x increments on a fresh counter, returns elapsed nanos
+    static long run(Target counter, int threads, int increments) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < increments; j++) {
+                    counter.increment();
+                }
+                counter.flush();
+            });
+            workers[i].start();
+        }
+
+        ready.await();
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - startTime;
+    }
+
+
+    public void contention(int maxThreads, int incrementsPerThread) throws Exception {
+        System.out.println("\n=== Counter Contention Benchmark ===");
+        System.out.println("Increments per thread: " + incrementsPerThread);
+        System.out.println("CPUs: " + Runtime.getRuntime().availableProcessors());
+        System.out.println();
+
+        Map<String, Callable<Target>> targets = targets();
+
+        // Warmup so the JIT has compiled every increment() before we measure
+        for (Callable<Target> factory : targets.values()) {
+            run(factory.call(), 2, incrementsPerThread);
+        }
+
+        System.out.printf("%-8s", "Threads");
+        for (String name : targets.keySet()) {
+            System.out.printf("%16s", name);
+        }
+        System.out.println("   (Mops/s, * = lost updates)");
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            System.out.printf("%-8d", threads);
+            long expected = (long) threads * incrementsPerThread;
+
+            for (Callable<Target> factory : targets.values()) {
+                Target counter = factory.call();
+                long nanos = run(counter, threads, incrementsPerThread);
+                double mops = expected * 1000.0 / nanos;
+                String mark = counter.getCount() == expected ? " " : "*";
+                System.out.printf("%15.1f%s", mops, mark);
+            }
+            System.out.println();
+        }
+        System.out.println();
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit6_LockFreeCounters {
+
+    public static void main(String[] args) throws Exception {
+
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int increments = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 6 (EXTRA): LOCK-FREE COUNTERS");
+        System.out.println("=".repeat(70));
+
+
+        // ========== EXAMPLE 1: SAME WORKLOAD AS threadSafety() ==========
+        System.out.println("\nEXAMPLE 1: 10 threads x 1000 increments");
+        System.out.println("-".repeat(70));
+
+        lockFreeCounters();
+
+
+        // ========== EXAMPLE 2: BENCHMARK ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Contention Benchmark (1 to " + maxThreads + " threads)");
+        System.out.println("-".repeat(70));
+
+        new CounterBenchmark().contention(maxThreads, increments);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("LOCK-FREE COUNTER SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  SafeCounter : Correct, but all threads queue on one monitor");
+        System.out.println("  CAS         : No lock, retries grow with contention");
+        System.out.println("  STRIPED     : Spreads threads over padded cells, sums on read");
+        System.out.println("  BATCHED     : No shared writes at all, reads see published totals");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // SynchronizationExample Method 2b: threadSafety()'s workload without a monitor (run by Unit6_Multithreading too)
+    static void lockFreeCounters() {
+        System.out.println("\n=== Thread Safety (Lock-Free Counters) ===");
+        System.out.println();
+
+        for (CounterType type : CounterType.values()) {
+            Counter counter = Counter.create(type);
+
+            // Same 10 threads x 1000 increments as threadSafety()
+            Thread[] threads = new Thread[10];
+            for (int i = 0; i < 10; i++) {
+                threads[i] = new Thread(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        counter.increment();
+                    }
+                    counter.flush();  // Publish anything still batched
+                });
+                threads[i].start();
+            }
+
+            for (Thread thread : threads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+
+            System.out.println(type + " count: " + counter.getCount() + " (expected 10000)");
+        }
+        System.out.println("Note: Correct without synchronized, threads never block on a lock");
+        System.out.println();
+    }
+}
@@ -46,6 +46,7 @@
  */
 
 
+import java.io.File;
 import java.util.*;
 import java.util.concurrent.*;
 
@@ -83,59 +84,10 @@ class MyThread extends Thread {
 }
 
 
-// Method 2: Implementing Runnable interface (preferred)
-class MyRunnable implements Runnable {
-    private String taskName;
-    private int iterations;
-    
-    public MyRunnable(String name, int iterations) {
-        this.taskName = name;
-        this.iterations = iterations;
-    }
-    
-    @Override
-    public void run() {
-        System.out.println(taskName + " started (Thread: " + Thread.currentThread().getName() + ")");
-        
-        for (int i = 1; i <= iterations; i++) {
-            System.out.println(taskName + " - Step " + i);
-            
-            try {
-                Thread.sleep(300);
-            } catch (InterruptedException e) {
-                System.out.println(taskName + " interrupted");
-            }
-        }
-        
-        System.out.println(taskName + " completed");
-    }
-}
+// Method 2: Implementing Runnable interface (preferred): MyRunnable.java
 
 
-// Method 3: Implementing Callable interface (returns result)
-class MyCallable implements Callable<Integer> {
-    private String taskName;
-    private int limit;
-    
-    public MyCallable(String name, int limit) {
-        this.taskName = name;
-        this.limit = limit;
-    }
-    
-    @Override
-    public Integer call() throws Exception {
-        System.out.println(taskName + " started");
-        
-        int sum = 0;
-        for (int i = 1; i <= limit; i++) {
-            sum += i;
-            Thread.sleep(100);
-        }
-        
-        System.out.println(taskName + " computed sum: " + sum);
-        return sum;
-    }
-}
+// Method 3: Implementing Callable interface (returns result): MyCallable.java
 
 
 class ThreadCreationExample {
@@ -259,13 +211,14 @@ class ThreadCreationExample {
     }
     
     
-    // Method 5: Callable with ExecutorService
-    public void callableExample() {
+    // Method 5: Callable with ExecutorService (mode: which threads run it, see Unit6_ExecutionModes)
+    public void callableExample(ExecutionMode mode) {
         System.out.println("\n=== Callable and Future ===");
         System.out.println("Returns result and can throw checked exceptions");
+        System.out.println("Executor: " + TaskExecutors.describe(mode, 2));
         System.out.println();
         
-        ExecutorService executor = Executors.newFixedThreadPool(2);
+        ExecutorService executor = TaskExecutors.create(mode, 2);
         
         // Submit Callable tasks
         Future<Integer> future1 = executor.submit(new MyCallable("Task-1", 10));
@@ -295,85 +248,13 @@ class ThreadCreationExample {
 // EXAMPLE 2: SYNCHRONIZATION AND THREAD SAFETY
 // ============================================
 
-// Shared resource WITHOUT synchronization (thread-unsafe)
-class UnsafeCounter {
-    private int count = 0;
-    
-    public void increment() {
-        count++;  // Not atomic: read -> increment -> write
-    }
-    
-    public int getCount() {
-        return count;
-    }
-}
+// Shared resource WITHOUT synchronization (thread-unsafe): UnsafeCounter.java
 
 
-// Shared resource WITH synchronization (thread-safe)
-class SafeCounter {
-    private int count = 0;
-    
-    // Synchronized method
-    public synchronized void increment() {
-        count++;
-    }
-    
-    public synchronized int getCount() {
-        return count;
-    }
-}
+// Shared resource WITH synchronization (thread-safe): SafeCounter.java
 
 
-// Bank account with synchronized methods
-class BankAccount {
-    private double balance;
-    private String accountHolder;
-    
-    public BankAccount(String holder, double initialBalance) {
-        this.accountHolder = holder;
-        this.balance = initialBalance;
-    }
-    
-    // Synchronized deposit
-    public synchronized void deposit(double amount) {
-        System.out.println(Thread.currentThread().getName() + " depositing " + amount);
-        double newBalance = balance + amount;
-        
-        // Simulate processing delay
-        try {
-            Thread.sleep(100);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-        
-        balance = newBalance;
-        System.out.println(Thread.currentThread().getName() + " deposit complete. Balance: " + balance);
-    }
-    
-    // Synchronized withdrawal
-    public synchronized void withdraw(double amount) {
-        System.out.println(Thread.currentThread().getName() + " withdrawing " + amount);
-        
-        if (balance >= amount) {
-            double newBalance = balance - amount;
-            
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-            
-            balance = newBalance;
-            System.out.println(Thread.currentThread().getName() + " withdrawal complete. Balance: " + balance);
-        } else {
-            System.out.println(Thread.currentThread().getName() + " withdrawal failed. Insufficient balance.");
-        }
-    }
-    
-    public synchronized double getBalance() {
-        return balance;
-    }
-}
+// Bank account with synchronized methods: BankAccount.java
 
 
 class SynchronizationExample {
@@ -486,57 +367,10 @@ class SynchronizationExample {
 // EXAMPLE 3: INTER-THREAD COMMUNICATION AND DEADLOCK
 // ============================================
 
-// Producer-Consumer problem
-class SharedBuffer {
-    private Queue<Integer> buffer = new LinkedList<>();
-    private int capacity;
-    
-    public SharedBuffer(int capacity) {
-        this.capacity = capacity;
-    }
-    
-    // Producer adds to buffer
-    public synchronized void produce(int item) throws InterruptedException {
-        while (buffer.size() == capacity) {
-            System.out.println("Buffer full. Producer waiting...");
-            wait();  // Release lock and wait
-        }
-        
-        buffer.add(item);
-        System.out.println("Produced: " + item + " (Buffer size: " + buffer.size() + ")");
-        
-        notify();  // Wake up consumer
-    }
-    
-    // Consumer removes from buffer
-    public synchronized int consume() throws InterruptedException {
-        while (buffer.isEmpty()) {
-            System.out.println("Buffer empty. Consumer waiting...");
-            wait();  // Release lock and wait
-        }
-        
-        int item = buffer.poll();
-        System.out.println("Consumed: " + item + " (Buffer size: " + buffer.size() + ")");
-        
-        notify();  // Wake up producer
-        
-        return item;
-    }
-}
+// Producer-Consumer problem: SharedBuffer.java
 
 
-// Deadlock example
-class Resource {
-    private String name;
-    
-    public Resource(String name) {
-        this.name = name;
-    }
-    
-    public String getName() {
-        return name;
-    }
-}
+// Deadlock example: Resource.java
 
 
 class InterThreadCommunicationExample {
@@ -643,10 +477,17 @@ class InterThreadCommunicationExample {
             e.printStackTrace();
         }
         
-        System.out.println("\nDEADLOCK DETECTED!");
-        System.out.println("Thread-1 waiting for Resource-2 (held by Thread-2)");
-        System.out.println("Thread-2 waiting for Resource-1 (held by Thread-1)");
-        System.out.println("Both threads blocked indefinitely");
+        // Ask the JVM instead of assuming (see Unit6_DeadlockDetection)
+        List<String> deadlocked = JvmDeadlockMonitor.findDeadlocks();
+        if (deadlocked.isEmpty()) {
+            System.out.println("\nNo deadlock found (yet) - threads may still be sleeping");
+        } else {
+            System.out.println("\nDEADLOCK DETECTED!");
+            for (String line : deadlocked) {
+                System.out.println(line);
+            }
+            System.out.println("Both threads blocked indefinitely");
+        }
         
         // Force stop (not recommended in production)
         thread1.interrupt();
@@ -715,15 +556,15 @@ class InterThreadCommunicationExample {
     
     
     // Method 4: Thread pool (ExecutorService)
-    public void threadPool() {
+    public void threadPool(ExecutionMode mode) {
         System.out.println("\n=== Thread Pool (ExecutorService) ===");
         System.out.println("Reuses threads for better performance");
         System.out.println();
         
-        // Create thread pool with 3 threads
-        ExecutorService executor = Executors.newFixedThreadPool(3);
+        // Create thread pool with 3 threads (VIRTUAL: a new thread per task instead)
+        ExecutorService executor = TaskExecutors.create(mode, 3);
         
-        System.out.println("Submitting 10 tasks to pool of 3 threads");
+        System.out.println("Submitting 10 tasks to " + TaskExecutors.describe(mode, 3));
         System.out.println();
         
         // Submit 10 tasks
@@ -750,7 +591,11 @@ class InterThreadCommunicationExample {
         }
         
         System.out.println("\nAll tasks completed");
-        System.out.println("Note: Only 3 threads were used for 10 tasks");
+        if (mode == ExecutionMode.VIRTUAL) {
+            System.out.println("Note: Every task got its own thread, nobody waited in the queue");
+        } else {
+            System.out.println("Note: Only 3 threads were used for 10 tasks");
+        }
         System.out.println();
     }
 }
@@ -764,6 +609,17 @@ public class Unit6_Multithreading {
     
     public static void main(String[] args) {
         
+        // Which threads run the pool examples: VIRTUAL, PLATFORM_POOL or FORK_JOIN
+        ExecutionMode mode = args.length > 0 ? ExecutionMode.valueOf(args[0]) : ExecutionMode.PLATFORM_POOL;
+        
+        // Optional histogram file: samples every thread the examples start (see Unit6_ThreadMetrics)
+        ThreadMetrics metrics = null;
+        if (args.length > 1) {
+            metrics = new ThreadMetrics(2);
+            metrics.watchAllThreads();
+            metrics.dumpOnShutdown(new File(args[1]));
+        }
+        
         System.out.println("=".repeat(70));
         System.out.println("UNIT 6: MULTITHREADING");
         System.out.println("=".repeat(70));
@@ -784,7 +640,8 @@ public class Unit6_Multithreading {
         
         creationExample.threadLifecycle();
         creationExample.threadPriority();
-        creationExample.callableExample();
+        Unit6_PriorityScheduler.threadPriorityScheduled();
+        creationExample.callableExample(mode);
         
         
         // ========== EXAMPLE 2: SYNCHRONIZATION ==========
@@ -795,6 +652,7 @@ public class Unit6_Multithreading {
         SynchronizationExample syncExample = new SynchronizationExample();
         syncExample.raceCondition();
         syncExample.threadSafety();
+        Unit6_LockFreeCounters.lockFreeCounters();
         syncExample.synchronizedBlock();
         
         
@@ -805,9 +663,10 @@ public class Unit6_Multithreading {
         
         InterThreadCommunicationExample commExample = new InterThreadCommunicationExample();
         commExample.producerConsumer();
+        Unit6_RingBuffers.producerConsumerRingBuffer();
         commExample.deadlockExample();
         commExample.deadlockPrevention();
-        commExample.threadPool();
+        commExample.threadPool(mode);
         
         
         // ========== SUMMARY ==========
@@ -831,16 +690,43 @@ public class Unit6_Multithreading {
         System.out.println("  synchronized method : Entire method locked");
         System.out.println("  synchronized block  : Specific code locked");
         System.out.println("  Purpose             : Prevent race conditions");
+        System.out.println("  Lock-free counters  : CAS, striped cells, per-thread batches");
         System.out.println("\nINTER-THREAD COMMUNICATION:");
         System.out.println("  wait()      : Release lock and wait");
         System.out.println("  notify()    : Wake up one waiting thread");
         System.out.println("  notifyAll() : Wake up all waiting threads");
+        System.out.println("  Ring buffer : Lock-free hand-off, no wait()/notify() needed");
         System.out.println("\nDEADLOCK:");
         System.out.println("  Cause       : Circular wait for resources");
         System.out.println("  Prevention  : Ordered locking, timeouts, deadlock detection");
         System.out.println("\nTHREAD POOL:");
         System.out.println("  ExecutorService : Manages pool of threads");
         System.out.println("  Benefits        : Reuses threads, better performance");
+        System.out.println("  Virtual threads : Cheap thread per task for blocking work (Java 21+)");
+        System.out.println("  Priority lanes  : Scheduler-level priority instead of setPriority hints");
         System.out.println("=".repeat(70));
+        
+        if (metrics != null) {
+            System.out.println("\nThreads started by the examples (deadlocked ones are still running):");
+            metrics.printSummary(System.out);
+            System.out.println("Histograms are written to " + args[1] + " at shutdown");
+        }
+    }
+    
+    
+    // For Unit6_ThreadMetrics
+    static void threadLifecycle() {
+        new ThreadCreationExample().threadLifecycle();
+    }
+    
+    
+    // The pool examples in a given mode, for Unit6_ExecutionModes
+    static void callableExample(ExecutionMode mode) {
+        new ThreadCreationExample().callableExample(mode);
+    }
+    
+    
+    static void threadPool(ExecutionMode mode) {
+        new InterThreadCommunicationExample().threadPool(mode);
     }
 }
@@ -0,0 +1,190 @@
+/*
+ * UNIT 6 (EXTRA): FORK/JOIN PARALLEL SUMMATION
+ *
+ * MyCallable adds 1..limit one number at a time on one thread.
+ * For a limit of a billion that's one core working and the rest watching. 🍿
+ *
+ * THEORY:
+ *
+ * FORK/JOIN (divide and conquer):
+ * - compute(): if the piece is small (<= threshold) solve it directly,
+ *   otherwise split in two, fork() one half, compute() the other, join()
+ * - ForkJoinPool: every worker has its own deque; idle workers STEAL tasks
+ *   from the other end of busy workers' deques
+ *
+ * THRESHOLD:
+ * - Too small : Task overhead (objects, forks) beats the actual adding
+ * - Too large : Not enough pieces to keep every core busy
+ * - Typical   : 10k - 100k elements per leaf for plain sums
+ *
+ * ACCUMULATORS:
+ * - Leaves add into a primitive long (no boxing in the hot loop)
+ * - Wrapping mode   : Same as int/long arithmetic in Java (silently wraps)
+ * - Checked mode    : Math.addExact -> ArithmeticException on overflow
+ *
+ * Inputs: a range [from, to] or an int[] (or part of one).
+ */
+
+
+import java.util.*;
+import java.util.concurrent.*;
+
+
+// ============================================
+// EXAMPLE 1: RECURSIVE TASKS
+// ============================================
+
+// ParallelSum and its RangeTask/ArrayTask: ParallelSum.java
+
+
+// ============================================
+// EXAMPLE 2: DEMO AND SWEEP BENCHMARK
+// ============================================
+
+class ParallelSumExample {
+
+    public void basics() {
+        System.out.println("\n=== Fork/Join Summation ===");
+        System.out.println();
+
+        ParallelSum parallel = new ParallelSum();
+        long n = 100_000_000L;
+        long start = System.nanoTime();
+        long sum = parallel.sumRange(1, n);
+        System.out.println("Sum 1.." + n + " = " + sum + " (formula: " + n * (n + 1) / 2 + ")");
+        System.out.println("Time: " + (System.nanoTime() - start) / 1000000.0 + " ms");
+
+        // MyCallable now uses the reducer for large limits (no per-step sleep)
+        try {
+            System.out.println("MyCallable(limit 50,000) = " + new MyCallable("Big-Sum", 50_000).call());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        // Overflow: wrapping silently vs checked
+        ParallelSum checked = new ParallelSum(ForkJoinPool.commonPool(), ParallelSum.DEFAULT_THRESHOLD, true);
+        long big = 5_000_000_000L;
+        System.out.println("\nWrapping sum 1.." + big + " = " + parallel.sumRange(1, big) + " (wrapped!)");
+        try {
+            checked.sumRange(1, big);
+        } catch (ArithmeticException e) {
+            System.out.println("Checked sum 1.." + big + " -> ArithmeticException (long overflow)");
+        }
+        System.out.println();
+    }
+
+
+    static long sequential(int[] data) {
+        long sum = 0;
+        for (int value : data) {
+            sum += value;
+        }
+        return sum;
+    }
+
+
+    // Sweeps array sizes x core counts, best of 5 runs each
+    public void sweep(int maxSize, int threshold) {
+        System.out.println("\n=== Array Size x Cores Sweep (threshold " + threshold + ") ===");
+        int cpus = Runtime.getRuntime().availableProcessors();
+
+        List<Integer> cores = new ArrayList<>();
+        for (int c = 1; c < cpus; c *= 2) {
+            cores.add(c);
+        }
+        cores.add(cpus);
+
+        System.out.printf("%n%-12s %12s", "Size", "sequential");
+        for (int c : cores) {
+            System.out.printf("%12s", c + " cores");
+        }
+        System.out.println("   (ms, best of 5)");
+
+        Random random = new Random(7);
+        for (int size = 1_000; size <= maxSize; size *= 10) {
+            int[] data = new int[size];
+            for (int i = 0; i < size; i++) {
+                data[i] = random.nextInt(1000);
+            }
+            long expected = sequential(data);
+
+            System.out.printf("%-12d %12.3f", size, best(() -> sequential(data)));
+            for (int c : cores) {
+                ForkJoinPool pool = new ForkJoinPool(c);
+                ParallelSum ps = new ParallelSum(pool, threshold, false);
+                if (ps.sum(data) != expected) {
+                    System.out.print("  MISMATCH!");
+                }
+                System.out.printf("%12.3f", best(() -> ps.sum(data)));
+                pool.shutdown();
+            }
+            System.out.println();
+        }
+        System.out.println();
+    }
+
+
+    private static double best(Callable<Long> body) {
+        long best = Long.MAX_VALUE;
+        long sink = 0;
+        try {
+            for (int i = 0; i < 5; i++) {
+                long start = System.nanoTime();
+                sink += body.call();
+                best = Math.min(best, System.nanoTime() - start);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        if (sink == 42) {
+            System.out.print("");  // Keeps the JIT from dropping the work
+        }
+        return best / 1e6;
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit6_ParallelSum {
+
+    public static void main(String[] args) {
+
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 100_000_000;
+        int threshold = args.length > 1 ? Integer.parseInt(args[1]) : ParallelSum.DEFAULT_THRESHOLD;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 6 (EXTRA): FORK/JOIN PARALLEL SUMMATION");
+        System.out.println("=".repeat(70));
+
+        ParallelSumExample example = new ParallelSumExample();
+
+
+        // ========== EXAMPLE 1: BASICS ==========
+        System.out.println("\nEXAMPLE 1: Ranges, arrays and overflow");
+        System.out.println("-".repeat(70));
+
+        example.basics();
+
+
+        // ========== EXAMPLE 2: SWEEP ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Benchmark Sweep");
+        System.out.println("-".repeat(70));
+
+        example.sweep(maxSize, threshold);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("FORK/JOIN SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  RecursiveTask : Split until small, fork one half, compute the other");
+        System.out.println("  Threshold     : Balances task overhead against parallelism");
+        System.out.println("  Accumulator   : Primitive long in leaves, addExact when checked");
+        System.out.println("  Small inputs  : Sequential wins - splitting isn't free");
+        System.out.println("=".repeat(70));
+    }
+}
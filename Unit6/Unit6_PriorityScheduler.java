@@ -0,0 +1,508 @@
+/*
+ * UNIT 6 (EXTRA): PRIORITY LANES ON A WORK-STEALING SCHEDULER
+ *
+ * threadPriority() calls setPriority(MAX_PRIORITY) and hopes for the best.
+ * On Linux the JVM ignores it by default, so "high priority" means nothing. 🙃
+ *
+ * THEORY:
+ *
+ * USER-LEVEL PRIORITY: Instead of asking the OS, the scheduler decides which
+ * QUEUED task runs next. Every worker always takes the highest lane that has work.
+ *   HIGH  ->  NORMAL  ->  LOW
+ *
+ * WORK STEALING (like ForkJoinPool):
+ * - Every worker owns one deque per lane
+ * - Owner takes from the FRONT of its own deque (FIFO = oldest first)
+ * - An idle worker STEALS from the BACK of someone else's deque in the same lane
+ * - Each deque is mostly touched by one thread -> little contention
+ *
+ * STARVATION: Strict priority can leave LOW waiting forever under constant HIGH load.
+ * Optional aging: a task older than `starvationNanos` may jump ahead, but at most
+ * 1 in AGING_INTERVAL picks - otherwise under overload the old LOW backlog would
+ * take over and HIGH would starve instead.
+ *
+ * METRIC: Queue latency = time from submit() until a worker starts the task.
+ */
+
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+
+// ============================================
+// EXAMPLE 1: PRIORITY LANES
+// ============================================
+
+enum TaskPriority {
+    HIGH, NORMAL, LOW;
+
+    // Maps Thread.MIN_PRIORITY..MAX_PRIORITY onto the three lanes
+    static TaskPriority fromThreadPriority(int priority) {
+        if (priority > Thread.NORM_PRIORITY) {
+            return HIGH;
+        }
+        return priority < Thread.NORM_PRIORITY ? LOW : NORMAL;
+    }
+}
+
+
+class PriorityScheduler {
+    private static final TaskPriority[] LANES = TaskPriority.values();
+    static final int AGING_INTERVAL = 8;
+
+    // A queued FutureTask that remembers its lane and when it was submitted
+    static final class Task<T> extends FutureTask<T> {
+        final TaskPriority priority;
+        final long enqueuedAt = System.nanoTime();
+
+        Task(Callable<T> callable, TaskPriority priority) {
+            super(callable);
+            this.priority = priority;
+        }
+    }
+
+
+    final class Worker implements Runnable {
+        final int index;
+        final ConcurrentLinkedDeque<Task<?>>[] lanes;
+        volatile Thread thread;
+        volatile boolean idle;
+        int picks;  // Owner-only, drives the aging budget
+
+        @SuppressWarnings("unchecked")
+        Worker(int index) {
+            this.index = index;
+            this.lanes = (ConcurrentLinkedDeque<Task<?>>[]) new ConcurrentLinkedDeque<?>[LANES.length];
+            for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = new ConcurrentLinkedDeque<>();
+            }
+        }
+
+        @Override
+        public void run() {
+            int attempt = 0;
+            while (true) {
+                Task<?> task = next(this);
+                if (task != null) {
+                    attempt = 0;
+                    idle = false;
+                    queueLatency.get(task.priority).record(System.nanoTime() - task.enqueuedAt);
+                    task.run();  // FutureTask captures exceptions for get()
+                    completed.get(task.priority).increment();
+                    continue;
+                }
+                if (shutdown && queuedCount() == 0) {
+                    return;
+                }
+                idle = true;  // submit() unparks us; the timed park is the fallback
+                waitStrategy.idle(attempt++);
+            }
+        }
+    }
+
+
+    private final Worker[] workers;
+    private final WaitStrategy waitStrategy = WaitStrategy.spinThenPark(64, 8, TimeUnit.MILLISECONDS.toNanos(1));
+    private final long starvationNanos;
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final Map<TaskPriority, LogHistogram> queueLatency = new EnumMap<>(TaskPriority.class);
+    private final Map<TaskPriority, LongAdder> completed = new EnumMap<>(TaskPriority.class);
+    private final AtomicLong steals = new AtomicLong();
+    private final Object stateLock = new Object();  // Orders enqueue() against shutdown()
+    private volatile boolean shutdown;  // Written under stateLock, read by workers without it
+
+
+    // starvationNanos <= 0 means strict priority (no aging)
+    public PriorityScheduler(int workerCount, long starvationNanos, String namePrefix) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workerCount);
+        }
+        this.starvationNanos = starvationNanos;
+        for (TaskPriority priority : LANES) {
+            queueLatency.put(priority, new LogHistogram("Queue latency " + priority, "ns"));
+            completed.put(priority, new LongAdder());
+        }
+
+        workers = new Worker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Worker(i);
+        }
+        for (Worker worker : workers) {
+            Thread thread = new Thread(worker, namePrefix + "-" + worker.index);
+            thread.setDaemon(true);
+            worker.thread = thread;
+            thread.start();
+        }
+    }
+
+    public PriorityScheduler(int workerCount) {
+        this(workerCount, 0, "prio-worker");
+    }
+
+
+    public <T> Future<T> submit(Callable<T> task, TaskPriority priority) {
+        Task<T> queued = new Task<>(task, priority);
+        enqueue(queued);
+        return queued;
+    }
+
+
+    public Future<?> submit(Runnable task, TaskPriority priority) {
+        return submit(Executors.callable(task), priority);
+    }
+
+
+    // Executor view of one lane, e.g. for CompletableFuture.supplyAsync(..., scheduler.executor(HIGH))
+    public Executor executor(TaskPriority priority) {
+        return task -> submit(task, priority);
+    }
+
+
+    private void enqueue(Task<?> task) {
+        // Tasks spawned by a worker stay local; outside submitters are spread round-robin
+        Worker target = currentWorker();
+        if (target == null) {
+            target = workers[Math.floorMod(nextWorker.getAndIncrement(), workers.length)];
+        }
+        // Checked and added under the lock shutdown() takes: a worker that sees `shutdown`
+        // also sees every task added before it, so none is left behind when it exits
+        synchronized (stateLock) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Scheduler is shut down");
+            }
+            target.lanes[task.priority.ordinal()].addLast(task);
+        }
+
+        if (target.idle) {
+            LockSupport.unpark(target.thread);
+        } else {
+            // The owner is busy: wake any idle worker so it can steal the task
+            for (Worker worker : workers) {
+                if (worker.idle) {
+                    LockSupport.unpark(worker.thread);
+                    break;
+                }
+            }
+        }
+    }
+
+
+    private Worker currentWorker() {
+        Thread current = Thread.currentThread();
+        for (Worker worker : workers) {
+            if (worker.thread == current) {
+                return worker;
+            }
+        }
+        return null;
+    }
+
+
+    // Highest lane first: own deque (front), then steal from others (back)
+    private Task<?> next(Worker self) {
+        if (starvationNanos > 0 && ++self.picks % AGING_INTERVAL == 0) {
+            Task<?> aged = oldestStarved(self);
+            if (aged != null) {
+                return aged;
+            }
+        }
+        for (int lane = 0; lane < LANES.length; lane++) {
+            Task<?> task = self.lanes[lane].pollFirst();
+            if (task != null) {
+                return task;
+            }
+            for (int k = 1; k < workers.length; k++) {
+                Worker victim = workers[(self.index + k) % workers.length];
+                task = victim.lanes[lane].pollLast();
+                if (task != null) {
+                    steals.incrementAndGet();
+                    return task;
+                }
+            }
+        }
+        return null;
+    }
+
+
+    // Only peeks at the worker's own lower lanes - cheap enough to do every time
+    private Task<?> oldestStarved(Worker self) {
+        long now = System.nanoTime();
+        for (int lane = LANES.length - 1; lane > 0; lane--) {
+            Task<?> head = self.lanes[lane].peekFirst();
+            if (head != null && now - head.enqueuedAt > starvationNanos) {
+                Task<?> task = self.lanes[lane].pollFirst();
+                if (task != null) {
+                    return task;
+                }
+            }
+        }
+        return null;
+    }
+
+
+    public int queuedCount() {
+        int count = 0;
+        for (Worker worker : workers) {
+            for (ConcurrentLinkedDeque<Task<?>> lane : worker.lanes) {
+                count += lane.size();
+            }
+        }
+        return count;
+    }
+
+
+    // Values are nanoseconds (divide by 1e3 for the us columns below)
+    public LogHistogram queueLatency(TaskPriority priority) {
+        return queueLatency.get(priority);
+    }
+
+
+    public long completedCount(TaskPriority priority) {
+        return completed.get(priority).sum();
+    }
+
+
+    public long stealCount() {
+        return steals.get();
+    }
+
+
+    public int workerCount() {
+        return workers.length;
+    }
+
+
+    // Stops accepting work; queued tasks still run
+    public void shutdown() {
+        synchronized (stateLock) {
+            shutdown = true;
+        }
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Worker worker : workers) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedJoin(worker.thread, remaining);
+            if (worker.thread.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
+
+
+// ============================================
+// EXAMPLE 2: LOAD TEST - QUEUE LATENCY PER PRIORITY
+// ============================================
+
+class PrioritySchedulerBenchmark {
+
+    // Stand-in for a short CPU-bound task
+    static long spin(long nanos) {
+        long end = System.nanoTime() + nanos;
+        long x = 0;
+        while (System.nanoTime() < end) {
+            x++;
+        }
+        return x;
+    }
+
+
+    static TaskPriority pick(Random random) {
+        int r = random.nextInt(100);
+        return r < 10 ? TaskPriority.HIGH : r < 40 ? TaskPriority.NORMAL : TaskPriority.LOW;
+    }
+
+
+    // Paced producer: offers tasks at loadFactor x the pool's capacity
+    static void offer(int tasks, long taskNanos, int workers, double loadFactor,
+                      java.util.function.BiConsumer<Runnable, TaskPriority> submit) {
+        long intervalNanos = (long) (taskNanos / workers / loadFactor);
+        Random random = new Random(11);
+        long next = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            while (System.nanoTime() < next) {
+                Thread.onSpinWait();
+            }
+            submit.accept(() -> spin(taskNanos), pick(random));
+            next += intervalNanos;
+        }
+    }
+
+
+    // Baseline: one shared FIFO queue, priority only as Thread.setPriority on its workers
+    static Map<TaskPriority, LatencyRecorder> fifoPool(int tasks, long taskNanos, int workers, double loadFactor)
+            throws InterruptedException {
+        Map<TaskPriority, LatencyRecorder> latency = new EnumMap<>(TaskPriority.class);
+        for (TaskPriority priority : TaskPriority.values()) {
+            latency.put(priority, new LatencyRecorder(tasks));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        offer(tasks, taskNanos, workers, loadFactor, (task, priority) -> {
+            long submitted = System.nanoTime();
+            pool.execute(() -> {
+                latency.get(priority).record(System.nanoTime() - submitted);
+                Thread.currentThread().setPriority(
+                    priority == TaskPriority.HIGH ? Thread.MAX_PRIORITY
+                        : priority == TaskPriority.LOW ? Thread.MIN_PRIORITY : Thread.NORM_PRIORITY);
+                task.run();
+            });
+        });
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        return latency;
+    }
+
+
+    public void compare(int tasks, long taskMicros, int workers, double loadFactor, long starvationMillis)
+            throws InterruptedException {
+        long taskNanos = TimeUnit.MICROSECONDS.toNanos(taskMicros);
+        System.out.println("\n=== Queue Latency per Priority under Load ===");
+        System.out.printf("%,d tasks of %d us, %d workers, offered load %.0f%% of capacity%n",
+            tasks, taskMicros, workers, loadFactor * 100);
+        System.out.println("Mix: 10% HIGH, 30% NORMAL, 60% LOW");
+        System.out.println();
+
+        System.out.printf("%-28s %-7s %8s %12s %12s %12s%n", "Scheduler", "Lane", "tasks", "p50 us", "p99 us", "max us");
+
+        Map<TaskPriority, LatencyRecorder> fifo = fifoPool(tasks, taskNanos, workers, loadFactor);
+        for (TaskPriority priority : TaskPriority.values()) {
+            long[] p = fifo.get(priority).percentiles(50, 99, 100);
+            System.out.printf("%-28s %-7s %8d %12.1f %12.1f %12.1f%n", "FIFO pool + setPriority",
+                priority, fifo.get(priority).count(), p[0] / 1e3, p[1] / 1e3, p[2] / 1e3);
+        }
+
+        runScheduler("Priority lanes (strict)", 0, tasks, taskNanos, workers, loadFactor);
+        if (starvationMillis > 0) {
+            runScheduler("Priority lanes (aging " + starvationMillis + "ms)",
+                TimeUnit.MILLISECONDS.toNanos(starvationMillis), tasks, taskNanos, workers, loadFactor);
+        }
+        System.out.println();
+    }
+
+
+    private void runScheduler(String label, long starvationNanos, int tasks, long taskNanos,
+                              int workers, double loadFactor) throws InterruptedException {
+        PriorityScheduler scheduler = new PriorityScheduler(workers, starvationNanos, "bench");
+        offer(tasks, taskNanos, workers, loadFactor, scheduler::submit);
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.MINUTES);
+
+        for (TaskPriority priority : TaskPriority.values()) {
+            LogHistogram h = scheduler.queueLatency(priority);
+            System.out.printf("%-28s %-7s %8d %12.1f %12.1f %12.1f%n", label, priority, h.getTotalCount(),
+                h.valueAtPercentile(50) / 1e3, h.valueAtPercentile(99) / 1e3, h.valueAtPercentile(100) / 1e3);
+        }
+        System.out.println("  steals: " + scheduler.stealCount());
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit6_PriorityScheduler {
+
+    public static void main(String[] args) throws Exception {
+
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        long taskMicros = args.length > 1 ? Long.parseLong(args[1]) : 50;
+        double loadFactor = args.length > 2 ? Double.parseDouble(args[2]) : 1.1;
+        // Leave a core for the load generator
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 6 (EXTRA): PRIORITY SCHEDULER");
+        System.out.println("=".repeat(70));
+
+
+        // ========== EXAMPLE 1: threadPriority() THAT ACTUALLY WORKS ==========
+        System.out.println("\nEXAMPLE 1: threadPriority() with priority lanes");
+        System.out.println("-".repeat(70));
+
+        threadPriorityScheduled();
+
+
+        // ========== EXAMPLE 2: LOAD TEST ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Load Test");
+        System.out.println("-".repeat(70));
+
+        new PrioritySchedulerBenchmark().compare(tasks, taskMicros, workers, loadFactor, 20);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("PRIORITY SCHEDULER SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  setPriority     : A hint the OS may ignore - FIFO queue decides the order");
+        System.out.println("  Priority lanes  : Workers always drain HIGH before NORMAL before LOW");
+        System.out.println("  Work stealing   : Per-worker deques, idle workers steal from the back");
+        System.out.println("  Overload        : HIGH stays fast, LOW absorbs the queueing delay");
+        System.out.println("  Aging           : Bounds how long LOW can starve");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // ThreadCreationExample Method 4b: threadPriority() decided by priority lanes (run by Unit6_Multithreading too)
+    static void threadPriorityScheduled() {
+        System.out.println("\n=== Thread Priority with Priority Lanes ===");
+        System.out.println("One worker, busy; LOW is queued before HIGH");
+        System.out.println();
+
+        PriorityScheduler scheduler = new PriorityScheduler(1);
+
+        // Same MIN/MAX constants as threadPriority(), mapped onto lanes
+        TaskPriority lowLane = TaskPriority.fromThreadPriority(Thread.MIN_PRIORITY);
+        TaskPriority highLane = TaskPriority.fromThreadPriority(Thread.MAX_PRIORITY);
+
+        // Each task takes the next number when it finishes, so the order printed is the real one
+        AtomicInteger finished = new AtomicInteger();
+        AtomicInteger lowOrder = new AtomicInteger();
+        AtomicInteger highOrder = new AtomicInteger();
+        MyRunnable lowTask = new MyRunnable("Low priority task", 1);
+        MyCallable highTask = new MyCallable("High priority task", 2);
+
+        Future<?> busy = scheduler.submit(new MyRunnable("Busy", 1), TaskPriority.NORMAL);
+        Future<?> low = scheduler.submit(() -> {
+            lowTask.run();
+            lowOrder.set(finished.incrementAndGet());
+        }, lowLane);
+        Future<Integer> high = scheduler.submit(() -> {
+            try {
+                return highTask.call();
+            } finally {
+                highOrder.set(finished.incrementAndGet());
+            }
+        }, highLane);
+
+        try {
+            busy.get();
+            low.get();
+            System.out.println("High priority result: " + high.get());
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+
+        scheduler.shutdown();
+        System.out.println("Finished: High #" + highOrder.get() + ", Low #" + lowOrder.get());
+        if (highOrder.get() < lowOrder.get()) {
+            System.out.println("High ran before Low even though Low was submitted first");
+        } else {
+            System.out.println("Low finished first - the worker reached it before High was queued");
+        }
+        System.out.println();
+    }
+}
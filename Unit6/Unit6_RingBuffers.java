@@ -0,0 +1,609 @@
+/*
+ * UNIT 6 (EXTRA): LOCK-FREE RING BUFFERS
+ *
+ * SharedBuffer is the textbook producer-consumer: LinkedList + synchronized + wait/notify.
+ * Great for learning, terrible for throughput - every item is a new node AND a boxed Integer. 📦
+ *
+ * THEORY:
+ *
+ * RING BUFFER: Fixed-size array used in a circle.
+ * - tail = next slot to write, head = next slot to read
+ * - index = sequence & (capacity - 1)   (capacity is a power of 2)
+ * - Full when tail - head == capacity, empty when tail == head
+ * - Preallocated int[] -> no allocation, no boxing per item
+ *
+ * SPSC (Single Producer, Single Consumer):
+ * - Only one thread writes tail, only one writes head
+ * - No CAS needed, just ordered stores (lazySet) and volatile reads
+ *
+ * MPMC (Multi Producer, Multi Consumer):
+ * - Every slot carries a sequence number (Vyukov bounded queue)
+ * - Producers/consumers claim a position with CAS, then use the slot's sequence
+ *   to know when it is safe to write/read
+ *
+ * WAIT STRATEGIES (what to do when full/empty):
+ * - Busy spin   : Lowest latency, burns a core
+ * - Spin-then-park : Spin a little, yield a little, then park for a few micros
+ *
+ * BATCHING:
+ * - produceAll() / drainTo() move many items per coordination step
+ */
+
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+
+// ============================================
+// EXAMPLE 1: WAIT STRATEGIES
+// ============================================
+
+// WaitStrategy and SpinThenParkWait: WaitStrategy.java
+
+
+// ============================================
+// EXAMPLE 2: RING BUFFER INTERFACE AND IMPLEMENTATIONS
+// ============================================
+
+interface IntRingBuffer {
+    int capacity();
+
+    int size();
+
+    // Non-blocking: false if full
+    boolean offer(int item);
+
+    // Blocking (waits using the buffer's WaitStrategy)
+    void produce(int item) throws InterruptedException;
+
+    int consume() throws InterruptedException;
+
+    // Writes every item, waiting for space as needed
+    void produceAll(int[] items, int offset, int length) throws InterruptedException;
+
+    // Waits for at least one item, then moves up to max items into dest; returns count
+    int drainTo(int[] dest, int max) throws InterruptedException;
+}
+
+
+// A long value alone on its cache line(s), so head and tail don't false-share
+class PaddedSequence {
+    long p1, p2, p3, p4, p5, p6, p7;
+    volatile long value;
+    long q1, q2, q3, q4, q5, q6, q7;
+
+    private static final AtomicLongFieldUpdater<PaddedSequence> VALUE =
+        AtomicLongFieldUpdater.newUpdater(PaddedSequence.class, "value");
+
+    void lazySet(long v) {
+        VALUE.lazySet(this, v);
+    }
+
+    boolean compareAndSet(long expect, long update) {
+        return VALUE.compareAndSet(this, expect, update);
+    }
+}
+
+
+// Single producer, single consumer
+class SpscIntRingBuffer implements IntRingBuffer {
+    static final long EMPTY = Long.MIN_VALUE;
+
+    private final int[] buffer;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+
+    private final PaddedSequence head = new PaddedSequence();  // Written by consumer only
+    private final PaddedSequence tail = new PaddedSequence();  // Written by producer only
+
+    // Each side caches the other side's index to avoid reading a contended line every time
+    private long cachedHead;   // Producer's view
+    private long cachedTail;   // Consumer's view
+
+    public SpscIntRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of 2: " + capacity);
+        }
+        this.buffer = new int[capacity];
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public int size() {
+        return (int) (tail.value - head.value);
+    }
+
+    @Override
+    public boolean offer(int item) {
+        long t = tail.value;
+        if (t - cachedHead == buffer.length) {
+            cachedHead = head.value;
+            if (t - cachedHead == buffer.length) {
+                return false;  // Really full
+            }
+        }
+        buffer[(int) t & mask] = item;
+        tail.lazySet(t + 1);  // Publish after the write
+        return true;
+    }
+
+    // Returns the item widened to long, or EMPTY (no int can equal it)
+    private long poll() {
+        long h = head.value;
+        if (h == cachedTail) {
+            cachedTail = tail.value;
+            if (h == cachedTail) {
+                return EMPTY;  // Really empty
+            }
+        }
+        int item = buffer[(int) h & mask];
+        head.lazySet(h + 1);
+        return item;
+    }
+
+    @Override
+    public void produce(int item) throws InterruptedException {
+        int attempt = 0;
+        while (!offer(item)) {
+            checkInterrupt();
+            waitStrategy.idle(attempt++);
+        }
+    }
+
+    @Override
+    public int consume() throws InterruptedException {
+        long item;
+        int attempt = 0;
+        while ((item = poll()) == EMPTY) {
+            checkInterrupt();
+            waitStrategy.idle(attempt++);
+        }
+        return (int) item;
+    }
+
+    @Override
+    public void produceAll(int[] items, int offset, int length) throws InterruptedException {
+        int written = 0;
+        int attempt = 0;
+
+        while (written < length) {
+            long t = tail.value;
+            long free = buffer.length - (t - cachedHead);
+            if (free == 0) {
+                cachedHead = head.value;
+                free = buffer.length - (t - cachedHead);
+            }
+            if (free == 0) {
+                checkInterrupt();
+                waitStrategy.idle(attempt++);
+                continue;
+            }
+
+            int n = (int) Math.min(free, length - written);
+            for (int i = 0; i < n; i++) {
+                buffer[(int) (t + i) & mask] = items[offset + written + i];
+            }
+            tail.lazySet(t + n);  // One publish for the whole batch
+            written += n;
+            attempt = 0;
+        }
+    }
+
+    @Override
+    public int drainTo(int[] dest, int max) throws InterruptedException {
+        int attempt = 0;
+        while (true) {
+            long h = head.value;
+            if (h == cachedTail) {
+                cachedTail = tail.value;
+            }
+            int n = (int) Math.min(cachedTail - h, Math.min(max, dest.length));
+            if (n > 0) {
+                for (int i = 0; i < n; i++) {
+                    dest[i] = buffer[(int) (h + i) & mask];
+                }
+                head.lazySet(h + n);
+                return n;
+            }
+            checkInterrupt();
+            waitStrategy.idle(attempt++);
+        }
+    }
+
+    static void checkInterrupt() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+}
+
+
+// Multi producer, multi consumer (Dmitry Vyukov's bounded queue, int[] payload)
+class MpmcIntRingBuffer implements IntRingBuffer {
+    private final int[] buffer;
+    private final AtomicLongArray sequences;  // sequence == pos: free, pos + 1: full
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+
+    private final PaddedSequence head = new PaddedSequence();
+    private final PaddedSequence tail = new PaddedSequence();
+
+    public MpmcIntRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of 2 (>= 2): " + capacity);
+        }
+        this.buffer = new int[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.max(0, Math.min(buffer.length, tail.value - head.value));
+    }
+
+    @Override
+    public boolean offer(int item) {
+        while (true) {
+            long pos = tail.value;
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {  // Claim the slot
+                    buffer[index] = item;
+                    sequences.lazySet(index, pos + 1);   // Mark full
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;  // Slot still holds last lap's item -> full
+            }
+            // diff > 0: another producer got there first, reload tail
+        }
+    }
+
+    // Returns the item widened to long, or EMPTY
+    private long poll() {
+        while (true) {
+            long pos = head.value;
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - (pos + 1);
+
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    int item = buffer[index];
+                    sequences.lazySet(index, pos + buffer.length);  // Free for next lap
+                    return item;
+                }
+            } else if (diff < 0) {
+                return SpscIntRingBuffer.EMPTY;
+            }
+        }
+    }
+
+    @Override
+    public void produce(int item) throws InterruptedException {
+        int attempt = 0;
+        while (!offer(item)) {
+            SpscIntRingBuffer.checkInterrupt();
+            waitStrategy.idle(attempt++);
+        }
+    }
+
+    @Override
+    public int consume() throws InterruptedException {
+        long item;
+        int attempt = 0;
+        while ((item = poll()) == SpscIntRingBuffer.EMPTY) {
+            SpscIntRingBuffer.checkInterrupt();
+            waitStrategy.idle(attempt++);
+        }
+        return (int) item;
+    }
+
+    @Override
+    public void produceAll(int[] items, int offset, int length) throws InterruptedException {
+        int attempt = 0;
+        for (int i = 0; i < length; ) {
+            if (offer(items[offset + i])) {
+                i++;
+                attempt = 0;
+            } else {
+                SpscIntRingBuffer.checkInterrupt();
+                waitStrategy.idle(attempt++);
+            }
+        }
+    }
+
+    @Override
+    public int drainTo(int[] dest, int max) throws InterruptedException {
+        int limit = Math.min(max, dest.length);
+        int attempt = 0;
+        while (true) {
+            int n = 0;
+            long item;
+            while (n < limit && (item = poll()) != SpscIntRingBuffer.EMPTY) {
+                dest[n++] = (int) item;
+            }
+            if (n > 0) {
+                return n;
+            }
+            SpscIntRingBuffer.checkInterrupt();
+            waitStrategy.idle(attempt++);
+        }
+    }
+}
+
+
+// ============================================
+// EXAMPLE 3: THROUGHPUT BENCHMARK
+// ============================================
+
+class RingBufferBenchmark {
+
+    // Moves items from producers to consumers, returns items per second
+    static double run(IntRingBuffer ring, int producers, int consumers, int items, int batch)
+            throws InterruptedException {
+        int perProducer = items / producers;
+        int total = perProducer * producers;
+        AtomicLong consumed = new AtomicLong();
+        AtomicLong checksum = new AtomicLong();
+
+        Thread[] threads = new Thread[producers + consumers];
+
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> {
+                int[] chunk = new int[batch];
+                try {
+                    for (int sent = 0; sent < perProducer; ) {
+                        int n = Math.min(batch, perProducer - sent);
+                        for (int i = 0; i < n; i++) {
+                            chunk[i] = sent + i;
+                        }
+                        if (batch == 1) {
+                            ring.produce(chunk[0]);
+                        } else {
+                            ring.produceAll(chunk, 0, n);
+                        }
+                        sent += n;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        for (int c = 0; c < consumers; c++) {
+            threads[producers + c] = new Thread(() -> {
+                int[] chunk = new int[batch];
+                long localSum = 0;
+                try {
+                    while (consumed.get() < total) {
+                        int n;
+                        if (batch == 1) {
+                            chunk[0] = ring.consume();
+                            n = 1;
+                        } else {
+                            n = ring.drainTo(chunk, batch);
+                        }
+                        for (int i = 0; i < n; i++) {
+                            localSum += chunk[i];
+                        }
+                        if (consumed.addAndGet(n) >= total) {
+                            break;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    // Released by the coordinator once everything is consumed
+                }
+                checksum.addAndGet(localSum);
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (int p = 0; p < producers; p++) {
+            threads[p].join();
+        }
+        // Consumers may still be waiting on an empty ring once the count is reached
+        while (consumed.get() < total) {
+            Thread.sleep(1);
+        }
+        long elapsed = System.nanoTime() - start;
+        for (int c = 0; c < consumers; c++) {
+            threads[producers + c].interrupt();
+            threads[producers + c].join();
+        }
+
+        long expected = (long) producers * ((long) perProducer * (perProducer - 1) / 2);
+        if (checksum.get() != expected) {
+            System.out.println("  WARNING: checksum mismatch " + checksum.get() + " != " + expected);
+        }
+        return total * 1e9 / elapsed;
+    }
+
+
+    // The original SharedBuffer, with its per-item println sent to a null stream
+    static double runSharedBuffer(int items) throws InterruptedException {
+        SharedBuffer buffer = new SharedBuffer(1024, new PrintStream(OutputStream.nullOutputStream()));
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < items; i++) {
+                    buffer.produce(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread consumer = new Thread(() -> {
+            try {
+                for (int i = 0; i < items; i++) {
+                    buffer.consume();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        long start = System.nanoTime();
+        producer.start();
+        consumer.start();
+        producer.join();
+        consumer.join();
+        return items * 1e9 / (System.nanoTime() - start);
+    }
+
+
+    public void throughput(int items) throws InterruptedException {
+        System.out.println("\n=== Ring Buffer Throughput ===");
+        System.out.println("Items: " + items + ", capacity: 1024");
+        System.out.println();
+
+        WaitStrategy spin = WaitStrategy.busySpin();
+        WaitStrategy park = WaitStrategy.spinThenPark(100, 10, 10_000);
+
+        // Warmup
+        run(new SpscIntRingBuffer(1024, park), 1, 1, items, 64);
+        run(new MpmcIntRingBuffer(1024, park), 2, 2, items, 64);
+
+        System.out.printf("%-42s %15s%n", "Configuration", "items/sec");
+        System.out.printf("%-42s %,15.0f%n", "SharedBuffer (wait/notify, 1P/1C)",
+            runSharedBuffer(Math.min(items, 200_000)));
+        System.out.printf("%-42s %,15.0f%n", "SPSC spin-then-park, single item",
+            run(new SpscIntRingBuffer(1024, park), 1, 1, items, 1));
+        System.out.printf("%-42s %,15.0f%n", "SPSC spin-then-park, batch 64",
+            run(new SpscIntRingBuffer(1024, park), 1, 1, items, 64));
+        System.out.printf("%-42s %,15.0f%n", "SPSC busy spin, batch 64",
+            run(new SpscIntRingBuffer(1024, spin), 1, 1, items, 64));
+        System.out.printf("%-42s %,15.0f%n", "MPMC spin-then-park, 2P/2C, single item",
+            run(new MpmcIntRingBuffer(1024, park), 2, 2, items, 1));
+        System.out.printf("%-42s %,15.0f%n", "MPMC spin-then-park, 4P/4C, batch 64",
+            run(new MpmcIntRingBuffer(1024, park), 4, 4, items, 64));
+        System.out.println();
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit6_RingBuffers {
+
+    public static void main(String[] args) throws Exception {
+
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 6 (EXTRA): LOCK-FREE RING BUFFERS");
+        System.out.println("=".repeat(70));
+
+
+        // ========== EXAMPLE 1: SAME SHAPE AS producerConsumer() ==========
+        System.out.println("\nEXAMPLE 1: Producer-Consumer on a Ring Buffer");
+        System.out.println("-".repeat(70));
+
+        producerConsumerRingBuffer();
+
+
+        // ========== EXAMPLE 2: BENCHMARK ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Throughput Benchmark");
+        System.out.println("-".repeat(70));
+
+        new RingBufferBenchmark().throughput(items);
+
+
+        // ========== SUMMARY ==========
+        System.out.println("=".repeat(70));
+        System.out.println("RING BUFFER SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  SharedBuffer : Node + boxed Integer per item, one lock, notify() wakes one");
+        System.out.println("  SPSC         : Plain int[] slots, lazySet publishes, no CAS at all");
+        System.out.println("  MPMC         : CAS to claim a position, per-slot sequence numbers");
+        System.out.println("  Batching     : produceAll/drainTo pay coordination once per chunk");
+        System.out.println("  Waiting      : Spin first, then yield, then park - no lost wake-ups");
+        System.out.println("=".repeat(70));
+    }
+
+
+    // InterThreadCommunicationExample Method 1b: producerConsumer() on a ring buffer (run by Unit6_Multithreading too)
+    static void producerConsumerRingBuffer() {
+        System.out.println("\n=== Producer-Consumer (Lock-Free Ring Buffer) ===");
+        System.out.println("Preallocated int[] slots, no wait()/notify(), batched hand-off");
+        System.out.println();
+
+        int items = 1_000_000;
+        IntRingBuffer buffer = new SpscIntRingBuffer(1024, WaitStrategy.spinThenPark(100, 10, 10_000));
+        long[] consumedSum = new long[1];
+
+        // Producer thread - writes 256 items per produceAll()
+        Thread producer = new Thread(() -> {
+            int[] chunk = new int[256];
+            try {
+                for (int i = 1; i <= items; i += chunk.length) {
+                    int n = Math.min(chunk.length, items - i + 1);
+                    for (int j = 0; j < n; j++) {
+                        chunk[j] = i + j;
+                    }
+                    buffer.produceAll(chunk, 0, n);
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        });
+
+        // Consumer thread - takes whatever is available per drainTo()
+        Thread consumer = new Thread(() -> {
+            int[] chunk = new int[256];
+            try {
+                int received = 0;
+                while (received < items) {
+                    int n = buffer.drainTo(chunk, chunk.length);
+                    for (int j = 0; j < n; j++) {
+                        consumedSum[0] += chunk[j];
+                    }
+                    received += n;
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        });
+
+        long startTime = System.nanoTime();
+        producer.start();
+        consumer.start();
+
+        try {
+            producer.join();
+            consumer.join();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        System.out.println("Items moved: " + items + " in " + elapsed / 1000000.0 + " ms");
+        System.out.printf("Throughput: %,.0f items/sec%n", items * 1e9 / elapsed);
+        System.out.println("Sum check: " + consumedSum[0] + " (expected " + (long) items * (items + 1) / 2 + ")");
+        System.out.println();
+    }
+}
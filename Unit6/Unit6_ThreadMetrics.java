@@ -0,0 +1,187 @@
+/*
+ * UNIT 6 (EXTRA): THREAD METRICS - STATE TIMES, CPU TIME, HISTOGRAMS
+ *
+ * threadLifecycle() prints getState() a couple of times and calls it a day.
+ * A snapshot tells you where a thread IS, not where it SPENT its life. ⏱️
+ *
+ * THEORY:
+ *
+ * SAMPLING: A background thread looks at every tracked worker every few ms
+ * and charges the elapsed time to the state it sees:
+ *   RUNNABLE | BLOCKED (waiting for a monitor) | WAITING | TIMED_WAITING
+ * More samples = more accurate, at a small cost per sample.
+ *
+ * WHICH THREADS:
+ * - newThread() / factory() : Threads (and pool workers) created through the registry
+ * - watchAllThreads()       : Every thread started afterwards, however it was created -
+ *                             this is how Unit6_Multithreading's own threads get measured
+ *
+ * ThreadMXBean:
+ * - getCurrentThreadCpuTime() : Nanoseconds of CPU actually used by this thread
+ * - ThreadInfo.getBlockedCount() / getWaitedCount() : How often it hit contention
+ * Registry threads read these themselves right before they end (a dead thread has none);
+ * watched threads are read on every sample, so the last value is at most one tick old.
+ *
+ * HISTOGRAMS (HdrHistogram style):
+ * - Buckets grow by powers of 2, each split into 128 linear sub-buckets
+ * - Fixed memory, <1% value error, cheap percentile queries
+ * - Dumped as a percentile distribution (Value / Percentile / TotalCount)
+ */
+
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+
+// ============================================
+// EXAMPLE 1: LOG-LINEAR HISTOGRAM
+// ============================================
+
+// LogHistogram: LogHistogram.java
+
+
+// ============================================
+// EXAMPLE 2: THREAD METRICS REGISTRY AND SAMPLER
+// ============================================
+
+// Registry and sampler: ThreadMetrics.java
+
+
+// ============================================
+// EXAMPLE 3: WORKLOADS FROM THE UNIT 6 EXAMPLES
+// ============================================
+
+class ThreadMetricsExample {
+
+    public void mixedWorkload(ThreadMetrics metrics, int threadsPerKind) throws InterruptedException {
+        System.out.println("\n=== Instrumented Workers ===");
+        System.out.println(threadsPerKind + " threads each: CPU-bound, sleeping, contended, waiting");
+        System.out.println();
+
+        List<Thread> threads = new ArrayList<>();
+        SafeCounter counter = new SafeCounter();
+        CountDownLatch gate = new CountDownLatch(1);
+
+        for (int i = 0; i < threadsPerKind; i++) {
+            // RUNNABLE: busy loop
+            threads.add(metrics.newThread(() -> {
+                long x = 0;
+                for (int j = 0; j < 50_000_000; j++) {
+                    x += j ^ (x >>> 3);
+                }
+                if (x == 42) System.out.print("");
+            }, "Cpu-" + i));
+
+            // TIMED_WAITING: two 300 ms steps, like MyRunnable("Sleeper", 2) without the printing
+            threads.add(metrics.newThread(() -> {
+                try {
+                    for (int step = 0; step < 2; step++) {
+                        Thread.sleep(300);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "Sleeper-" + i));
+
+            // BLOCKED: everyone fights over SafeCounter's monitor
+            threads.add(metrics.newThread(() -> {
+                for (int j = 0; j < 2_000_000; j++) {
+                    counter.increment();
+                }
+            }, "Contended-" + i));
+
+            // WAITING: parked on a latch until the main thread opens it
+            threads.add(metrics.newThread(() -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "Waiter-" + i));
+        }
+
+        for (Thread t : threads) t.start();
+        Thread.sleep(500);
+        gate.countDown();
+        for (Thread t : threads) t.join();
+
+        Thread.sleep(50);  // Let the sampler see the TERMINATED states
+        System.out.println("SafeCounter total: " + counter.getCount());
+        System.out.println();
+    }
+}
+
+
+// ============================================
+// MAIN CLASS
+// ============================================
+
+public class Unit6_ThreadMetrics {
+
+    public static void main(String[] args) throws Exception {
+
+        int threadsPerKind = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        File output = new File(args.length > 1 ? args[1] : "thread_metrics.hgrm");
+
+        System.out.println("=".repeat(70));
+        System.out.println("UNIT 6 (EXTRA): THREAD METRICS");
+        System.out.println("=".repeat(70));
+
+        ThreadMetrics metrics = new ThreadMetrics(2);
+        metrics.dumpOnShutdown(output);
+
+
+        // ========== EXAMPLE 1: threadLifecycle() WITH METRICS ==========
+        System.out.println("\nEXAMPLE 1: threadLifecycle(), measured");
+        System.out.println("-".repeat(70));
+
+        // The lesson's own threadLifecycle(): a plain new Thread(...), found by watchAllThreads()
+        metrics.watchAllThreads();
+        Unit6_Multithreading.threadLifecycle();
+        Thread.sleep(20);  // One more sampler tick to record TERMINATED
+        System.out.printf("Time TIMED_WAITING: %.1f ms (5 x sleep(300))%n",
+            metrics.stateHistogram(Thread.State.TIMED_WAITING).getMean() / 1e6);
+        System.out.printf("Time RUNNABLE: %.1f ms%n",
+            metrics.stateHistogram(Thread.State.RUNNABLE).getMean() / 1e6);
+        System.out.println();
+
+
+        // ========== EXAMPLE 2: MIXED WORKLOAD ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("EXAMPLE 2: Where did the threads spend their time?");
+        System.out.println("-".repeat(70));
+
+        new ThreadMetricsExample().mixedWorkload(metrics, threadsPerKind);
+
+        // Pool threads are tracked too, through the pool's ThreadFactory
+        ExecutorService pool = Executors.newFixedThreadPool(4, metrics.factory("Pool"));
+        // MyCallable("Pooled", 2) without the printing: workers must not touch System.out
+        for (int i = 0; i < 20; i++) {
+            pool.submit(() -> {
+                int sum = 0;
+                for (int step = 1; step <= 2; step++) {
+                    sum += step;
+                    Thread.sleep(100);
+                }
+                return sum;
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        Thread.sleep(50);
+
+        metrics.printSummary(System.out);
+        System.out.println("\nHistograms are written to " + output.getAbsolutePath() + " at shutdown");
+
+
+        // ========== SUMMARY ==========
+        System.out.println("\n" + "=".repeat(70));
+        System.out.println("THREAD METRICS SUMMARY");
+        System.out.println("=".repeat(70));
+        System.out.println("  State sampling : Time per RUNNABLE/BLOCKED/WAITING/TIMED_WAITING");
+        System.out.println("  ThreadMXBean   : Real CPU time and contention counts per thread");
+        System.out.println("  Histograms     : Log-linear buckets, percentiles, dumped at exit");
+        System.out.println("=".repeat(70));
+    }
+}
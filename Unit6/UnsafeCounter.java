@@ -0,0 +1,18 @@
+/*
+ * UNIT 6: MULTITHREADING - UnsafeCounter
+ *
+ * The race-condition counter from Example 2 of Unit6_Multithreading.java.
+ */
+
+// Shared resource WITHOUT synchronization (thread-unsafe)
+class UnsafeCounter {
+    private int count = 0;
+    
+    public void increment() {
+        count++;  // Not atomic: read -> increment -> write
+    }
+    
+    public int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * UNIT 6 (EXTRA): WAIT STRATEGIES
+ *
+ * What a producer, consumer or idle worker does when it finds no progress.
+ * Shared by Unit6_RingBuffers and Unit6_PriorityScheduler, so it lives in its
+ * own file instead of inside either of them.
+ *
+ * - Busy spin      : Lowest latency, burns a core
+ * - Spin-then-park : Spin a little, yield a little, then park for a few micros
+ */
+
+
+import java.util.concurrent.locks.LockSupport;
+
+
+interface WaitStrategy {
+    // Called each time a producer/consumer finds no progress; attempt starts at 0
+    void idle(int attempt);
+
+    static WaitStrategy busySpin() {
+        return attempt -> Thread.onSpinWait();
+    }
+
+    static WaitStrategy spinThenPark(int spins, int yields, long parkNanos) {
+        return new SpinThenParkWait(spins, yields, parkNanos);
+    }
+}
+
+
+class SpinThenParkWait implements WaitStrategy {
+    private final int spins;
+    private final int yields;
+    private final long parkNanos;
+
+    public SpinThenParkWait(int spins, int yields, long parkNanos) {
+        this.spins = spins;
+        this.yields = yields;
+        this.parkNanos = parkNanos;
+    }
+
+    @Override
+    public void idle(int attempt) {
+        if (attempt < spins) {
+            Thread.onSpinWait();           // Stage 1: stay on CPU
+        } else if (attempt < spins + yields) {
+            Thread.yield();                // Stage 2: let others run
+        } else {
+            LockSupport.parkNanos(parkNanos);  // Stage 3: sleep briefly
+        }
+    }
+}